@@ -0,0 +1,195 @@
+package io.github.plemont.ranges;
+
+import com.google.api.services.sheets.v4.model.GridRange;
+import java.util.Random;
+
+/**
+ * Generates deterministic corpora of range inputs for the benchmarks.
+ *
+ * <p>The mix of sheet names, shapes and coordinates is modelled on the ranges returned by
+ * {@code spreadsheets.values.batchGet}: mostly bounded ranges over the first few dozen columns and
+ * first few thousand rows, with a tail of wide and deep ranges. Each corpus holds
+ * {@link #SIZE} entries, so that benchmarks cycle through varied input rather than repeatedly
+ * converting a single, perfectly-predicted value.
+ */
+final class BenchmarkCorpus {
+  /** Number of entries in each corpus. Must be a power of two, see {@link #MASK}. */
+  static final int SIZE = 1024;
+
+  /** Mask for cycling an index through a corpus. */
+  static final int MASK = SIZE - 1;
+
+  private static final long SEED = 0x5EED5EEDL;
+
+  private static final String[] PLAIN_NAMES = {
+      "Sheet1", "Data", "Summary", "Export2018", "Raw", "Q3", "Accounts", "Inventory"
+  };
+
+  private static final String[] QUOTED_NAMES = {
+      "Q3 Sales", "Brian's Sheet", "2018 Budget - Draft", "Today's report", "Data (imported)",
+      "P&L", "Regional Sales, EMEA", "Customers' Orders"
+  };
+
+  /** The shapes of range exercised by the benchmarks. */
+  enum Shape {
+    /** A rectangular range, e.g. {@code Data!B2:F300}. */
+    BOUNDED,
+    /** A range of whole columns, optionally anchored at a row, e.g. {@code Data!A:F}. */
+    UNBOUNDED_ROWS,
+    /** A range of whole rows, optionally anchored at a column, e.g. {@code Data!2:40}. */
+    UNBOUNDED_COLUMNS,
+    /** A single cell, e.g. {@code Data!C7}. */
+    SINGLE_CELL
+  }
+
+  private BenchmarkCorpus() {}
+
+  /**
+   * Creates range strings with a realistic mix of shapes.
+   *
+   * @param quoted Whether to use sheet names which require quoting.
+   * @return the range strings.
+   */
+  static String[] mixedRanges(boolean quoted) {
+    Random random = new Random(SEED);
+    String[] ranges = new String[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      int p = random.nextInt(100);
+      Shape shape = p < 60 ? Shape.BOUNDED
+          : p < 75 ? Shape.SINGLE_CELL
+          : p < 90 ? Shape.UNBOUNDED_ROWS
+          : Shape.UNBOUNDED_COLUMNS;
+      ranges[i] = context(random, quoted, shape).toRange();
+    }
+    return ranges;
+  }
+
+  /**
+   * Creates range strings as per {@link #mixedRanges(boolean)}, of which roughly a third are
+   * malformed by a trailing character which is only found once the range has been scanned.
+   *
+   * @param quoted Whether to use sheet names which require quoting.
+   * @return the range strings.
+   */
+  static String[] partlyMalformedRanges(boolean quoted) {
+    Random random = new Random(SEED + 1);
+    String[] ranges = mixedRanges(quoted);
+    for (int i = 0; i < SIZE; i++) {
+      if (random.nextInt(3) == 0) {
+        ranges[i] += "x";
+      }
+    }
+    return ranges;
+  }
+
+  /**
+   * Creates range contexts, all of the same shape, with a mix of plain and quoted sheet names.
+   *
+   * @param shape The shape of range to create.
+   * @return the range contexts.
+   */
+  static Ranges.RangeContext[] contexts(Shape shape) {
+    Random random = new Random(SEED);
+    Ranges.RangeContext[] contexts = new Ranges.RangeContext[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      contexts[i] = context(random, random.nextInt(4) == 0, shape).withSheetId(i & 0xF);
+    }
+    return contexts;
+  }
+
+  /**
+   * Creates bounded {@code GridRange} objects.
+   *
+   * @return the grid ranges.
+   */
+  static GridRange[] gridRanges() {
+    Ranges.RangeContext[] contexts = contexts(Shape.BOUNDED);
+    GridRange[] gridRanges = new GridRange[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      gridRanges[i] = contexts[i].toGridRange();
+    }
+    return gridRanges;
+  }
+
+  /**
+   * Creates single cells in A1 notation, with columns of exactly the specified number of letters.
+   *
+   * @param columnLetters The number of letters in each column, from 1 to 3.
+   * @return the cells.
+   */
+  static String[] cells(int columnLetters) {
+    Random random = new Random(SEED);
+    int first = firstColumnWithLetters(columnLetters);
+    int count = firstColumnWithLetters(columnLetters + 1) - first;
+    String[] cells = new String[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      cells[i] = Ranges.forSheetName("Sheet1")
+          .withStartColumn(first + random.nextInt(count))
+          .withStartRow(row(random))
+          .withWidth(1)
+          .withHeight(1)
+          .toRange()
+          .substring("Sheet1!".length());
+    }
+    return cells;
+  }
+
+  /**
+   * Returns the zero-indexed first column whose A1 representation has the specified number of
+   * letters, e.g. {@code 26} (AA) for two letters.
+   */
+  static int firstColumnWithLetters(int letters) {
+    int first = 0;
+    int width = 1;
+    for (int i = 1; i < letters; i++) {
+      width *= 26;
+      first += width;
+    }
+    return first;
+  }
+
+  private static Ranges.RangeContext context(Random random, boolean quoted, Shape shape) {
+    String[] names = quoted ? QUOTED_NAMES : PLAIN_NAMES;
+    Ranges.RangeContext context = Ranges.forSheetName(names[random.nextInt(names.length)]);
+    int startColumn = column(random);
+    int startRow = row(random);
+    switch (shape) {
+      case BOUNDED:
+        return context.withStartColumn(startColumn).withStartRow(startRow)
+            .withWidth(1 + random.nextInt(26)).withHeight(1 + random.nextInt(5000));
+      case SINGLE_CELL:
+        return context.withStartColumn(startColumn).withStartRow(startRow)
+            .withWidth(1).withHeight(1);
+      case UNBOUNDED_ROWS:
+        context.withStartColumn(startColumn).withWidth(1 + random.nextInt(26));
+        return random.nextBoolean() ? context.withStartRow(startRow) : context;
+      case UNBOUNDED_COLUMNS:
+        context.withStartRow(startRow).withHeight(1 + random.nextInt(5000));
+        return random.nextBoolean() ? context.withStartColumn(startColumn) : context;
+      default:
+        throw new AssertionError(shape);
+    }
+  }
+
+  /** Mostly single-letter columns, with a tail of two and three letter columns. */
+  private static int column(Random random) {
+    int p = random.nextInt(100);
+    if (p < 80) {
+      return random.nextInt(26);
+    } else if (p < 98) {
+      return random.nextInt(702);
+    }
+    return random.nextInt(18278);
+  }
+
+  /** Mostly rows near the top of the sheet, with a tail reaching the millions. */
+  private static int row(Random random) {
+    int p = random.nextInt(100);
+    if (p < 70) {
+      return random.nextInt(1000);
+    } else if (p < 95) {
+      return random.nextInt(100000);
+    }
+    return random.nextInt(5000000);
+  }
+}
@@ -0,0 +1,33 @@
+package io.github.plemont.ranges;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler enabled, so that the normalized allocation rate
+ * ({@code gc.alloc.rate.norm}, bytes per operation) is reported alongside the timings.
+ *
+ * <p>Accepts the standard JMH command line options, for example to run only the parsing
+ * benchmarks:
+ *
+ * <pre>
+ * {@code
+ *    java -jar target/benchmarks.jar ForRange -rf json
+ * }
+ * </pre>
+ */
+public class BenchmarkMain {
+  // Private constructor to avoid instantiation.
+  private BenchmarkMain() {}
+
+  public static void main(String[] args) throws Exception {
+    Options options = new OptionsBuilder()
+        .parent(new CommandLineOptions(args))
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(options).run();
+  }
+}
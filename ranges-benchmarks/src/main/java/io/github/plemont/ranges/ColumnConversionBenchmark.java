@@ -0,0 +1,80 @@
+package io.github.plemont.ranges;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the conversion of columns between letters and indexes, through the public entry points
+ * that perform them: {@code withStartCell} for letters to index, and {@code toRange} on a single
+ * cell for index to letters. {@link ColumnCodec} is also measured directly.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ColumnConversionBenchmark {
+  @Param({"1", "2", "3"})
+  public int columnLetters;
+
+  private String[] cells;
+  private int[] columns;
+  private Ranges.RangeContext context;
+  private StringBuilder buffer;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    cells = BenchmarkCorpus.cells(columnLetters);
+    int first = BenchmarkCorpus.firstColumnWithLetters(columnLetters);
+    int count = BenchmarkCorpus.firstColumnWithLetters(columnLetters + 1) - first;
+    Random random = new Random(columnLetters);
+    columns = new int[BenchmarkCorpus.SIZE];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = first + random.nextInt(count);
+    }
+    context = Ranges.forSheetName("Sheet1").withStartRow(0).withHeight(1);
+    buffer = new StringBuilder();
+  }
+
+  @Benchmark
+  public void lettersToIndex(Blackhole blackhole) {
+    blackhole.consume(Ranges.forSheetName("Sheet1").withStartCell(cells[nextIndex()]));
+  }
+
+  @Benchmark
+  public String indexToLetters() {
+    int column = columns[nextIndex()];
+    return context.clearEndColumn().withStartColumn(column).withEndColumn(column).toRange();
+  }
+
+  @Benchmark
+  public StringBuilder codecAppendColumn() {
+    buffer.setLength(0);
+    return ColumnCodec.appendColumn(buffer, columns[nextIndex()]);
+  }
+
+  @Benchmark
+  public int codecDecode() {
+    String cell = cells[nextIndex()];
+    return ColumnCodec.decode(cell, 0, columnLetters);
+  }
+
+  private int nextIndex() {
+    next = (next + 1) & BenchmarkCorpus.MASK;
+    return next;
+  }
+}
@@ -0,0 +1,76 @@
+package io.github.plemont.ranges;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures parsing of range strings in A1 notation, for plain and quoted sheet names, and the
+ * cost of rejecting malformed input by exception and by error code.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ForRangeBenchmark {
+  @Param({"plain", "quoted"})
+  public String sheetNames;
+
+  private String[] ranges;
+  private String[] partlyMalformed;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    ranges = BenchmarkCorpus.mixedRanges("quoted".equals(sheetNames));
+    partlyMalformed = BenchmarkCorpus.partlyMalformedRanges("quoted".equals(sheetNames));
+  }
+
+  @Benchmark
+  public void forRange(Blackhole blackhole) {
+    blackhole.consume(Ranges.forRange(nextRange()));
+  }
+
+  @Benchmark
+  public Range parseValue() {
+    return Range.parse(nextRange());
+  }
+
+  @Benchmark
+  public ParseResult tryParse() {
+    return Ranges.tryParse(nextRange());
+  }
+
+  @Benchmark
+  public Range parseValuePartlyMalformed() {
+    next = (next + 1) & BenchmarkCorpus.MASK;
+    try {
+      return Range.parse(partlyMalformed[next]);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  @Benchmark
+  public ParseResult tryParsePartlyMalformed() {
+    next = (next + 1) & BenchmarkCorpus.MASK;
+    return Ranges.tryParse(partlyMalformed[next]);
+  }
+
+  private String nextRange() {
+    next = (next + 1) & BenchmarkCorpus.MASK;
+    return ranges[next];
+  }
+}
@@ -0,0 +1,36 @@
+package io.github.plemont.ranges;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Measures finding the references in a typical formula with a reused {@link FormulaTokenizer}. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FormulaTokenizerBenchmark {
+  private static final String FORMULA =
+      "=IF(ISBLANK(A2), \"n/a\", SUM('Q1 Data'!B2:B900)*Rates!$C$3 + VLOOKUP(A2, Lookup!A:D, 4))";
+
+  private final FormulaTokenizer tokenizer = FormulaTokenizer.of("");
+
+  @Benchmark
+  public void tokenize(Blackhole blackhole) {
+    tokenizer.reset(FORMULA);
+    while (tokenizer.next()) {
+      blackhole.consume(tokenizer.getStartColumn());
+      blackhole.consume(tokenizer.getEnd());
+    }
+  }
+}
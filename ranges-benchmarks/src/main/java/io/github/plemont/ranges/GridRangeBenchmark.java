@@ -0,0 +1,74 @@
+package io.github.plemont.ranges;
+
+import com.google.api.services.sheets.v4.model.GridRange;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures conversion between ranges and the Sheets API {@code GridRange} model.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class GridRangeBenchmark {
+  private Ranges.RangeContext[] contexts;
+  private GridRange[] gridRanges;
+  private String[] ranges;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    contexts = BenchmarkCorpus.contexts(BenchmarkCorpus.Shape.BOUNDED);
+    gridRanges = BenchmarkCorpus.gridRanges();
+    ranges = new String[contexts.length];
+    for (int i = 0; i < contexts.length; i++) {
+      ranges[i] = contexts[i].toRange();
+    }
+  }
+
+  @Benchmark
+  public GridRange toGridRange() {
+    return contexts[nextIndex()].toGridRange();
+  }
+
+  @Benchmark
+  public void forGridRange(Blackhole blackhole) {
+    blackhole.consume(Ranges.forGridRange(gridRanges[nextIndex()]));
+  }
+
+  /** A1 string to {@code GridRange} and back, as when relaying ranges between API calls. */
+  @Benchmark
+  public String roundTripFromA1() {
+    int i = nextIndex();
+    GridRange gridRange = Ranges.forRange(ranges[i]).withSheetId(0).toGridRange();
+    return Ranges.forGridRange(gridRange).withSheetName("Sheet1").toRange();
+  }
+
+  @Benchmark
+  public GridRange roundTripFromGridRange() {
+    return Ranges.forGridRange(gridRanges[nextIndex()]).toGridRange();
+  }
+
+  @Benchmark
+  public Range valueFromGridRange() {
+    return Range.fromGridRange(gridRanges[nextIndex()]);
+  }
+
+  private int nextIndex() {
+    next = (next + 1) & BenchmarkCorpus.MASK;
+    return next;
+  }
+}
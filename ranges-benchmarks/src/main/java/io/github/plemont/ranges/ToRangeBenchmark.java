@@ -0,0 +1,65 @@
+package io.github.plemont.ranges;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures formatting of ranges as strings in A1 notation, for each shape of range.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ToRangeBenchmark {
+  @Param({"BOUNDED", "UNBOUNDED_ROWS", "UNBOUNDED_COLUMNS"})
+  public String shape;
+
+  private Ranges.RangeContext[] contexts;
+  private Range[] values;
+  private StringBuilder buffer;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    contexts = BenchmarkCorpus.contexts(BenchmarkCorpus.Shape.valueOf(shape));
+    values = new Range[contexts.length];
+    for (int i = 0; i < contexts.length; i++) {
+      values[i] = contexts[i].toValue();
+    }
+    buffer = new StringBuilder();
+  }
+
+  @Benchmark
+  public String toRange() {
+    return contexts[nextIndex()].toRange();
+  }
+
+  /** Appends to a reused buffer, as when building a batchGet request with many ranges. */
+  @Benchmark
+  public StringBuilder appendRange() {
+    buffer.setLength(0);
+    return contexts[nextIndex()].appendRange(buffer);
+  }
+
+  @Benchmark
+  public String valueToA1() {
+    return values[nextIndex()].toA1();
+  }
+
+  private int nextIndex() {
+    next = (next + 1) & BenchmarkCorpus.MASK;
+    return next;
+  }
+}
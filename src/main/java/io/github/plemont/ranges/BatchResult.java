@@ -0,0 +1,80 @@
+package io.github.plemont.ranges;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+/**
+ * The results of converting a batch of ranges, as returned by {@link Ranges#parseAll} and
+ * {@link Ranges#formatAll}.
+ *
+ * <p>Results are held in arrays in the same order as the input. A failure to convert one entry
+ * does not prevent the conversion of the others: the result for that entry is {@code null}, and
+ * the reason is available from {@link #getError(int)}. Where every entry converts successfully,
+ * no array of errors is retained.
+ *
+ * @param <T> The type of the converted values.
+ */
+public final class BatchResult<T> {
+  private final Object[] values;
+  private final String[] errors;
+  private final int errorCount;
+
+  BatchResult(Object[] values, String[] errors) {
+    int count = 0;
+    for (String error : errors) {
+      if (error != null) {
+        count++;
+      }
+    }
+    this.values = values;
+    this.errors = count == 0 ? null : errors;
+    this.errorCount = count;
+  }
+
+  /**
+   * @return the number of entries in the batch.
+   */
+  public int size() {
+    return values.length;
+  }
+
+  /**
+   * Retrieves the converted value for an entry.
+   *
+   * @param index The index of the entry in the input.
+   * @return the converted value, or {@code null} if the entry could not be converted.
+   */
+  @SuppressWarnings("unchecked")
+  public T get(int index) {
+    checkElementIndex(index, values.length);
+    return (T) values[index];
+  }
+
+  /**
+   * Determines whether an entry was converted successfully.
+   *
+   * @param index The index of the entry in the input.
+   * @return whether the entry was converted.
+   */
+  public boolean isValid(int index) {
+    checkElementIndex(index, values.length);
+    return errors == null || errors[index] == null;
+  }
+
+  /**
+   * Retrieves the reason an entry could not be converted.
+   *
+   * @param index The index of the entry in the input.
+   * @return the error message, or {@code null} if the entry was converted successfully.
+   */
+  public String getError(int index) {
+    checkElementIndex(index, values.length);
+    return errors == null ? null : errors[index];
+  }
+
+  /**
+   * @return the number of entries which could not be converted.
+   */
+  public int getErrorCount() {
+    return errorCount;
+  }
+}
@@ -0,0 +1,135 @@
+package io.github.plemont.ranges;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Converts batches of ranges, sequentially or in parallel.
+ *
+ * <p>Parallel conversion splits the batch in halves with fork-join until slices are no larger
+ * than {@link #PARALLEL_THRESHOLD}. Each slice is converted by a single thread with its own
+ * scratch state, a {@link RangeScanner} for parsing or a {@code StringBuilder} for formatting,
+ * which is reused for every entry in the slice. Results are written directly into shared arrays,
+ * with each slice writing only its own indexes.
+ */
+final class BulkConverter {
+  /** Slices of this many entries or fewer are converted without further splitting. */
+  static final int PARALLEL_THRESHOLD = 4096;
+
+  // Private constructor to avoid instantiation.
+  private BulkConverter() {}
+
+  static BatchResult<Range> parseAll(CharSequence[] ranges, boolean parallel) {
+    Range[] values = new Range[ranges.length];
+    String[] errors = new String[ranges.length];
+    if (parallel && ranges.length > PARALLEL_THRESHOLD) {
+      ForkJoinPool.commonPool().invoke(new ParseTask(ranges, values, errors, 0, ranges.length));
+    } else {
+      parseSlice(ranges, values, errors, 0, ranges.length);
+    }
+    return new BatchResult<>(values, errors);
+  }
+
+  static BatchResult<String> formatAll(Range[] ranges, boolean parallel) {
+    String[] values = new String[ranges.length];
+    String[] errors = new String[ranges.length];
+    if (parallel && ranges.length > PARALLEL_THRESHOLD) {
+      ForkJoinPool.commonPool().invoke(new FormatTask(ranges, values, errors, 0, ranges.length));
+    } else {
+      formatSlice(ranges, values, errors, 0, ranges.length);
+    }
+    return new BatchResult<>(values, errors);
+  }
+
+  private static void parseSlice(CharSequence[] ranges, Range[] values, String[] errors,
+      int from, int to) {
+    RangeScanner scanner = new RangeScanner();
+    for (int i = from; i < to; i++) {
+      CharSequence range = ranges[i];
+      if (range == null) {
+        errors[i] = "range cannot be null.";
+        continue;
+      }
+      // Invalid entries are reported without throwing, as some batches are largely malformed.
+      ParseResult result = Range.tryParse(scanner, range, 0, range.length(), false);
+      values[i] = result.getRange();
+      errors[i] = result.getErrorMessage();
+    }
+  }
+
+  private static void formatSlice(Range[] ranges, String[] values, String[] errors, int from,
+      int to) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = from; i < to; i++) {
+      Range range = ranges[i];
+      if (range == null) {
+        errors[i] = "range cannot be null.";
+        continue;
+      }
+      sb.setLength(0);
+      try {
+        values[i] = range.appendA1(sb).toString();
+      } catch (IllegalStateException e) {
+        errors[i] = e.getMessage();
+      }
+    }
+  }
+
+  private static final class ParseTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final CharSequence[] ranges;
+    private final Range[] values;
+    private final String[] errors;
+    private final int from;
+    private final int to;
+
+    ParseTask(CharSequence[] ranges, Range[] values, String[] errors, int from, int to) {
+      this.ranges = ranges;
+      this.values = values;
+      this.errors = errors;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= PARALLEL_THRESHOLD) {
+        parseSlice(ranges, values, errors, from, to);
+        return;
+      }
+      int mid = (from + to) >>> 1;
+      invokeAll(new ParseTask(ranges, values, errors, from, mid),
+          new ParseTask(ranges, values, errors, mid, to));
+    }
+  }
+
+  private static final class FormatTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final Range[] ranges;
+    private final String[] values;
+    private final String[] errors;
+    private final int from;
+    private final int to;
+
+    FormatTask(Range[] ranges, String[] values, String[] errors, int from, int to) {
+      this.ranges = ranges;
+      this.values = values;
+      this.errors = errors;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= PARALLEL_THRESHOLD) {
+        formatSlice(ranges, values, errors, from, to);
+        return;
+      }
+      int mid = (from + to) >>> 1;
+      invokeAll(new FormatTask(ranges, values, errors, from, mid),
+          new FormatTask(ranges, values, errors, mid, to));
+    }
+  }
+}
@@ -0,0 +1,281 @@
+package io.github.plemont.ranges;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Steps through the cells of a bounded range, keeping the A1 label of the current cell, such as
+ * {@code B7} or {@code 'My Sheet'!B7}, in a reusable buffer.
+ *
+ * <p>Moving to the next cell updates the buffer in place: column letters are bumped like an
+ * odometer ({@code AZ -> BA}) and row digits are incremented ({@code 99 -> 100}), so that each
+ * step takes amortized constant time and creates no objects. The label is rewritten in full only
+ * when moving to the next row, in row-major order, or the next column, in column-major order.
+ *
+ * <p>The enumerator is itself the {@code CharSequence} of the current label, so it can be
+ * appended or written directly:
+ *
+ * <pre>
+ * {@code
+ *    CellLabelEnumerator labels = CellLabelEnumerator.of(range, Cells.Order.ROW_MAJOR);
+ *    while (labels.next()) {
+ *      csv.append(labels).append(',');
+ *    }
+ * }
+ * </pre>
+ *
+ * <p>Instances are not thread-safe.
+ */
+public final class CellLabelEnumerator implements CharSequence {
+  private static final int MAX_COLUMN_LETTERS = 7;
+  private static final int MAX_ROW_DIGITS = 10;
+
+  private final int startColumn;
+  private final int startRow;
+  private final int endColumn;
+  private final int endRow;
+  private final boolean rowMajor;
+  private final char[] buffer;
+  // The column letters start after the sheet name, if any.
+  private final int columnStart;
+  private int columnLength;
+  private int length;
+  private int column;
+  private int row;
+  private boolean started;
+  private boolean finished;
+
+  private CellLabelEnumerator(Range range, Cells.Order order, String prefix) {
+    checkNotNull(range, "range cannot be null.");
+    checkNotNull(order, "order cannot be null.");
+    checkArgument(range.isBounded(), "Cannot enumerate the cells of an unbounded range.");
+    this.startColumn = range.getStartColumn();
+    this.startRow = range.getStartRow();
+    this.endColumn = range.getEndColumn();
+    this.endRow = range.getEndRow();
+    this.rowMajor = order == Cells.Order.ROW_MAJOR;
+    this.columnStart = prefix.length();
+    this.buffer = new char[columnStart + MAX_COLUMN_LETTERS + MAX_ROW_DIGITS];
+    prefix.getChars(0, columnStart, buffer, 0);
+  }
+
+  /**
+   * Creates an enumerator of cell labels without a sheet name, such as {@code B7}.
+   *
+   * @param range The bounded range.
+   * @param order The order in which to visit the cells.
+   * @return the enumerator, positioned before the first cell.
+   * @throws IllegalArgumentException if the range is not bounded.
+   */
+  public static CellLabelEnumerator of(Range range, Cells.Order order) {
+    return new CellLabelEnumerator(range, order, "");
+  }
+
+  /**
+   * Creates an enumerator of cell labels including the escaped sheet name of the range, such as
+   * {@code 'My Sheet'!B7}.
+   *
+   * @param range The bounded range.
+   * @param order The order in which to visit the cells.
+   * @return the enumerator, positioned before the first cell.
+   * @throws IllegalArgumentException if the range is not bounded.
+   * @throws IllegalStateException if the range has no sheet name.
+   */
+  public static CellLabelEnumerator ofQualified(Range range, Cells.Order order) {
+    checkNotNull(range, "range cannot be null.");
+    checkState(range.getSheetName() != null,
+        "Sheet name is not set: cannot create a qualified label.");
+    return new CellLabelEnumerator(range, order,
+        RangeFormatter.escapeSheetName(range.getSheetName()) + '!');
+  }
+
+  /**
+   * Moves to the next cell.
+   *
+   * @return whether there was another cell.
+   */
+  public boolean next() {
+    if (finished) {
+      return false;
+    }
+    if (!started) {
+      started = true;
+      column = startColumn;
+      row = startRow;
+      rewrite();
+      return true;
+    }
+    if (rowMajor) {
+      if (column < endColumn) {
+        column++;
+        incrementColumnLetters();
+      } else if (row < endRow) {
+        column = startColumn;
+        row++;
+        rewrite();
+      } else {
+        finished = true;
+      }
+    } else {
+      if (row < endRow) {
+        row++;
+        incrementRowDigits();
+      } else if (column < endColumn) {
+        row = startRow;
+        column++;
+        rewrite();
+      } else {
+        finished = true;
+      }
+    }
+    return !finished;
+  }
+
+  /**
+   * @return the zero-indexed column of the current cell.
+   */
+  public int getColumn() {
+    checkCurrent();
+    return column;
+  }
+
+  /**
+   * @return the zero-indexed row of the current cell.
+   */
+  public int getRow() {
+    checkCurrent();
+    return row;
+  }
+
+  /**
+   * Returns the buffer holding the current label in its first {@link #length()} characters. The
+   * buffer is overwritten by {@link #next()}.
+   *
+   * @return the buffer.
+   */
+  public char[] buffer() {
+    checkCurrent();
+    return buffer;
+  }
+
+  /**
+   * Appends the current label to a {@code StringBuilder}.
+   *
+   * @param sb The {@code StringBuilder} to append to.
+   * @return the {@code StringBuilder}, for chaining.
+   */
+  public StringBuilder appendTo(StringBuilder sb) {
+    checkCurrent();
+    return sb.append(buffer, 0, length);
+  }
+
+  /**
+   * Appends the current label to an {@code Appendable}.
+   *
+   * @param out The {@code Appendable} to append to.
+   * @return the {@code Appendable}, for chaining.
+   * @throws IOException if thrown by the {@code Appendable}.
+   */
+  public Appendable appendTo(Appendable out) throws IOException {
+    checkCurrent();
+    if (out instanceof StringBuilder) {
+      ((StringBuilder) out).append(buffer, 0, length);
+    } else if (out instanceof Writer) {
+      ((Writer) out).write(buffer, 0, length);
+    } else {
+      out.append(this);
+    }
+    return out;
+  }
+
+  @Override
+  public int length() {
+    checkCurrent();
+    return length;
+  }
+
+  @Override
+  public char charAt(int index) {
+    checkCurrent();
+    checkElementIndex(index, length);
+    return buffer[index];
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    checkCurrent();
+    checkPositionIndexes(start, end, length);
+    return new String(buffer, start, end - start);
+  }
+
+  /**
+   * Returns the current label. Unlike the other accessors, this does not throw when the
+   * enumerator is not positioned on a cell, so that it can be logged or inspected at any time.
+   *
+   * @return the current label, or an empty String before the first cell and after the last.
+   */
+  @Override
+  public String toString() {
+    return started && !finished ? new String(buffer, 0, length) : "";
+  }
+
+  private void checkCurrent() {
+    checkState(started && !finished, "The enumerator is not positioned on a cell.");
+  }
+
+  /** Writes the column letters and row digits of the current cell in full. */
+  private void rewrite() {
+    columnLength = ColumnCodec.writeColumn(buffer, columnStart, column);
+    int rowStart = columnStart + columnLength;
+    int value = row + 1;
+    int digits = 1;
+    for (int remaining = value / 10; remaining > 0; remaining /= 10) {
+      digits++;
+    }
+    length = rowStart + digits;
+    for (int i = length - 1; i >= rowStart; i--) {
+      buffer[i] = (char) ('0' + value % 10);
+      value /= 10;
+    }
+  }
+
+  /** Bumps the column letters, shifting the row digits right where a letter is added. */
+  private void incrementColumnLetters() {
+    int i = columnStart + columnLength - 1;
+    while (i >= columnStart && buffer[i] == 'Z') {
+      buffer[i--] = 'A';
+    }
+    if (i >= columnStart) {
+      buffer[i]++;
+      return;
+    }
+    // Every letter carried, e.g. ZZ -> AAA: the letters are now all 'A', and one more is needed.
+    int rowStart = columnStart + columnLength;
+    System.arraycopy(buffer, rowStart, buffer, rowStart + 1, length - rowStart);
+    buffer[rowStart] = 'A';
+    columnLength++;
+    length++;
+  }
+
+  /** Increments the row digits, which always end the label. */
+  private void incrementRowDigits() {
+    int rowStart = columnStart + columnLength;
+    int i = length - 1;
+    while (i >= rowStart && buffer[i] == '9') {
+      buffer[i--] = '0';
+    }
+    if (i >= rowStart) {
+      buffer[i]++;
+      return;
+    }
+    // Every digit carried, e.g. 99 -> 100.
+    buffer[rowStart] = '1';
+    buffer[length++] = '0';
+  }
+}
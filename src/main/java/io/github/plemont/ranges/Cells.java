@@ -0,0 +1,307 @@
+package io.github.plemont.ranges;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterates over the cells of a bounded range without creating an object per cell.
+ *
+ * <p>Each cell is packed into a {@code long}, with the zero-indexed row in the upper 32 bits and
+ * the zero-indexed column in the lower 32 bits, so that packed cells sort in row-major order.
+ * Use {@link #row(long)} and {@link #column(long)} to unpack them:
+ *
+ * <pre>
+ * {@code
+ *    Cells.stream(Range.parse("Data!A1:Z100000"), Cells.Order.ROW_MAJOR, true)
+ *        .forEach(cell -> transform(Cells.column(cell), Cells.row(cell)));
+ * }
+ * </pre>
+ *
+ * <p>The {@link Spliterator} returned by {@link #spliterator(Range, Order)} knows its exact size
+ * and splits its remaining cells in half, so parallel streams divide the work evenly between
+ * threads.
+ */
+public final class Cells {
+  /** The order in which cells are visited. */
+  public enum Order {
+    /** Visits each row in turn, from left to right within a row. */
+    ROW_MAJOR,
+
+    /** Visits each column in turn, from top to bottom within a column. */
+    COLUMN_MAJOR
+  }
+
+  // Below this many cells, a spliterator is not split further.
+  private static final long MIN_SPLIT_SIZE = 1024;
+
+  // Private constructor to avoid instantiation.
+  private Cells() {}
+
+  /**
+   * Packs a cell into a {@code long}.
+   *
+   * @param column The zero-indexed column.
+   * @param row The zero-indexed row.
+   * @return the packed cell.
+   */
+  public static long pack(int column, int row) {
+    return ((long) row << 32) | (column & 0xFFFFFFFFL);
+  }
+
+  /**
+   * @param cell The packed cell.
+   * @return the zero-indexed column of the cell.
+   */
+  public static int column(long cell) {
+    return (int) cell;
+  }
+
+  /**
+   * @param cell The packed cell.
+   * @return the zero-indexed row of the cell.
+   */
+  public static int row(long cell) {
+    return (int) (cell >>> 32);
+  }
+
+  /**
+   * Returns the number of cells in a bounded range.
+   *
+   * @param range The range.
+   * @return the number of cells.
+   * @throws IllegalArgumentException if the range is not bounded.
+   */
+  public static long count(Range range) {
+    checkBounded(range);
+    return width(range) * height(range);
+  }
+
+  /**
+   * Creates an iterator over the cells of a bounded range.
+   *
+   * @param range The range.
+   * @param order The order in which to visit the cells.
+   * @return the iterator, yielding packed cells.
+   * @throws IllegalArgumentException if the range is not bounded.
+   */
+  public static PrimitiveIterator.OfLong iterator(Range range, Order order) {
+    checkBounded(range);
+    checkNotNull(order, "order cannot be null.");
+    return new CellIterator(range, order);
+  }
+
+  /**
+   * Creates a spliterator over the cells of a bounded range.
+   *
+   * @param range The range.
+   * @param order The order in which to visit the cells.
+   * @return the spliterator, yielding packed cells.
+   * @throws IllegalArgumentException if the range is not bounded.
+   */
+  public static Spliterator.OfLong spliterator(Range range, Order order) {
+    checkBounded(range);
+    checkNotNull(order, "order cannot be null.");
+    return new CellSpliterator(range.getStartColumn(), range.getStartRow(), width(range),
+        height(range), order, 0, width(range) * height(range));
+  }
+
+  /**
+   * Creates a stream of the cells of a bounded range.
+   *
+   * @param range The range.
+   * @param order The order in which to visit the cells.
+   * @param parallel Whether the stream is parallel.
+   * @return the stream of packed cells.
+   * @throws IllegalArgumentException if the range is not bounded.
+   */
+  public static LongStream stream(Range range, Order order, boolean parallel) {
+    return StreamSupport.longStream(spliterator(range, order), parallel);
+  }
+
+  private static void checkBounded(Range range) {
+    checkNotNull(range, "range cannot be null.");
+    checkArgument(range.isBounded(), "Cannot iterate over the cells of an unbounded range.");
+  }
+
+  private static long width(Range range) {
+    return (long) range.getEndColumn() - range.getStartColumn() + 1;
+  }
+
+  private static long height(Range range) {
+    return (long) range.getEndRow() - range.getStartRow() + 1;
+  }
+
+  /** Steps through the cells by incrementing the column and row, without division. */
+  private static final class CellIterator implements PrimitiveIterator.OfLong {
+    private final int startColumn;
+    private final int startRow;
+    private final int endColumn;
+    private final int endRow;
+    private final boolean rowMajor;
+    private int column;
+    private int row;
+    private boolean hasNext = true;
+
+    CellIterator(Range range, Order order) {
+      startColumn = range.getStartColumn();
+      startRow = range.getStartRow();
+      endColumn = range.getEndColumn();
+      endRow = range.getEndRow();
+      rowMajor = order == Order.ROW_MAJOR;
+      column = startColumn;
+      row = startRow;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return hasNext;
+    }
+
+    @Override
+    public long nextLong() {
+      if (!hasNext) {
+        throw new NoSuchElementException();
+      }
+      long cell = pack(column, row);
+      if (rowMajor) {
+        if (column < endColumn) {
+          column++;
+        } else if (row < endRow) {
+          column = startColumn;
+          row++;
+        } else {
+          hasNext = false;
+        }
+      } else {
+        if (row < endRow) {
+          row++;
+        } else if (column < endColumn) {
+          row = startRow;
+          column++;
+        } else {
+          hasNext = false;
+        }
+      }
+      return cell;
+    }
+  }
+
+  /**
+   * Covers the cells with positions {@code [index, end)} in the visiting order of a range, so
+   * that splitting only divides the interval of positions.
+   */
+  private static final class CellSpliterator implements Spliterator.OfLong {
+    private final int startColumn;
+    private final int startRow;
+    private final long width;
+    private final long height;
+    private final Order order;
+    private long index;
+    private final long end;
+
+    CellSpliterator(int startColumn, int startRow, long width, long height, Order order,
+        long index, long end) {
+      this.startColumn = startColumn;
+      this.startRow = startRow;
+      this.width = width;
+      this.height = height;
+      this.order = order;
+      this.index = index;
+      this.end = end;
+    }
+
+    @Override
+    public boolean tryAdvance(LongConsumer action) {
+      checkNotNull(action, "action cannot be null.");
+      if (index >= end) {
+        return false;
+      }
+      action.accept(cellAt(index++));
+      return true;
+    }
+
+    @Override
+    public void forEachRemaining(LongConsumer action) {
+      checkNotNull(action, "action cannot be null.");
+      if (index >= end) {
+        return;
+      }
+      // Divide once to find the first cell, then step through the rest.
+      long lineLength = order == Order.ROW_MAJOR ? width : height;
+      long line = index / lineLength;
+      long offset = index % lineLength;
+      long remaining = end - index;
+      index = end;
+      while (remaining > 0) {
+        long count = Math.min(remaining, lineLength - offset);
+        if (order == Order.ROW_MAJOR) {
+          long rowBits = (long) (startRow + (int) line) << 32;
+          for (long i = offset; i < offset + count; i++) {
+            action.accept(rowBits | (startColumn + (int) i));
+          }
+        } else {
+          int column = startColumn + (int) line;
+          for (long i = offset; i < offset + count; i++) {
+            action.accept(pack(column, startRow + (int) i));
+          }
+        }
+        remaining -= count;
+        offset = 0;
+        line++;
+      }
+    }
+
+    @Override
+    public Spliterator.OfLong trySplit() {
+      long remaining = end - index;
+      if (remaining < MIN_SPLIT_SIZE * 2) {
+        return null;
+      }
+      long mid = index + remaining / 2;
+      CellSpliterator prefix =
+          new CellSpliterator(startColumn, startRow, width, height, order, index, mid);
+      index = mid;
+      return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+      return end - index;
+    }
+
+    @Override
+    public long getExactSizeIfKnown() {
+      return end - index;
+    }
+
+    @Override
+    public int characteristics() {
+      int characteristics = ORDERED | DISTINCT | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+      // Packed cells sort in row-major order.
+      return order == Order.ROW_MAJOR ? characteristics | SORTED : characteristics;
+    }
+
+    @Override
+    public Comparator<? super Long> getComparator() {
+      if (order == Order.ROW_MAJOR) {
+        return null;
+      }
+      throw new IllegalStateException();
+    }
+
+    private long cellAt(long position) {
+      if (order == Order.ROW_MAJOR) {
+        return pack(startColumn + (int) (position % width), startRow + (int) (position / width));
+      }
+      return pack(startColumn + (int) (position / height), startRow + (int) (position % height));
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package io.github.plemont.ranges;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+import com.google.api.services.sheets.v4.model.GridRange;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of {@link RangeCoalescer#coalesce}: the merged ranges, and for each original range,
+ * the merged range which contains it.
+ */
+public final class CoalescedRanges {
+  private final List<Range> ranges;
+  private final int[] mapping;
+
+  CoalescedRanges(List<Range> ranges, int[] mapping) {
+    this.ranges = Collections.unmodifiableList(ranges);
+    this.mapping = mapping;
+  }
+
+  /**
+   * @return the merged ranges, ordered by start row and then start column.
+   */
+  public List<Range> getRanges() {
+    return ranges;
+  }
+
+  /**
+   * @return the merged ranges as {@code GridRange}s, in the same order as {@link #getRanges()}.
+   */
+  public List<GridRange> getGridRanges() {
+    List<GridRange> gridRanges = new ArrayList<>(ranges.size());
+    for (Range range : ranges) {
+      gridRanges.add(range.toGridRange());
+    }
+    return gridRanges;
+  }
+
+  /**
+   * @return the number of merged ranges.
+   */
+  public int size() {
+    return ranges.size();
+  }
+
+  /**
+   * Retrieves the position of the merged range containing an original range.
+   *
+   * @param originalIndex The index of the original range in the input.
+   * @return the index of the merged range in {@link #getRanges()}.
+   */
+  public int getMergedIndex(int originalIndex) {
+    checkElementIndex(originalIndex, mapping.length);
+    return mapping[originalIndex];
+  }
+
+  /**
+   * Retrieves the merged range containing an original range.
+   *
+   * @param originalIndex The index of the original range in the input.
+   * @return the merged range.
+   */
+  public Range getMerged(int originalIndex) {
+    return ranges.get(getMergedIndex(originalIndex));
+  }
+
+  @Override
+  public String toString() {
+    return "CoalescedRanges{originals=" + mapping.length + ", merged=" + ranges.size() + "}";
+  }
+}
@@ -0,0 +1,213 @@
+package io.github.plemont.ranges;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+
+import java.io.IOException;
+
+/**
+ * Converts between zero-indexed column numbers and the column letters used in A1 notation, for
+ * example {@code 0 <-> A}, {@code 26 <-> AA} and {@code 18277 <-> ZZZ}.
+ *
+ * <p>The letters for every column a Google Sheets {@code Sheet} can hold, {@code A} to
+ * {@code ZZZ}, are precomputed into a single table, so that encoding these columns is a lookup and
+ * copy. Columns beyond {@code ZZZ} are encoded arithmetically. Neither path allocates: letters are
+ * appended directly to the supplied {@code StringBuilder} or {@code Appendable}. Decoding reads a
+ * slice of any {@code CharSequence}, using integer arithmetic only.
+ */
+public final class ColumnCodec {
+  /** The number of columns, {@code A} to {@code ZZZ}, held in the precomputed table. */
+  public static final int TABLE_SIZE = 18278;
+
+  private static final int ALPHABET_LENGTH = 26;
+  private static final int TABLE_WIDTH = 3;
+
+  // Letters for column i occupy TABLE[i * TABLE_WIDTH] onwards, for LENGTHS[i] characters.
+  private static final char[] TABLE = new char[TABLE_SIZE * TABLE_WIDTH];
+  private static final byte[] LENGTHS = new byte[TABLE_SIZE];
+
+  static {
+    for (int column = 0; column < TABLE_SIZE; column++) {
+      int length = computeLength(column);
+      LENGTHS[column] = (byte) length;
+      int remaining = (int) (column - firstColumnOfLength(length));
+      for (int i = length - 1; i >= 0; i--) {
+        TABLE[column * TABLE_WIDTH + i] = (char) ('A' + remaining % ALPHABET_LENGTH);
+        remaining /= ALPHABET_LENGTH;
+      }
+    }
+  }
+
+  // Private constructor to avoid instantiation.
+  private ColumnCodec() {}
+
+  /**
+   * Appends the letters for a column to a {@code StringBuilder}.
+   *
+   * @param sb The {@code StringBuilder} to append to.
+   * @param columnIndex The zero-indexed column.
+   * @return the {@code StringBuilder}, for chaining.
+   * @throws IllegalArgumentException if the column index is negative.
+   */
+  public static StringBuilder appendColumn(StringBuilder sb, int columnIndex) {
+    checkArgument(columnIndex >= 0, "Column index should be greater or equal to zero.");
+    if (columnIndex < TABLE_SIZE) {
+      return sb.append(TABLE, columnIndex * TABLE_WIDTH, LENGTHS[columnIndex]);
+    }
+    int length = computeLength(columnIndex);
+    long remaining = columnIndex - firstColumnOfLength(length);
+    for (int i = length - 1; i >= 0; i--) {
+      sb.append((char) ('A' + (remaining / pow26(i)) % ALPHABET_LENGTH));
+    }
+    return sb;
+  }
+
+  /**
+   * Appends the letters for a column to an {@code Appendable}.
+   *
+   * @param out The {@code Appendable} to append to.
+   * @param columnIndex The zero-indexed column.
+   * @return the {@code Appendable}, for chaining.
+   * @throws IllegalArgumentException if the column index is negative.
+   * @throws IOException if thrown by the {@code Appendable}.
+   */
+  public static Appendable appendColumn(Appendable out, int columnIndex) throws IOException {
+    if (out instanceof StringBuilder) {
+      return appendColumn((StringBuilder) out, columnIndex);
+    }
+    checkArgument(columnIndex >= 0, "Column index should be greater or equal to zero.");
+    if (columnIndex < TABLE_SIZE) {
+      int offset = columnIndex * TABLE_WIDTH;
+      for (int i = 0; i < LENGTHS[columnIndex]; i++) {
+        out.append(TABLE[offset + i]);
+      }
+      return out;
+    }
+    int length = computeLength(columnIndex);
+    long remaining = columnIndex - firstColumnOfLength(length);
+    for (int i = length - 1; i >= 0; i--) {
+      out.append((char) ('A' + (remaining / pow26(i)) % ALPHABET_LENGTH));
+    }
+    return out;
+  }
+
+  /**
+   * Writes the letters for a column into a {@code char} array.
+   *
+   * @return the number of letters written.
+   */
+  static int writeColumn(char[] dst, int offset, int columnIndex) {
+    checkArgument(columnIndex >= 0, "Column index should be greater or equal to zero.");
+    if (columnIndex < TABLE_SIZE) {
+      int length = LENGTHS[columnIndex];
+      System.arraycopy(TABLE, columnIndex * TABLE_WIDTH, dst, offset, length);
+      return length;
+    }
+    int length = computeLength(columnIndex);
+    long remaining = columnIndex - firstColumnOfLength(length);
+    for (int i = length - 1; i >= 0; i--) {
+      dst[offset + i] = (char) ('A' + remaining % ALPHABET_LENGTH);
+      remaining /= ALPHABET_LENGTH;
+    }
+    return length;
+  }
+
+  /**
+   * Converts a column index to its letters, for example {@code 0 -> A}.
+   *
+   * @param columnIndex The zero-indexed column.
+   * @return the A1-format column specifier.
+   * @throws IllegalArgumentException if the column index is negative.
+   */
+  public static String toColumn(int columnIndex) {
+    checkArgument(columnIndex >= 0, "Column index should be greater or equal to zero.");
+    if (columnIndex < TABLE_SIZE) {
+      return new String(TABLE, columnIndex * TABLE_WIDTH, LENGTHS[columnIndex]);
+    }
+    return appendColumn(new StringBuilder(), columnIndex).toString();
+  }
+
+  /**
+   * Returns the number of letters needed to represent a column.
+   *
+   * @param columnIndex The zero-indexed column.
+   * @return the number of letters.
+   * @throws IllegalArgumentException if the column index is negative.
+   */
+  public static int length(int columnIndex) {
+    checkArgument(columnIndex >= 0, "Column index should be greater or equal to zero.");
+    return columnIndex < TABLE_SIZE ? LENGTHS[columnIndex] : computeLength(columnIndex);
+  }
+
+  /**
+   * Converts column letters to a column index, for example {@code A -> 0}.
+   *
+   * @param a1Column The letters, e.g. "A" or "AA".
+   * @return the zero-indexed column.
+   * @throws IllegalArgumentException if the letters are empty, contain anything other than
+   *     upper case letters, or represent a column beyond {@code Integer.MAX_VALUE}.
+   */
+  public static int decode(CharSequence a1Column) {
+    checkNotNull(a1Column, "a1Column cannot be null.");
+    return decode(a1Column, 0, a1Column.length());
+  }
+
+  /**
+   * Converts the column letters in the characters {@code [start, end)} of a sequence to a column
+   * index.
+   *
+   * @param chars The sequence holding the letters.
+   * @param start The index of the first letter.
+   * @param end The index after the last letter.
+   * @return the zero-indexed column.
+   * @throws IllegalArgumentException if the letters are empty, contain anything other than
+   *     upper case letters, or represent a column beyond {@code Integer.MAX_VALUE}.
+   */
+  public static int decode(CharSequence chars, int start, int end) {
+    checkPositionIndexes(start, end, chars.length());
+    checkArgument(end > start, "a1Column must be one character or longer.");
+    int column = 0;
+    for (int i = start; i < end; i++) {
+      char c = chars.charAt(i);
+      if (c < 'A' || c > 'Z') {
+        throw new IllegalArgumentException("Column must consist of upper case letters only.");
+      }
+      int digit = c - 'A' + 1;
+      if (column > (Integer.MAX_VALUE - digit) / ALPHABET_LENGTH) {
+        throw new IllegalArgumentException("Column is out of range.");
+      }
+      column = column * ALPHABET_LENGTH + digit;
+    }
+    return column - 1;
+  }
+
+  /** Returns the number of letters needed to represent the column. */
+  private static int computeLength(int columnIndex) {
+    int length = 1;
+    while (columnIndex >= firstColumnOfLength(length + 1)) {
+      length++;
+    }
+    return length;
+  }
+
+  /**
+   * Returns the first column whose representation has the specified number of letters, e.g.
+   * {@code 26} (AA) for two letters.
+   */
+  private static long firstColumnOfLength(int length) {
+    long first = 0;
+    for (int i = 1; i < length; i++) {
+      first += pow26(i);
+    }
+    return first;
+  }
+
+  private static long pow26(int exponent) {
+    long result = 1;
+    for (int i = 0; i < exponent; i++) {
+      result *= ALPHABET_LENGTH;
+    }
+    return result;
+  }
+}
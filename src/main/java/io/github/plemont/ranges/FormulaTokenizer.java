@@ -0,0 +1,468 @@
+package io.github.plemont.ranges;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Finds the A1 notation references within the text of a cell formula, such as
+ * {@code 'Q1 Data'!B2:B900} and {@code Rates!C3} in {@code =SUM('Q1 Data'!B2:B900)*Rates!C3}.
+ *
+ * <p>The formula is read in a single pass, without regular expressions. String literals, error
+ * literals such as {@code #REF!}, and function names are skipped, so that neither
+ * {@code "A1"} nor {@code LOG10(} is reported. References may be qualified by a plain or
+ * single-quoted sheet name, may mark columns and rows as absolute with {@code $}, and may use
+ * lower case column letters. Each reference is one of:
+ *
+ * <pre>
+ * {@code
+ *    A1  A1:B2  A:B  1:2  A1:B  A2:2
+ * }
+ * </pre>
+ *
+ * <p>A lone column or row, such as {@code A} or {@code 2}, is not a reference: it would be
+ * indistinguishable from a named range or a number.
+ *
+ * <p>For each reference, the tokenizer reports its span within the formula and its coordinates,
+ * ordered as for {@link Range}:
+ *
+ * <pre>
+ * {@code
+ *    FormulaTokenizer tokenizer = FormulaTokenizer.of(formula);
+ *    while (tokenizer.next()) {
+ *      audit(tokenizer.getStart(), tokenizer.getEnd(), tokenizer.toRange());
+ *    }
+ * }
+ * </pre>
+ *
+ * <p>Instances are not thread-safe, but may be reused for successive formulas with
+ * {@link #reset(CharSequence)}.
+ */
+public final class FormulaTokenizer {
+  private CharSequence formula;
+  private int length;
+  private int position;
+
+  // The span of the current reference, or -1 before the first and after the last.
+  private int start = -1;
+  private int end = -1;
+
+  // The sheet name of the current reference, as it appears in the formula, or -1 if unqualified.
+  private int nameStart;
+  private int nameEnd;
+  private boolean quoted;
+  private String sheetName;
+
+  // 1-indexed coordinates, with 0 representing a coordinate that was not specified.
+  private int startColumn;
+  private int startRow;
+  private int endColumn;
+  private int endRow;
+  private boolean startColumnAbsolute;
+  private boolean startRowAbsolute;
+  private boolean endColumnAbsolute;
+  private boolean endRowAbsolute;
+
+  private FormulaTokenizer() {}
+
+  /**
+   * Creates a tokenizer, positioned before the first reference of a formula.
+   *
+   * @param formula The formula text, with or without a leading {@code =}.
+   * @return the tokenizer.
+   */
+  public static FormulaTokenizer of(CharSequence formula) {
+    return new FormulaTokenizer().reset(formula);
+  }
+
+  /**
+   * Positions the tokenizer before the first reference of another formula.
+   *
+   * @param formula The formula text, with or without a leading {@code =}.
+   * @return this tokenizer, for chaining.
+   */
+  public FormulaTokenizer reset(CharSequence formula) {
+    this.formula = checkNotNull(formula, "formula cannot be null.");
+    this.length = formula.length();
+    this.position = 0;
+    this.start = -1;
+    this.end = -1;
+    return this;
+  }
+
+  /**
+   * Moves to the next reference in the formula.
+   *
+   * @return whether there was another reference.
+   */
+  public boolean next() {
+    int i = position;
+    while (i < length) {
+      char c = formula.charAt(i);
+      if (c == '"') {
+        i = skipQuoted(i, '"');
+      } else if (c == '\'') {
+        int after = skipQuoted(i, '\'');
+        // An unclosed quote runs to the end of the formula, so is never followed by !.
+        if (after < length && formula.charAt(after) == '!' && after - i > 2) {
+          int referenceEnd = scanReference(after + 1);
+          if (referenceEnd >= 0) {
+            return found(i, i + 1, after - 1, true, referenceEnd);
+          }
+        }
+        i = after;
+      } else if (c == '#') {
+        i = skipError(i);
+      } else if (isWordChar(c)) {
+        int wordEnd = skipWord(i);
+        char following = wordEnd < length ? formula.charAt(wordEnd) : 0;
+        if (following == '(') {
+          // A function name.
+          i = wordEnd + 1;
+        } else if (following == '!') {
+          if (isSheetName(i, wordEnd)) {
+            int referenceEnd = scanReference(wordEnd + 1);
+            if (referenceEnd >= 0) {
+              return found(i, i, wordEnd, false, referenceEnd);
+            }
+          }
+          i = wordEnd + 1;
+        } else {
+          int referenceEnd = scanReference(i);
+          if (referenceEnd >= 0) {
+            return found(i, -1, -1, false, referenceEnd);
+          }
+          i = wordEnd;
+        }
+      } else {
+        i++;
+      }
+    }
+    position = length;
+    start = -1;
+    end = -1;
+    return false;
+  }
+
+  /**
+   * @return the index of the first character of the current reference, including its sheet name.
+   */
+  public int getStart() {
+    checkCurrent();
+    return start;
+  }
+
+  /**
+   * @return the index after the last character of the current reference.
+   */
+  public int getEnd() {
+    checkCurrent();
+    return end;
+  }
+
+  /**
+   * @return the unescaped sheet name of the current reference, or {@code null} if it is not
+   *     qualified by a sheet name.
+   */
+  public String getSheetName() {
+    checkCurrent();
+    if (sheetName == null && nameStart >= 0) {
+      sheetName = unescape();
+    }
+    return sheetName;
+  }
+
+  /**
+   * @return the zero-indexed start column, or {@link Range#UNBOUNDED}.
+   */
+  public int getStartColumn() {
+    checkCurrent();
+    return startColumn - 1;
+  }
+
+  /**
+   * @return the zero-indexed start row, or {@link Range#UNBOUNDED}.
+   */
+  public int getStartRow() {
+    checkCurrent();
+    return startRow - 1;
+  }
+
+  /**
+   * @return the zero-indexed end column, inclusive, or {@link Range#UNBOUNDED}.
+   */
+  public int getEndColumn() {
+    checkCurrent();
+    return endColumn - 1;
+  }
+
+  /**
+   * @return the zero-indexed end row, inclusive, or {@link Range#UNBOUNDED}.
+   */
+  public int getEndRow() {
+    checkCurrent();
+    return endRow - 1;
+  }
+
+  /**
+   * @return whether the start column is marked absolute with {@code $}.
+   */
+  public boolean isStartColumnAbsolute() {
+    checkCurrent();
+    return startColumnAbsolute;
+  }
+
+  /**
+   * @return whether the start row is marked absolute with {@code $}.
+   */
+  public boolean isStartRowAbsolute() {
+    checkCurrent();
+    return startRowAbsolute;
+  }
+
+  /**
+   * @return whether the end column is marked absolute with {@code $}. For a single cell, this is
+   *     the same as {@link #isStartColumnAbsolute()}.
+   */
+  public boolean isEndColumnAbsolute() {
+    checkCurrent();
+    return endColumnAbsolute;
+  }
+
+  /**
+   * @return whether the end row is marked absolute with {@code $}. For a single cell, this is the
+   *     same as {@link #isStartRowAbsolute()}.
+   */
+  public boolean isEndRowAbsolute() {
+    checkCurrent();
+    return endRowAbsolute;
+  }
+
+  /**
+   * Creates a {@link Range} from the current reference. The absolute markers are not retained.
+   *
+   * @return the range, with no sheet name if the reference is not qualified.
+   * @throws IllegalArgumentException if the sheet name is too long for a {@code Range}.
+   */
+  public Range toRange() {
+    return Range.of(getSheetName(), startColumn - 1, startRow - 1, endColumn - 1, endRow - 1);
+  }
+
+  @Override
+  public String toString() {
+    if (start < 0) {
+      return "FormulaTokenizer{}";
+    }
+    return "FormulaTokenizer{reference=" + formula.subSequence(start, end) + ", start=" + start
+        + ", end=" + end + "}";
+  }
+
+  private void checkCurrent() {
+    checkState(start >= 0, "The tokenizer is not positioned on a reference.");
+  }
+
+  private boolean found(int referenceStart, int nameStart, int nameEnd, boolean quoted,
+      int referenceEnd) {
+    this.start = referenceStart;
+    this.end = referenceEnd;
+    this.nameStart = nameStart;
+    this.nameEnd = nameEnd;
+    this.quoted = quoted;
+    this.sheetName = null;
+    this.position = referenceEnd;
+    return true;
+  }
+
+  /**
+   * Skips a string literal or quoted sheet name, in which the quote character is escaped by
+   * doubling it.
+   *
+   * @return the index after the closing quote, or the length of the formula if it is unclosed.
+   */
+  private int skipQuoted(int open, char quote) {
+    int i = open + 1;
+    while (i < length) {
+      if (formula.charAt(i) == quote) {
+        if (i + 1 < length && formula.charAt(i + 1) == quote) {
+          i += 2;
+          continue;
+        }
+        return i + 1;
+      }
+      i++;
+    }
+    return length;
+  }
+
+  /** Skips an error literal, such as {@code #DIV/0!} or {@code #NAME?}. */
+  private int skipError(int hash) {
+    int i = hash + 1;
+    char c;
+    while (i < length && (isWordChar(c = formula.charAt(i)) || c == '/')) {
+      i++;
+    }
+    if (i < length && ((c = formula.charAt(i)) == '!' || c == '?')) {
+      i++;
+    }
+    return i;
+  }
+
+  private int skipWord(int i) {
+    while (i < length && isWordChar(formula.charAt(i))) {
+      i++;
+    }
+    return i;
+  }
+
+  private boolean isSheetName(int start, int end) {
+    if (end - start > RangeScanner.SHEET_NAME_MAX_LENGTH) {
+      return false;
+    }
+    for (int i = start; i < end; i++) {
+      if (formula.charAt(i) == '$') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Scans a reference, without sheet name, which must end at a word boundary.
+   *
+   * @return the index after the reference, or -1 if there is no reference at {@code i}.
+   */
+  private int scanReference(int i) {
+    i = scanCell(i, false);
+    if (i < 0) {
+      return -1;
+    }
+    if (i < length && formula.charAt(i) == ':') {
+      int cellEnd = scanCell(i + 1, true);
+      // Neither <row>:<col> nor <col>:<row> form a range.
+      if (cellEnd >= 0
+          && ((startColumn == 0) == (endColumn == 0) || (startRow == 0) == (endRow == 0))) {
+        orderCoordinates();
+        return cellEnd;
+      }
+    }
+    if (startColumn == 0 || startRow == 0) {
+      return -1;
+    }
+    endColumn = startColumn;
+    endRow = startRow;
+    endColumnAbsolute = startColumnAbsolute;
+    endRowAbsolute = startRowAbsolute;
+    return i;
+  }
+
+  /**
+   * Scans an optional column of letters, followed by an optional row number, each of which may be
+   * preceded by {@code $}. At least one of the two must be present.
+   *
+   * @return the index after the cell, or -1 if there is no cell at {@code i}.
+   */
+  private int scanCell(int i, boolean isEnd) {
+    boolean columnAbsolute = i < length && formula.charAt(i) == '$';
+    if (columnAbsolute) {
+      i++;
+    }
+    char c;
+    long column = 0;
+    int lettersStart = i;
+    while (i < length && isLetter(c = formula.charAt(i))) {
+      column = column * 26 + (c & 0x1F);
+      if (column > Integer.MAX_VALUE) {
+        return -1;
+      }
+      i++;
+    }
+    boolean rowAbsolute;
+    if (i == lettersStart) {
+      // The $, if any, belongs to the row.
+      rowAbsolute = columnAbsolute;
+      columnAbsolute = false;
+    } else {
+      rowAbsolute = i < length && formula.charAt(i) == '$';
+      if (rowAbsolute) {
+        i++;
+      }
+    }
+    long row = 0;
+    int digitsStart = i;
+    while (i < length && (c = formula.charAt(i)) >= '0' && c <= '9') {
+      row = row * 10 + (c - '0');
+      if (row > Integer.MAX_VALUE) {
+        return -1;
+      }
+      i++;
+    }
+    boolean hasDigits = i > digitsStart;
+    if ((hasDigits && row == 0) || (rowAbsolute && !hasDigits) || (column == 0 && !hasDigits)
+        || (i < length && isWordChar(formula.charAt(i)))) {
+      return -1;
+    }
+    if (isEnd) {
+      endColumn = (int) column;
+      endRow = (int) row;
+      endColumnAbsolute = columnAbsolute;
+      endRowAbsolute = rowAbsolute;
+    } else {
+      startColumn = (int) column;
+      startRow = (int) row;
+      startColumnAbsolute = columnAbsolute;
+      startRowAbsolute = rowAbsolute;
+    }
+    return i;
+  }
+
+  /**
+   * Orders the coordinates of a range in the same manner as {@link RangeScanner}, so that for
+   * example {@code B2:A1} is reported as {@code A1:B2}. Absolute markers move with their
+   * coordinates.
+   */
+  private void orderCoordinates() {
+    if (endColumn != 0 && (startColumn == 0 || endColumn < startColumn)) {
+      int column = startColumn;
+      startColumn = endColumn;
+      endColumn = column;
+      boolean absolute = startColumnAbsolute;
+      startColumnAbsolute = endColumnAbsolute;
+      endColumnAbsolute = absolute;
+    }
+    if (endRow != 0 && (startRow == 0 || endRow < startRow)) {
+      int row = startRow;
+      startRow = endRow;
+      endRow = row;
+      boolean absolute = startRowAbsolute;
+      startRowAbsolute = endRowAbsolute;
+      endRowAbsolute = absolute;
+    }
+  }
+
+  private String unescape() {
+    if (!quoted) {
+      return formula.subSequence(nameStart, nameEnd).toString();
+    }
+    StringBuilder sb = new StringBuilder(nameEnd - nameStart);
+    for (int i = nameStart; i < nameEnd; i++) {
+      char c = formula.charAt(i);
+      sb.append(c);
+      if (c == '\'') {
+        // Skip the second quote of the '' escape sequence.
+        i++;
+      }
+    }
+    return sb.toString();
+  }
+
+  private static boolean isLetter(char c) {
+    return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+  }
+
+  /** Returns whether a character can form part of a name, number or reference. */
+  private static boolean isWordChar(char c) {
+    if (c < 0x80) {
+      return RangeScanner.isAlphanumeric(c) || c == '_' || c == '.' || c == '$';
+    }
+    return Character.isLetterOrDigit(c);
+  }
+}
@@ -0,0 +1,52 @@
+package io.github.plemont.ranges;
+
+/**
+ * A service provider interface for observing the library's conversions, for example to export
+ * metrics on the time spent parsing and formatting ranges, the mix of range shapes and the causes
+ * of invalid input.
+ *
+ * <p>A listener is installed once per class loader, as described by {@link RangeMetrics}. Its
+ * methods are called synchronously on the thread performing the conversion, so must be
+ * thread-safe and quick, and must not throw. Every method does nothing by default, so that an
+ * implementation need only override the events it is interested in.
+ * {@link StripedMetricsListener} records all of them.
+ */
+public interface MetricsListener {
+  /** The conversions reported to a listener. */
+  enum Operation {
+    /** {@link Ranges#forRange(String)}. */
+    FOR_RANGE,
+
+    /** {@link Ranges.RangeContext#toRange()}. */
+    TO_RANGE,
+
+    /** {@link Ranges.RangeContext#toGridRange()}. */
+    TO_GRID_RANGE
+  }
+
+  /**
+   * Called when a conversion completes successfully.
+   *
+   * @param operation The conversion.
+   * @param quoted Whether the range String has a quoted sheet name, e.g. {@code 'My Sheet'!A1};
+   *     always {@code false} for {@link Operation#TO_GRID_RANGE}.
+   * @param bounded Whether all four coordinates of the range are set.
+   * @param nanos The time taken, in nanoseconds.
+   */
+  default void onConversion(Operation operation, boolean quoted, boolean bounded, long nanos) {}
+
+  /**
+   * Called when a conversion fails.
+   *
+   * @param operation The conversion.
+   * @param errorCode The category of the failure: one of the error codes of
+   *     {@link ParseResult}.
+   */
+  default void onError(Operation operation, int errorCode) {}
+
+  /** Called when a {@link RangeCache} finds a range String already parsed. */
+  default void onCacheHit() {}
+
+  /** Called when a {@link RangeCache} must parse a range String. */
+  default void onCacheMiss() {}
+}
@@ -0,0 +1,184 @@
+package io.github.plemont.ranges;
+
+/**
+ * The result of parsing a range from part of a larger buffer, as returned by
+ * {@link Ranges#parse(CharSequence, int, int)}: the parsed {@link Range}, and the number of
+ * characters it occupied.
+ *
+ * <p>A caller can walk a buffer holding many ranges by advancing past the consumed characters
+ * and any separator after each call:
+ *
+ * <pre>
+ * {@code
+ *    int i = 0;
+ *    while (i < buffer.length()) {
+ *      ParseResult result = Ranges.parse(buffer, i, buffer.length());
+ *      ranges.add(result.getRange());
+ *      i += result.getConsumed() + 1;  // Skip the separator.
+ *    }
+ * }
+ * </pre>
+ *
+ * <p>Results are also returned by {@link Ranges#tryParse(CharSequence, int, int)} and
+ * {@link Range.Builder#build()}, which do not throw for invalid input. Instead the result holds
+ * one of the error codes below, and the offset of the character at which the error was found:
+ *
+ * <pre>
+ * {@code
+ *    ParseResult result = Ranges.tryParse(line);
+ *    if (!result.isValid()) {
+ *      rejects.add(line, result.getErrorCode(), result.getErrorOffset());
+ *    }
+ * }
+ * </pre>
+ */
+public final class ParseResult {
+  /** The error code of a valid result. */
+  public static final int OK = 0;
+
+  /** The input does not have the form of a range, e.g. {@code Sheet1!a1} or {@code Sheet1!A1B}. */
+  public static final int SYNTAX_ERROR = 1;
+
+  /** The sheet name is empty, too long, unterminated or holds a character which is not allowed. */
+  public static final int INVALID_SHEET_NAME = 2;
+
+  /** The sheet ID is negative, other than {@link Range#NO_SHEET_ID}. */
+  public static final int INVALID_SHEET_ID = 3;
+
+  /** A 1-indexed row or column is zero, e.g. {@code Sheet1!A0}. */
+  public static final int ZERO_COORDINATE = 4;
+
+  /** A row or column lies outside the grid, being negative or beyond the largest index. */
+  public static final int COORDINATE_OUT_OF_RANGE = 5;
+
+  /** A {@code :} is not followed by an end cell, e.g. {@code Sheet1!A1:}. */
+  public static final int MISSING_END_CELL = 6;
+
+  /** A range has a single coordinate, e.g. {@code Sheet1!A}. */
+  public static final int SINGLE_DIMENSION = 7;
+
+  /** A range pairs a column with a row, e.g. {@code Sheet1!A:5}. */
+  public static final int MIXED_DIMENSIONS = 8;
+
+  /** A relative R1C1 coordinate has no anchor cell to resolve it against. */
+  public static final int MISSING_ANCHOR = 9;
+
+  /** An end column or row is set without the corresponding start. */
+  public static final int END_WITHOUT_START = 10;
+
+  /**
+   * The combination of coordinates set cannot be expressed in A1 notation, e.g. a start column
+   * alone. Reported to a {@link MetricsListener} when formatting a range fails.
+   */
+  public static final int INEXPRESSIBLE = 11;
+
+  // The messages for each error code, as used for the exceptions thrown by the parse methods.
+  private static final String[] MESSAGES = {
+      null,
+      "Not a valid range.",
+      "Invalid sheet name.",
+      "Sheet ID must be non-negative.",
+      "Row and column must be positive integers >= 1",
+      "Coordinate is out of range.",
+      "Colon in range but no second coordinate specified.",
+      "Single-dimension range coords not valid in isolation.",
+      "Ranges cannot consist of <row>:<col> or <col>:<row>.",
+      "Relative reference requires an anchor cell.",
+      "End coordinate set where start not set.",
+      "Illegal combination of coordinates set.",
+  };
+
+  /** The number of error codes, including {@link #OK}. */
+  static final int ERROR_CODE_COUNT = MESSAGES.length;
+
+  private final Range range;
+  private final int consumed;
+  private final int errorCode;
+  private final int errorOffset;
+
+  ParseResult(Range range, int consumed) {
+    this(range, consumed, OK, -1);
+  }
+
+  private ParseResult(Range range, int consumed, int errorCode, int errorOffset) {
+    this.range = range;
+    this.consumed = consumed;
+    this.errorCode = errorCode;
+    this.errorOffset = errorOffset;
+  }
+
+  /**
+   * Creates the result of an invalid input.
+   *
+   * @param errorCode The error code.
+   * @param errorOffset The offset of the character at which the error was found, or {@code -1}.
+   */
+  static ParseResult failure(int errorCode, int errorOffset) {
+    return new ParseResult(null, 0, errorCode, errorOffset);
+  }
+
+  /**
+   * Returns the message describing an error code.
+   *
+   * @param errorCode The error code.
+   * @return the message, or {@code null} for {@link #OK}.
+   */
+  static String describe(int errorCode) {
+    return MESSAGES[errorCode];
+  }
+
+  /**
+   * @return whether the input formed a valid range.
+   */
+  public boolean isValid() {
+    return errorCode == OK;
+  }
+
+  /**
+   * @return the parsed range, or {@code null} if the input was invalid.
+   */
+  public Range getRange() {
+    return range;
+  }
+
+  /**
+   * @return the number of characters which formed the range, or {@code 0} if the input was
+   *     invalid or the range was not parsed from characters.
+   */
+  public int getConsumed() {
+    return consumed;
+  }
+
+  /**
+   * @return {@link #OK}, or the code of the error which made the input invalid.
+   */
+  public int getErrorCode() {
+    return errorCode;
+  }
+
+  /**
+   * Returns the offset of the character at which the error was found, relative to the start of
+   * the characters parsed. Errors in the combination of coordinates, such as
+   * {@link #MIXED_DIMENSIONS}, are found at the end of the range.
+   *
+   * @return the offset, or {@code -1} if the input was valid, or the error does not relate to a
+   *     character, such as a negative coordinate given to a {@link Range.Builder}.
+   */
+  public int getErrorOffset() {
+    return errorOffset;
+  }
+
+  /**
+   * @return the message describing the error, or {@code null} if the input was valid.
+   */
+  public String getErrorMessage() {
+    return describe(errorCode);
+  }
+
+  @Override
+  public String toString() {
+    return isValid()
+        ? "ParseResult{range=" + range + ", consumed=" + consumed + "}"
+        : "ParseResult{errorCode=" + errorCode + ", errorOffset=" + errorOffset + "}";
+  }
+}
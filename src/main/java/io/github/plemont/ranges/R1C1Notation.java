@@ -0,0 +1,285 @@
+package io.github.plemont.ranges;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.github.plemont.ranges.Range.UNBOUNDED;
+
+import java.io.IOException;
+
+/**
+ * Parses and formats ranges in R1C1 notation, and converts between R1C1 and A1 notation.
+ *
+ * <p>In R1C1 notation, {@code R} and {@code C} are followed by a 1-indexed row or column, such
+ * as {@code R2C3} for {@code C2}. A number in square brackets is an offset relative to an anchor
+ * cell, typically the cell holding a formula, and a missing number is an offset of zero: with an
+ * anchor of {@code D5}, {@code R[-1]C[2]} is {@code F4} and {@code RC} is {@code D5}. A row or
+ * column on its own, such as {@code R2}, denotes the whole row or column. The sheet name is
+ * optional, and escaped as in A1 notation:
+ *
+ * <pre>
+ * {@code
+ *    Range range = R1C1Notation.parse("'My Sheet'!R2C1:R10C4");
+ *    String a1 = R1C1Notation.toA1("Data!R[-1]C:R[1]C[2]", anchorColumn, anchorRow);
+ *    String r1c1 = R1C1Notation.format(range, anchorColumn, anchorRow);
+ * }
+ * </pre>
+ *
+ * <p>Ranges are scanned by the same {@link RangeScanner} as A1 ranges, directly into primitive
+ * coordinates, so converting between the two notations takes a single pass over the input and
+ * creates no intermediate strings.
+ */
+public final class R1C1Notation {
+  // Private constructor to avoid instantiation.
+  private R1C1Notation() {}
+
+  /**
+   * Parses a range in R1C1 notation with absolute coordinates only.
+   *
+   * @param r1c1 The range, e.g. {@code Sheet1!R1C1:R5C3}.
+   * @return the range, with no sheet name if none was given.
+   * @throws IllegalArgumentException if the range is invalid, or has relative coordinates.
+   */
+  public static Range parse(CharSequence r1c1) {
+    return parse(r1c1, UNBOUNDED, UNBOUNDED);
+  }
+
+  /**
+   * Parses a range in R1C1 notation, resolving relative coordinates against an anchor cell.
+   *
+   * @param r1c1 The range, e.g. {@code Sheet1!R[-1]C:R5C[2]}.
+   * @param anchorColumn The zero-indexed column of the anchor cell.
+   * @param anchorRow The zero-indexed row of the anchor cell.
+   * @return the range, with no sheet name if none was given.
+   * @throws IllegalArgumentException if the range is invalid, or a relative coordinate lies
+   *     outside the grid.
+   */
+  public static Range parse(CharSequence r1c1, int anchorColumn, int anchorRow) {
+    RangeScanner scanner = scan(r1c1, anchorColumn, anchorRow);
+    return Range.of(scanner.sheetName(r1c1), scanner.startColumn - 1, scanner.startRow - 1,
+        scanner.endColumn - 1, scanner.endRow - 1);
+  }
+
+  /**
+   * Forms a range String in R1C1 notation with absolute coordinates.
+   *
+   * @param range The range.
+   * @return the range string, with a sheet name if the range has one.
+   * @throws IllegalStateException if the combination of coordinates cannot be expressed in R1C1
+   *     notation, including where the range covers the whole {@code Sheet}.
+   */
+  public static String format(Range range) {
+    return appendR1C1(new StringBuilder(), range).toString();
+  }
+
+  /**
+   * Forms a range String in R1C1 notation with coordinates relative to an anchor cell.
+   *
+   * @param range The range.
+   * @param anchorColumn The zero-indexed column of the anchor cell.
+   * @param anchorRow The zero-indexed row of the anchor cell.
+   * @return the range string, with a sheet name if the range has one.
+   * @throws IllegalStateException if the combination of coordinates cannot be expressed in R1C1
+   *     notation, including where the range covers the whole {@code Sheet}.
+   */
+  public static String format(Range range, int anchorColumn, int anchorRow) {
+    return appendR1C1(new StringBuilder(), range, anchorColumn, anchorRow).toString();
+  }
+
+  /**
+   * Appends a range in R1C1 notation with absolute coordinates to a {@code StringBuilder}.
+   *
+   * @param sb The {@code StringBuilder} to append to.
+   * @param range The range.
+   * @return the {@code StringBuilder}, for chaining.
+   * @throws IllegalStateException if the range cannot be expressed in R1C1 notation, in which
+   *     case nothing is appended.
+   */
+  public static StringBuilder appendR1C1(StringBuilder sb, Range range) {
+    checkNotNull(sb, "sb cannot be null.");
+    checkNotNull(range, "range cannot be null.");
+    return append(sb, range, UNBOUNDED, UNBOUNDED);
+  }
+
+  /**
+   * Appends a range in R1C1 notation with coordinates relative to an anchor cell to a
+   * {@code StringBuilder}.
+   *
+   * @param sb The {@code StringBuilder} to append to.
+   * @param range The range.
+   * @param anchorColumn The zero-indexed column of the anchor cell.
+   * @param anchorRow The zero-indexed row of the anchor cell.
+   * @return the {@code StringBuilder}, for chaining.
+   * @throws IllegalStateException if the range cannot be expressed in R1C1 notation, in which
+   *     case nothing is appended.
+   */
+  public static StringBuilder appendR1C1(StringBuilder sb, Range range, int anchorColumn,
+      int anchorRow) {
+    checkNotNull(sb, "sb cannot be null.");
+    checkNotNull(range, "range cannot be null.");
+    checkAnchor(anchorColumn, anchorRow);
+    return append(sb, range, anchorColumn, anchorRow);
+  }
+
+  /**
+   * Converts a range in R1C1 notation to A1 notation, resolving relative coordinates against an
+   * anchor cell. The sheet name, if any, is copied as written.
+   *
+   * @param r1c1 The range, e.g. {@code Sheet1!R[-1]C:R5C[2]}.
+   * @param anchorColumn The zero-indexed column of the anchor cell.
+   * @param anchorRow The zero-indexed row of the anchor cell.
+   * @return the range in A1 notation, e.g. {@code Sheet1!D4:F5}.
+   * @throws IllegalArgumentException if the range is invalid, or a relative coordinate lies
+   *     outside the grid.
+   */
+  public static String toA1(CharSequence r1c1, int anchorColumn, int anchorRow) {
+    RangeScanner scanner = scan(r1c1, anchorColumn, anchorRow);
+    StringBuilder sb = new StringBuilder(r1c1.length());
+    appendSheetName(sb, r1c1, scanner);
+    int coordinatesStart = sb.length();
+    try {
+      RangeFormatter.appendCoordinates(sb, scanner.startColumn - 1, scanner.startRow - 1,
+          scanner.endColumn - 1, scanner.endRow - 1);
+    } catch (IOException e) {
+      throw new AssertionError("StringBuilder does not throw IOException", e);
+    }
+    if (!scanner.named) {
+      sb.deleteCharAt(coordinatesStart);
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Converts a range in A1 notation to R1C1 notation with absolute coordinates. The sheet name
+   * is copied as written.
+   *
+   * @param a1 The range, e.g. {@code Sheet1!A1:C5}.
+   * @return the range in R1C1 notation, e.g. {@code Sheet1!R1C1:R5C3}.
+   * @throws IllegalArgumentException if the range is invalid.
+   * @throws IllegalStateException if the range covers the whole {@code Sheet}.
+   */
+  public static String fromA1(CharSequence a1) {
+    return fromA1(a1, UNBOUNDED, UNBOUNDED, false);
+  }
+
+  /**
+   * Converts a range in A1 notation to R1C1 notation with coordinates relative to an anchor cell.
+   * The sheet name is copied as written.
+   *
+   * @param a1 The range, e.g. {@code Sheet1!D4:F5}.
+   * @param anchorColumn The zero-indexed column of the anchor cell.
+   * @param anchorRow The zero-indexed row of the anchor cell.
+   * @return the range in R1C1 notation, e.g. {@code Sheet1!R[-1]C:RC[2]} for an anchor of
+   *     {@code D5}.
+   * @throws IllegalArgumentException if the range is invalid.
+   * @throws IllegalStateException if the range covers the whole {@code Sheet}.
+   */
+  public static String fromA1(CharSequence a1, int anchorColumn, int anchorRow) {
+    return fromA1(a1, anchorColumn, anchorRow, true);
+  }
+
+  private static String fromA1(CharSequence a1, int anchorColumn, int anchorRow,
+      boolean relative) {
+    checkNotNull(a1, "a1 cannot be null.");
+    if (relative) {
+      checkAnchor(anchorColumn, anchorRow);
+    }
+    RangeScanner scanner = new RangeScanner();
+    scanner.scan(a1, 0, a1.length());
+    int startColumn = scanner.startColumn - 1;
+    int startRow = scanner.startRow - 1;
+    int endColumn = scanner.endColumn - 1;
+    int endRow = scanner.endRow - 1;
+    checkExpressible(startColumn, startRow, endColumn, endRow);
+    StringBuilder sb = new StringBuilder(a1.length() + 8);
+    appendSheetName(sb, a1, scanner);
+    sb.append('!');
+    appendCoordinates(sb, startColumn, startRow, endColumn, endRow, anchorColumn, anchorRow);
+    return sb.toString();
+  }
+
+  private static RangeScanner scan(CharSequence r1c1, int anchorColumn, int anchorRow) {
+    checkNotNull(r1c1, "r1c1 cannot be null.");
+    if (anchorColumn != UNBOUNDED || anchorRow != UNBOUNDED) {
+      checkAnchor(anchorColumn, anchorRow);
+    }
+    RangeScanner scanner = new RangeScanner();
+    scanner.scanR1C1(r1c1, 0, r1c1.length(), anchorColumn, anchorRow);
+    return scanner;
+  }
+
+  private static void checkAnchor(int anchorColumn, int anchorRow) {
+    checkArgument(anchorColumn >= 0 && anchorRow >= 0,
+        "Anchor coordinates must be non-negative.");
+  }
+
+  private static void checkExpressible(int startColumn, int startRow, int endColumn,
+      int endRow) {
+    RangeFormatter.checkCoordinates(startColumn, startRow, endColumn, endRow);
+    if (startColumn == UNBOUNDED && startRow == UNBOUNDED) {
+      throw new IllegalStateException("A whole sheet cannot be expressed in R1C1 notation.");
+    }
+  }
+
+  /** Copies the sheet name found by a scan, including any quotes, exactly as written. */
+  private static void appendSheetName(StringBuilder sb, CharSequence range,
+      RangeScanner scanner) {
+    if (scanner.named) {
+      int quote = scanner.quoted ? 1 : 0;
+      sb.append(range, scanner.nameStart - quote, scanner.nameEnd + quote);
+    }
+  }
+
+  private static StringBuilder append(StringBuilder sb, Range range, int anchorColumn,
+      int anchorRow) {
+    int startColumn = range.getStartColumn();
+    int startRow = range.getStartRow();
+    int endColumn = range.getEndColumn();
+    int endRow = range.getEndRow();
+    checkExpressible(startColumn, startRow, endColumn, endRow);
+    if (range.getSheetName() != null) {
+      try {
+        RangeFormatter.appendEscapedSheetName(sb, range.getSheetName());
+      } catch (IOException e) {
+        throw new AssertionError("StringBuilder does not throw IOException", e);
+      }
+      sb.append('!');
+    }
+    appendCoordinates(sb, startColumn, startRow, endColumn, endRow, anchorColumn, anchorRow);
+    return sb;
+  }
+
+  /**
+   * Appends the part of a range following the sheet name, omitting the end where it is the same
+   * as the start, e.g. {@code R1C1} or {@code C2}. Coordinates are absolute where the anchor is
+   * {@link Range#UNBOUNDED}.
+   */
+  private static void appendCoordinates(StringBuilder sb, int startColumn, int startRow,
+      int endColumn, int endRow, int anchorColumn, int anchorRow) {
+    appendPart(sb, startColumn, startRow, anchorColumn, anchorRow);
+    if (startColumn != endColumn || startRow != endRow) {
+      sb.append(':');
+      appendPart(sb, endColumn, endRow, anchorColumn, anchorRow);
+    }
+  }
+
+  private static void appendPart(StringBuilder sb, int column, int row, int anchorColumn,
+      int anchorRow) {
+    if (row != UNBOUNDED) {
+      appendCoordinate(sb.append('R'), row, anchorRow);
+    }
+    if (column != UNBOUNDED) {
+      appendCoordinate(sb.append('C'), column, anchorColumn);
+    }
+  }
+
+  private static void appendCoordinate(StringBuilder sb, int value, int anchor) {
+    if (anchor == UNBOUNDED) {
+      sb.append(value + 1L);
+      return;
+    }
+    long offset = (long) value - anchor;
+    if (offset != 0) {
+      sb.append('[').append(offset).append(']');
+    }
+  }
+}
@@ -0,0 +1,624 @@
+package io.github.plemont.ranges;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.api.services.sheets.v4.model.GridRange;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import java.io.IOException;
+
+/**
+ * An immutable range of cells within a Google Sheets {@code Sheet}.
+ *
+ * <p>Whereas {@link Ranges.RangeContext} is a mutable builder, a {@code Range} is a compact value
+ * type suitable for storing in large collections, using as a map key and sharing between threads.
+ * Coordinates are held as primitive, zero-indexed and inclusive values, in the same manner as
+ * {@code RangeContext}, with {@link #UNBOUNDED} representing a coordinate which is not set. Sheet
+ * names are interned, so that the many ranges referring to the same {@code Sheet} share a single
+ * name instance.
+ *
+ * <p>Ranges can be converted to and from the other representations supported by the library:
+ *
+ * <pre>
+ * {@code
+ *    Range range = Range.parse("Test!A1:C5");
+ *    Range range = Range.fromGridRange(gridRange).withSheetName("Test");
+ *    Range range = Ranges.forSheetName("Test").withStartCell("A1").toValue();
+ *
+ *    String a1 = range.toA1();
+ *    GridRange gridRange = range.withSheetId(0).toGridRange();
+ *    RangeContext context = Ranges.forValue(range).translate(5, 5);
+ * }
+ * </pre>
+ */
+public final class Range implements Comparable<Range> {
+  /** The value of a coordinate which is not set, e.g. the end row of {@code Sheet1!A:C}. */
+  public static final int UNBOUNDED = -1;
+
+  /** The value of the sheet ID for a range where the ID is not known. */
+  public static final int NO_SHEET_ID = -1;
+
+  private static final Interner<String> SHEET_NAMES = Interners.newWeakInterner();
+
+  private final String sheetName;
+  private final int sheetId;
+  private final int startColumn;
+  private final int startRow;
+  private final int endColumn;
+  private final int endRow;
+  private final int hashCode;
+
+  private Range(String sheetName, int sheetId, int startColumn, int startRow, int endColumn,
+      int endRow) {
+    this.sheetName = sheetName;
+    this.sheetId = sheetId;
+    this.startColumn = startColumn;
+    this.startRow = startRow;
+    this.endColumn = endColumn;
+    this.endRow = endRow;
+    int hash = sheetName == null ? 0 : sheetName.hashCode();
+    hash = 31 * hash + sheetId;
+    hash = 31 * hash + startColumn;
+    hash = 31 * hash + startRow;
+    hash = 31 * hash + endColumn;
+    hash = 31 * hash + endRow;
+    this.hashCode = hash;
+  }
+
+  /**
+   * Creates a {@code Range} with no sheet ID.
+   *
+   * @param sheetName The sheet name, or {@code null} if not known.
+   * @param startColumn The zero-indexed start column, or {@link #UNBOUNDED}.
+   * @param startRow The zero-indexed start row, or {@link #UNBOUNDED}.
+   * @param endColumn The zero-indexed end column, inclusive, or {@link #UNBOUNDED}.
+   * @param endRow The zero-indexed end row, inclusive, or {@link #UNBOUNDED}.
+   * @return the created Range.
+   * @throws IllegalArgumentException if the coordinates do not form a valid range.
+   */
+  public static Range of(String sheetName, int startColumn, int startRow, int endColumn,
+      int endRow) {
+    return of(sheetName, NO_SHEET_ID, startColumn, startRow, endColumn, endRow);
+  }
+
+  /**
+   * Creates a {@code Range}.
+   *
+   * <p>An end coordinate can only be set where the corresponding start coordinate is also set,
+   * and must not be less than it.
+   *
+   * @param sheetName The sheet name, or {@code null} if not known.
+   * @param sheetId The sheet ID, or {@link #NO_SHEET_ID}.
+   * @param startColumn The zero-indexed start column, or {@link #UNBOUNDED}.
+   * @param startRow The zero-indexed start row, or {@link #UNBOUNDED}.
+   * @param endColumn The zero-indexed end column, inclusive, or {@link #UNBOUNDED}.
+   * @param endRow The zero-indexed end row, inclusive, or {@link #UNBOUNDED}.
+   * @return the created Range.
+   * @throws IllegalArgumentException if the coordinates do not form a valid range.
+   */
+  public static Range of(String sheetName, int sheetId, int startColumn, int startRow,
+      int endColumn, int endRow) {
+    checkArgument(sheetName == null || (sheetName.length() > 0
+        && sheetName.length() < RangeScanner.SHEET_NAME_MAX_LENGTH), "Invalid sheet name.");
+    checkArgument(sheetId >= NO_SHEET_ID, "Sheet ID must be non-negative.");
+    checkBounds(startColumn, endColumn);
+    checkBounds(startRow, endRow);
+    return new Range(sheetName == null ? null : SHEET_NAMES.intern(sheetName), sheetId,
+        startColumn, startRow, endColumn, endRow);
+  }
+
+  /**
+   * Creates a builder which validates a range only when it is built, reporting any error as a
+   * code rather than throwing.
+   *
+   * @return the builder.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Returns the canonical instance of a sheet name, as held by every {@code Range} on that
+   * {@code Sheet}.
+   */
+  static String internSheetName(String sheetName) {
+    return SHEET_NAMES.intern(sheetName);
+  }
+
+  /**
+   * Creates a {@code Range} from a range String in A1 notation.
+   *
+   * <p>See {@link Ranges.RangeContext#toRange()} for details of valid range String formats.
+   *
+   * @param range The range string.
+   * @return the created Range.
+   * @throws IllegalArgumentException if the range is invalid.
+   */
+  public static Range parse(String range) {
+    checkNotNull(range, "range cannot be null.");
+    return parse(new RangeScanner(), range);
+  }
+
+  /**
+   * Parses a range using a scanner which may be reused between calls.
+   *
+   * @throws IllegalArgumentException if the range is invalid.
+   */
+  static Range parse(RangeScanner scanner, CharSequence range) {
+    scanner.scan(range, 0, range.length());
+    return of(scanner.sheetName(range), scanner.startColumn - 1, scanner.startRow - 1,
+        scanner.endColumn - 1, scanner.endRow - 1);
+  }
+
+  /**
+   * Parses a range using a scanner which may be reused between calls, without throwing.
+   *
+   * @param prefix Whether the range may be followed by other characters, as per
+   *     {@link RangeScanner#scanPrefix(CharSequence, int, int)}.
+   * @return the result, with the number of characters consumed and any error offset relative to
+   *     {@code start}.
+   */
+  static ParseResult tryParse(RangeScanner scanner, CharSequence src, int start, int end,
+      boolean prefix) {
+    int next = scanner.tryScan(src, start, end, prefix);
+    if (next < 0) {
+      return ParseResult.failure(scanner.error, scanner.errorOffset - start);
+    }
+    if (scanner.nameLength >= RangeScanner.SHEET_NAME_MAX_LENGTH) {
+      // The scanner accepts one more character than a Range does.
+      return ParseResult.failure(ParseResult.INVALID_SHEET_NAME, 0);
+    }
+    Range range = of(scanner.sheetName(src), scanner.startColumn - 1, scanner.startRow - 1,
+        scanner.endColumn - 1, scanner.endRow - 1);
+    return new ParseResult(range, next - start);
+  }
+
+  /**
+   * Creates a {@code Range} from a {@link GridRange}. The resulting range has no sheet name.
+   *
+   * <p>Where a {@code GridRange} specifies an end index without a start index, the start is taken
+   * to be the first row or column of the {@code Sheet}.
+   *
+   * @param gridRange The {@code GridRange} object.
+   * @return the created Range.
+   * @throws IllegalArgumentException if the {@code GridRange} is empty.
+   */
+  public static Range fromGridRange(GridRange gridRange) {
+    checkNotNull(gridRange, "gridRange cannot be null.");
+    Integer sheetId = gridRange.getSheetId();
+    Integer startColumn = gridRange.getStartColumnIndex();
+    Integer startRow = gridRange.getStartRowIndex();
+    Integer endColumn = gridRange.getEndColumnIndex();
+    Integer endRow = gridRange.getEndRowIndex();
+    return of(null, sheetId == null ? NO_SHEET_ID : sheetId,
+        gridStart(startColumn, endColumn), gridStart(startRow, endRow),
+        gridEnd(startColumn, endColumn), gridEnd(startRow, endRow));
+  }
+
+  /**
+   * Converts the start index of a dimension of a {@code GridRange} to an inclusive coordinate.
+   *
+   * @param startIndex The start index, or {@code null}.
+   * @param endIndex The exclusive end index, or {@code null}.
+   * @return the coordinate, taken as the first row or column where only the end is set.
+   */
+  static int gridStart(Integer startIndex, Integer endIndex) {
+    return startIndex != null ? startIndex : endIndex != null ? 0 : UNBOUNDED;
+  }
+
+  /**
+   * Converts the exclusive end index of a dimension of a {@code GridRange} to an inclusive
+   * coordinate.
+   *
+   * @param startIndex The start index, or {@code null}.
+   * @param endIndex The exclusive end index, or {@code null}.
+   * @return the coordinate, or {@link #UNBOUNDED} if the end is not set.
+   * @throws IllegalArgumentException if the dimension is empty, the end not lying beyond the
+   *     start.
+   */
+  static int gridEnd(Integer startIndex, Integer endIndex) {
+    if (endIndex == null) {
+      return UNBOUNDED;
+    }
+    checkArgument(endIndex > (startIndex != null ? startIndex : 0), "GridRange is empty.");
+    return endIndex - 1;
+  }
+
+  /**
+   * Returns a copy of this range with the sheet name replaced.
+   *
+   * @param sheetName The desired sheet name, or {@code null}.
+   * @return the new Range.
+   */
+  public Range withSheetName(String sheetName) {
+    return of(sheetName, sheetId, startColumn, startRow, endColumn, endRow);
+  }
+
+  /**
+   * Returns a copy of this range with the sheet ID replaced.
+   *
+   * @param sheetId The desired sheet ID, or {@link #NO_SHEET_ID}.
+   * @return the new Range.
+   */
+  public Range withSheetId(int sheetId) {
+    return of(sheetName, sheetId, startColumn, startRow, endColumn, endRow);
+  }
+
+  /**
+   * Forms a range String in A1 notation.
+   *
+   * @return the range string.
+   * @throws IllegalStateException if the range has no sheet name, or the combination of
+   *     coordinates set cannot be expressed in A1 notation.
+   * @see Ranges.RangeContext#toRange()
+   */
+  public String toA1() {
+    int capacity = sheetName == null ? 0 : sheetName.length() + 24;
+    return appendA1(new StringBuilder(capacity)).toString();
+  }
+
+  /**
+   * Appends the range String in A1 notation to a {@code StringBuilder}.
+   *
+   * @param sb The {@code StringBuilder} to append to.
+   * @return the {@code StringBuilder}, for chaining.
+   * @throws IllegalStateException if the range cannot be expressed in A1 notation, in which case
+   *     nothing is appended.
+   */
+  public StringBuilder appendA1(StringBuilder sb) {
+    return RangeFormatter.appendRange(sb, sheetName, startColumn, startRow, endColumn, endRow);
+  }
+
+  /**
+   * Appends the range String in A1 notation to an {@code Appendable}.
+   *
+   * @param out The {@code Appendable} to append to.
+   * @return the {@code Appendable}, for chaining.
+   * @throws IllegalStateException if the range cannot be expressed in A1 notation, in which case
+   *     nothing is appended.
+   * @throws IOException if thrown by the {@code Appendable}.
+   */
+  public Appendable appendA1(Appendable out) throws IOException {
+    RangeFormatter.appendRange(out, sheetName, startColumn, startRow, endColumn, endRow);
+    return out;
+  }
+
+  /**
+   * Creates a {@link GridRange} from this range.
+   *
+   * @return the created GridRange.
+   */
+  public GridRange toGridRange() {
+    return Ranges.forValue(this).toGridRange();
+  }
+
+  /**
+   * @return the sheet name, or {@code null} if not known.
+   */
+  public String getSheetName() {
+    return sheetName;
+  }
+
+  /**
+   * @return the sheet ID, or {@link #NO_SHEET_ID} if not known.
+   */
+  public int getSheetId() {
+    return sheetId;
+  }
+
+  /**
+   * @return the zero-indexed start column, or {@link #UNBOUNDED}.
+   */
+  public int getStartColumn() {
+    return startColumn;
+  }
+
+  /**
+   * @return the zero-indexed start row, or {@link #UNBOUNDED}.
+   */
+  public int getStartRow() {
+    return startRow;
+  }
+
+  /**
+   * @return the zero-indexed end column, inclusive, or {@link #UNBOUNDED}.
+   */
+  public int getEndColumn() {
+    return endColumn;
+  }
+
+  /**
+   * @return the zero-indexed end row, inclusive, or {@link #UNBOUNDED}.
+   */
+  public int getEndRow() {
+    return endRow;
+  }
+
+  /**
+   * Determines whether all four coordinates of the range are set.
+   *
+   * @return whether the range is bounded.
+   */
+  public boolean isBounded() {
+    return startColumn != UNBOUNDED && startRow != UNBOUNDED && endColumn != UNBOUNDED
+        && endRow != UNBOUNDED;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Range)) {
+      return false;
+    }
+    Range other = (Range) o;
+    // Sheet names are interned, so reference equality suffices.
+    return hashCode == other.hashCode
+        && sheetId == other.sheetId
+        && startColumn == other.startColumn
+        && startRow == other.startRow
+        && endColumn == other.endColumn
+        && endRow == other.endRow
+        && sheetName == other.sheetName;
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  /**
+   * Orders ranges by sheet ID, then sheet name, then row-major by start cell and end cell. Unset
+   * start coordinates are ordered before the first row or column, and unset end coordinates after
+   * the last.
+   */
+  @Override
+  public int compareTo(Range other) {
+    int result = Integer.compare(sheetId, other.sheetId);
+    if (result != 0) {
+      return result;
+    }
+    if (sheetName != other.sheetName) {
+      if (sheetName == null) {
+        return -1;
+      } else if (other.sheetName == null) {
+        return 1;
+      }
+      result = sheetName.compareTo(other.sheetName);
+      if (result != 0) {
+        return result;
+      }
+    }
+    result = Integer.compare(startRow, other.startRow);
+    if (result != 0) {
+      return result;
+    }
+    result = Integer.compare(startColumn, other.startColumn);
+    if (result != 0) {
+      return result;
+    }
+    // Comparing unsigned orders UNBOUNDED after all other end coordinates.
+    result = Integer.compareUnsigned(endRow, other.endRow);
+    if (result != 0) {
+      return result;
+    }
+    return Integer.compareUnsigned(endColumn, other.endColumn);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("Range{");
+    if (sheetName != null) {
+      sb.append("sheetName=").append(sheetName).append(", ");
+    }
+    if (sheetId != NO_SHEET_ID) {
+      sb.append("sheetId=").append(sheetId).append(", ");
+    }
+    return sb.append("startColumn=").append(startColumn)
+        .append(", startRow=").append(startRow)
+        .append(", endColumn=").append(endColumn)
+        .append(", endRow=").append(endRow)
+        .append('}').toString();
+  }
+
+  /**
+   * Checks that an end coordinate is only set where the start coordinate is, and that the start is
+   * not after the end.
+   */
+  static void checkBounds(int start, int end) {
+    checkArgument(start >= UNBOUNDED && end >= UNBOUNDED, "Coordinates must be non-negative.");
+    checkArgument(end == UNBOUNDED || (start != UNBOUNDED && start <= end),
+        "End coordinate must not be set before, or without, the start coordinate.");
+  }
+
+  /**
+   * A builder of {@code Range} objects which never throws for invalid input.
+   *
+   * <p>Whereas the setters of {@link Ranges.RangeContext} throw as soon as they are given an
+   * invalid value, a {@code Builder} records the first error it finds, and
+   * {@link #build()} returns it as the error code and offset of a {@link ParseResult}. Setters may
+   * be called in any order, as the coordinates are only checked against one another, and their
+   * bounds ordered, when the range is built:
+   *
+   * <pre>
+   * {@code
+   *    ParseResult result = Range.builder()
+   *        .withSheetName(name)
+   *        .withStartCell(startCell)
+   *        .withEndCell(endCell)
+   *        .build();
+   *    if (result.isValid()) {
+   *      ranges.add(result.getRange());
+   *    }
+   * }
+   * </pre>
+   *
+   * <p>Error offsets are those within the cell given to {@link #withStartCell(CharSequence)} or
+   * {@link #withEndCell(CharSequence)}, or {@code -1} for errors in other values.
+   */
+  public static final class Builder {
+    private final RangeScanner scanner = new RangeScanner();
+    private String sheetName;
+    private int sheetId = NO_SHEET_ID;
+    private int startColumn = UNBOUNDED;
+    private int startRow = UNBOUNDED;
+    private int endColumn = UNBOUNDED;
+    private int endRow = UNBOUNDED;
+    private int errorCode = ParseResult.OK;
+    private int errorOffset = -1;
+
+    private Builder() {}
+
+    /**
+     * Sets the sheet name.
+     *
+     * @param sheetName The sheet name, or {@code null} for none.
+     * @return this builder, for chaining.
+     */
+    public Builder withSheetName(String sheetName) {
+      if (sheetName != null && (sheetName.isEmpty()
+          || sheetName.length() >= RangeScanner.SHEET_NAME_MAX_LENGTH)) {
+        return fail(ParseResult.INVALID_SHEET_NAME, -1);
+      }
+      this.sheetName = sheetName;
+      return this;
+    }
+
+    /**
+     * Sets the sheet ID.
+     *
+     * @param sheetId The sheet ID, or {@link #NO_SHEET_ID}.
+     * @return this builder, for chaining.
+     */
+    public Builder withSheetId(int sheetId) {
+      if (sheetId < NO_SHEET_ID) {
+        return fail(ParseResult.INVALID_SHEET_ID, -1);
+      }
+      this.sheetId = sheetId;
+      return this;
+    }
+
+    /**
+     * Sets the start column.
+     *
+     * @param startColumn The zero-indexed start column, or {@link #UNBOUNDED}.
+     * @return this builder, for chaining.
+     */
+    public Builder withStartColumn(int startColumn) {
+      this.startColumn = checkCoordinate(startColumn);
+      return this;
+    }
+
+    /**
+     * Sets the start row.
+     *
+     * @param startRow The zero-indexed start row, or {@link #UNBOUNDED}.
+     * @return this builder, for chaining.
+     */
+    public Builder withStartRow(int startRow) {
+      this.startRow = checkCoordinate(startRow);
+      return this;
+    }
+
+    /**
+     * Sets the end column.
+     *
+     * @param endColumn The zero-indexed end column, inclusive, or {@link #UNBOUNDED}.
+     * @return this builder, for chaining.
+     */
+    public Builder withEndColumn(int endColumn) {
+      this.endColumn = checkCoordinate(endColumn);
+      return this;
+    }
+
+    /**
+     * Sets the end row.
+     *
+     * @param endRow The zero-indexed end row, inclusive, or {@link #UNBOUNDED}.
+     * @return this builder, for chaining.
+     */
+    public Builder withEndRow(int endRow) {
+      this.endRow = checkCoordinate(endRow);
+      return this;
+    }
+
+    /**
+     * Sets the start column and/or row from a cell in A1 notation, such as {@code B3}, {@code B}
+     * or {@code 3}. A coordinate missing from the cell is left unchanged.
+     *
+     * @param a1Cell The start cell.
+     * @return this builder, for chaining.
+     */
+    public Builder withStartCell(CharSequence a1Cell) {
+      checkNotNull(a1Cell, "a1Cell cannot be null.");
+      if (scanCell(a1Cell)) {
+        startColumn = scanner.startColumn > 0 ? scanner.startColumn - 1 : startColumn;
+        startRow = scanner.startRow > 0 ? scanner.startRow - 1 : startRow;
+      }
+      return this;
+    }
+
+    /**
+     * Sets the end column and/or row from a cell in A1 notation, such as {@code D5}, {@code D}
+     * or {@code 5}. A coordinate missing from the cell is left unchanged.
+     *
+     * @param a1Cell The end cell.
+     * @return this builder, for chaining.
+     */
+    public Builder withEndCell(CharSequence a1Cell) {
+      checkNotNull(a1Cell, "a1Cell cannot be null.");
+      if (scanCell(a1Cell)) {
+        endColumn = scanner.startColumn > 0 ? scanner.startColumn - 1 : endColumn;
+        endRow = scanner.startRow > 0 ? scanner.startRow - 1 : endRow;
+      }
+      return this;
+    }
+
+    /**
+     * Builds the range, ordering its bounds so that each start is no greater than its end. The
+     * builder may continue to be used afterwards.
+     *
+     * @return the result holding the range, or the first error found.
+     */
+    public ParseResult build() {
+      if (errorCode != ParseResult.OK) {
+        return ParseResult.failure(errorCode, errorOffset);
+      }
+      if ((endColumn != UNBOUNDED && startColumn == UNBOUNDED)
+          || (endRow != UNBOUNDED && startRow == UNBOUNDED)) {
+        return ParseResult.failure(ParseResult.END_WITHOUT_START, -1);
+      }
+      boolean swapColumns = endColumn != UNBOUNDED && endColumn < startColumn;
+      boolean swapRows = endRow != UNBOUNDED && endRow < startRow;
+      return new ParseResult(of(sheetName, sheetId,
+          swapColumns ? endColumn : startColumn, swapRows ? endRow : startRow,
+          swapColumns ? startColumn : endColumn, swapRows ? startRow : endRow), 0);
+    }
+
+    private int checkCoordinate(int coordinate) {
+      if (coordinate < UNBOUNDED) {
+        fail(ParseResult.COORDINATE_OUT_OF_RANGE, -1);
+        return UNBOUNDED;
+      }
+      return coordinate;
+    }
+
+    private boolean scanCell(CharSequence a1Cell) {
+      if (!scanner.scanSingleCell(a1Cell, 0, a1Cell.length())) {
+        fail(scanner.error, scanner.errorOffset);
+        return false;
+      }
+      return true;
+    }
+
+    private Builder fail(int code, int offset) {
+      if (errorCode == ParseResult.OK) {
+        errorCode = code;
+        errorOffset = offset;
+      }
+      return this;
+    }
+  }
+}
@@ -0,0 +1,655 @@
+package io.github.plemont.ranges;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.github.plemont.ranges.Range.NO_SHEET_ID;
+import static io.github.plemont.ranges.Range.UNBOUNDED;
+
+import com.google.api.services.sheets.v4.model.GridRange;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A growable batch of ranges held in columns of primitive arrays: one {@code int[]} each for the
+ * sheet ID and the four coordinates.
+ *
+ * <p>Each range occupies 20 bytes, with no object per range, so that batches of millions of
+ * ranges can be held and processed in bulk, for example by
+ * {@link StructuralEdit#applyAll(RangeArray)}. Coordinates are zero-indexed and inclusive, with
+ * {@link Range#UNBOUNDED} representing a coordinate which is not set, as for {@link Range}. Sheet
+ * names are not stored: conversion to and from A1 notation maps them to sheet IDs through a
+ * {@link SheetRegistry}.
+ *
+ * <pre>
+ * {@code
+ *    RangeArray ranges = RangeArray.parseAll(rangeStrings, registry);
+ *    ranges.sort(Cells.Order.ROW_MAJOR);
+ *    int index = ranges.binarySearch(Range.parse("Data!B2:C3").withSheetId(dataId),
+ *        Cells.Order.ROW_MAJOR);
+ * }
+ * </pre>
+ *
+ * <p>Instances are not thread-safe.
+ */
+public final class RangeArray {
+  int[] sheetIds;
+  int[] startColumns;
+  int[] startRows;
+  int[] endColumns;
+  int[] endRows;
+  int size;
+
+  private RangeArray(int capacity) {
+    sheetIds = new int[capacity];
+    startColumns = new int[capacity];
+    startRows = new int[capacity];
+    endColumns = new int[capacity];
+    endRows = new int[capacity];
+  }
+
+  /**
+   * Creates an empty array.
+   *
+   * @return the created array.
+   */
+  public static RangeArray create() {
+    return new RangeArray(16);
+  }
+
+  /**
+   * Creates an empty array with room for the specified number of ranges before it must grow.
+   *
+   * @param capacity The initial capacity.
+   * @return the created array.
+   */
+  public static RangeArray create(int capacity) {
+    checkArgument(capacity >= 0, "capacity must be non-negative.");
+    return new RangeArray(capacity);
+  }
+
+  /**
+   * Parses a batch of range Strings in A1 notation, setting the sheet ID of each from its sheet
+   * name.
+   *
+   * <p>A single scanner is reused for every range, and no {@code Range} is created. The sheet
+   * name is only extracted where it differs from that of the previous range.
+   *
+   * @param ranges The range strings.
+   * @param registry The sheets which the ranges may refer to.
+   * @return the parsed ranges, in the same order as the input.
+   * @throws IllegalArgumentException if a range is invalid, or its sheet name is not in the
+   *     registry.
+   */
+  public static RangeArray parseAll(Collection<? extends CharSequence> ranges,
+      SheetRegistry registry) {
+    checkNotNull(ranges, "ranges cannot be null.");
+    checkNotNull(registry, "registry cannot be null.");
+    RangeArray array = new RangeArray(ranges.size());
+    RangeScanner scanner = new RangeScanner();
+    String sheetName = null;
+    int sheetId = NO_SHEET_ID;
+    for (CharSequence range : ranges) {
+      checkNotNull(range, "range cannot be null.");
+      try {
+        scanner.scan(range, 0, range.length());
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException(
+            "Invalid range at index " + array.size + ": " + e.getMessage(), e);
+      }
+      if (sheetName == null || !isSheetName(sheetName, range, scanner)) {
+        sheetName = scanner.sheetName(range);
+        sheetId = registry.getSheetId(sheetName);
+      }
+      array.append(sheetId, scanner.startColumn - 1, scanner.startRow - 1,
+          scanner.endColumn - 1, scanner.endRow - 1);
+    }
+    return array;
+  }
+
+  /**
+   * Converts a batch of {@link GridRange}s, interpreting each as per
+   * {@link Range#fromGridRange(GridRange)}.
+   *
+   * @param gridRanges The {@code GridRange} objects.
+   * @return the converted ranges, in the same order as the input.
+   * @throws IllegalArgumentException if a {@code GridRange} does not form a valid range.
+   */
+  public static RangeArray fromGridRanges(Collection<GridRange> gridRanges) {
+    checkNotNull(gridRanges, "gridRanges cannot be null.");
+    RangeArray array = new RangeArray(gridRanges.size());
+    for (GridRange gridRange : gridRanges) {
+      checkNotNull(gridRange, "gridRange cannot be null.");
+      Integer sheetId = gridRange.getSheetId();
+      Integer startColumn = gridRange.getStartColumnIndex();
+      Integer startRow = gridRange.getStartRowIndex();
+      Integer endColumn = gridRange.getEndColumnIndex();
+      Integer endRow = gridRange.getEndRowIndex();
+      array.append(sheetId == null ? NO_SHEET_ID : sheetId,
+          Range.gridStart(startColumn, endColumn), Range.gridStart(startRow, endRow),
+          Range.gridEnd(startColumn, endColumn), Range.gridEnd(startRow, endRow));
+    }
+    return array;
+  }
+
+  /**
+   * Wraps existing columns of coordinates, without copying them, for example to run bulk
+   * operations over data loaded in columnar form. Writes to the array are visible in the columns
+   * until it grows.
+   *
+   * <p>The entries are not validated. Call {@link #orderBounds(boolean)} to order and check them
+   * before any other use.
+   *
+   * @param sheetIds The sheet IDs.
+   * @param startColumns The zero-indexed start columns.
+   * @param startRows The zero-indexed start rows.
+   * @param endColumns The zero-indexed end columns.
+   * @param endRows The zero-indexed end rows.
+   * @return the array, with one entry per element of the columns.
+   * @throws IllegalArgumentException if the columns differ in length.
+   */
+  public static RangeArray wrap(int[] sheetIds, int[] startColumns, int[] startRows,
+      int[] endColumns, int[] endRows) {
+    checkNotNull(sheetIds, "sheetIds cannot be null.");
+    int size = sheetIds.length;
+    checkArgument(startColumns.length == size && startRows.length == size
+        && endColumns.length == size && endRows.length == size,
+        "Columns must all have the same length.");
+    RangeArray array = new RangeArray(0);
+    array.sheetIds = sheetIds;
+    array.startColumns = startColumns;
+    array.startRows = startRows;
+    array.endColumns = endColumns;
+    array.endRows = endRows;
+    array.size = size;
+    return array;
+  }
+
+  /**
+   * Appends a range.
+   *
+   * @param sheetId The sheet ID, or {@link Range#NO_SHEET_ID}.
+   * @param startColumn The zero-indexed start column, or {@link Range#UNBOUNDED}.
+   * @param startRow The zero-indexed start row, or {@link Range#UNBOUNDED}.
+   * @param endColumn The zero-indexed end column, inclusive, or {@link Range#UNBOUNDED}.
+   * @param endRow The zero-indexed end row, inclusive, or {@link Range#UNBOUNDED}.
+   * @return the index of the appended range.
+   * @throws IllegalArgumentException if the coordinates do not form a valid range.
+   */
+  public int append(int sheetId, int startColumn, int startRow, int endColumn, int endRow) {
+    checkArgument(sheetId >= NO_SHEET_ID, "Sheet ID must be non-negative.");
+    Range.checkBounds(startColumn, endColumn);
+    Range.checkBounds(startRow, endRow);
+    if (size == sheetIds.length) {
+      grow();
+    }
+    sheetIds[size] = sheetId;
+    startColumns[size] = startColumn;
+    startRows[size] = startRow;
+    endColumns[size] = endColumn;
+    endRows[size] = endRow;
+    return size++;
+  }
+
+  /**
+   * Appends a range. The sheet name of the range is not stored.
+   *
+   * @param range The range.
+   * @return the index of the appended range.
+   */
+  public int append(Range range) {
+    checkNotNull(range, "range cannot be null.");
+    return append(range.getSheetId(), range.getStartColumn(), range.getStartRow(),
+        range.getEndColumn(), range.getEndRow());
+  }
+
+  /**
+   * @return the number of ranges in the array.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @param index The index of the range.
+   * @return the sheet ID of the range, or {@link Range#NO_SHEET_ID}.
+   */
+  public int getSheetId(int index) {
+    checkElementIndex(index, size);
+    return sheetIds[index];
+  }
+
+  /**
+   * @param index The index of the range.
+   * @return the zero-indexed start column of the range, or {@link Range#UNBOUNDED}.
+   */
+  public int getStartColumn(int index) {
+    checkElementIndex(index, size);
+    return startColumns[index];
+  }
+
+  /**
+   * @param index The index of the range.
+   * @return the zero-indexed start row of the range, or {@link Range#UNBOUNDED}.
+   */
+  public int getStartRow(int index) {
+    checkElementIndex(index, size);
+    return startRows[index];
+  }
+
+  /**
+   * @param index The index of the range.
+   * @return the zero-indexed end column of the range, inclusive, or {@link Range#UNBOUNDED}.
+   */
+  public int getEndColumn(int index) {
+    checkElementIndex(index, size);
+    return endColumns[index];
+  }
+
+  /**
+   * @param index The index of the range.
+   * @return the zero-indexed end row of the range, inclusive, or {@link Range#UNBOUNDED}.
+   */
+  public int getEndRow(int index) {
+    checkElementIndex(index, size);
+    return endRows[index];
+  }
+
+  /**
+   * Creates a {@link Range} from an entry in the array.
+   *
+   * @param index The index of the range.
+   * @return the range, which has no sheet name.
+   */
+  public Range get(int index) {
+    checkElementIndex(index, size);
+    return Range.of(null, sheetIds[index], startColumns[index], startRows[index],
+        endColumns[index], endRows[index]);
+  }
+
+  /**
+   * Appends an entry to a {@code StringBuilder} in A1 notation, with the sheet name from a
+   * registry.
+   *
+   * @param sb The {@code StringBuilder} to append to.
+   * @param index The index of the range.
+   * @param registry The sheets which the ranges refer to.
+   * @return the {@code StringBuilder}, for chaining.
+   * @throws IllegalArgumentException if the sheet ID of the range is not in the registry.
+   * @throws IllegalStateException if the range cannot be expressed in A1 notation, in which case
+   *     nothing is appended.
+   */
+  public StringBuilder appendA1(StringBuilder sb, int index, SheetRegistry registry) {
+    checkNotNull(sb, "sb cannot be null.");
+    checkElementIndex(index, size);
+    checkNotNull(registry, "registry cannot be null.");
+    String escapedSheetName = registry.getEscapedSheetName(sheetIds[index]);
+    RangeFormatter.checkCoordinates(startColumns[index], startRows[index], endColumns[index],
+        endRows[index]);
+    sb.append(escapedSheetName);
+    try {
+      RangeFormatter.appendCoordinates(sb, startColumns[index], startRows[index],
+          endColumns[index], endRows[index]);
+    } catch (IOException e) {
+      throw new AssertionError("StringBuilder does not throw IOException", e);
+    }
+    return sb;
+  }
+
+  /**
+   * Converts every range to a String in A1 notation, with sheet names from a registry.
+   *
+   * @param registry The sheets which the ranges refer to.
+   * @return the range strings, in the same order as the array.
+   * @throws IllegalArgumentException if the sheet ID of a range is not in the registry.
+   * @throws IllegalStateException if a range cannot be expressed in A1 notation.
+   */
+  public String[] toA1(SheetRegistry registry) {
+    checkNotNull(registry, "registry cannot be null.");
+    String[] ranges = new String[size];
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < size; i++) {
+      sb.setLength(0);
+      ranges[i] = appendA1(sb, i, registry).toString();
+    }
+    return ranges;
+  }
+
+  /**
+   * Converts every range to a {@link GridRange}, as per {@link Range#toGridRange()}.
+   *
+   * @return the {@code GridRange} objects, in the same order as the array.
+   */
+  public List<GridRange> toGridRanges() {
+    List<GridRange> gridRanges = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      GridRange gridRange = new GridRange();
+      gridRange.setSheetId(sheetIds[i] != NO_SHEET_ID ? sheetIds[i] : null);
+      gridRange.setStartRowIndex(startRows[i] != UNBOUNDED ? startRows[i] : null);
+      gridRange.setEndRowIndex(endRows[i] != UNBOUNDED ? endRows[i] + 1 : null);
+      gridRange.setStartColumnIndex(startColumns[i] != UNBOUNDED ? startColumns[i] : null);
+      gridRange.setEndColumnIndex(endColumns[i] != UNBOUNDED ? endColumns[i] + 1 : null);
+      gridRanges.add(gridRange);
+    }
+    return gridRanges;
+  }
+
+  /**
+   * Sorts the ranges by sheet ID, then by start cell and end cell in the specified order.
+   *
+   * <p>In row-major order, ranges are ordered as by {@link Range#compareTo(Range)}: unset start
+   * coordinates before the first row or column, and unset end coordinates after the last. The
+   * sort is stable.
+   *
+   * @param order Whether to compare rows or columns first.
+   */
+  public void sort(Cells.Order order) {
+    checkNotNull(order, "order cannot be null.");
+    boolean rowMajor = order == Cells.Order.ROW_MAJOR;
+    int[] permutation = new int[size];
+    for (int i = 0; i < size; i++) {
+      permutation[i] = i;
+    }
+    mergeSort(permutation, permutation.clone(), 0, size, rowMajor);
+    sheetIds = permute(sheetIds, permutation);
+    startColumns = permute(startColumns, permutation);
+    startRows = permute(startRows, permutation);
+    endColumns = permute(endColumns, permutation);
+    endRows = permute(endRows, permutation);
+  }
+
+  /**
+   * Searches for a range in an array sorted by {@link #sort(Cells.Order)}, comparing sheet IDs and
+   * coordinates. The sheet name of the key is ignored.
+   *
+   * @param key The range to search for.
+   * @param order The order in which the array is sorted.
+   * @return the index of a matching range, or {@code -(insertion point) - 1} if there is none, as
+   *     for {@link Arrays#binarySearch(int[], int)}.
+   */
+  public int binarySearch(Range key, Cells.Order order) {
+    checkNotNull(key, "key cannot be null.");
+    checkNotNull(order, "order cannot be null.");
+    boolean rowMajor = order == Cells.Order.ROW_MAJOR;
+    int low = 0;
+    int high = size - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int result = compare(mid, key.getSheetId(), key.getStartColumn(), key.getStartRow(),
+          key.getEndColumn(), key.getEndRow(), rowMajor);
+      if (result < 0) {
+        low = mid + 1;
+      } else if (result > 0) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -(low + 1);
+  }
+
+  /**
+   * Translates every range in place, as per {@link Ranges.RangeContext#translate(int, int)}.
+   * Ranges which cannot be translated are left unchanged, and listed in the report.
+   *
+   * @param deltaX The number of columns to translate by.
+   * @param deltaY The number of rows to translate by.
+   * @param parallel Whether to split large batches across the threads of the common
+   *     {@code ForkJoinPool}.
+   * @return the report of the ranges changed and invalidated.
+   */
+  public ShiftReport translate(int deltaX, int deltaY, boolean parallel) {
+    return apply(RangeTransform.builder().translate(deltaX, deltaY).build(), parallel);
+  }
+
+  /**
+   * Expands every range in place, as per {@link Ranges.RangeContext#expandColumns(int)} and
+   * {@link Ranges.RangeContext#expandRows(int)}. Ranges which cannot be expanded are left
+   * unchanged, and listed in the report.
+   *
+   * @param numExtraColumns The number of extra columns to add to each range, or {@code 0}.
+   * @param numExtraRows The number of extra rows to add to each range, or {@code 0}.
+   * @param parallel Whether to split large batches across the threads of the common
+   *     {@code ForkJoinPool}.
+   * @return the report of the ranges changed and invalidated.
+   * @throws IllegalArgumentException if either number is negative.
+   */
+  public ShiftReport expand(int numExtraColumns, int numExtraRows, boolean parallel) {
+    checkArgument(numExtraColumns >= 0 && numExtraRows >= 0,
+        "Expansion must be non-negative.");
+    RangeTransform.Builder builder = RangeTransform.builder();
+    if (numExtraColumns > 0) {
+      builder.expandColumns(numExtraColumns);
+    }
+    if (numExtraRows > 0) {
+      builder.expandRows(numExtraRows);
+    }
+    return apply(builder.build(), parallel);
+  }
+
+  /**
+   * Clips every range in place to a grid, as per {@link RangeTransform.Builder#clip(int, int)}.
+   * Ranges starting beyond the grid are left unchanged, and listed in the report.
+   *
+   * @param columnCount The number of columns in the grid.
+   * @param rowCount The number of rows in the grid.
+   * @param parallel Whether to split large batches across the threads of the common
+   *     {@code ForkJoinPool}.
+   * @return the report of the ranges changed and invalidated.
+   * @throws IllegalArgumentException if either count is not positive.
+   */
+  public ShiftReport clip(int columnCount, int rowCount, boolean parallel) {
+    return apply(RangeTransform.builder().clip(columnCount, rowCount).build(), parallel);
+  }
+
+  /**
+   * Clips every range in place to the grid of its own {@code Sheet}, as per
+   * {@link #clip(int, int, boolean)}. Ranges on sheets which are not in the registry, and
+   * dimensions whose size is not known, are not clipped.
+   *
+   * @param registry The sheets which the ranges refer to, with their grid sizes.
+   * @param parallel Whether to split large batches across the threads of the common
+   *     {@code ForkJoinPool}.
+   * @return the report of the ranges changed and invalidated.
+   */
+  public ShiftReport clip(SheetRegistry registry, boolean parallel) {
+    checkNotNull(registry, "registry cannot be null.");
+    return RangeArrayTask.run(size, (from, to, invalidated) -> {
+      int changed = 0;
+      // Consecutive ranges are usually on the same sheet, so its bounds are looked up once.
+      int sheetId = NO_SHEET_ID;
+      int maxColumn = Integer.MAX_VALUE;
+      int maxRow = Integer.MAX_VALUE;
+      for (int i = from; i < to; i++) {
+        if (i == from || sheetIds[i] != sheetId) {
+          sheetId = sheetIds[i];
+          boolean known = registry.containsSheetId(sheetId);
+          maxColumn = maxIndex(known ? registry.getColumnCount(sheetId) : 0);
+          maxRow = maxIndex(known ? registry.getRowCount(sheetId) : 0);
+        }
+        if (startColumns[i] > maxColumn || startRows[i] > maxRow) {
+          invalidated[i >>> 6] |= 1L << i;
+        } else if (endColumns[i] > maxColumn || endRows[i] > maxRow) {
+          endColumns[i] = Math.min(endColumns[i], maxColumn);
+          endRows[i] = Math.min(endRows[i], maxRow);
+          changed++;
+        }
+      }
+      return changed;
+    }, parallel);
+  }
+
+  /**
+   * Orders the bounds of every range in place, as {@link Ranges.RangeContext} does, so that each
+   * start is no greater than its end. This is only needed for arrays created by
+   * {@link #wrap(int[], int[], int[], int[], int[])}, as appended ranges are always ordered.
+   *
+   * <p>Ranges which cannot be ordered, having a negative coordinate other than
+   * {@link Range#UNBOUNDED} or an end set without its start, are left unchanged and listed in the
+   * report, as are ranges with an invalid sheet ID.
+   *
+   * @param parallel Whether to split large batches across the threads of the common
+   *     {@code ForkJoinPool}.
+   * @return the report of the ranges changed and invalidated.
+   */
+  public ShiftReport orderBounds(boolean parallel) {
+    return RangeArrayTask.run(size, (from, to, invalidated) -> {
+      int changed = 0;
+      for (int i = from; i < to; i++) {
+        int startColumn = startColumns[i];
+        int startRow = startRows[i];
+        int endColumn = endColumns[i];
+        int endRow = endRows[i];
+        if (sheetIds[i] < NO_SHEET_ID || startColumn < UNBOUNDED || startRow < UNBOUNDED
+            || endColumn < UNBOUNDED || endRow < UNBOUNDED
+            || (startColumn == UNBOUNDED && endColumn != UNBOUNDED)
+            || (startRow == UNBOUNDED && endRow != UNBOUNDED)) {
+          invalidated[i >>> 6] |= 1L << i;
+          continue;
+        }
+        boolean swapColumns = endColumn != UNBOUNDED && endColumn < startColumn;
+        boolean swapRows = endRow != UNBOUNDED && endRow < startRow;
+        if (swapColumns) {
+          startColumns[i] = endColumn;
+          endColumns[i] = startColumn;
+        }
+        if (swapRows) {
+          startRows[i] = endRow;
+          endRows[i] = startRow;
+        }
+        if (swapColumns || swapRows) {
+          changed++;
+        }
+      }
+      return changed;
+    }, parallel);
+  }
+
+  /**
+   * Counts the cells in the bounded ranges of the array. Ranges with any coordinate not set are
+   * not counted.
+   *
+   * @param parallel Whether to split large batches across the threads of the common
+   *     {@code ForkJoinPool}.
+   * @return the total number of cells, counting overlapping cells once per range.
+   */
+  public long cellCount(boolean parallel) {
+    return RangeArrayTask.sum(size, (from, to, invalidated) -> {
+      long count = 0;
+      for (int i = from; i < to; i++) {
+        // An unset end coordinate is UNBOUNDED, and so contributes no cells.
+        long width = Math.max((long) endColumns[i] - startColumns[i] + 1, 0);
+        long height = Math.max((long) endRows[i] - startRows[i] + 1, 0);
+        count += endColumns[i] == UNBOUNDED || endRows[i] == UNBOUNDED ? 0 : width * height;
+      }
+      return count;
+    }, parallel);
+  }
+
+  @Override
+  public String toString() {
+    return "RangeArray{size=" + size + "}";
+  }
+
+  private ShiftReport apply(RangeTransform transform, boolean parallel) {
+    return parallel ? transform.applyAllParallel(this) : transform.applyAll(this);
+  }
+
+  /** Returns the largest index within a dimension of the given size, which may be unknown. */
+  private static int maxIndex(int count) {
+    return count > 0 ? count - 1 : Integer.MAX_VALUE;
+  }
+
+  /** Determines whether the name found by a scan is equal to a name, without extracting it. */
+  private static boolean isSheetName(String sheetName, CharSequence range, RangeScanner scanner) {
+    int length = scanner.nameEnd - scanner.nameStart;
+    if (scanner.escaped || length != sheetName.length()) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (range.charAt(scanner.nameStart + i) != sheetName.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Sorts {@code permutation[from, to)}, using {@code scratch}, which must hold the same values.
+   */
+  private void mergeSort(int[] permutation, int[] scratch, int from, int to, boolean rowMajor) {
+    if (to - from < 16) {
+      for (int i = from + 1; i < to; i++) {
+        int value = permutation[i];
+        int j = i;
+        for (; j > from && compare(permutation[j - 1], value, rowMajor) > 0; j--) {
+          permutation[j] = permutation[j - 1];
+        }
+        permutation[j] = value;
+      }
+      return;
+    }
+    int mid = (from + to) >>> 1;
+    // Sort each half of scratch, then merge them back into permutation.
+    mergeSort(scratch, permutation, from, mid, rowMajor);
+    mergeSort(scratch, permutation, mid, to, rowMajor);
+    for (int i = from, left = from, right = mid; i < to; i++) {
+      if (right >= to || (left < mid && compare(scratch[left], scratch[right], rowMajor) <= 0)) {
+        permutation[i] = scratch[left++];
+      } else {
+        permutation[i] = scratch[right++];
+      }
+    }
+  }
+
+  private int compare(int a, int b, boolean rowMajor) {
+    return compare(a, sheetIds[b], startColumns[b], startRows[b], endColumns[b], endRows[b],
+        rowMajor);
+  }
+
+  private int compare(int index, int sheetId, int startColumn, int startRow, int endColumn,
+      int endRow, boolean rowMajor) {
+    int result = Integer.compare(sheetIds[index], sheetId);
+    if (result != 0) {
+      return result;
+    }
+    int firstStart = rowMajor ? startRows[index] : startColumns[index];
+    int secondStart = rowMajor ? startColumns[index] : startRows[index];
+    int firstEnd = rowMajor ? endRows[index] : endColumns[index];
+    int secondEnd = rowMajor ? endColumns[index] : endRows[index];
+    result = Integer.compare(firstStart, rowMajor ? startRow : startColumn);
+    if (result != 0) {
+      return result;
+    }
+    result = Integer.compare(secondStart, rowMajor ? startColumn : startRow);
+    if (result != 0) {
+      return result;
+    }
+    // Comparing unsigned orders UNBOUNDED after all other end coordinates.
+    result = Integer.compareUnsigned(firstEnd, rowMajor ? endRow : endColumn);
+    if (result != 0) {
+      return result;
+    }
+    return Integer.compareUnsigned(secondEnd, rowMajor ? endColumn : endRow);
+  }
+
+  private int[] permute(int[] values, int[] permutation) {
+    int[] permuted = new int[values.length];
+    for (int i = 0; i < size; i++) {
+      permuted[i] = values[permutation[i]];
+    }
+    return permuted;
+  }
+
+  private void grow() {
+    int capacity = Math.max(16, sheetIds.length + (sheetIds.length >> 1));
+    sheetIds = Arrays.copyOf(sheetIds, capacity);
+    startColumns = Arrays.copyOf(startColumns, capacity);
+    startRows = Arrays.copyOf(startRows, capacity);
+    endColumns = Arrays.copyOf(endColumns, capacity);
+    endRows = Arrays.copyOf(endRows, capacity);
+  }
+}
@@ -0,0 +1,69 @@
+package io.github.plemont.ranges;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Runs an in-place operation over the entries of a {@link RangeArray}, sequentially or in
+ * parallel, and reports the entries which the operation changed or invalidated, or sums a value
+ * over the entries.
+ *
+ * <p>Parallel runs split the entries in halves with fork-join until slices are no larger than
+ * {@link BulkConverter#PARALLEL_THRESHOLD}. Slices start at multiples of 64, so that each slice
+ * writes only its own words of the shared bit set of invalidated entries.
+ */
+final class RangeArrayTask extends RecursiveTask<Long> {
+  /** An operation on the entries {@code [from, to)} of a batch. */
+  interface Slice {
+    /**
+     * Applies the operation, setting the bit for each invalidated entry.
+     *
+     * @param invalidated The bit set of invalidated entries, or {@code null} when summing.
+     * @return the number of entries changed, or the sum over the entries.
+     */
+    long apply(int from, int to, long[] invalidated);
+  }
+
+  private static final long serialVersionUID = 1L;
+
+  private final Slice slice;
+  private final long[] invalidated;
+  private final int from;
+  private final int to;
+
+  private RangeArrayTask(Slice slice, long[] invalidated, int from, int to) {
+    this.slice = slice;
+    this.invalidated = invalidated;
+    this.from = from;
+    this.to = to;
+  }
+
+  static ShiftReport run(int size, Slice slice, boolean parallel) {
+    long[] invalidated = new long[(size + 63) >>> 6];
+    long changed = invoke(size, slice, invalidated, parallel);
+    return new ShiftReport(size, (int) changed, invalidated);
+  }
+
+  static long sum(int size, Slice slice, boolean parallel) {
+    return invoke(size, slice, null, parallel);
+  }
+
+  private static long invoke(int size, Slice slice, long[] invalidated, boolean parallel) {
+    if (parallel && size > BulkConverter.PARALLEL_THRESHOLD) {
+      return ForkJoinPool.commonPool().invoke(new RangeArrayTask(slice, invalidated, 0, size));
+    }
+    return slice.apply(0, size, invalidated);
+  }
+
+  @Override
+  protected Long compute() {
+    if (to - from <= BulkConverter.PARALLEL_THRESHOLD) {
+      return slice.apply(from, to, invalidated);
+    }
+    int mid = ((from + to) >>> 1) & ~63;
+    RangeArrayTask first = new RangeArrayTask(slice, invalidated, from, mid);
+    RangeArrayTask second = new RangeArrayTask(slice, invalidated, mid, to);
+    first.fork();
+    return second.compute() + first.join();
+  }
+}
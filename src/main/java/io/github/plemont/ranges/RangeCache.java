@@ -0,0 +1,392 @@
+package io.github.plemont.ranges;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe, size-bounded cache of parsed range Strings.
+ *
+ * <p>Workloads which repeatedly parse the same range strings can use a {@code RangeCache} in place
+ * of {@link Ranges#forRange(String)} or {@link Range#parse(String)}:
+ *
+ * <pre>
+ * {@code
+ *    RangeCache cache = RangeCache.create(10000);
+ *    Range range = cache.parse("'Q3 Sales'!A1:Z");
+ *    String moved = cache.forRange("'Q3 Sales'!A1:Z").translate(0, 5).toRange();
+ * }
+ * </pre>
+ *
+ * <p>The cache holds immutable {@link Range} objects only. {@link #forRange(String)} returns a new
+ * {@code RangeContext} on every call, so that changes made by one caller are never seen by
+ * another. Invalid ranges are not cached.
+ *
+ * <p>Entries are spread across independently locked segments by the hash of the range string.
+ * When a segment is full, an entry is evicted according to the {@link Eviction} policy chosen when
+ * the cache is created.
+ */
+public final class RangeCache {
+  /** The policy used to choose which entry to evict when the cache is full. */
+  public enum Eviction {
+    /** Evicts the least recently used entry. */
+    LRU,
+
+    /**
+     * Evicts following a W-TinyLFU style policy: new entries enter a small LRU window, and an
+     * entry leaving the window is only admitted to the main LRU space in place of that space's
+     * victim if it has been requested more often, as estimated by a frequency sketch. This keeps
+     * frequently used ranges cached in the face of scans of ranges which are used only once.
+     */
+    TINY_LFU
+  }
+
+  private static final int MAX_SEGMENTS = 64;
+
+  private final Segment[] segments;
+  private final int segmentMask;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  private RangeCache(int maximumSize, Eviction eviction) {
+    int count = 1;
+    int target = Math.min(MAX_SEGMENTS, Runtime.getRuntime().availableProcessors() * 2);
+    while (count < target && maximumSize / (count * 2) >= 16) {
+      count *= 2;
+    }
+    segments = new Segment[count];
+    segmentMask = count - 1;
+    for (int i = 0; i < count; i++) {
+      int capacity = maximumSize / count + (i < maximumSize % count ? 1 : 0);
+      segments[i] = eviction == Eviction.LRU ? new LruSegment(capacity)
+          : new TinyLfuSegment(capacity);
+    }
+  }
+
+  /**
+   * Creates a cache with least recently used eviction.
+   *
+   * @param maximumSize The maximum number of ranges to hold.
+   * @return the new cache.
+   */
+  public static RangeCache create(int maximumSize) {
+    return create(maximumSize, Eviction.LRU);
+  }
+
+  /**
+   * Creates a cache.
+   *
+   * @param maximumSize The maximum number of ranges to hold.
+   * @param eviction The policy for choosing entries to evict.
+   * @return the new cache.
+   */
+  public static RangeCache create(int maximumSize, Eviction eviction) {
+    checkArgument(maximumSize > 0, "maximumSize must be positive.");
+    checkNotNull(eviction, "eviction cannot be null.");
+    return new RangeCache(maximumSize, eviction);
+  }
+
+  /**
+   * Parses a range String, returning a cached {@code Range} where available.
+   *
+   * @param range The range string.
+   * @return the parsed range.
+   * @throws IllegalArgumentException if the range is invalid.
+   */
+  public Range parse(String range) {
+    checkNotNull(range, "range cannot be null.");
+    int hash = spread(range.hashCode());
+    Segment segment = segments[hash & segmentMask];
+    Range value = segment.get(range, hash);
+    if (value != null) {
+      hits.increment();
+      if (RangeMetrics.ENABLED) {
+        RangeMetrics.LISTENER.onCacheHit();
+      }
+      return value;
+    }
+    misses.increment();
+    if (RangeMetrics.ENABLED) {
+      RangeMetrics.LISTENER.onCacheMiss();
+    }
+    value = Range.parse(range);
+    evictions.add(segment.put(range, hash, value));
+    return value;
+  }
+
+  /**
+   * Creates a new {@code RangeContext} for a range String, parsing it only if it is not cached.
+   *
+   * @param range The range string.
+   * @return a new {@code RangeContext}, not shared with any other caller.
+   * @throws IllegalArgumentException if the range is invalid.
+   */
+  public Ranges.RangeContext forRange(String range) {
+    return Ranges.forValue(parse(range));
+  }
+
+  /**
+   * @return the number of ranges currently cached.
+   */
+  public int size() {
+    int size = 0;
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        size += segment.size();
+      }
+    }
+    return size;
+  }
+
+  /** Removes all cached ranges. Statistics are not reset. */
+  public void clear() {
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        segment.clear();
+      }
+    }
+  }
+
+  /**
+   * @return a snapshot of the cache statistics.
+   */
+  public Stats stats() {
+    return new Stats(hits.sum(), misses.sum(), evictions.sum());
+  }
+
+  /** A snapshot of the statistics for a {@link RangeCache}. */
+  public static final class Stats {
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+
+    Stats(long hitCount, long missCount, long evictionCount) {
+      this.hitCount = hitCount;
+      this.missCount = missCount;
+      this.evictionCount = evictionCount;
+    }
+
+    /**
+     * @return the number of requests answered from the cache.
+     */
+    public long getHitCount() {
+      return hitCount;
+    }
+
+    /**
+     * @return the number of requests which required the range to be parsed.
+     */
+    public long getMissCount() {
+      return missCount;
+    }
+
+    /**
+     * @return the number of ranges evicted, or rejected for admission, due to the size bound.
+     */
+    public long getEvictionCount() {
+      return evictionCount;
+    }
+
+    /**
+     * @return the ratio of hits to requests, or {@code 1.0} where there have been no requests.
+     */
+    public double getHitRate() {
+      long requests = hitCount + missCount;
+      return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    @Override
+    public String toString() {
+      return "Stats{hitCount=" + hitCount + ", missCount=" + missCount + ", evictionCount="
+          + evictionCount + "}";
+    }
+  }
+
+  private static int spread(int hash) {
+    hash ^= hash >>> 16;
+    hash *= 0x45d9f3b;
+    return hash ^ (hash >>> 16);
+  }
+
+  /** A portion of the cache, guarded by its own lock. */
+  private abstract static class Segment {
+    abstract Range get(String key, int hash);
+
+    /**
+     * Adds an entry, evicting where necessary.
+     *
+     * @return the number of entries evicted or rejected.
+     */
+    abstract int put(String key, int hash, Range value);
+
+    abstract int size();
+
+    abstract void clear();
+  }
+
+  private static final class LruSegment extends Segment {
+    private final int capacity;
+    private final LinkedHashMap<String, Range> map;
+
+    LruSegment(int capacity) {
+      this.capacity = capacity;
+      this.map = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    @Override
+    synchronized Range get(String key, int hash) {
+      return map.get(key);
+    }
+
+    @Override
+    synchronized int put(String key, int hash, Range value) {
+      map.put(key, value);
+      if (map.size() <= capacity) {
+        return 0;
+      }
+      Iterator<String> eldest = map.keySet().iterator();
+      eldest.next();
+      eldest.remove();
+      return 1;
+    }
+
+    @Override
+    int size() {
+      return map.size();
+    }
+
+    @Override
+    void clear() {
+      map.clear();
+    }
+  }
+
+  private static final class TinyLfuSegment extends Segment {
+    private final int windowCapacity;
+    private final int mainCapacity;
+    private final LinkedHashMap<String, Range> window;
+    private final LinkedHashMap<String, Range> main;
+    private final FrequencySketch sketch;
+
+    TinyLfuSegment(int capacity) {
+      // As in W-TinyLFU, the window holds about 1% of the entries.
+      this.windowCapacity = Math.max(1, capacity / 100);
+      this.mainCapacity = Math.max(0, capacity - windowCapacity);
+      this.window = new LinkedHashMap<>(16, 0.75f, true);
+      this.main = new LinkedHashMap<>(16, 0.75f, true);
+      this.sketch = new FrequencySketch(capacity);
+    }
+
+    @Override
+    synchronized Range get(String key, int hash) {
+      sketch.increment(hash);
+      Range value = main.get(key);
+      return value != null ? value : window.get(key);
+    }
+
+    @Override
+    synchronized int put(String key, int hash, Range value) {
+      if (main.containsKey(key)) {
+        // Added by a concurrent request since this request's call to get.
+        return 0;
+      }
+      window.put(key, value);
+      if (window.size() <= windowCapacity) {
+        return 0;
+      }
+      Iterator<Map.Entry<String, Range>> windowEldest = window.entrySet().iterator();
+      Map.Entry<String, Range> candidate = windowEldest.next();
+      windowEldest.remove();
+      if (main.size() < mainCapacity) {
+        main.put(candidate.getKey(), candidate.getValue());
+        return 0;
+      }
+      if (mainCapacity == 0) {
+        return 1;
+      }
+      Iterator<String> mainEldest = main.keySet().iterator();
+      String victim = mainEldest.next();
+      if (sketch.frequency(spread(candidate.getKey().hashCode()))
+          > sketch.frequency(spread(victim.hashCode()))) {
+        mainEldest.remove();
+        main.put(candidate.getKey(), candidate.getValue());
+      }
+      return 1;
+    }
+
+    @Override
+    int size() {
+      return window.size() + main.size();
+    }
+
+    @Override
+    void clear() {
+      window.clear();
+      main.clear();
+    }
+  }
+
+  /**
+   * A count-min sketch of 4-bit counters estimating how often each key has been requested.
+   * Counters are packed two to a byte, and are halved periodically, so that the estimates favour
+   * recent history.
+   */
+  private static final class FrequencySketch {
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int[] SEEDS = {0x97cb3127, 0x5b0e1c8d, 0x2c5a33b7, 0x7f4a7c15};
+
+    // Counter i is held in the low nibble of byte i / 2 if i is even, else the high nibble.
+    private final byte[] counters;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int capacity) {
+      int width = Integer.highestOneBit(Math.max(16, capacity) * 2 - 1);
+      this.counters = new byte[width * DEPTH / 2];
+      this.mask = width - 1;
+      this.sampleSize = 10 * Math.max(16, capacity);
+    }
+
+    void increment(int hash) {
+      boolean added = false;
+      for (int i = 0; i < DEPTH; i++) {
+        int counter = i * (mask + 1) + index(hash, i);
+        int shift = (counter & 1) << 2;
+        int packed = counters[counter >>> 1];
+        if (((packed >>> shift) & MAX_COUNT) < MAX_COUNT) {
+          counters[counter >>> 1] = (byte) (packed + (1 << shift));
+          added = true;
+        }
+      }
+      if (added && ++additions >= sampleSize) {
+        for (int i = 0; i < counters.length; i++) {
+          // Halves both counters of the byte, dropping the bit shifted between them.
+          counters[i] = (byte) ((counters[i] & 0xFF) >>> 1 & 0x77);
+        }
+        additions /= 2;
+      }
+    }
+
+    int frequency(int hash) {
+      int frequency = MAX_COUNT;
+      for (int i = 0; i < DEPTH; i++) {
+        int counter = i * (mask + 1) + index(hash, i);
+        int count = (counters[counter >>> 1] >>> ((counter & 1) << 2)) & MAX_COUNT;
+        frequency = Math.min(frequency, count);
+      }
+      return frequency;
+    }
+
+    private int index(int hash, int row) {
+      int h = (hash ^ SEEDS[row]) * 0x9E3779B9;
+      return (h ^ (h >>> 15)) & mask;
+    }
+  }
+}
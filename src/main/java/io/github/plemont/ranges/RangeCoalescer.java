@@ -0,0 +1,253 @@
+package io.github.plemont.ranges;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.github.plemont.ranges.Range.NO_SHEET_ID;
+
+import com.google.api.services.sheets.v4.model.GridRange;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merges ranges on the same {@code Sheet} into fewer, larger ranges, so that they can be sent to
+ * the Sheets API in fewer requests.
+ *
+ * <p>Two ranges are merged into their bounding rectangle when it holds no more than a budget of
+ * waste cells: cells which are in none of the original ranges. With a budget of {@code 0},
+ * ranges are only merged where their cells exactly form a rectangle, for example adjacent ranges
+ * of the same height, or one range containing another. A larger budget also merges ranges which
+ * are nearly adjacent, which suits reads, where the extra cells are simply ignored; writes should
+ * generally use a budget of {@code 0} so that no other cells are overwritten.
+ *
+ * <pre>
+ * {@code
+ *    CoalescedRanges coalesced = RangeCoalescer.coalesce(ranges, 0);
+ *    for (Range merged : coalesced.getRanges()) {
+ *      ...  // One request per merged range.
+ *    }
+ *    Range mergedForFirst = coalesced.getMerged(0);
+ * }
+ * </pre>
+ *
+ * <p>Merging is greedy: each merged range is repeatedly combined with the nearby range giving the
+ * least waste, found through a {@link RangeIndex}, until no further merge is within budget.
+ * Overlapping cells count once towards the waste, so that overlapping ranges merge freely when
+ * their bounding rectangle is filled.
+ */
+public final class RangeCoalescer {
+  private static final int LIMIT = Integer.MAX_VALUE;
+
+  // Private constructor to avoid instantiation.
+  private RangeCoalescer() {}
+
+  /**
+   * Merges ranges where the waste budget allows.
+   *
+   * @param ranges The ranges, all on the same {@code Sheet}.
+   * @param wasteBudget The maximum number of cells, in none of the original ranges, which a
+   *     merged range may hold.
+   * @return the merged ranges and the mapping from each original range to its merged range.
+   * @throws IllegalArgumentException if the waste budget is negative, or the ranges have
+   *     conflicting sheet names or IDs.
+   */
+  public static CoalescedRanges coalesce(Collection<? extends Range> ranges, long wasteBudget) {
+    checkNotNull(ranges, "ranges cannot be null.");
+    checkArgument(wasteBudget >= 0, "wasteBudget must be non-negative.");
+    return new Planner(wasteBudget).plan(new ArrayList<>(ranges));
+  }
+
+  /**
+   * Merges {@code GridRange}s where the waste budget allows. The merged ranges have no sheet name.
+   *
+   * @param gridRanges The {@code GridRange}s, all on the same {@code Sheet}.
+   * @param wasteBudget The maximum number of cells, in none of the original ranges, which a
+   *     merged range may hold.
+   * @return the merged ranges and the mapping from each original range to its merged range.
+   * @throws IllegalArgumentException if the waste budget is negative, or the {@code GridRange}s
+   *     are on different {@code Sheet}s.
+   */
+  public static CoalescedRanges coalesceGridRanges(Collection<GridRange> gridRanges,
+      long wasteBudget) {
+    checkNotNull(gridRanges, "gridRanges cannot be null.");
+    List<Range> ranges = new ArrayList<>(gridRanges.size());
+    for (GridRange gridRange : gridRanges) {
+      ranges.add(Range.fromGridRange(gridRange));
+    }
+    return coalesce(ranges, wasteBudget);
+  }
+
+  /** A group of original ranges, merged into their bounding rectangle. */
+  private static final class Cluster {
+    final int order;
+    // Bounding rectangle, with exclusive ends.
+    final int startColumn;
+    final int startRow;
+    final int endColumn;
+    final int endRow;
+    final Range key;
+    RangeSet cells;
+    final List<Integer> members = new ArrayList<>();
+    boolean alive = true;
+
+    Cluster(int order, int startColumn, int startRow, int endColumn, int endRow) {
+      this.order = order;
+      this.startColumn = startColumn;
+      this.startRow = startRow;
+      this.endColumn = endColumn;
+      this.endRow = endRow;
+      this.key = Range.of(null, startColumn, startRow, endColumn - 1, endRow - 1);
+      this.cells = RangeSet.of(key);
+    }
+
+    long area() {
+      return ((long) endColumn - startColumn) * ((long) endRow - startRow);
+    }
+  }
+
+  private static final class Planner {
+    private final long wasteBudget;
+    private final int reach;
+    private final RangeIndex index = RangeIndex.create();
+    // Live clusters by bounding rectangle. No two live clusters share a bounding rectangle.
+    private final Map<Range, Cluster> clusters = new HashMap<>();
+    private final Deque<Cluster> work = new ArrayDeque<>();
+    private int nextOrder;
+    private String sheetName;
+    private int sheetId = NO_SHEET_ID;
+
+    Planner(long wasteBudget) {
+      this.wasteBudget = wasteBudget;
+      // A gap of n rows or columns between two ranges wastes at least n cells.
+      this.reach = (int) (Math.min(wasteBudget, LIMIT / 2 - 1) + 1);
+    }
+
+    CoalescedRanges plan(List<Range> ranges) {
+      for (int i = 0; i < ranges.size(); i++) {
+        Range range = checkNotNull(ranges.get(i), "ranges cannot contain null.");
+        checkSheet(range);
+        int startColumn = RangeSet.start(range.getStartColumn());
+        int startRow = RangeSet.start(range.getStartRow());
+        Cluster cluster = new Cluster(nextOrder++, startColumn, startRow,
+            RangeSet.end(range.getStartColumn(), range.getEndColumn()),
+            RangeSet.end(range.getStartRow(), range.getEndRow()));
+        Cluster existing = clusters.get(cluster.key);
+        if (existing != null) {
+          existing.members.add(i);
+        } else {
+          cluster.members.add(i);
+          add(cluster);
+        }
+      }
+      while (!work.isEmpty()) {
+        Cluster cluster = work.poll();
+        if (cluster.alive) {
+          mergeWithBestNeighbour(cluster);
+        }
+      }
+      return result(ranges.size());
+    }
+
+    private void mergeWithBestNeighbour(Cluster cluster) {
+      Range window = Range.of(null, Math.max(0, cluster.startColumn - reach),
+          Math.max(0, cluster.startRow - reach),
+          (int) Math.min(LIMIT - 1, (long) cluster.endColumn - 1 + reach),
+          (int) Math.min(LIMIT - 1, (long) cluster.endRow - 1 + reach));
+      Cluster best = null;
+      RangeSet bestCells = null;
+      long bestWaste = Long.MAX_VALUE;
+      for (Range key : index.intersecting(window)) {
+        Cluster other = clusters.get(key);
+        if (other == cluster) {
+          continue;
+        }
+        long area = ((long) Math.max(cluster.endColumn, other.endColumn)
+            - Math.min(cluster.startColumn, other.startColumn))
+            * ((long) Math.max(cluster.endRow, other.endRow)
+            - Math.min(cluster.startRow, other.startRow));
+        // Cheap lower bound on the waste, before counting overlapping cells exactly.
+        if (area - cluster.cells.cellCount() - other.cells.cellCount() > wasteBudget) {
+          continue;
+        }
+        RangeSet cells = cluster.cells.union(other.cells);
+        long waste = area - cells.cellCount();
+        if (waste <= wasteBudget && (waste < bestWaste
+            || (waste == bestWaste && other.order < best.order))) {
+          best = other;
+          bestCells = cells;
+          bestWaste = waste;
+        }
+      }
+      if (best == null) {
+        return;
+      }
+      remove(cluster);
+      remove(best);
+      Cluster merged = new Cluster(nextOrder++,
+          Math.min(cluster.startColumn, best.startColumn),
+          Math.min(cluster.startRow, best.startRow),
+          Math.max(cluster.endColumn, best.endColumn),
+          Math.max(cluster.endRow, best.endRow));
+      merged.cells = bestCells;
+      merged.members.addAll(cluster.members);
+      merged.members.addAll(best.members);
+      Cluster existing = clusters.get(merged.key);
+      if (existing != null) {
+        // The union only adds cells to the existing rectangle, so cannot exceed the budget.
+        existing.cells = existing.cells.union(merged.cells);
+        existing.members.addAll(merged.members);
+        work.add(existing);
+      } else {
+        add(merged);
+      }
+    }
+
+    private void add(Cluster cluster) {
+      clusters.put(cluster.key, cluster);
+      index.insert(cluster.key);
+      work.add(cluster);
+    }
+
+    private void remove(Cluster cluster) {
+      cluster.alive = false;
+      clusters.remove(cluster.key);
+      index.remove(cluster.key);
+    }
+
+    private CoalescedRanges result(int originalCount) {
+      List<Cluster> live = new ArrayList<>(clusters.values());
+      live.sort(Comparator.comparing(cluster -> cluster.key));
+      List<Range> merged = new ArrayList<>(live.size());
+      int[] mapping = new int[originalCount];
+      for (int i = 0; i < live.size(); i++) {
+        Cluster cluster = live.get(i);
+        merged.add(RangeSet.toRange(sheetName, sheetId, cluster.startColumn, cluster.startRow,
+            cluster.endColumn, cluster.endRow));
+        for (int member : cluster.members) {
+          mapping[member] = i;
+        }
+      }
+      return new CoalescedRanges(merged, mapping);
+    }
+
+    private void checkSheet(Range range) {
+      String name = range.getSheetName();
+      int id = range.getSheetId();
+      checkArgument(name == null || sheetName == null || name.equals(sheetName),
+          "Ranges are on different sheets: %s and %s", sheetName, name);
+      checkArgument(id == NO_SHEET_ID || sheetId == NO_SHEET_ID || id == sheetId,
+          "Ranges are on different sheets: %s and %s", sheetId, id);
+      if (sheetName == null) {
+        sheetName = name;
+      }
+      if (sheetId == NO_SHEET_ID) {
+        sheetId = id;
+      }
+    }
+  }
+}
@@ -0,0 +1,353 @@
+package io.github.plemont.ranges;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.github.plemont.ranges.Range.NO_SHEET_ID;
+import static io.github.plemont.ranges.Range.UNBOUNDED;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes ranges in a compact binary form, for storing or sending ranges between services without
+ * formatting and re-parsing range Strings.
+ *
+ * <p>Each range is written as a flags byte, recording which coordinates are set, followed by
+ * variable-length integers of 7 bits per byte: the sheet ID and the start coordinates, then each
+ * end coordinate as its distance from the start. Unset coordinates take no space, so a typical
+ * range such as {@code 'My Sheet'!A1:C5} without its sheet name takes 5 bytes. A single
+ * {@link Range} also carries its sheet name, in UTF-8.
+ *
+ * <p>A {@link RangeArray} is written as its size followed by its entries, each sheet ID and start
+ * coordinate being written as the difference from that of the previous entry. Entries sorted by
+ * {@link RangeArray#sort(Cells.Order)} are thus close to their predecessors, and most take 3 to 5
+ * bytes. Decoding writes coordinates straight into the array, with no intermediate objects.
+ *
+ * <pre>
+ * {@code
+ *    ranges.sort(Cells.Order.ROW_MAJOR);
+ *    RangeCodec.write(ranges, out);
+ *    ...
+ *    RangeArray decoded = RangeCodec.readRangeArray(in);
+ * }
+ * </pre>
+ *
+ * <p>Encoded ranges are validated as they are decoded, as for {@link Range#of}.
+ */
+public final class RangeCodec {
+  // Bits of the flags byte, each set where the corresponding value is present.
+  private static final int START_COLUMN = 1;
+  private static final int START_ROW = 1 << 1;
+  private static final int END_COLUMN = 1 << 2;
+  private static final int END_ROW = 1 << 3;
+  // For a single range, whether it has a sheet ID; for an array, whether the ID has changed.
+  private static final int SHEET_ID = 1 << 4;
+  private static final int SHEET_NAME = 1 << 5;
+
+  // The longest valid sheet name in UTF-8, each char taking at most 3 bytes.
+  private static final int MAX_SHEET_NAME_BYTES = 3 * (RangeScanner.SHEET_NAME_MAX_LENGTH - 1);
+
+  /** A destination for encoded bytes. */
+  private interface Sink {
+    void writeByte(int b) throws IOException;
+  }
+
+  /** A source of encoded bytes. */
+  private interface Source {
+    byte readByte() throws IOException;
+  }
+
+  // Private constructor to avoid instantiation.
+  private RangeCodec() {}
+
+  /**
+   * Writes a range, including its sheet name and ID, to a buffer.
+   *
+   * @param range The range.
+   * @param buffer The buffer, which is advanced past the encoded range.
+   * @throws java.nio.BufferOverflowException if the buffer has too little space remaining.
+   */
+  public static void write(Range range, ByteBuffer buffer) {
+    checkNotNull(range, "range cannot be null.");
+    checkNotNull(buffer, "buffer cannot be null.");
+    try {
+      writeRange(range, b -> buffer.put((byte) b));
+    } catch (IOException e) {
+      throw new AssertionError("ByteBuffer does not throw IOException", e);
+    }
+  }
+
+  /**
+   * Writes a range, including its sheet name and ID, to a {@code DataOutput}.
+   *
+   * @param range The range.
+   * @param out The output.
+   * @throws IOException if thrown by the output.
+   */
+  public static void write(Range range, DataOutput out) throws IOException {
+    checkNotNull(range, "range cannot be null.");
+    checkNotNull(out, "out cannot be null.");
+    writeRange(range, out::writeByte);
+  }
+
+  /**
+   * Reads a range written by {@link #write(Range, ByteBuffer)}.
+   *
+   * @param buffer The buffer, which is advanced past the encoded range.
+   * @return the range.
+   * @throws IllegalArgumentException if the encoded range is malformed.
+   * @throws java.nio.BufferUnderflowException if the buffer ends within the range.
+   */
+  public static Range readRange(ByteBuffer buffer) {
+    checkNotNull(buffer, "buffer cannot be null.");
+    try {
+      return readRange(buffer::get);
+    } catch (IOException e) {
+      throw new AssertionError("ByteBuffer does not throw IOException", e);
+    }
+  }
+
+  /**
+   * Reads a range written by {@link #write(Range, DataOutput)}.
+   *
+   * @param in The input.
+   * @return the range.
+   * @throws IllegalArgumentException if the encoded range is malformed.
+   * @throws IOException if thrown by the input, including at the end of the input.
+   */
+  public static Range readRange(DataInput in) throws IOException {
+    checkNotNull(in, "in cannot be null.");
+    return readRange(in::readByte);
+  }
+
+  /**
+   * Writes every range of an array to a buffer.
+   *
+   * @param ranges The ranges.
+   * @param buffer The buffer, which is advanced past the encoded ranges.
+   * @throws java.nio.BufferOverflowException if the buffer has too little space remaining.
+   */
+  public static void write(RangeArray ranges, ByteBuffer buffer) {
+    checkNotNull(ranges, "ranges cannot be null.");
+    checkNotNull(buffer, "buffer cannot be null.");
+    try {
+      writeArray(ranges, b -> buffer.put((byte) b));
+    } catch (IOException e) {
+      throw new AssertionError("ByteBuffer does not throw IOException", e);
+    }
+  }
+
+  /**
+   * Writes every range of an array to a {@code DataOutput}.
+   *
+   * @param ranges The ranges.
+   * @param out The output.
+   * @throws IOException if thrown by the output.
+   */
+  public static void write(RangeArray ranges, DataOutput out) throws IOException {
+    checkNotNull(ranges, "ranges cannot be null.");
+    checkNotNull(out, "out cannot be null.");
+    writeArray(ranges, out::writeByte);
+  }
+
+  /**
+   * Reads an array of ranges written by {@link #write(RangeArray, ByteBuffer)}.
+   *
+   * @param buffer The buffer, which is advanced past the encoded ranges.
+   * @return the ranges.
+   * @throws IllegalArgumentException if the encoded ranges are malformed.
+   * @throws java.nio.BufferUnderflowException if the buffer ends within the ranges.
+   */
+  public static RangeArray readRangeArray(ByteBuffer buffer) {
+    checkNotNull(buffer, "buffer cannot be null.");
+    try {
+      return readArray(buffer::get);
+    } catch (IOException e) {
+      throw new AssertionError("ByteBuffer does not throw IOException", e);
+    }
+  }
+
+  /**
+   * Reads an array of ranges written by {@link #write(RangeArray, DataOutput)}.
+   *
+   * @param in The input.
+   * @return the ranges.
+   * @throws IllegalArgumentException if the encoded ranges are malformed.
+   * @throws IOException if thrown by the input, including at the end of the input.
+   */
+  public static RangeArray readRangeArray(DataInput in) throws IOException {
+    checkNotNull(in, "in cannot be null.");
+    return readArray(in::readByte);
+  }
+
+  private static void writeRange(Range range, Sink sink) throws IOException {
+    int startColumn = range.getStartColumn();
+    int startRow = range.getStartRow();
+    int endColumn = range.getEndColumn();
+    int endRow = range.getEndRow();
+    byte[] name = range.getSheetName() == null
+        ? null : range.getSheetName().getBytes(StandardCharsets.UTF_8);
+    int flags = coordinateFlags(startColumn, startRow, endColumn, endRow)
+        | (range.getSheetId() != NO_SHEET_ID ? SHEET_ID : 0)
+        | (name != null ? SHEET_NAME : 0);
+    sink.writeByte(flags);
+    if (name != null) {
+      writeVarint(sink, name.length);
+      for (byte b : name) {
+        sink.writeByte(b);
+      }
+    }
+    if (range.getSheetId() != NO_SHEET_ID) {
+      writeVarint(sink, range.getSheetId());
+    }
+    writeCoordinates(sink, flags, startColumn, startRow, endColumn, endRow, false, 0, 0);
+  }
+
+  private static Range readRange(Source source) throws IOException {
+    int flags = source.readByte() & 0xFF;
+    checkFlags(flags, SHEET_ID | SHEET_NAME);
+    String sheetName = null;
+    if ((flags & SHEET_NAME) != 0) {
+      int length = readVarint(source);
+      // Checked before allocating, as a malformed length must not cause a huge allocation.
+      if (length <= 0 || length > MAX_SHEET_NAME_BYTES) {
+        throw new IllegalArgumentException("Malformed range encoding.");
+      }
+      byte[] name = new byte[length];
+      for (int i = 0; i < name.length; i++) {
+        name[i] = source.readByte();
+      }
+      sheetName = new String(name, StandardCharsets.UTF_8);
+    }
+    int sheetId = (flags & SHEET_ID) != 0 ? readVarint(source) : NO_SHEET_ID;
+    int startColumn = (flags & START_COLUMN) != 0 ? readVarint(source) : UNBOUNDED;
+    int startRow = (flags & START_ROW) != 0 ? readVarint(source) : UNBOUNDED;
+    int endColumn = (flags & END_COLUMN) != 0 ? readEnd(source, startColumn) : UNBOUNDED;
+    int endRow = (flags & END_ROW) != 0 ? readEnd(source, startRow) : UNBOUNDED;
+    return Range.of(sheetName, sheetId, startColumn, startRow, endColumn, endRow);
+  }
+
+  private static void writeArray(RangeArray ranges, Sink sink) throws IOException {
+    int size = ranges.size;
+    writeVarint(sink, size);
+    int sheetId = NO_SHEET_ID;
+    int startColumn = 0;
+    int startRow = 0;
+    for (int i = 0; i < size; i++) {
+      int flags = coordinateFlags(ranges.startColumns[i], ranges.startRows[i],
+          ranges.endColumns[i], ranges.endRows[i])
+          | (ranges.sheetIds[i] != sheetId ? SHEET_ID : 0);
+      sink.writeByte(flags);
+      if ((flags & SHEET_ID) != 0) {
+        writeVarint(sink, zigZag(ranges.sheetIds[i] - sheetId));
+        sheetId = ranges.sheetIds[i];
+      }
+      writeCoordinates(sink, flags, ranges.startColumns[i], ranges.startRows[i],
+          ranges.endColumns[i], ranges.endRows[i], true, startColumn, startRow);
+      startColumn = (flags & START_COLUMN) != 0 ? ranges.startColumns[i] : startColumn;
+      startRow = (flags & START_ROW) != 0 ? ranges.startRows[i] : startRow;
+    }
+  }
+
+  private static RangeArray readArray(Source source) throws IOException {
+    int size = readVarint(source);
+    // The capacity is bounded, as a malformed size must not cause a huge allocation.
+    RangeArray ranges = RangeArray.create(Math.min(size, 1 << 16));
+    int sheetId = NO_SHEET_ID;
+    int startColumn = 0;
+    int startRow = 0;
+    for (int i = 0; i < size; i++) {
+      int flags = source.readByte() & 0xFF;
+      checkFlags(flags, SHEET_ID);
+      if ((flags & SHEET_ID) != 0) {
+        sheetId += unZigZag(readVarint(source));
+      }
+      int currentStartColumn = UNBOUNDED;
+      int currentStartRow = UNBOUNDED;
+      if ((flags & START_COLUMN) != 0) {
+        currentStartColumn = startColumn += unZigZag(readVarint(source));
+      }
+      if ((flags & START_ROW) != 0) {
+        currentStartRow = startRow += unZigZag(readVarint(source));
+      }
+      ranges.append(sheetId, currentStartColumn, currentStartRow,
+          (flags & END_COLUMN) != 0 ? readEnd(source, currentStartColumn) : UNBOUNDED,
+          (flags & END_ROW) != 0 ? readEnd(source, currentStartRow) : UNBOUNDED);
+    }
+    return ranges;
+  }
+
+  private static int coordinateFlags(int startColumn, int startRow, int endColumn, int endRow) {
+    return (startColumn != UNBOUNDED ? START_COLUMN : 0)
+        | (startRow != UNBOUNDED ? START_ROW : 0)
+        | (endColumn != UNBOUNDED ? END_COLUMN : 0)
+        | (endRow != UNBOUNDED ? END_ROW : 0);
+  }
+
+  /**
+   * Writes the coordinates present in {@code flags}: the starts, as differences from the previous
+   * starts if {@code delta} is set, and the ends as distances from the starts.
+   */
+  private static void writeCoordinates(Sink sink, int flags, int startColumn, int startRow,
+      int endColumn, int endRow, boolean delta, int previousStartColumn, int previousStartRow)
+      throws IOException {
+    if ((flags & START_COLUMN) != 0) {
+      writeVarint(sink, delta ? zigZag(startColumn - previousStartColumn) : startColumn);
+    }
+    if ((flags & START_ROW) != 0) {
+      writeVarint(sink, delta ? zigZag(startRow - previousStartRow) : startRow);
+    }
+    if ((flags & END_COLUMN) != 0) {
+      writeVarint(sink, endColumn - startColumn);
+    }
+    if ((flags & END_ROW) != 0) {
+      writeVarint(sink, endRow - startRow);
+    }
+  }
+
+  private static int readEnd(Source source, int start) throws IOException {
+    long end = (long) start + readVarint(source);
+    if (start == UNBOUNDED || end > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Malformed range encoding.");
+    }
+    return (int) end;
+  }
+
+  private static void checkFlags(int flags, int permitted) {
+    if ((flags & ~(START_COLUMN | START_ROW | END_COLUMN | END_ROW | permitted)) != 0) {
+      throw new IllegalArgumentException("Malformed range encoding.");
+    }
+  }
+
+  /** Writes an unsigned value in 7-bit groups, least significant first. */
+  private static void writeVarint(Sink sink, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      sink.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    sink.writeByte(value);
+  }
+
+  private static int readVarint(Source source) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 35; shift += 7) {
+      byte b = source.readByte();
+      value |= (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Malformed range encoding.");
+  }
+
+  /** Maps signed differences to unsigned values, so that small negative values stay small. */
+  private static int zigZag(int value) {
+    return (value << 1) ^ (value >> 31);
+  }
+
+  private static int unZigZag(int value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
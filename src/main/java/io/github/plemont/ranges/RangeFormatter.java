@@ -0,0 +1,194 @@
+package io.github.plemont.ranges;
+
+import static io.github.plemont.ranges.Range.UNBOUNDED;
+
+import java.io.IOException;
+
+/**
+ * Writes ranges in A1 notation directly to a {@code StringBuilder} or {@code Appendable}.
+ *
+ * <p>No intermediate strings are created: the sheet name is escaped as it is copied, columns are
+ * written through {@link ColumnCodec} and rows are written digit by digit. The combination of
+ * coordinates is validated before anything is written, so an invalid range never leaves a partial
+ * range in the output.
+ */
+final class RangeFormatter {
+  // Private constructor to avoid instantiation.
+  private RangeFormatter() {}
+
+  /**
+   * Appends a range, with its sheet name, in A1 notation.
+   *
+   * @throws IllegalStateException if the sheet name is not set, or the combination of coordinates
+   *     cannot be expressed in A1 notation.
+   * @throws IOException if thrown by the {@code Appendable}.
+   * @see Ranges.RangeContext#toRange()
+   */
+  static void appendRange(Appendable out, String sheetName, int startColumn, int startRow,
+      int endColumn, int endRow) throws IOException {
+    if (sheetName == null) {
+      throw new IllegalStateException("Sheet name is not set: cannot create a range string.");
+    }
+    checkCoordinates(startColumn, startRow, endColumn, endRow);
+    appendEscapedSheetName(out, sheetName);
+    appendCoordinates(out, startColumn, startRow, endColumn, endRow);
+  }
+
+  /**
+   * As {@link #appendRange(Appendable, String, int, int, int, int)}, for a {@code StringBuilder},
+   * which cannot throw {@code IOException}.
+   */
+  static StringBuilder appendRange(StringBuilder sb, String sheetName, int startColumn,
+      int startRow, int endColumn, int endRow) {
+    try {
+      appendRange((Appendable) sb, sheetName, startColumn, startRow, endColumn, endRow);
+    } catch (IOException e) {
+      throw new AssertionError("StringBuilder does not throw IOException", e);
+    }
+    return sb;
+  }
+
+  /**
+   * Checks that a combination of coordinates can be expressed in A1 notation.
+   *
+   * @throws IllegalStateException if the coordinates cannot be expressed in A1 notation.
+   */
+  static void checkCoordinates(int startColumn, int startRow, int endColumn, int endRow) {
+    if (!isExpressible(startColumn, startRow, endColumn, endRow)) {
+      throw new IllegalStateException("Illegal combination of coordinates set.");
+    }
+  }
+
+  /**
+   * Determines whether a combination of coordinates can be expressed in A1 notation.
+   */
+  static boolean isExpressible(int startColumn, int startRow, int endColumn, int endRow) {
+    boolean columns = startColumn != UNBOUNDED && endColumn != UNBOUNDED;
+    boolean rows = startRow != UNBOUNDED && endRow != UNBOUNDED;
+    if ((columns && (rows || endRow == UNBOUNDED)) || (rows && endColumn == UNBOUNDED)) {
+      return true;
+    }
+    return startColumn == UNBOUNDED && endColumn == UNBOUNDED && startRow == UNBOUNDED
+        && endRow == UNBOUNDED;
+  }
+
+  /**
+   * Appends the part of a range following the sheet name, e.g. {@code !A1:C4}, or nothing for a
+   * range covering the whole {@code Sheet}. The coordinates must already have been checked with
+   * {@link #checkCoordinates(int, int, int, int)}.
+   */
+  static void appendCoordinates(Appendable out, int startColumn, int startRow, int endColumn,
+      int endRow) throws IOException {
+    if (startColumn != UNBOUNDED && endColumn != UNBOUNDED && startRow != UNBOUNDED
+        && endRow != UNBOUNDED) {
+      // Full-grid specification, or a single cell.
+      out.append('!');
+      ColumnCodec.appendColumn(out, startColumn);
+      appendRow(out, startRow);
+      if (startColumn != endColumn || startRow != endRow) {
+        out.append(':');
+        ColumnCodec.appendColumn(out, endColumn);
+        appendRow(out, endRow);
+      }
+    } else if (startColumn != UNBOUNDED && endColumn != UNBOUNDED) {
+      out.append('!');
+      ColumnCodec.appendColumn(out, startColumn);
+      if (startRow != UNBOUNDED) {
+        appendRow(out, startRow);
+      }
+      out.append(':');
+      ColumnCodec.appendColumn(out, endColumn);
+    } else if (startRow != UNBOUNDED && endRow != UNBOUNDED) {
+      out.append('!');
+      if (startColumn != UNBOUNDED) {
+        ColumnCodec.appendColumn(out, startColumn);
+      }
+      appendRow(out, startRow);
+      out.append(':');
+      appendRow(out, endRow);
+    }
+  }
+
+  /**
+   * Encloses a {@code Sheet} name with single-quotes and escapes any single-quotes where
+   * necessary.
+   *
+   * <p>{@code Sheet} names consisting only of alphanumeric characters require no escaping,
+   * however, any punctuation will result in the entire name being enclosed in quotes. Some
+   * examples:</p>
+   *
+   * <ul>
+   *   <li><strong>Sheet1</strong> - is escaped as {@code Sheet1}</li>
+   *   <li><strong>My Sheet</strong> - is escaped as {@code 'My Sheet'}</li>
+   *   <li><strong>Today's data</strong> - is escaped as {@code 'Today''s data'}</li>
+   * </ul>
+   *
+   * @param out The destination for the escaped sheet name.
+   * @param sheetName The string to escape.
+   * @throws IOException if thrown by the {@code Appendable}.
+   */
+  static void appendEscapedSheetName(Appendable out, String sheetName) throws IOException {
+    if (!requiresQuoting(sheetName)) {
+      out.append(sheetName);
+      return;
+    }
+    out.append('\'');
+    int copied = 0;
+    for (int i = 0; i < sheetName.length(); i++) {
+      if (sheetName.charAt(i) == '\'') {
+        out.append(sheetName, copied, i + 1).append('\'');
+        copied = i + 1;
+      }
+    }
+    out.append(sheetName, copied, sheetName.length()).append('\'');
+  }
+
+  /**
+   * Escapes a {@code Sheet} name as per {@link #appendEscapedSheetName(Appendable, String)}.
+   *
+   * @param sheetName The string to escape.
+   * @return the escaped sheet name.
+   */
+  static String escapeSheetName(String sheetName) {
+    if (!requiresQuoting(sheetName)) {
+      return sheetName;
+    }
+    StringBuilder sb = new StringBuilder(sheetName.length() + 4);
+    try {
+      appendEscapedSheetName(sb, sheetName);
+    } catch (IOException e) {
+      throw new AssertionError("StringBuilder does not throw IOException", e);
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Appends a zero-indexed row as its 1-indexed number in A1 notation.
+   *
+   * @throws IOException if thrown by the {@code Appendable}.
+   */
+  static void appendRow(Appendable out, int row) throws IOException {
+    int value = row + 1;
+    if (out instanceof StringBuilder) {
+      ((StringBuilder) out).append(value);
+      return;
+    }
+    int divisor = 1;
+    while (value / divisor >= 10) {
+      divisor *= 10;
+    }
+    for (; divisor > 0; divisor /= 10) {
+      out.append((char) ('0' + value / divisor % 10));
+    }
+  }
+
+  /** Determines whether a sheet name must be quoted in a range String. */
+  static boolean requiresQuoting(String sheetName) {
+    for (int i = 0; i < sheetName.length(); i++) {
+      if (!RangeScanner.isAlphanumeric(sheetName.charAt(i))) {
+        return true;
+      }
+    }
+    return sheetName.isEmpty();
+  }
+}
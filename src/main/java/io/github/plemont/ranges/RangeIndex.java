@@ -0,0 +1,731 @@
+package io.github.plemont.ranges;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.github.plemont.ranges.Range.NO_SHEET_ID;
+import static io.github.plemont.ranges.Range.UNBOUNDED;
+
+import com.google.api.services.sheets.v4.model.GridRange;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A spatial index of the ranges on a single {@code Sheet}, answering which ranges contain a cell
+ * or intersect a window.
+ *
+ * <p>The index is an R-tree held in primitive arrays: each node holds up to 16 child rectangles,
+ * and a search descends only into children whose rectangle covers the query. An index can be
+ * bulk loaded, which packs the ranges into full nodes using Sort-Tile-Recursive ordering, and
+ * then modified with {@link #insert(Range)} and {@link #remove(Range)}:
+ *
+ * <pre>
+ * {@code
+ *    RangeIndex index = RangeIndex.of(protectedRanges);
+ *    index.insert(Range.parse("Data!F:F"));
+ *    for (Range range : index.containing(editedColumn, editedRow)) {
+ *      ...
+ *    }
+ * }
+ * </pre>
+ *
+ * <p>The same range may be indexed more than once. Unbounded ranges extend to the maximum row or
+ * column index. An index may hold ranges with a sheet name, a sheet ID or both, provided that
+ * they do not conflict.
+ *
+ * <p>Instances are not thread-safe.
+ */
+public final class RangeIndex {
+  private static final int MAX_ENTRIES = 16;
+  private static final int MIN_ENTRIES = MAX_ENTRIES * 2 / 5;
+  // Each node has room for one extra slot, which holds an overflowing child before a split.
+  private static final int STRIDE = MAX_ENTRIES + 1;
+  private static final int MAX_HEIGHT = 32;
+
+  // Bounds and child of each slot. Slot i of node n is at n * STRIDE + i. In a leaf the child is
+  // the ID of an entry in values, otherwise it is the index of a node.
+  private int[] minX;
+  private int[] minY;
+  private int[] maxX;
+  private int[] maxY;
+  private int[] child;
+
+  private int[] counts;
+  private int[] levels;
+  private int nodeCount;
+  private int[] freeNodes = new int[8];
+  private int freeNodeCount;
+  private int root = -1;
+
+  private Range[] values = new Range[16];
+  private int valueCount;
+  private int[] freeValues = new int[8];
+  private int freeValueCount;
+  private int size;
+
+  private String sheetName;
+  private int sheetId = NO_SHEET_ID;
+
+  // Scratch space for the path from the root to a leaf.
+  private final int[] pathNodes = new int[MAX_HEIGHT];
+  private final int[] pathSlots = new int[MAX_HEIGHT];
+  private int pathLength;
+
+  private RangeIndex(int nodeCapacity) {
+    minX = new int[nodeCapacity * STRIDE];
+    minY = new int[nodeCapacity * STRIDE];
+    maxX = new int[nodeCapacity * STRIDE];
+    maxY = new int[nodeCapacity * STRIDE];
+    child = new int[nodeCapacity * STRIDE];
+    counts = new int[nodeCapacity];
+    levels = new int[nodeCapacity];
+  }
+
+  /**
+   * @return a new, empty index.
+   */
+  public static RangeIndex create() {
+    return new RangeIndex(4);
+  }
+
+  /**
+   * Creates an index, bulk loading the specified ranges.
+   *
+   * @param ranges The ranges, all on the same {@code Sheet}.
+   * @return the created index.
+   * @throws IllegalArgumentException if the ranges have conflicting sheet names or IDs.
+   */
+  public static RangeIndex of(Collection<? extends Range> ranges) {
+    RangeIndex index = create();
+    index.insertAll(ranges);
+    return index;
+  }
+
+  /**
+   * Adds a range to the index.
+   *
+   * @param range The range.
+   * @throws IllegalArgumentException if the range is on a different {@code Sheet} to the ranges
+   *     already indexed.
+   */
+  public void insert(Range range) {
+    checkNotNull(range, "range cannot be null.");
+    checkSheet(range);
+    int id = addValue(range);
+    insert(id, startOf(range.getStartColumn()), startOf(range.getStartRow()),
+        endOf(range.getStartColumn(), range.getEndColumn()),
+        endOf(range.getStartRow(), range.getEndRow()));
+  }
+
+  /**
+   * Adds a {@code GridRange} to the index, as a {@link Range} with no sheet name.
+   *
+   * @param gridRange The {@code GridRange}.
+   * @throws IllegalArgumentException if the {@code GridRange} is empty, or on a different
+   *     {@code Sheet} to the ranges already indexed.
+   */
+  public void insert(GridRange gridRange) {
+    insert(Range.fromGridRange(gridRange));
+  }
+
+  /**
+   * Adds several ranges to the index. Where the index is empty, the ranges are bulk loaded, which
+   * is faster than inserting them individually and produces a more compact tree.
+   *
+   * @param ranges The ranges.
+   * @throws IllegalArgumentException if the ranges are on different {@code Sheet}s to each other
+   *     or to the ranges already indexed.
+   */
+  public void insertAll(Collection<? extends Range> ranges) {
+    checkNotNull(ranges, "ranges cannot be null.");
+    if (size > 0) {
+      for (Range range : ranges) {
+        insert(range);
+      }
+      return;
+    }
+    for (Range range : ranges) {
+      checkSheet(checkNotNull(range, "ranges cannot contain null."));
+    }
+    bulkLoad(ranges);
+  }
+
+  /**
+   * Removes one occurrence of a range from the index.
+   *
+   * @param range The range, equal to an indexed range.
+   * @return whether the range was found and removed.
+   */
+  public boolean remove(Range range) {
+    checkNotNull(range, "range cannot be null.");
+    if (root < 0) {
+      return false;
+    }
+    int x0 = startOf(range.getStartColumn());
+    int y0 = startOf(range.getStartRow());
+    int x1 = endOf(range.getStartColumn(), range.getEndColumn());
+    int y1 = endOf(range.getStartRow(), range.getEndRow());
+    if (!find(root, 0, x0, y0, x1, y1, range)) {
+      return false;
+    }
+    int leaf = pathNodes[pathLength - 1];
+    int id = child[leaf * STRIDE + pathSlots[pathLength - 1]];
+    removeSlot(leaf, pathSlots[pathLength - 1]);
+    condense();
+    values[id] = null;
+    freeValues = push(freeValues, freeValueCount++, id);
+    size--;
+    return true;
+  }
+
+  /**
+   * Removes one occurrence of a {@code GridRange} from the index.
+   *
+   * @param gridRange The {@code GridRange}, equal to an indexed {@code GridRange}.
+   * @return whether the {@code GridRange} was found and removed.
+   * @throws IllegalArgumentException if the {@code GridRange} is empty.
+   */
+  public boolean remove(GridRange gridRange) {
+    return remove(Range.fromGridRange(gridRange));
+  }
+
+  /** Removes every range from the index. */
+  public void clear() {
+    Arrays.fill(values, 0, valueCount, null);
+    valueCount = 0;
+    freeValueCount = 0;
+    nodeCount = 0;
+    freeNodeCount = 0;
+    root = -1;
+    size = 0;
+    sheetName = null;
+    sheetId = NO_SHEET_ID;
+  }
+
+  /**
+   * @return the number of ranges in the index.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Finds the indexed ranges which contain a cell.
+   *
+   * @param column The zero-indexed column.
+   * @param row The zero-indexed row.
+   * @return the ranges containing the cell, in no particular order.
+   */
+  public List<Range> containing(int column, int row) {
+    List<Range> result = new ArrayList<>();
+    forEachContaining(column, row, result::add);
+    return result;
+  }
+
+  /**
+   * Passes each indexed range which contains a cell to an action, without creating a list of
+   * results.
+   *
+   * @param column The zero-indexed column.
+   * @param row The zero-indexed row.
+   * @param action The action to perform on each range.
+   */
+  public void forEachContaining(int column, int row, Consumer<? super Range> action) {
+    checkNotNull(action, "action cannot be null.");
+    if (root >= 0) {
+      search(root, column, row, column, row, action);
+    }
+  }
+
+  /**
+   * Determines whether any indexed range contains a cell.
+   *
+   * @param column The zero-indexed column.
+   * @param row The zero-indexed row.
+   * @return whether a range contains the cell.
+   */
+  public boolean anyContaining(int column, int row) {
+    return root >= 0 && any(root, column, row, column, row);
+  }
+
+  /**
+   * Finds the indexed ranges which share at least one cell with a window. The sheet of the window
+   * is not checked.
+   *
+   * @param window The window.
+   * @return the ranges intersecting the window, in no particular order.
+   */
+  public List<Range> intersecting(Range window) {
+    List<Range> result = new ArrayList<>();
+    forEachIntersecting(window, result::add);
+    return result;
+  }
+
+  /**
+   * As {@link #intersecting(Range)}, for a window specified as a {@code GridRange}.
+   *
+   * @param window The window.
+   * @return the ranges intersecting the window, in no particular order.
+   * @throws IllegalArgumentException if the window is empty.
+   */
+  public List<Range> intersecting(GridRange window) {
+    return intersecting(Range.fromGridRange(window));
+  }
+
+  /**
+   * Passes each indexed range which shares at least one cell with a window to an action, without
+   * creating a list of results. The sheet of the window is not checked.
+   *
+   * @param window The window.
+   * @param action The action to perform on each range.
+   */
+  public void forEachIntersecting(Range window, Consumer<? super Range> action) {
+    checkNotNull(window, "window cannot be null.");
+    checkNotNull(action, "action cannot be null.");
+    if (root >= 0) {
+      search(root, startOf(window.getStartColumn()), startOf(window.getStartRow()),
+          endOf(window.getStartColumn(), window.getEndColumn()),
+          endOf(window.getStartRow(), window.getEndRow()), action);
+    }
+  }
+
+  private void search(int node, int x0, int y0, int x1, int y1, Consumer<? super Range> action) {
+    int from = node * STRIDE;
+    int to = from + counts[node];
+    boolean leaf = levels[node] == 0;
+    for (int slot = from; slot < to; slot++) {
+      if (minX[slot] <= x1 && maxX[slot] >= x0 && minY[slot] <= y1 && maxY[slot] >= y0) {
+        if (leaf) {
+          action.accept(values[child[slot]]);
+        } else {
+          search(child[slot], x0, y0, x1, y1, action);
+        }
+      }
+    }
+  }
+
+  private boolean any(int node, int x0, int y0, int x1, int y1) {
+    int from = node * STRIDE;
+    int to = from + counts[node];
+    boolean leaf = levels[node] == 0;
+    for (int slot = from; slot < to; slot++) {
+      if (minX[slot] <= x1 && maxX[slot] >= x0 && minY[slot] <= y1 && maxY[slot] >= y0
+          && (leaf || any(child[slot], x0, y0, x1, y1))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void insert(int id, int x0, int y0, int x1, int y1) {
+    if (root < 0) {
+      root = allocateNode(0);
+    }
+    int node = root;
+    pathLength = 0;
+    while (levels[node] > 0) {
+      int slot = chooseSubtree(node, x0, y0, x1, y1);
+      pathNodes[pathLength] = node;
+      pathSlots[pathLength++] = slot - node * STRIDE;
+      minX[slot] = Math.min(minX[slot], x0);
+      minY[slot] = Math.min(minY[slot], y0);
+      maxX[slot] = Math.max(maxX[slot], x1);
+      maxY[slot] = Math.max(maxY[slot], y1);
+      node = child[slot];
+    }
+    appendSlot(node, x0, y0, x1, y1, id);
+    while (counts[node] > MAX_ENTRIES) {
+      int sibling = split(node);
+      if (pathLength == 0) {
+        int newRoot = allocateNode(levels[node] + 1);
+        appendNodeSlot(newRoot, node);
+        appendNodeSlot(newRoot, sibling);
+        root = newRoot;
+        break;
+      }
+      int parent = pathNodes[--pathLength];
+      setSlotToNodeBounds(parent * STRIDE + pathSlots[pathLength], node);
+      appendNodeSlot(parent, sibling);
+      node = parent;
+    }
+  }
+
+  /** Returns the slot of a node whose rectangle needs least enlargement to cover a rectangle. */
+  private int chooseSubtree(int node, int x0, int y0, int x1, int y1) {
+    int best = -1;
+    double bestEnlargement = Double.POSITIVE_INFINITY;
+    double bestArea = Double.POSITIVE_INFINITY;
+    for (int slot = node * STRIDE, to = slot + counts[node]; slot < to; slot++) {
+      double area = area(minX[slot], minY[slot], maxX[slot], maxY[slot]);
+      double enlargement = area(Math.min(minX[slot], x0), Math.min(minY[slot], y0),
+          Math.max(maxX[slot], x1), Math.max(maxY[slot], y1)) - area;
+      if (enlargement < bestEnlargement || (enlargement == bestEnlargement && area < bestArea)) {
+        best = slot;
+        bestEnlargement = enlargement;
+        bestArea = area;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Splits an overflowing node in two using Guttman's quadratic split, leaving one group in the
+   * node and returning a new sibling holding the other.
+   */
+  private int split(int node) {
+    int count = counts[node];
+    int base = node * STRIDE;
+    int[] x0 = Arrays.copyOfRange(minX, base, base + count);
+    int[] y0 = Arrays.copyOfRange(minY, base, base + count);
+    int[] x1 = Arrays.copyOfRange(maxX, base, base + count);
+    int[] y1 = Arrays.copyOfRange(maxY, base, base + count);
+    int[] children = Arrays.copyOfRange(child, base, base + count);
+
+    // Pick the pair of seeds which would waste the most area if grouped together.
+    int seedA = 0;
+    int seedB = 1;
+    double worst = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < count; i++) {
+      for (int j = i + 1; j < count; j++) {
+        double waste = area(Math.min(x0[i], x0[j]), Math.min(y0[i], y0[j]),
+            Math.max(x1[i], x1[j]), Math.max(y1[i], y1[j]))
+            - area(x0[i], y0[i], x1[i], y1[i]) - area(x0[j], y0[j], x1[j], y1[j]);
+        if (waste > worst) {
+          worst = waste;
+          seedA = i;
+          seedB = j;
+        }
+      }
+    }
+
+    int sibling = allocateNode(levels[node]);
+    counts[node] = 0;
+    // Bounds of each group, as minX, minY, maxX, maxY.
+    int[] a = {x0[seedA], y0[seedA], x1[seedA], y1[seedA]};
+    int[] b = {x0[seedB], y0[seedB], x1[seedB], y1[seedB]};
+    appendSlot(node, x0[seedA], y0[seedA], x1[seedA], y1[seedA], children[seedA]);
+    appendSlot(sibling, x0[seedB], y0[seedB], x1[seedB], y1[seedB], children[seedB]);
+    boolean[] assigned = new boolean[count];
+    assigned[seedA] = true;
+    assigned[seedB] = true;
+    for (int remaining = count - 2; remaining > 0; remaining--) {
+      int next = -1;
+      boolean toA = true;
+      if (counts[node] + remaining == MIN_ENTRIES) {
+        next = firstUnassigned(assigned);
+      } else if (counts[sibling] + remaining == MIN_ENTRIES) {
+        next = firstUnassigned(assigned);
+        toA = false;
+      } else {
+        // Pick the entry with the strongest preference for one group.
+        double bestDifference = -1;
+        for (int i = 0; i < count; i++) {
+          if (assigned[i]) {
+            continue;
+          }
+          double growA = enlargement(a, x0[i], y0[i], x1[i], y1[i]);
+          double growB = enlargement(b, x0[i], y0[i], x1[i], y1[i]);
+          if (Math.abs(growA - growB) > bestDifference) {
+            bestDifference = Math.abs(growA - growB);
+            next = i;
+            toA = growA < growB || (growA == growB && (area(a) < area(b)
+                || (area(a) == area(b) && counts[node] <= counts[sibling])));
+          }
+        }
+      }
+      assigned[next] = true;
+      int[] group = toA ? a : b;
+      group[0] = Math.min(group[0], x0[next]);
+      group[1] = Math.min(group[1], y0[next]);
+      group[2] = Math.max(group[2], x1[next]);
+      group[3] = Math.max(group[3], y1[next]);
+      appendSlot(toA ? node : sibling, x0[next], y0[next], x1[next], y1[next], children[next]);
+    }
+    return sibling;
+  }
+
+  private static int firstUnassigned(boolean[] assigned) {
+    int i = 0;
+    while (assigned[i]) {
+      i++;
+    }
+    return i;
+  }
+
+  /**
+   * Finds the leaf slot holding a range, recording the path to it.
+   */
+  private boolean find(int node, int depth, int x0, int y0, int x1, int y1, Range range) {
+    int base = node * STRIDE;
+    boolean leaf = levels[node] == 0;
+    for (int i = 0; i < counts[node]; i++) {
+      int slot = base + i;
+      pathNodes[depth] = node;
+      pathSlots[depth] = i;
+      if (leaf) {
+        if (minX[slot] == x0 && minY[slot] == y0 && maxX[slot] == x1 && maxY[slot] == y1
+            && values[child[slot]].equals(range)) {
+          pathLength = depth + 1;
+          return true;
+        }
+      } else if (minX[slot] <= x0 && minY[slot] <= y0 && maxX[slot] >= x1 && maxY[slot] >= y1
+          && find(child[slot], depth + 1, x0, y0, x1, y1, range)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Walks up the path from a leaf which has lost an entry, removing empty nodes and tightening
+   * the rectangles of their ancestors. Underfull nodes are kept rather than reinserted.
+   */
+  private void condense() {
+    for (int depth = pathLength - 1; depth > 0; depth--) {
+      int node = pathNodes[depth];
+      int parent = pathNodes[depth - 1];
+      if (counts[node] == 0) {
+        removeSlot(parent, pathSlots[depth - 1]);
+        freeNodes = push(freeNodes, freeNodeCount++, node);
+      } else {
+        setSlotToNodeBounds(parent * STRIDE + pathSlots[depth - 1], node);
+      }
+    }
+    while (levels[root] > 0 && counts[root] == 1) {
+      int only = child[root * STRIDE];
+      freeNodes = push(freeNodes, freeNodeCount++, root);
+      root = only;
+    }
+    if (counts[root] == 0) {
+      freeNodes = push(freeNodes, freeNodeCount++, root);
+      root = -1;
+    }
+  }
+
+  /** Packs ranges into a new tree using Sort-Tile-Recursive ordering. */
+  private void bulkLoad(Collection<? extends Range> ranges) {
+    int n = ranges.size();
+    if (n == 0) {
+      return;
+    }
+    int[] x0 = new int[n];
+    int[] y0 = new int[n];
+    int[] x1 = new int[n];
+    int[] y1 = new int[n];
+    int[] items = new int[n];
+    int i = 0;
+    for (Range range : ranges) {
+      items[i] = addValue(range);
+      x0[i] = startOf(range.getStartColumn());
+      y0[i] = startOf(range.getStartRow());
+      x1[i] = endOf(range.getStartColumn(), range.getEndColumn());
+      y1[i] = endOf(range.getStartRow(), range.getEndRow());
+      i++;
+    }
+    int level = 0;
+    while (true) {
+      int[] nodes = packLevel(x0, y0, x1, y1, items, level);
+      if (nodes.length == 1) {
+        root = nodes[0];
+        return;
+      }
+      x0 = new int[nodes.length];
+      y0 = new int[nodes.length];
+      x1 = new int[nodes.length];
+      y1 = new int[nodes.length];
+      for (i = 0; i < nodes.length; i++) {
+        int from = nodes[i] * STRIDE;
+        int to = from + counts[nodes[i]];
+        x0[i] = min(minX, from, to);
+        y0[i] = min(minY, from, to);
+        x1[i] = max(maxX, from, to);
+        y1[i] = max(maxY, from, to);
+      }
+      items = nodes;
+      level++;
+    }
+  }
+
+  /**
+   * Packs one level of the tree: sorts the items into vertical slabs by the centre of their
+   * columns, sorts each slab by the centre of its rows, and fills nodes in that order.
+   *
+   * @return the new nodes.
+   */
+  private int[] packLevel(int[] x0, int[] y0, int[] x1, int[] y1, int[] items, int level) {
+    int n = items.length;
+    int nodeTotal = (n + MAX_ENTRIES - 1) / MAX_ENTRIES;
+    int slabs = (int) Math.ceil(Math.sqrt(nodeTotal));
+    int slabSize = slabs * MAX_ENTRIES;
+    int[] order = sortByCentre(x0, x1, 0, n, null);
+    int[] nodes = new int[nodeTotal];
+    int nodeIndex = 0;
+    for (int slabStart = 0; slabStart < n; slabStart += slabSize) {
+      int slabEnd = Math.min(n, slabStart + slabSize);
+      int[] slab = sortByCentre(y0, y1, slabStart, slabEnd, order);
+      for (int i = 0; i < slab.length; i += MAX_ENTRIES) {
+        int node = allocateNode(level);
+        for (int j = i; j < Math.min(slab.length, i + MAX_ENTRIES); j++) {
+          int k = slab[j];
+          appendSlot(node, x0[k], y0[k], x1[k], y1[k], items[k]);
+        }
+        nodes[nodeIndex++] = node;
+      }
+    }
+    return nodes;
+  }
+
+  /**
+   * Sorts the positions {@code [from, to)} of {@code order}, or of the identity order where
+   * {@code order} is {@code null}, by the centre of their intervals.
+   */
+  private static int[] sortByCentre(int[] start, int[] end, int from, int to, int[] order) {
+    long[] keys = new long[to - from];
+    for (int i = from; i < to; i++) {
+      int k = order == null ? i : order[i];
+      int centre = start[k] + (end[k] - start[k]) / 2;
+      keys[i - from] = ((long) centre << 32) | k;
+    }
+    Arrays.sort(keys);
+    int[] sorted = new int[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      sorted[i] = (int) keys[i];
+    }
+    return sorted;
+  }
+
+  private void checkSheet(Range range) {
+    String name = range.getSheetName();
+    int id = range.getSheetId();
+    checkArgument(name == null || sheetName == null || name.equals(sheetName),
+        "Ranges are on different sheets: %s and %s", sheetName, name);
+    checkArgument(id == NO_SHEET_ID || sheetId == NO_SHEET_ID || id == sheetId,
+        "Ranges are on different sheets: %s and %s", sheetId, id);
+    if (sheetName == null) {
+      sheetName = name;
+    }
+    if (sheetId == NO_SHEET_ID) {
+      sheetId = id;
+    }
+  }
+
+  private int addValue(Range range) {
+    int id;
+    if (freeValueCount > 0) {
+      id = freeValues[--freeValueCount];
+    } else {
+      if (valueCount == values.length) {
+        values = Arrays.copyOf(values, valueCount * 2);
+      }
+      id = valueCount++;
+    }
+    values[id] = range;
+    size++;
+    return id;
+  }
+
+  private int allocateNode(int level) {
+    int node;
+    if (freeNodeCount > 0) {
+      node = freeNodes[--freeNodeCount];
+    } else {
+      if (nodeCount == counts.length) {
+        int capacity = nodeCount * 2;
+        minX = Arrays.copyOf(minX, capacity * STRIDE);
+        minY = Arrays.copyOf(minY, capacity * STRIDE);
+        maxX = Arrays.copyOf(maxX, capacity * STRIDE);
+        maxY = Arrays.copyOf(maxY, capacity * STRIDE);
+        child = Arrays.copyOf(child, capacity * STRIDE);
+        counts = Arrays.copyOf(counts, capacity);
+        levels = Arrays.copyOf(levels, capacity);
+      }
+      node = nodeCount++;
+    }
+    counts[node] = 0;
+    levels[node] = level;
+    return node;
+  }
+
+  private void appendSlot(int node, int x0, int y0, int x1, int y1, int value) {
+    int slot = node * STRIDE + counts[node]++;
+    minX[slot] = x0;
+    minY[slot] = y0;
+    maxX[slot] = x1;
+    maxY[slot] = y1;
+    child[slot] = value;
+  }
+
+  private void appendNodeSlot(int node, int childNode) {
+    int slot = node * STRIDE + counts[node]++;
+    child[slot] = childNode;
+    setSlotToNodeBounds(slot, childNode);
+  }
+
+  /** Removes a slot from a node, moving the last slot into its place. */
+  private void removeSlot(int node, int index) {
+    int slot = node * STRIDE + index;
+    int last = node * STRIDE + --counts[node];
+    minX[slot] = minX[last];
+    minY[slot] = minY[last];
+    maxX[slot] = maxX[last];
+    maxY[slot] = maxY[last];
+    child[slot] = child[last];
+  }
+
+  private void setSlotToNodeBounds(int slot, int node) {
+    int from = node * STRIDE;
+    int to = from + counts[node];
+    minX[slot] = min(minX, from, to);
+    minY[slot] = min(minY, from, to);
+    maxX[slot] = max(maxX, from, to);
+    maxY[slot] = max(maxY, from, to);
+  }
+
+  private static int min(int[] values, int from, int to) {
+    int min = Integer.MAX_VALUE;
+    for (int i = from; i < to; i++) {
+      min = Math.min(min, values[i]);
+    }
+    return min;
+  }
+
+  private static int max(int[] values, int from, int to) {
+    int max = Integer.MIN_VALUE;
+    for (int i = from; i < to; i++) {
+      max = Math.max(max, values[i]);
+    }
+    return max;
+  }
+
+  private static int[] push(int[] stack, int index, int value) {
+    if (index == stack.length) {
+      stack = Arrays.copyOf(stack, index * 2);
+    }
+    stack[index] = value;
+    return stack;
+  }
+
+  private static double area(int x0, int y0, int x1, int y1) {
+    return ((double) x1 - x0 + 1) * ((double) y1 - y0 + 1);
+  }
+
+  private static double area(int[] bounds) {
+    return area(bounds[0], bounds[1], bounds[2], bounds[3]);
+  }
+
+  private static double enlargement(int[] bounds, int x0, int y0, int x1, int y1) {
+    return area(Math.min(bounds[0], x0), Math.min(bounds[1], y0), Math.max(bounds[2], x1),
+        Math.max(bounds[3], y1)) - area(bounds);
+  }
+
+  private static int startOf(int start) {
+    return start == UNBOUNDED ? 0 : start;
+  }
+
+  /** Returns the inclusive end of an interval, which is unbounded where either limit is unset. */
+  private static int endOf(int start, int end) {
+    return start == UNBOUNDED || end == UNBOUNDED ? Integer.MAX_VALUE : end;
+  }
+}
@@ -0,0 +1,113 @@
+package io.github.plemont.ranges;
+
+import java.util.Iterator;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Installs the {@link MetricsListener} which observes the library's conversions.
+ *
+ * <p>Metrics are disabled unless a listener is configured, in which case the conversions do no
+ * more than read a {@code static final} flag, which the JIT compiler folds away. A listener is
+ * chosen once, when the library is first used:
+ *
+ * <ol>
+ *   <li>If the system property {@value #LISTENER_PROPERTY} is set, it names the listener class,
+ *       which must have a public no-argument constructor, or is {@code none} to disable metrics.
+ *   <li>Otherwise, the first provider of {@code MetricsListener} found by
+ *       {@link ServiceLoader} is used.
+ * </ol>
+ *
+ * <pre>
+ * {@code
+ *    // With the system property set to "io.github.plemont.ranges.StripedMetricsListener":
+ *    StripedMetricsListener metrics = (StripedMetricsListener) RangeMetrics.getListener();
+ *    long misses = metrics.getCacheMissCount();
+ * }
+ * </pre>
+ *
+ * <p>A listener which cannot be loaded, for example because the property names a missing class,
+ * is logged as a warning and metrics are left disabled, so that a misconfiguration cannot break
+ * the library.
+ */
+public final class RangeMetrics {
+  /** The system property naming the listener class. */
+  public static final String LISTENER_PROPERTY = "io.github.plemont.ranges.metricsListener";
+
+  private static final Logger logger = Logger.getLogger(RangeMetrics.class.getName());
+
+  private static final MetricsListener NO_OP = new MetricsListener() {};
+
+  /** The installed listener, or a listener which does nothing. */
+  static final MetricsListener LISTENER;
+
+  /** Whether a listener is installed; conversions check this before measuring anything. */
+  static final boolean ENABLED;
+
+  static {
+    MetricsListener listener =
+        install(System.getProperty(LISTENER_PROPERTY), RangeMetrics.class.getClassLoader());
+    ENABLED = listener != null;
+    LISTENER = ENABLED ? listener : NO_OP;
+  }
+
+  // Private constructor to avoid instantiation.
+  private RangeMetrics() {}
+
+  /**
+   * @return whether a listener is installed.
+   */
+  public static boolean isEnabled() {
+    return ENABLED;
+  }
+
+  /**
+   * @return the installed listener, or a listener which does nothing if metrics are disabled.
+   */
+  public static MetricsListener getListener() {
+    return LISTENER;
+  }
+
+  /**
+   * Chooses the listener to install, logging rather than throwing if it cannot be loaded.
+   *
+   * @param className The listener class named by the system property, or {@code null}.
+   * @param loader The class loader used to find the listener.
+   * @return the listener, or {@code null} if metrics are disabled or the listener failed to load.
+   */
+  static MetricsListener install(String className, ClassLoader loader) {
+    try {
+      return load(className, loader);
+    } catch (IllegalStateException | ServiceConfigurationError | LinkageError e) {
+      logger.log(Level.WARNING, "Metrics disabled, as the listener could not be loaded.", e);
+      return null;
+    }
+  }
+
+  /**
+   * Chooses the listener to install.
+   *
+   * @param className The listener class named by the system property, or {@code null}.
+   * @param loader The class loader used to find the listener.
+   * @return the listener, or {@code null} if metrics are disabled.
+   * @throws IllegalStateException if the named class cannot be instantiated as a listener.
+   */
+  static MetricsListener load(String className, ClassLoader loader) {
+    if (className != null && !className.isEmpty()) {
+      if (className.equals("none")) {
+        return null;
+      }
+      try {
+        return Class.forName(className, true, loader).asSubclass(MetricsListener.class)
+            .getConstructor().newInstance();
+      } catch (ReflectiveOperationException | ClassCastException e) {
+        throw new IllegalStateException("Cannot create metrics listener " + className, e);
+      }
+    }
+    Iterator<MetricsListener> providers =
+        ServiceLoader.load(MetricsListener.class, loader).iterator();
+    return providers.hasNext() ? providers.next() : null;
+  }
+}
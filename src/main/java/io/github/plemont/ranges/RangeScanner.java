@@ -0,0 +1,526 @@
+package io.github.plemont.ranges;
+
+import static io.github.plemont.ranges.ParseResult.COORDINATE_OUT_OF_RANGE;
+import static io.github.plemont.ranges.ParseResult.INVALID_SHEET_NAME;
+import static io.github.plemont.ranges.ParseResult.MISSING_ANCHOR;
+import static io.github.plemont.ranges.ParseResult.MISSING_END_CELL;
+import static io.github.plemont.ranges.ParseResult.MIXED_DIMENSIONS;
+import static io.github.plemont.ranges.ParseResult.OK;
+import static io.github.plemont.ranges.ParseResult.SINGLE_DIMENSION;
+import static io.github.plemont.ranges.ParseResult.SYNTAX_ERROR;
+import static io.github.plemont.ranges.ParseResult.ZERO_COORDINATE;
+
+/**
+ * Hand-written, single-pass scanner for A1 notation range strings.
+ *
+ * <p>The scanner accepts exactly the grammar previously described by the regular expression in
+ * {@link Ranges#forRange(String)}:
+ *
+ * <pre>
+ * {@code
+ *    range  := name ( "!" cell ( ":" cell )? )?
+ *    name   := [A-Za-z0-9]{1,100} | "'" ( "''" | [\x20-\x26\x28-\x7E] ){1,100} "'"
+ *    cell   := [A-Z]* [0-9]*
+ * }
+ * </pre>
+ *
+ * <p>Coordinates are accumulated directly into primitive fields as the input is read, so no
+ * intermediate strings, lists or boxed values are created. Following a successful call to
+ * {@link #scan(CharSequence, int, int)}, the coordinates are 1-indexed, with 0 representing a
+ * coordinate that was not specified, and have been validated and ordered as per
+ * {@link #checkCoordEdgeCases(int)} and {@link #checkCoordOrdering()}.
+ *
+ * <p>Ranges in R1C1 notation are scanned by {@link #scanR1C1(CharSequence, int, int, int, int)}
+ * into the same coordinate fields.
+ *
+ * <p>Invalid input is reported by setting an error code from {@link ParseResult} and the index at
+ * which it was found, rather than by throwing, so that rejecting an input costs no more than
+ * accepting one. {@link #tryScan(CharSequence, int, int, boolean)} exposes these directly; the
+ * other scanning methods throw {@code IllegalArgumentException} with the message for the code.
+ *
+ * <p>Instances are not thread-safe, but may be reused for successive scans.
+ */
+final class RangeScanner {
+  static final int SHEET_NAME_MAX_LENGTH = 100;
+
+  int nameStart;
+  int nameEnd;
+  // False only where an R1C1 range was scanned without a sheet name.
+  boolean named;
+  boolean quoted;
+  boolean escaped;
+  boolean colon;
+  int startColumn;
+  int startRow;
+  int endColumn;
+  int endRow;
+  // The number of characters in the unescaped sheet name.
+  int nameLength;
+  // The ParseResult error code of the most recent scan, and the index at which it was found.
+  int error;
+  int errorOffset;
+  // The 1-indexed coordinate found by the most recent call to scanR1C1Coordinate.
+  private int coordinate;
+
+  /**
+   * Scans the characters {@code [start, end)} of {@code range}, which must form a complete range.
+   *
+   * @param range The characters to scan.
+   * @param start The index of the first character of the range.
+   * @param end The index after the last character of the range.
+   * @throws IllegalArgumentException if the range is invalid.
+   */
+  void scan(CharSequence range, int start, int end) {
+    if (tryScan(range, start, end, false) < 0) {
+      throw new IllegalArgumentException(ParseResult.describe(error));
+    }
+  }
+
+  /**
+   * Scans the longest range starting at {@code start}, stopping at the first character that
+   * cannot continue the range, or at {@code end}.
+   *
+   * <p>A trailing {@code :} which is not followed by a cell is not treated as part of the range,
+   * so that for example {@code Sheet1!A1:,} scans as {@code Sheet1!A1}.
+   *
+   * @param range The characters to scan.
+   * @param start The index of the first character of the range.
+   * @param end The index beyond which no characters are read.
+   * @return the index following the last character of the range.
+   * @throws IllegalArgumentException if no valid range starts at {@code start}.
+   */
+  int scanPrefix(CharSequence range, int start, int end) {
+    int next = tryScan(range, start, end, true);
+    if (next < 0) {
+      throw new IllegalArgumentException(ParseResult.describe(error));
+    }
+    return next;
+  }
+
+  /**
+   * Scans a range as per {@link #scan(CharSequence, int, int)}, or
+   * {@link #scanPrefix(CharSequence, int, int)} if {@code prefix} is set, without throwing.
+   *
+   * @return the index following the last character of the range, or {@code -1} if the range is
+   *     invalid, in which case {@link #error} and {@link #errorOffset} describe why.
+   */
+  int tryScan(CharSequence range, int start, int end, boolean prefix) {
+    reset();
+    named = true;
+    int i = scanSheetName(range, start, end);
+    if (i < 0) {
+      return -1;
+    }
+    if (i < end && range.charAt(i) == '!') {
+      if ((i = scanCell(range, i + 1, end, false)) < 0) {
+        return -1;
+      }
+      if (i < end && range.charAt(i) == ':') {
+        int endCell = scanCell(range, i + 1, end, true);
+        if (endCell < 0) {
+          return -1;
+        }
+        if (!prefix || endCell > i + 1) {
+          colon = true;
+          i = endCell;
+        }
+      }
+    }
+    if (!checkCoordEdgeCases(i)) {
+      return -1;
+    }
+    if (!prefix && i < end) {
+      return fail(SYNTAX_ERROR, i);
+    }
+    checkCoordOrdering();
+    return i;
+  }
+
+  /**
+   * Scans the characters {@code [start, end)} of {@code cell}, which must form a single cell
+   * with an optional column and an optional row, such as {@code B3}, {@code B} or {@code 3}. The
+   * coordinates are left in {@link #startColumn} and {@link #startRow}.
+   *
+   * @return whether the cell is valid; if not, {@link #error} and {@link #errorOffset} describe
+   *     why.
+   */
+  boolean scanSingleCell(CharSequence cell, int start, int end) {
+    reset();
+    int i = scanCell(cell, start, end, false);
+    if (i < 0) {
+      return false;
+    }
+    if (i == start || i < end) {
+      fail(SYNTAX_ERROR, i);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Scans the characters {@code [start, end)} of {@code range}, which must form a complete range
+   * in R1C1 notation, such as {@code Sheet1!R2C3:R[4]C[-1]}, with an optional sheet name.
+   *
+   * <p>Relative coordinates, in square brackets or with the number omitted, are resolved against
+   * an anchor cell. The coordinates are then held in the same form as for
+   * {@link #scan(CharSequence, int, int)}. A single row or column, such as {@code R2}, denotes
+   * the whole of that row or column.
+   *
+   * @param range The characters to scan.
+   * @param start The index of the first character of the range.
+   * @param end The index after the last character of the range.
+   * @param anchorColumn The zero-indexed column of the anchor cell, or {@link Range#UNBOUNDED}
+   *     if relative coordinates are not permitted.
+   * @param anchorRow The zero-indexed row of the anchor cell, or {@link Range#UNBOUNDED} if
+   *     relative coordinates are not permitted.
+   * @throws IllegalArgumentException if the range is invalid, or a relative coordinate cannot be
+   *     resolved.
+   */
+  void scanR1C1(CharSequence range, int start, int end, int anchorColumn, int anchorRow) {
+    if (!tryScanR1C1(range, start, end, anchorColumn, anchorRow)) {
+      throw new IllegalArgumentException(ParseResult.describe(error));
+    }
+  }
+
+  private boolean tryScanR1C1(CharSequence range, int start, int end, int anchorColumn,
+      int anchorRow) {
+    reset();
+    int i = start;
+    if (i < end && range.charAt(i) == '\'') {
+      i = scanSheetName(range, i, end);
+      named = true;
+      if (i < 0) {
+        return false;
+      }
+    } else {
+      while (i < end && isAlphanumeric(range.charAt(i))) {
+        i++;
+      }
+      // Without a following !, the letters and digits are the reference itself.
+      named = i < end && range.charAt(i) == '!';
+      if (named && (i = scanSheetName(range, start, end)) < 0) {
+        return false;
+      }
+      i = named ? i : start;
+    }
+    if (named) {
+      if (i >= end || range.charAt(i) != '!') {
+        fail(SYNTAX_ERROR, i);
+        return false;
+      }
+      i++;
+    }
+    if ((i = scanR1C1Part(range, i, end, false, anchorColumn, anchorRow)) < 0) {
+      return false;
+    }
+    if (i < end && range.charAt(i) == ':') {
+      colon = true;
+      if ((i = scanR1C1Part(range, i + 1, end, true, anchorColumn, anchorRow)) < 0) {
+        return false;
+      }
+    } else if (startColumn == 0 || startRow == 0) {
+      // A whole row or column.
+      endColumn = startColumn;
+      endRow = startRow;
+    }
+    if (i < end) {
+      fail(SYNTAX_ERROR, i);
+      return false;
+    }
+    if (!checkCoordEdgeCases(i)) {
+      return false;
+    }
+    checkCoordOrdering();
+    return true;
+  }
+
+  /**
+   * Returns the unescaped sheet name found by the most recent scan of {@code range}.
+   *
+   * @param range The characters that were scanned.
+   * @return the unescaped sheet name, or {@code null} if an R1C1 range was scanned without one.
+   */
+  String sheetName(CharSequence range) {
+    if (!named) {
+      return null;
+    }
+    if (!escaped) {
+      return range.subSequence(nameStart, nameEnd).toString();
+    }
+    StringBuilder sb = new StringBuilder(nameEnd - nameStart);
+    for (int i = nameStart; i < nameEnd; i++) {
+      char c = range.charAt(i);
+      sb.append(c);
+      if (c == '\'') {
+        // Skip the second quote of the '' escape sequence.
+        i++;
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Scans either a plain alphanumeric sheet name, or a single-quoted sheet name which may contain
+   * {@code ''} escape sequences.
+   *
+   * @return the index following the sheet name, or {@code -1} if it is invalid.
+   */
+  private int scanSheetName(CharSequence range, int start, int end) {
+    int i = start;
+    int length = 0;
+    if (i < end && range.charAt(i) == '\'') {
+      quoted = true;
+      nameStart = ++i;
+      while (true) {
+        if (i >= end) {
+          return fail(INVALID_SHEET_NAME, i);
+        }
+        char c = range.charAt(i);
+        if (c == '\'') {
+          if (i + 1 < end && range.charAt(i + 1) == '\'') {
+            escaped = true;
+            i += 2;
+            length++;
+            continue;
+          }
+          break;
+        }
+        if (c < 0x20 || c > 0x7E) {
+          return fail(INVALID_SHEET_NAME, i);
+        }
+        i++;
+        length++;
+      }
+      nameEnd = i++;
+    } else {
+      quoted = false;
+      nameStart = i;
+      while (i < end && isAlphanumeric(range.charAt(i))) {
+        i++;
+      }
+      nameEnd = i;
+      length = nameEnd - nameStart;
+    }
+    if (length == 0 || length > SHEET_NAME_MAX_LENGTH) {
+      return fail(INVALID_SHEET_NAME, start);
+    }
+    nameLength = length;
+    return i;
+  }
+
+  /**
+   * Scans an optional column of upper case letters, followed by an optional row number.
+   *
+   * @param isEnd Whether the scanned cell is the end cell of the range.
+   * @return the index following the cell, or {@code -1} if the row is not > 0, or either
+   *     coordinate overflows.
+   */
+  private int scanCell(CharSequence range, int start, int end, boolean isEnd) {
+    int i = start;
+    int column = 0;
+    char c;
+    while (i < end && (c = range.charAt(i)) >= 'A' && c <= 'Z') {
+      // Decoded as per ColumnCodec, but 1-indexed.
+      int digit = c - 'A' + 1;
+      if (column > (Integer.MAX_VALUE - digit) / 26) {
+        return fail(COORDINATE_OUT_OF_RANGE, start);
+      }
+      column = column * 26 + digit;
+      i++;
+    }
+    int digitsStart = i;
+    int row = 0;
+    while (i < end && (c = range.charAt(i)) >= '0' && c <= '9') {
+      int digit = c - '0';
+      if (row > (Integer.MAX_VALUE - digit) / 10) {
+        return fail(COORDINATE_OUT_OF_RANGE, digitsStart);
+      }
+      row = row * 10 + digit;
+      i++;
+    }
+    if (i > digitsStart && row == 0) {
+      return fail(ZERO_COORDINATE, digitsStart);
+    }
+    if (isEnd) {
+      endColumn = column;
+      endRow = row;
+    } else {
+      startColumn = column;
+      startRow = row;
+    }
+    return i;
+  }
+
+  /**
+   * Scans an optional row, {@code R}, followed by an optional column, {@code C}, in R1C1
+   * notation. At least one of the two must be present.
+   *
+   * @param isEnd Whether the scanned cell is the end cell of the range.
+   * @return the index following the cell, or {@code -1} if neither is present, or a coordinate
+   *     is invalid.
+   */
+  private int scanR1C1Part(CharSequence range, int start, int end, boolean isEnd,
+      int anchorColumn, int anchorRow) {
+    int i = start;
+    int row = 0;
+    int column = 0;
+    char c;
+    if (i < end && ((c = range.charAt(i)) == 'R' || c == 'r')) {
+      if ((i = scanR1C1Coordinate(range, i + 1, end, anchorRow)) < 0) {
+        return -1;
+      }
+      row = coordinate;
+    }
+    if (i < end && ((c = range.charAt(i)) == 'C' || c == 'c')) {
+      if ((i = scanR1C1Coordinate(range, i + 1, end, anchorColumn)) < 0) {
+        return -1;
+      }
+      column = coordinate;
+    }
+    if (i == start) {
+      return fail(SYNTAX_ERROR, i);
+    }
+    if (isEnd) {
+      endColumn = column;
+      endRow = row;
+    } else {
+      startColumn = column;
+      startRow = row;
+    }
+    return i;
+  }
+
+  /**
+   * Scans the number following {@code R} or {@code C}: an absolute 1-indexed number, a relative
+   * offset in square brackets, or nothing for an offset of zero. The result is left in
+   * {@link #coordinate}.
+   *
+   * @return the index following the number, or {@code -1} if the number is invalid, or a
+   *     relative coordinate lies outside the grid or has no anchor.
+   */
+  private int scanR1C1Coordinate(CharSequence range, int start, int end, int anchor) {
+    int i = start;
+    boolean relative = i >= end || range.charAt(i) < '0' || range.charAt(i) > '9';
+    boolean bracketed = i < end && range.charAt(i) == '[';
+    boolean negative = false;
+    if (bracketed) {
+      i++;
+      if (i < end && (range.charAt(i) == '-' || range.charAt(i) == '+')) {
+        negative = range.charAt(i++) == '-';
+      }
+    }
+    long value = 0;
+    int digitsStart = i;
+    char c;
+    while (i < end && (c = range.charAt(i)) >= '0' && c <= '9') {
+      value = value * 10 + (c - '0');
+      if (value > Integer.MAX_VALUE) {
+        return fail(COORDINATE_OUT_OF_RANGE, digitsStart);
+      }
+      i++;
+    }
+    if (bracketed) {
+      if (i == digitsStart || i >= end || range.charAt(i) != ']') {
+        return fail(SYNTAX_ERROR, i);
+      }
+      i++;
+    }
+    if (!relative) {
+      if (value == 0) {
+        return fail(ZERO_COORDINATE, digitsStart);
+      }
+      coordinate = (int) value;
+      return i;
+    }
+    if (anchor == Range.UNBOUNDED) {
+      return fail(MISSING_ANCHOR, start);
+    }
+    long resolved = anchor + 1L + (negative ? -value : value);
+    if (resolved < 1 || resolved > Integer.MAX_VALUE) {
+      return fail(COORDINATE_OUT_OF_RANGE, start);
+    }
+    coordinate = (int) resolved;
+    return i;
+  }
+
+  /**
+   * Checks validity edge cases for the coordinates supplied as part of a range.
+   *
+   * @param next The index following the range, reported as the offset of any error.
+   * @return whether the range is valid.
+   */
+  private boolean checkCoordEdgeCases(int next) {
+    // Edge-case 1: If there is a dividing ":" but no second coordinate specified
+    // e.g. Sheet1!A1: is an error:
+    if (colon && endColumn == 0 && endRow == 0) {
+      fail(MISSING_END_CELL, next);
+      return false;
+    }
+
+    // Edge-case 2: Check for 3 occurrences of unspecified coordinate part.
+    int unspecified = (startColumn == 0 ? 1 : 0) + (startRow == 0 ? 1 : 0)
+        + (endColumn == 0 ? 1 : 0) + (endRow == 0 ? 1 : 0);
+    if (unspecified == 3) {
+      fail(SINGLE_DIMENSION, next);
+      return false;
+    }
+
+    // Edge-case 3: A pair of range coords, separated by ":" where one is just row, the other just
+    // column, is invalid.
+    if ((startColumn > 0 && startRow == 0 && endColumn == 0 && endRow > 0)
+        || (startColumn == 0 && startRow > 0 && endColumn > 0 && endRow == 0)) {
+      fail(MIXED_DIMENSIONS, next);
+      return false;
+    }
+
+    // Edge-case 4: If one coordinate is set with both row and column, it means it's a bounded 1x1
+    // range. Set the end of the range accordingly.
+    if (startColumn > 0 && startRow > 0 && endColumn == 0 && endRow == 0) {
+      endColumn = startColumn;
+      endRow = startRow;
+    }
+    return true;
+  }
+
+  /**
+   * Re-orders coordinates to ensure that for both columns and rows, start is less than or equal to
+   * end.
+   *
+   * <p>For example coordinates [2, 2, 1, 1] should be re-ordered to [1, 1, 2, 2] (representing
+   * that B2:A1 in A1 notation should be reordered to A1:B2).
+   */
+  private void checkCoordOrdering() {
+    if (endColumn != 0 && (startColumn == 0 || endColumn < startColumn)) {
+      int temp = startColumn;
+      startColumn = endColumn;
+      endColumn = temp;
+    }
+    if (endRow != 0 && (startRow == 0 || endRow < startRow)) {
+      int temp = startRow;
+      startRow = endRow;
+      endRow = temp;
+    }
+  }
+
+  private void reset() {
+    startColumn = 0;
+    startRow = 0;
+    endColumn = 0;
+    endRow = 0;
+    colon = false;
+    escaped = false;
+    error = OK;
+    errorOffset = -1;
+  }
+
+  /** Records an error found at {@code offset}, returning {@code -1} for the caller to return. */
+  private int fail(int code, int offset) {
+    error = code;
+    errorOffset = offset;
+    return -1;
+  }
+
+  static boolean isAlphanumeric(char c) {
+    return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9');
+  }
+}
@@ -0,0 +1,544 @@
+package io.github.plemont.ranges;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.github.plemont.ranges.Range.NO_SHEET_ID;
+import static io.github.plemont.ranges.Range.UNBOUNDED;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An immutable set of cells on a single {@code Sheet}, supporting set operations between many
+ * ranges.
+ *
+ * <p>The cells are held in a canonical form: a list of horizontal bands, ordered by row, each
+ * holding an ordered list of disjoint column intervals. Vertically adjacent bands never have
+ * identical column intervals, and horizontally adjacent intervals are always merged. As the form
+ * is canonical, two sets holding the same cells are {@link #equals(Object) equal} regardless of
+ * the ranges they were built from.
+ *
+ * <p>Union, intersection and difference are computed by a single sweep down the bands of both
+ * sets, in time linear in their sizes, and a set is built from {@code n} ranges in
+ * {@code O(n log n)} for typical layouts. Cell and range queries use binary searches.
+ *
+ * <pre>
+ * {@code
+ *    RangeSet locked = RangeSet.of(Range.parse("Data!A1:D10"), Range.parse("Data!F:F"));
+ *    RangeSet writes = RangeSet.of(pendingWrites);
+ *    if (writes.intersects(locked)) {
+ *      List<Range> conflicts = writes.intersection(locked).toRanges();
+ *    }
+ * }
+ * </pre>
+ *
+ * <p>Unbounded ranges, for example {@code Data!F:F}, extend to the maximum row or column index.
+ * A set may hold ranges with a sheet name, a sheet ID or both, provided that they do not
+ * conflict; the ranges returned by {@link #toRanges()} carry whichever were known.
+ */
+public final class RangeSet {
+  // Exclusive end of a coordinate which is unbounded.
+  private static final int LIMIT = Integer.MAX_VALUE;
+
+  private static final RangeSet EMPTY =
+      new RangeSet(null, NO_SHEET_ID, new int[0], new int[0], new int[] {0}, new int[0]);
+
+  private final String sheetName;
+  private final int sheetId;
+
+  // Band i covers rows [bandStarts[i], bandEnds[i]), and the columns in the intervals held in
+  // columns[offsets[i]] to columns[offsets[i + 1] - 1], as pairs of start and exclusive end.
+  private final int[] bandStarts;
+  private final int[] bandEnds;
+  private final int[] offsets;
+  private final int[] columns;
+
+  private RangeSet(String sheetName, int sheetId, int[] bandStarts, int[] bandEnds, int[] offsets,
+      int[] columns) {
+    this.sheetName = sheetName;
+    this.sheetId = sheetId;
+    this.bandStarts = bandStarts;
+    this.bandEnds = bandEnds;
+    this.offsets = offsets;
+    this.columns = columns;
+  }
+
+  /**
+   * @return a set holding no cells, on no particular {@code Sheet}.
+   */
+  public static RangeSet empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Creates a set holding the cells of the specified ranges.
+   *
+   * @param ranges The ranges, all on the same {@code Sheet}.
+   * @return the created RangeSet.
+   * @throws IllegalArgumentException if the ranges have conflicting sheet names or IDs.
+   */
+  public static RangeSet of(Range... ranges) {
+    checkNotNull(ranges, "ranges cannot be null.");
+    return of(Arrays.asList(ranges));
+  }
+
+  /**
+   * Creates a set holding the cells of the specified ranges.
+   *
+   * @param ranges The ranges, all on the same {@code Sheet}.
+   * @return the created RangeSet.
+   * @throws IllegalArgumentException if the ranges have conflicting sheet names or IDs.
+   */
+  public static RangeSet of(Collection<? extends Range> ranges) {
+    checkNotNull(ranges, "ranges cannot be null.");
+    RangeSet[] sets = new RangeSet[ranges.size()];
+    int i = 0;
+    for (Range range : ranges) {
+      sets[i++] = single(checkNotNull(range, "ranges cannot contain null."));
+    }
+    return unionAll(sets, 0, sets.length);
+  }
+
+  /**
+   * Returns the set of cells in either this set or another.
+   *
+   * @param other The other set.
+   * @return the union of the sets.
+   * @throws IllegalArgumentException if the sets are on different {@code Sheet}s.
+   */
+  public RangeSet union(RangeSet other) {
+    return combine(this, checkNotNull(other, "other cannot be null."), Operation.UNION);
+  }
+
+  /**
+   * Returns the set of cells in both this set and another.
+   *
+   * @param other The other set.
+   * @return the intersection of the sets.
+   * @throws IllegalArgumentException if the sets are on different {@code Sheet}s.
+   */
+  public RangeSet intersection(RangeSet other) {
+    return combine(this, checkNotNull(other, "other cannot be null."), Operation.INTERSECTION);
+  }
+
+  /**
+   * Returns the set of cells in this set but not in another.
+   *
+   * @param other The other set.
+   * @return the difference of the sets.
+   * @throws IllegalArgumentException if the sets are on different {@code Sheet}s.
+   */
+  public RangeSet difference(RangeSet other) {
+    return combine(this, checkNotNull(other, "other cannot be null."), Operation.DIFFERENCE);
+  }
+
+  /**
+   * Determines whether this set shares any cell with another.
+   *
+   * @param other The other set.
+   * @return whether the sets intersect.
+   * @throws IllegalArgumentException if the sets are on different {@code Sheet}s.
+   */
+  public boolean intersects(RangeSet other) {
+    return !intersection(other).isEmpty();
+  }
+
+  /**
+   * Determines whether this set holds every cell of another.
+   *
+   * @param other The other set.
+   * @return whether this set contains the other.
+   * @throws IllegalArgumentException if the sets are on different {@code Sheet}s.
+   */
+  public boolean containsAll(RangeSet other) {
+    return checkNotNull(other, "other cannot be null.").difference(this).isEmpty();
+  }
+
+  /**
+   * Determines whether this set holds a cell.
+   *
+   * @param column The zero-indexed column.
+   * @param row The zero-indexed row.
+   * @return whether the cell is in the set.
+   */
+  public boolean contains(int column, int row) {
+    int band = findBand(row);
+    if (band < 0) {
+      return false;
+    }
+    int interval = findInterval(band, column);
+    return interval >= 0 && column < columns[interval + 1];
+  }
+
+  /**
+   * Determines whether this set holds every cell of a range. The sheet of the range is not
+   * checked.
+   *
+   * @param range The range.
+   * @return whether every cell of the range is in the set.
+   */
+  public boolean contains(Range range) {
+    checkNotNull(range, "range cannot be null.");
+    int startColumn = start(range.getStartColumn());
+    int endColumn = end(range.getStartColumn(), range.getEndColumn());
+    int row = start(range.getStartRow());
+    int endRow = end(range.getStartRow(), range.getEndRow());
+    while (row < endRow) {
+      int band = findBand(row);
+      if (band < 0) {
+        return false;
+      }
+      int interval = findInterval(band, startColumn);
+      if (interval < 0 || columns[interval + 1] < endColumn) {
+        return false;
+      }
+      row = bandEnds[band];
+    }
+    return true;
+  }
+
+  /**
+   * Determines whether this set holds any cell of a range. The sheet of the range is not checked.
+   *
+   * @param range The range.
+   * @return whether any cell of the range is in the set.
+   */
+  public boolean intersects(Range range) {
+    checkNotNull(range, "range cannot be null.");
+    int startColumn = start(range.getStartColumn());
+    int endColumn = end(range.getStartColumn(), range.getEndColumn());
+    int startRow = start(range.getStartRow());
+    int endRow = end(range.getStartRow(), range.getEndRow());
+    int band = Arrays.binarySearch(bandEnds, startRow);
+    // The first band ending after the start row.
+    band = band >= 0 ? band + 1 : -band - 1;
+    for (; band < bandStarts.length && bandStarts[band] < endRow; band++) {
+      int interval = Arrays.binarySearch(columns, offsets[band], offsets[band + 1], startColumn);
+      // The first interval boundary after the start column; an odd index is an interval end.
+      interval = interval >= 0 ? interval + 1 : -interval - 1;
+      if (interval < offsets[band + 1]
+          && ((interval & 1) == 1 || columns[interval] < endColumn)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return whether the set holds no cells.
+   */
+  public boolean isEmpty() {
+    return bandStarts.length == 0;
+  }
+
+  /**
+   * @return the number of cells in the set, where unbounded ranges extend to the maximum row or
+   *     column index.
+   */
+  public long cellCount() {
+    long count = 0;
+    for (int band = 0; band < bandStarts.length; band++) {
+      long width = 0;
+      for (int i = offsets[band]; i < offsets[band + 1]; i += 2) {
+        width += (long) columns[i + 1] - columns[i];
+      }
+      count += width * ((long) bandEnds[band] - bandStarts[band]);
+    }
+    return count;
+  }
+
+  /**
+   * @return the number of rectangles in the decomposition returned by {@link #toRanges()}.
+   */
+  public int getRectangleCount() {
+    return columns.length / 2;
+  }
+
+  /**
+   * Decomposes the set into disjoint rectangles, ordered by row and then by column. The
+   * decomposition is canonical: each rectangle spans the full height of a band of rows over which
+   * the columns in the set do not change, and the full width of a run of columns in the set.
+   *
+   * @return the disjoint ranges, with the sheet name and ID of the set.
+   */
+  public List<Range> toRanges() {
+    List<Range> ranges = new ArrayList<>(columns.length / 2);
+    for (int band = 0; band < bandStarts.length; band++) {
+      for (int i = offsets[band]; i < offsets[band + 1]; i += 2) {
+        ranges.add(toRange(columns[i], bandStarts[band], columns[i + 1], bandEnds[band]));
+      }
+    }
+    return Collections.unmodifiableList(ranges);
+  }
+
+  /**
+   * @return the name of the {@code Sheet} holding the cells, or {@code null} if not known.
+   */
+  public String getSheetName() {
+    return sheetName;
+  }
+
+  /**
+   * @return the ID of the {@code Sheet} holding the cells, or {@link Range#NO_SHEET_ID} if not
+   *     known.
+   */
+  public int getSheetId() {
+    return sheetId;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof RangeSet)) {
+      return false;
+    }
+    RangeSet other = (RangeSet) o;
+    return sheetId == other.sheetId
+        && Objects.equals(sheetName, other.sheetName)
+        && Arrays.equals(bandStarts, other.bandStarts)
+        && Arrays.equals(bandEnds, other.bandEnds)
+        && Arrays.equals(offsets, other.offsets)
+        && Arrays.equals(columns, other.columns);
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = Objects.hashCode(sheetName);
+    hash = 31 * hash + sheetId;
+    hash = 31 * hash + Arrays.hashCode(bandStarts);
+    hash = 31 * hash + Arrays.hashCode(bandEnds);
+    return 31 * hash + Arrays.hashCode(columns);
+  }
+
+  @Override
+  public String toString() {
+    return "RangeSet{sheetName=" + sheetName + ", sheetId=" + sheetId + ", rectangles="
+        + getRectangleCount() + "}";
+  }
+
+  /** Returns the band holding a row, or -1. */
+  private int findBand(int row) {
+    int band = Arrays.binarySearch(bandStarts, row);
+    band = band >= 0 ? band : -band - 2;
+    return band >= 0 && row < bandEnds[band] ? band : -1;
+  }
+
+  /** Returns the index of the start of the interval in a band beginning at or before a column. */
+  private int findInterval(int band, int column) {
+    int i = Arrays.binarySearch(columns, offsets[band], offsets[band + 1], column);
+    i = i >= 0 ? i : -i - 2;
+    if (i < offsets[band]) {
+      return -1;
+    }
+    // An odd offset from the band start is an interval end: the column follows that interval.
+    return ((i - offsets[band]) & 1) == 0 ? i : -1;
+  }
+
+  private Range toRange(int startColumn, int startRow, int endColumn, int endRow) {
+    return toRange(sheetName, sheetId, startColumn, startRow, endColumn, endRow);
+  }
+
+  /**
+   * Converts a rectangle with exclusive ends, where an end of {@code Integer.MAX_VALUE} is
+   * unbounded, to a {@code Range} which can be expressed in A1 notation.
+   */
+  static Range toRange(String sheetName, int sheetId, int startColumn, int startRow,
+      int endColumn, int endRow) {
+    int sc = startColumn == 0 && endColumn == LIMIT ? UNBOUNDED : startColumn;
+    int sr = startRow == 0 && endRow == LIMIT ? UNBOUNDED : startRow;
+    int ec = endColumn == LIMIT ? UNBOUNDED : endColumn - 1;
+    int er = endRow == LIMIT ? UNBOUNDED : endRow - 1;
+    if (!RangeFormatter.isExpressible(sc, sr, ec, er) && sc != UNBOUNDED) {
+      // For example, all rows from column D onwards: the end column must be explicit.
+      ec = LIMIT - 1;
+    }
+    if (!RangeFormatter.isExpressible(sc, sr, ec, er)) {
+      er = LIMIT - 1;
+    }
+    return Range.of(sheetName, sheetId, sc, sr, ec, er);
+  }
+
+  /** Returns the first index of an interval, or 0 where the interval is unbounded. */
+  static int start(int start) {
+    return start == UNBOUNDED ? 0 : start;
+  }
+
+  /** Returns the exclusive end of an interval, or {@code Integer.MAX_VALUE} where unbounded. */
+  static int end(int start, int end) {
+    return start == UNBOUNDED || end == UNBOUNDED ? LIMIT : end + 1;
+  }
+
+  private static RangeSet single(Range range) {
+    int startRow = start(range.getStartRow());
+    int endRow = end(range.getStartRow(), range.getEndRow());
+    int startColumn = start(range.getStartColumn());
+    int endColumn = end(range.getStartColumn(), range.getEndColumn());
+    return new RangeSet(range.getSheetName(), range.getSheetId(), new int[] {startRow},
+        new int[] {endRow}, new int[] {0, 2}, new int[] {startColumn, endColumn});
+  }
+
+  private static RangeSet unionAll(RangeSet[] sets, int from, int to) {
+    if (to - from == 0) {
+      return EMPTY;
+    }
+    if (to - from == 1) {
+      return sets[from];
+    }
+    int mid = (from + to) >>> 1;
+    return combine(unionAll(sets, from, mid), unionAll(sets, mid, to), Operation.UNION);
+  }
+
+  private enum Operation {
+    UNION, INTERSECTION, DIFFERENCE;
+
+    boolean includes(boolean inA, boolean inB) {
+      switch (this) {
+        case UNION:
+          return inA || inB;
+        case INTERSECTION:
+          return inA && inB;
+        default:
+          return inA && !inB;
+      }
+    }
+  }
+
+  /**
+   * Sweeps down the row boundaries of both sets, combining the column intervals of each pair of
+   * overlapping bands.
+   */
+  private static RangeSet combine(RangeSet a, RangeSet b, Operation operation) {
+    String sheetName = a.sheetName != null ? a.sheetName : b.sheetName;
+    int sheetId = a.sheetId != NO_SHEET_ID ? a.sheetId : b.sheetId;
+    checkArgument(a.sheetName == null || b.sheetName == null || a.sheetName.equals(b.sheetName),
+        "Ranges are on different sheets: %s and %s", a.sheetName, b.sheetName);
+    checkArgument(a.sheetId == NO_SHEET_ID || b.sheetId == NO_SHEET_ID || a.sheetId == b.sheetId,
+        "Ranges are on different sheets: %s and %s", a.sheetId, b.sheetId);
+
+    Builder builder = new Builder(a.columns.length + b.columns.length);
+    int bandA = 0;
+    int bandB = 0;
+    int row = Math.min(a.firstRow(), b.firstRow());
+    while (bandA < a.bandStarts.length || bandB < b.bandStarts.length) {
+      // The next row at which either set begins or ends a band.
+      int next = LIMIT;
+      boolean inA = bandA < a.bandStarts.length && a.bandStarts[bandA] <= row;
+      boolean inB = bandB < b.bandStarts.length && b.bandStarts[bandB] <= row;
+      if (bandA < a.bandStarts.length) {
+        next = Math.min(next, inA ? a.bandEnds[bandA] : a.bandStarts[bandA]);
+      }
+      if (bandB < b.bandStarts.length) {
+        next = Math.min(next, inB ? b.bandEnds[bandB] : b.bandStarts[bandB]);
+      }
+      if (inA || inB) {
+        builder.addBand(row, next,
+            a.columns, inA ? a.offsets[bandA] : 0, inA ? a.offsets[bandA + 1] : 0,
+            b.columns, inB ? b.offsets[bandB] : 0, inB ? b.offsets[bandB + 1] : 0, operation);
+      }
+      if (inA && a.bandEnds[bandA] == next) {
+        bandA++;
+      }
+      if (inB && b.bandEnds[bandB] == next) {
+        bandB++;
+      }
+      row = next;
+    }
+    return builder.build(sheetName, sheetId);
+  }
+
+  private int firstRow() {
+    return bandStarts.length == 0 ? LIMIT : bandStarts[0];
+  }
+
+  /** Accumulates bands in canonical form. */
+  private static final class Builder {
+    private int[] bandStarts = new int[8];
+    private int[] bandEnds = new int[8];
+    private int[] offsets = new int[9];
+    private int[] columns;
+    private int bandCount;
+    private int columnCount;
+
+    Builder(int expectedColumns) {
+      columns = new int[Math.max(8, expectedColumns)];
+    }
+
+    /**
+     * Adds the band {@code [startRow, endRow)} holding the combination of two lists of column
+     * intervals, merging it into the previous band where the intervals are identical.
+     */
+    void addBand(int startRow, int endRow, int[] a, int fromA, int toA, int[] b, int fromB,
+        int toB, Operation operation) {
+      int bandStart = columnCount;
+      ensureColumns(toA - fromA + toB - fromB);
+      int i = fromA;
+      int j = fromB;
+      boolean inA = false;
+      boolean inB = false;
+      boolean inside = false;
+      while (i < toA || j < toB) {
+        int x = Math.min(i < toA ? a[i] : LIMIT, j < toB ? b[j] : LIMIT);
+        // Interval boundaries alternate start, end: toggling at each one tracks membership.
+        if (i < toA && a[i] == x) {
+          inA = !inA;
+          i++;
+        }
+        if (j < toB && b[j] == x) {
+          inB = !inB;
+          j++;
+        }
+        if (operation.includes(inA, inB) != inside) {
+          inside = !inside;
+          columns[columnCount++] = x;
+        }
+      }
+      if (columnCount == bandStart) {
+        return;
+      }
+      if (bandCount > 0 && bandEnds[bandCount - 1] == startRow
+          && sameColumns(offsets[bandCount - 1], bandStart, columnCount)) {
+        bandEnds[bandCount - 1] = endRow;
+        columnCount = bandStart;
+        return;
+      }
+      if (bandCount == bandStarts.length) {
+        bandStarts = Arrays.copyOf(bandStarts, bandCount * 2);
+        bandEnds = Arrays.copyOf(bandEnds, bandCount * 2);
+        offsets = Arrays.copyOf(offsets, bandCount * 2 + 1);
+      }
+      bandStarts[bandCount] = startRow;
+      bandEnds[bandCount] = endRow;
+      offsets[++bandCount] = columnCount;
+    }
+
+    RangeSet build(String sheetName, int sheetId) {
+      return new RangeSet(sheetName, sheetId, Arrays.copyOf(bandStarts, bandCount),
+          Arrays.copyOf(bandEnds, bandCount), Arrays.copyOf(offsets, bandCount + 1),
+          Arrays.copyOf(columns, columnCount));
+    }
+
+    private boolean sameColumns(int previousStart, int start, int end) {
+      if (start - previousStart != end - start) {
+        return false;
+      }
+      for (int i = 0; i < end - start; i++) {
+        if (columns[previousStart + i] != columns[start + i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private void ensureColumns(int extra) {
+      if (columnCount + extra > columns.length) {
+        columns = Arrays.copyOf(columns, Math.max(columns.length * 2, columnCount + extra));
+      }
+    }
+  }
+}
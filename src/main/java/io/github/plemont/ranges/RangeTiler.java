@@ -0,0 +1,189 @@
+package io.github.plemont.ranges;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.github.plemont.ranges.Range.UNBOUNDED;
+
+import com.google.api.services.sheets.v4.model.GridRange;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Splits a large range into tiles holding a bounded number of cells, so that it can be read in
+ * pages, for example in parallel.
+ *
+ * <p>Tiles are row bands spanning the full width of the range where that width fits within the
+ * cell limit. Wider ranges, or a tiler with a {@link #withMaxColumns(int) column limit}, are split
+ * into blocks of columns as well as bands of rows. Tiles are returned in row-major order: by band
+ * from the top, then by block from the left.
+ *
+ * <pre>
+ * {@code
+ *    RangeTiler tiler = RangeTiler.ofMaxCells(100000);
+ *    List<String> pages = tiler.tileToA1(Range.parse("Data!A:ZZ"), registry);
+ *    // e.g. "Data!A1:ZZ142", "Data!A143:ZZ284", ...
+ * }
+ * </pre>
+ *
+ * <p>Unbounded ranges are clamped to the dimensions of the {@code Sheet}, and bounded ranges
+ * extending beyond the grid are trimmed to it, as the Sheets API rejects reads beyond the grid.
+ *
+ * <p>Instances are immutable and may be shared between threads.
+ */
+public final class RangeTiler {
+  private final long maxCells;
+  private final int maxColumns;
+
+  private RangeTiler(long maxCells, int maxColumns) {
+    this.maxCells = maxCells;
+    this.maxColumns = maxColumns;
+  }
+
+  /**
+   * Creates a tiler producing tiles of at most the specified number of cells.
+   *
+   * @param maxCells The maximum number of cells in a tile.
+   * @return the created tiler.
+   * @throws IllegalArgumentException if the maximum is not positive.
+   */
+  public static RangeTiler ofMaxCells(long maxCells) {
+    checkArgument(maxCells > 0, "maxCells must be positive.");
+    return new RangeTiler(maxCells, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Creates a tiler producing tiles whose estimated size is at most the specified number of
+   * bytes.
+   *
+   * @param maxBytes The maximum estimated size of a tile.
+   * @param bytesPerCell The estimated size of a cell.
+   * @return the created tiler.
+   * @throws IllegalArgumentException if either value is not positive, or a single cell exceeds
+   *     the maximum size.
+   */
+  public static RangeTiler ofMaxBytes(long maxBytes, int bytesPerCell) {
+    checkArgument(maxBytes > 0 && bytesPerCell > 0, "Sizes must be positive.");
+    checkArgument(bytesPerCell <= maxBytes, "A single cell exceeds maxBytes.");
+    return ofMaxCells(maxBytes / bytesPerCell);
+  }
+
+  /**
+   * Returns a tiler which also limits the number of columns in a tile, producing 2-D tiles
+   * rather than row bands.
+   *
+   * @param maxColumns The maximum number of columns in a tile.
+   * @return the new tiler.
+   * @throws IllegalArgumentException if the maximum is not positive.
+   */
+  public RangeTiler withMaxColumns(int maxColumns) {
+    checkArgument(maxColumns > 0, "maxColumns must be positive.");
+    return new RangeTiler(maxCells, maxColumns);
+  }
+
+  /**
+   * Splits a range into tiles.
+   *
+   * @param range The range.
+   * @param rowCount The number of rows in the {@code Sheet}.
+   * @param columnCount The number of columns in the {@code Sheet}.
+   * @return the tiles, with the sheet name and ID of the range, in row-major order. The list is
+   *     empty where the range lies entirely outside the grid.
+   * @throws IllegalArgumentException if the sheet dimensions are negative.
+   */
+  public List<Range> tile(Range range, int rowCount, int columnCount) {
+    checkNotNull(range, "range cannot be null.");
+    checkArgument(rowCount >= 0 && columnCount >= 0, "Sheet dimensions must be non-negative.");
+    int startColumn = range.getStartColumn() == UNBOUNDED ? 0 : range.getStartColumn();
+    int startRow = range.getStartRow() == UNBOUNDED ? 0 : range.getStartRow();
+    int endColumn = clamp(range.getEndColumn(), range.getStartColumn(), columnCount);
+    int endRow = clamp(range.getEndRow(), range.getStartRow(), rowCount);
+    if (startColumn > endColumn || startRow > endRow) {
+      return Collections.emptyList();
+    }
+    long width = (long) endColumn - startColumn + 1;
+    int blockWidth = (int) Math.min(Math.min(width, maxColumns), maxCells);
+    int bandHeight = (int) Math.min(Integer.MAX_VALUE, maxCells / blockWidth);
+
+    List<Range> tiles = new ArrayList<>();
+    for (long row = startRow; row <= endRow; row += bandHeight) {
+      int bandEnd = (int) Math.min(endRow, row + bandHeight - 1);
+      for (long column = startColumn; column <= endColumn; column += blockWidth) {
+        int blockEnd = (int) Math.min(endColumn, column + blockWidth - 1);
+        tiles.add(Range.of(range.getSheetName(), range.getSheetId(), (int) column, (int) row,
+            blockEnd, bandEnd));
+      }
+    }
+    return tiles;
+  }
+
+  /**
+   * Splits a range into tiles, taking the dimensions of its {@code Sheet} from a registry.
+   *
+   * @param range The range, with a sheet name or ID held in the registry.
+   * @param registry The registry of sheets.
+   * @return the tiles, with both the sheet name and ID set, in row-major order.
+   * @throws IllegalArgumentException if the sheet is not in the registry, or its dimensions are
+   *     not known.
+   */
+  public List<Range> tile(Range range, SheetRegistry registry) {
+    checkNotNull(registry, "registry cannot be null.");
+    Range resolved = registry.resolve(range);
+    int rowCount = registry.getRowCount(resolved.getSheetId());
+    int columnCount = registry.getColumnCount(resolved.getSheetId());
+    // The registry holds 0 where the grid properties were not given, which would clamp every
+    // range to an empty grid.
+    checkArgument(rowCount > 0 && columnCount > 0, "Sheet dimensions not known for sheet ID %s",
+        resolved.getSheetId());
+    return tile(resolved, rowCount, columnCount);
+  }
+
+  /**
+   * Splits a range into tiles, returning them in A1 notation.
+   *
+   * @param range The range, with a sheet name or ID held in the registry.
+   * @param registry The registry of sheets.
+   * @return the tiles as range Strings, in row-major order.
+   * @throws IllegalArgumentException if the sheet is not in the registry, or its dimensions are
+   *     not known.
+   */
+  public List<String> tileToA1(Range range, SheetRegistry registry) {
+    List<Range> tiles = tile(range, registry);
+    List<String> result = new ArrayList<>(tiles.size());
+    StringBuilder sb = new StringBuilder(32);
+    for (Range tile : tiles) {
+      sb.setLength(0);
+      result.add(tile.appendA1(sb).toString());
+    }
+    return result;
+  }
+
+  /**
+   * Splits a {@code GridRange} into tiles, returning them as {@code GridRange}s.
+   *
+   * @param gridRange The {@code GridRange}, on a sheet held in the registry.
+   * @param registry The registry of sheets.
+   * @return the tiles as {@code GridRange}s, in row-major order.
+   * @throws IllegalArgumentException if the sheet is not in the registry, or its dimensions are
+   *     not known.
+   */
+  public List<GridRange> tileToGridRanges(GridRange gridRange, SheetRegistry registry) {
+    checkNotNull(registry, "registry cannot be null.");
+    List<Range> tiles = tile(registry.fromGridRange(gridRange), registry);
+    List<GridRange> result = new ArrayList<>(tiles.size());
+    for (Range tile : tiles) {
+      result.add(tile.toGridRange());
+    }
+    return result;
+  }
+
+  /** Returns the inclusive end of an interval, limited to the sheet dimension. */
+  private static int clamp(int end, int start, int dimension) {
+    return start == UNBOUNDED || end == UNBOUNDED ? dimension - 1 : Math.min(end, dimension - 1);
+  }
+
+  @Override
+  public String toString() {
+    return "RangeTiler{maxCells=" + maxCells + ", maxColumns=" + maxColumns + "}";
+  }
+}
@@ -0,0 +1,380 @@
+package io.github.plemont.ranges;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.github.plemont.ranges.Range.UNBOUNDED;
+
+import com.google.api.services.sheets.v4.model.GridRange;
+
+/**
+ * A reusable chain of geometric operations on ranges, compiled into a single step.
+ *
+ * <p>A transform is built by recording operations in the same terms as
+ * {@link Ranges.RangeContext}, such as {@code translate}, {@code expandRows} and
+ * {@code withWidth}, together with {@code clip}, which clamps a range to the bounds of a
+ * {@code Sheet}, and {@code transpose}, which swaps rows and columns:
+ *
+ * <pre>
+ * {@code
+ *    RangeTransform transform = RangeTransform.builder()
+ *        .translate(2, 10)
+ *        .expandRows(5)
+ *        .clip(26, 1000)
+ *        .build();
+ *    Range moved = transform.apply(range);
+ *    ShiftReport report = transform.applyAllParallel(ranges);
+ * }
+ * </pre>
+ *
+ * <p>Building a transform validates its arguments once, and composes the chain into an offset
+ * and a clamp per axis: each coordinate of the result is the coordinate of the source plus an
+ * offset, limited by a maximum. Applying the transform then costs a few additions and
+ * comparisons per range, however long the chain, with no intermediate objects.
+ *
+ * <p>Where {@code RangeContext} would throw, for example on translating a range to before the
+ * first row, or expanding a range without an end row, the transform instead treats the range as
+ * invalid: {@link #apply(Range)} returns {@code null}, and batches report it. A range clipped
+ * away entirely is likewise invalid. Coordinates which are not set are left unset, and are not
+ * clipped.
+ *
+ * <p>Instances are immutable and thread-safe.
+ */
+public final class RangeTransform {
+  // The final start of an axis is source start + startOffset. The final end is either source end
+  // + endOffset, or source start + endOffset where the end was last set from the start by
+  // withWidth or withHeight.
+  private final Axis columns;
+  private final Axis rows;
+
+  private RangeTransform(Axis columns, Axis rows) {
+    this.columns = columns;
+    this.rows = rows;
+  }
+
+  /**
+   * Creates a builder for a transform, initially making no change to a range.
+   *
+   * @return the builder.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Applies the transform to a single range.
+   *
+   * @param range The range.
+   * @return the transformed range, with the same sheet name and ID, or {@code null} if the range
+   *     is invalid after the transform.
+   */
+  public Range apply(Range range) {
+    checkNotNull(range, "range cannot be null.");
+    long column = columns.apply(range.getStartColumn(), range.getEndColumn(),
+        range.getStartRow(), range.getEndRow());
+    long row = rows.apply(range.getStartColumn(), range.getEndColumn(), range.getStartRow(),
+        range.getEndRow());
+    if (column == Axis.INVALID || row == Axis.INVALID) {
+      return null;
+    }
+    return Range.of(range.getSheetName(), range.getSheetId(), (int) (column >> 32),
+        (int) (row >> 32), (int) column, (int) row);
+  }
+
+  /**
+   * Applies the transform to a {@code GridRange}, interpreting it as per
+   * {@link Range#fromGridRange(GridRange)}.
+   *
+   * @param gridRange The {@code GridRange} object.
+   * @return a new, transformed {@code GridRange}, or {@code null} if the range is invalid after
+   *     the transform.
+   * @throws IllegalArgumentException if the {@code GridRange} does not form a valid range.
+   */
+  public GridRange apply(GridRange gridRange) {
+    Range range = apply(Range.fromGridRange(gridRange));
+    return range == null ? null : range.toGridRange();
+  }
+
+  /**
+   * Applies the transform to every range in a batch, in place. Invalid ranges are left
+   * unchanged, and listed in the report.
+   *
+   * @param ranges The ranges.
+   * @return the report of the ranges changed and invalidated.
+   */
+  public ShiftReport applyAll(RangeArray ranges) {
+    checkNotNull(ranges, "ranges cannot be null.");
+    return applyAll(ranges, false);
+  }
+
+  /**
+   * As {@link #applyAll(RangeArray)}, but splitting large batches across the threads of the
+   * common {@code ForkJoinPool}.
+   *
+   * @param ranges The ranges.
+   * @return the report of the ranges changed and invalidated.
+   */
+  public ShiftReport applyAllParallel(RangeArray ranges) {
+    checkNotNull(ranges, "ranges cannot be null.");
+    return applyAll(ranges, true);
+  }
+
+  @Override
+  public String toString() {
+    return "RangeTransform{columns=" + columns + ", rows=" + rows + "}";
+  }
+
+  private ShiftReport applyAll(RangeArray ranges, boolean parallel) {
+    int[] startColumns = ranges.startColumns;
+    int[] startRows = ranges.startRows;
+    int[] endColumns = ranges.endColumns;
+    int[] endRows = ranges.endRows;
+    return RangeArrayTask.run(ranges.size, (from, to, invalidated) -> {
+      int changed = 0;
+      for (int i = from; i < to; i++) {
+        long column = columns.apply(startColumns[i], endColumns[i], startRows[i], endRows[i]);
+        long row = rows.apply(startColumns[i], endColumns[i], startRows[i], endRows[i]);
+        if (column == Axis.INVALID || row == Axis.INVALID) {
+          invalidated[i >>> 6] |= 1L << i;
+          continue;
+        }
+        int startColumn = (int) (column >> 32);
+        int startRow = (int) (row >> 32);
+        int endColumn = (int) column;
+        int endRow = (int) row;
+        if (startColumn != startColumns[i] || startRow != startRows[i]
+            || endColumn != endColumns[i] || endRow != endRows[i]) {
+          startColumns[i] = startColumn;
+          startRows[i] = startRow;
+          endColumns[i] = endColumn;
+          endRows[i] = endRow;
+          changed++;
+        }
+      }
+      return changed;
+    }, parallel);
+  }
+
+  /** Records the operations of a {@link RangeTransform}, composing them as they are added. */
+  public static final class Builder {
+    private Axis columns = new Axis(false);
+    private Axis rows = new Axis(true);
+
+    private Builder() {}
+
+    /**
+     * Translates the range, as per {@link Ranges.RangeContext#translate(int, int)}.
+     *
+     * @param deltaX The number of columns to translate by.
+     * @param deltaY The number of rows to translate by.
+     * @return this builder, for chaining.
+     */
+    public Builder translate(int deltaX, int deltaY) {
+      columns.translate(deltaX);
+      rows.translate(deltaY);
+      return this;
+    }
+
+    /**
+     * Expands the range, as per {@link Ranges.RangeContext#expandColumns(int)}.
+     *
+     * @param numExtraColumns The number of extra columns to add to the range.
+     * @return this builder, for chaining.
+     * @throws IllegalArgumentException if {@code numExtraColumns} is not positive.
+     */
+    public Builder expandColumns(int numExtraColumns) {
+      checkArgument(numExtraColumns > 0, "numExtraColumns must be greater than zero.");
+      columns.expand(numExtraColumns);
+      return this;
+    }
+
+    /**
+     * Expands the range, as per {@link Ranges.RangeContext#expandRows(int)}.
+     *
+     * @param numExtraRows The number of extra rows to add to the range.
+     * @return this builder, for chaining.
+     * @throws IllegalArgumentException if {@code numExtraRows} is not positive.
+     */
+    public Builder expandRows(int numExtraRows) {
+      checkArgument(numExtraRows > 0, "numExtraRows must be greater than zero.");
+      rows.expand(numExtraRows);
+      return this;
+    }
+
+    /**
+     * Sets the width of the range, as per {@link Ranges.RangeContext#withWidth(int)}.
+     *
+     * @param width The number of columns wide for the range.
+     * @return this builder, for chaining.
+     * @throws IllegalArgumentException if {@code width} is not positive.
+     */
+    public Builder withWidth(int width) {
+      checkArgument(width > 0, "Width must be positive.");
+      columns.withLength(width);
+      return this;
+    }
+
+    /**
+     * Sets the height of the range, as per {@link Ranges.RangeContext#withHeight(int)}.
+     *
+     * @param height The number of rows for the range.
+     * @return this builder, for chaining.
+     * @throws IllegalArgumentException if {@code height} is not positive.
+     */
+    public Builder withHeight(int height) {
+      checkArgument(height > 0, "Height must be positive.");
+      rows.withLength(height);
+      return this;
+    }
+
+    /**
+     * Clips the range to the bounds of a {@code Sheet}, so that its bounded end coordinates are
+     * within the grid. A range starting beyond the grid is invalid.
+     *
+     * @param columnCount The number of columns in the {@code Sheet}.
+     * @param rowCount The number of rows in the {@code Sheet}.
+     * @return this builder, for chaining.
+     * @throws IllegalArgumentException if either count is not positive.
+     */
+    public Builder clip(int columnCount, int rowCount) {
+      checkArgument(columnCount > 0 && rowCount > 0, "Grid dimensions must be positive.");
+      columns.clip(columnCount);
+      rows.clip(rowCount);
+      return this;
+    }
+
+    /**
+     * Swaps the rows and columns of the range, so that for example {@code B1:D2} becomes
+     * {@code A2:B4}.
+     *
+     * @return this builder, for chaining.
+     */
+    public Builder transpose() {
+      Axis axis = columns;
+      columns = rows;
+      rows = axis;
+      return this;
+    }
+
+    /**
+     * Creates the transform. The builder may continue to be used afterwards.
+     *
+     * @return the transform.
+     */
+    public RangeTransform build() {
+      return new RangeTransform(columns.copy(), rows.copy());
+    }
+  }
+
+  /** The composed operations along one axis of the result. */
+  private static final class Axis {
+    // Never a valid result, as an end cannot be set without a start.
+    static final long INVALID = pack(UNBOUNDED, 0);
+    // A limit which is never reached, yet can be offset by any sum of int values without overflow.
+    private static final long NO_LIMIT = Long.MAX_VALUE >> 2;
+
+    // Whether the axis is taken from the rows of the source range.
+    private final boolean sourceRows;
+    private long startOffset;
+    private boolean endFromStart;
+    private long endOffset;
+    // The bounds on the final start, and the limit on the final end.
+    private long minStart;
+    private long maxStart = NO_LIMIT;
+    private long maxEnd = NO_LIMIT;
+    // Whether a source range must have its start, or end, set along the axis.
+    private boolean requiresStart;
+    private boolean requiresEnd;
+
+    Axis(boolean sourceRows) {
+      this.sourceRows = sourceRows;
+    }
+
+    Axis copy() {
+      Axis axis = new Axis(sourceRows);
+      axis.startOffset = startOffset;
+      axis.endFromStart = endFromStart;
+      axis.endOffset = endOffset;
+      axis.minStart = minStart;
+      axis.maxStart = maxStart;
+      axis.maxEnd = maxEnd;
+      axis.requiresStart = requiresStart;
+      axis.requiresEnd = requiresEnd;
+      return axis;
+    }
+
+    void translate(int delta) {
+      if (delta == 0) {
+        return;
+      }
+      requiresStart = true;
+      startOffset += delta;
+      endOffset += delta;
+      // Every intermediate start must be non-negative.
+      minStart = Math.max(minStart + delta, 0);
+      maxStart += delta;
+      maxEnd += delta;
+    }
+
+    void expand(int extra) {
+      requiresStart = true;
+      requiresEnd |= !endFromStart;
+      endOffset += extra;
+      maxEnd += extra;
+    }
+
+    void withLength(int length) {
+      requiresStart = true;
+      endFromStart = true;
+      endOffset = startOffset + length - 1;
+      maxEnd = NO_LIMIT;
+    }
+
+    void clip(int count) {
+      maxStart = Math.min(maxStart, count - 1);
+      maxEnd = Math.min(maxEnd, count - 1);
+    }
+
+    /**
+     * Applies the axis to a source range.
+     *
+     * @return the final start and end, packed into a {@code long}, or {@link #INVALID}.
+     */
+    long apply(int startColumn, int endColumn, int startRow, int endRow) {
+      int start = sourceRows ? startRow : startColumn;
+      int end = sourceRows ? endRow : endColumn;
+      if (start == UNBOUNDED) {
+        return requiresStart ? INVALID : pack(UNBOUNDED, UNBOUNDED);
+      }
+      long newStart = start + startOffset;
+      if (newStart < minStart || newStart > maxStart || newStart > Integer.MAX_VALUE) {
+        return INVALID;
+      }
+      if (end == UNBOUNDED && requiresEnd) {
+        return INVALID;
+      }
+      long newEnd;
+      if (endFromStart) {
+        newEnd = start + endOffset;
+      } else if (end == UNBOUNDED) {
+        return pack((int) newStart, UNBOUNDED);
+      } else {
+        newEnd = end + endOffset;
+      }
+      newEnd = Math.min(newEnd, maxEnd);
+      if (newEnd > Integer.MAX_VALUE) {
+        return INVALID;
+      }
+      return pack((int) newStart, (int) newEnd);
+    }
+
+    @Override
+    public String toString() {
+      return "{source=" + (sourceRows ? "rows" : "columns") + ", startOffset=" + startOffset
+          + ", endOffset=" + endOffset + (endFromStart ? " from start" : "") + "}";
+    }
+
+    private static long pack(int start, int end) {
+      return ((long) start << 32) | (end & 0xFFFFFFFFL);
+    }
+  }
+}
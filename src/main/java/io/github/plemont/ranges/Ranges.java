@@ -2,16 +2,16 @@ package io.github.plemont.ranges;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
 
 import com.google.api.services.sheets.v4.model.GridCoordinate;
 import com.google.api.services.sheets.v4.model.GridRange;
 import com.google.api.services.sheets.v4.model.Sheet;
 import com.google.api.services.sheets.v4.model.SheetProperties;
-import com.google.common.collect.ImmutableList;
-import java.util.Collections;
-import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import io.github.plemont.ranges.MetricsListener.Operation;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.Collection;
 
 /**
  * Provides conversion and manipulation functionality for ranges used in Google Sheets.
@@ -63,9 +63,11 @@ import java.util.regex.Pattern;
  * </pre>
  */
 public class Ranges {
-  private static final int SHEET_NAME_MAX_LENGTH = 100;
-  private static final int ASCII_A_OFFSET = 65;
-  private static final int ALPHABET_LENGTH = 26;
+  private static final int SHEET_NAME_MAX_LENGTH = RangeScanner.SHEET_NAME_MAX_LENGTH;
+  // A constant, so that checking a valid sheet name allocates nothing for the message.
+  private static final String SHEET_NAME_MESSAGE =
+      "sheetName must be between 1 and " + SHEET_NAME_MAX_LENGTH + " characters.";
+  private static final int UNBOUNDED = Range.UNBOUNDED;
 
   // Private constructor to avoid instantiation.
   private Ranges() {}
@@ -75,14 +77,12 @@ public class Ranges {
    * format.
    */
   static class RangeContext {
-    private static final Pattern CELL_PATTERN = Pattern.compile("([A-Z]*)([0-9]*)");
-
     private String sheetName;
-    private Integer sheetId;
-    private Integer startColumn;
-    private Integer startRow;
-    private Integer endColumn;
-    private Integer endRow;
+    private int sheetId = Range.NO_SHEET_ID;
+    private int startColumn = UNBOUNDED;
+    private int startRow = UNBOUNDED;
+    private int endColumn = UNBOUNDED;
+    private int endRow = UNBOUNDED;
 
     /**
      * Sets or overwrites the {@link com.google.api.services.sheets.v4.model.Sheet Sheet} name
@@ -96,9 +96,7 @@ public class Ranges {
      * @return the {@code RangeContext} object for chaining.
      */
     public RangeContext withSheetName(String sheetName) {
-      checkArgument(isValidSheetName(sheetName),
-              String.format("sheetName must be between 1 and %d characters.",
-                  SHEET_NAME_MAX_LENGTH));
+      checkArgument(isValidSheetName(sheetName), SHEET_NAME_MESSAGE);
       this.sheetName = sheetName;
       return this;
     }
@@ -125,7 +123,7 @@ public class Ranges {
      */
     public RangeContext withWidth(int width) {
       checkArgument(width > 0, "Width must be positive.");
-      if (startColumn != null) {
+      if (startColumn != UNBOUNDED) {
         endColumn = startColumn + width - 1;
       } else {
         throw new IllegalStateException("Cannot set width where startColumn not set.");
@@ -143,7 +141,7 @@ public class Ranges {
      */
     public RangeContext withHeight(int height) {
       checkArgument(height > 0, "Height must be positive.");
-      if (startRow != null) {
+      if (startRow != UNBOUNDED) {
         endRow = startRow + height - 1;
       } else {
         throw new IllegalStateException("Cannot set height where range is not anchored startRow.");
@@ -161,6 +159,7 @@ public class Ranges {
      * @return the {@code RangeContext} object for chaining.
      */
     public RangeContext withStartColumn(int startColumn) {
+      checkArgument(startColumn >= 0, "startColumn must be non-negative.");
       this.startColumn = startColumn;
       orderBounds();
       return this;
@@ -176,6 +175,7 @@ public class Ranges {
      * @return the {@code RangeContext} object for chaining.
      */
     public RangeContext withStartRow(int startRow) {
+      checkArgument(startRow >= 0, "startRow must be non-negative.");
       this.startRow = startRow;
       orderBounds();
       return this;
@@ -193,7 +193,8 @@ public class Ranges {
      * @throws IllegalStateException if the start column is not set.
      */
     public RangeContext withEndColumn(int endColumn) {
-      if (startColumn != null) {
+      checkArgument(endColumn >= 0, "endColumn must be non-negative.");
+      if (startColumn != UNBOUNDED) {
         this.endColumn = endColumn;
       } else {
         throw new IllegalStateException("Cannot set endColumn where startColumn not set.");
@@ -214,7 +215,8 @@ public class Ranges {
      * @throws IllegalStateException if the start row is not set.
      */
     public RangeContext withEndRow(int endRow) {
-      if (startRow != null) {
+      checkArgument(endRow >= 0, "endRow must be non-negative.");
+      if (startRow != UNBOUNDED) {
         this.endRow = endRow;
       } else {
         throw new IllegalStateException("Cannot set endRow where startRow not set.");
@@ -236,20 +238,12 @@ public class Ranges {
     public RangeContext withStartCell(String a1Cell) {
       checkNotNull(a1Cell, "start cell cannot be null");
       checkArgument(a1Cell.length() > 0, "start cell cannot be empty string");
-      Matcher matcher = CELL_PATTERN.matcher(a1Cell);
-      if (matcher.matches()) {
-        if (matcher.group(1).length() > 0) {
-          this.startColumn = alphaColumnToColumnIndex(matcher.group(1)) - 1;
-        }
-        if (matcher.group(2).length() > 0) {
-          int row = Integer.parseInt(matcher.group(2)) - 1;
-          if (row < 0) {
-            throw new IllegalArgumentException("Invalid row specified");
-          }
-          this.startRow = row;
-        }
-      } else {
-        throw new IllegalArgumentException("Illegal cell format.");
+      RangeScanner scanner = scanCell(a1Cell);
+      if (scanner.startColumn > 0) {
+        this.startColumn = scanner.startColumn - 1;
+      }
+      if (scanner.startRow > 0) {
+        this.startRow = scanner.startRow - 1;
       }
       orderBounds();
       return this;
@@ -267,26 +261,18 @@ public class Ranges {
     public RangeContext withEndCell(String a1Cell) {
       checkNotNull(a1Cell, "end cell cannot be null");
       checkArgument(a1Cell.length() > 0, "end cell cannot be empty string");
-      Matcher matcher = CELL_PATTERN.matcher(a1Cell);
-      if (matcher.matches()) {
-        if (matcher.group(1).length() > 0) {
-          if (this.startColumn !=  null) {
-            this.endColumn = alphaColumnToColumnIndex(matcher.group(1)) - 1;
-          } else {
-            throw new IllegalStateException("Cannot set endColumn when startColumn is unset.");
-          }
+      RangeScanner scanner = scanCell(a1Cell);
+      if (scanner.startColumn > 0) {
+        if (this.startColumn == UNBOUNDED) {
+          throw new IllegalStateException("Cannot set endColumn when startColumn is unset.");
         }
-        if (matcher.group(2).length() > 0) {
-          int row = Integer.parseInt(matcher.group(2)) - 1;
-          if (row < 0) {
-            throw new IllegalArgumentException("Invalid row specified");
-          } else if (this.startRow == null) {
-            throw new IllegalStateException("Cannot set endRow bound when startRow is unset.");
-          }
-          this.endRow = row;
+        this.endColumn = scanner.startColumn - 1;
+      }
+      if (scanner.startRow > 0) {
+        if (this.startRow == UNBOUNDED) {
+          throw new IllegalStateException("Cannot set endRow bound when startRow is unset.");
         }
-      } else {
-        throw new IllegalArgumentException("Illegal cell format.");
+        this.endRow = scanner.startRow - 1;
       }
       orderBounds();
       return this;
@@ -299,10 +285,10 @@ public class Ranges {
      * @throws IllegalStateException if attempting to unset the start column when end column is set.
      */
     public RangeContext clearStartColumn() {
-      if (endColumn != null) {
+      if (endColumn != UNBOUNDED) {
         throw new IllegalStateException("Cannot clear startColumn where endColumn still set.");
       }
-      this.startColumn = null;
+      this.startColumn = UNBOUNDED;
       return this;
     }
 
@@ -313,10 +299,10 @@ public class Ranges {
      * @throws IllegalStateException if attempting to unset the start row when end row is set.
      */
     public RangeContext clearStartRow() {
-      if (endRow != null) {
+      if (endRow != UNBOUNDED) {
         throw new IllegalStateException("Cannot clear startRow where endRow still set.");
       }
-      this.startRow = null;
+      this.startRow = UNBOUNDED;
       return this;
     }
 
@@ -326,7 +312,7 @@ public class Ranges {
      * @return the {@code RangeContext} object for chaining.
      */
     public RangeContext clearEndColumn() {
-      this.endColumn = null;
+      this.endColumn = UNBOUNDED;
       return this;
     }
 
@@ -336,7 +322,7 @@ public class Ranges {
      * @return the {@code RangeContext} object for chaining.
      */
     public RangeContext clearEndRow() {
-      this.endRow = null;
+      this.endRow = UNBOUNDED;
       return this;
     }
 
@@ -349,7 +335,7 @@ public class Ranges {
      */
     public RangeContext expandRows(int numExtraRows) {
       checkArgument(numExtraRows > 0, "numExtraRows must be greater than zero.");
-      if (startRow == null || endRow == null) {
+      if (startRow == UNBOUNDED || endRow == UNBOUNDED) {
         throw new IllegalStateException("Cannot expand rows where bounds are not set.");
       }
       endRow += numExtraRows;
@@ -365,7 +351,7 @@ public class Ranges {
      */
     public RangeContext expandColumns(int numExtraColumns) {
       checkArgument(numExtraColumns > 0, "numExtraColumns must be greater than zero.");
-      if (startColumn == null || endColumn == null) {
+      if (startColumn == UNBOUNDED || endColumn == UNBOUNDED) {
         throw new IllegalStateException("Cannot expand columns where bounds are not set.");
       }
       endColumn += numExtraColumns;
@@ -386,24 +372,24 @@ public class Ranges {
      */
     public RangeContext translate(int deltaX, int deltaY) {
       if (deltaX != 0) {
-        if (startColumn == null) {
+        if (startColumn == UNBOUNDED) {
           throw new IllegalStateException("Cannot translate range where startColumn is not set.");
         } else if (startColumn + deltaX < 0) {
           throw new IllegalArgumentException("Cannot translate to before column 0.");
         }
         startColumn += deltaX;
-        if (endColumn != null) {
+        if (endColumn != UNBOUNDED) {
           endColumn += deltaX;
         }
       }
       if (deltaY != 0) {
-        if (startRow == null) {
+        if (startRow == UNBOUNDED) {
           throw new IllegalStateException("Cannot translate range where startRow is not set.");
         } else if (startRow + deltaY < 0) {
           throw new IllegalArgumentException("Cannot translate to before row 0.");
         }
         startRow += deltaY;
-        if (endRow != null) {
+        if (endRow != UNBOUNDED) {
           endRow += deltaY;
         }
       }
@@ -434,33 +420,54 @@ public class Ranges {
      * @throws IllegalStateException if the current context cannot be converted to a range String.
      */
     public String toRange()  {
-      if (sheetName == null) {
-        throw new IllegalStateException("Sheet name is not set: cannot create a range string.");
+      int capacity = sheetName == null ? 0 : sheetName.length() + 24;
+      if (!RangeMetrics.ENABLED) {
+        return appendRange(new StringBuilder(capacity)).toString();
       }
-      String range = escapeSheetName(sheetName);
-
-      // Full-grid specification
-      if (startColumn != null && endColumn != null && startRow != null && endRow != null) {
-        String startCell = columnIndexToAlphaColumn(startColumn) + (startRow + 1);
-        String endCell = columnIndexToAlphaColumn(endColumn) + (endRow + 1);
-        range += "!" + startCell;
-        if (!startCell.equals(endCell)) {
-          range += ":" + endCell;
-        }
-      } else if (startColumn != null && endColumn != null && endRow == null) {
-        String startRowString = startRow == null ? "" : String.valueOf(startRow + 1);
-        range += String.join("", "!", columnIndexToAlphaColumn(startColumn), startRowString, ":",
-            columnIndexToAlphaColumn(endColumn));
-      } else if (endColumn == null && startRow != null && endRow != null) {
-        String startColumnString = startColumn == null ? "" : columnIndexToAlphaColumn(startColumn);
-        range += String.join("", "!", startColumnString, String.valueOf(startRow + 1),
-            ":", String.valueOf(endRow + 1));
-      } else if (startColumn != null || endColumn != null || startRow != null || endRow != null) {
-        throw new IllegalStateException("Illegal combination of coordinates set.");
+      long start = System.nanoTime();
+      if (sheetName == null) {
+        RangeMetrics.LISTENER.onError(Operation.TO_RANGE, ParseResult.INVALID_SHEET_NAME);
+      } else if (!RangeFormatter.isExpressible(startColumn, startRow, endColumn, endRow)) {
+        RangeMetrics.LISTENER.onError(Operation.TO_RANGE, ParseResult.INEXPRESSIBLE);
       }
+      String range = appendRange(new StringBuilder(capacity)).toString();
+      RangeMetrics.LISTENER.onConversion(Operation.TO_RANGE,
+          RangeFormatter.requiresQuoting(sheetName), isBounded(), System.nanoTime() - start);
       return range;
     }
 
+    /**
+     * Appends the range String for the current context to a {@code StringBuilder}, without
+     * creating any intermediate strings.
+     *
+     * <p>See {@link #toRange()} for details of the range String formats.</p>
+     *
+     * @param sb The {@code StringBuilder} to append to.
+     * @return the {@code StringBuilder}, for chaining.
+     * @throws IllegalStateException if the current context cannot be converted to a range String,
+     *     in which case nothing is appended.
+     */
+    public StringBuilder appendRange(StringBuilder sb) {
+      return RangeFormatter.appendRange(sb, sheetName, startColumn, startRow, endColumn, endRow);
+    }
+
+    /**
+     * Appends the range String for the current context to an {@code Appendable}, such as a
+     * {@code Writer}, without creating any intermediate strings.
+     *
+     * <p>See {@link #toRange()} for details of the range String formats.</p>
+     *
+     * @param out The {@code Appendable} to append to.
+     * @return the {@code Appendable}, for chaining.
+     * @throws IllegalStateException if the current context cannot be converted to a range String,
+     *     in which case nothing is appended.
+     * @throws IOException if thrown by the {@code Appendable}.
+     */
+    public Appendable appendRange(Appendable out) throws IOException {
+      RangeFormatter.appendRange(out, sheetName, startColumn, startRow, endColumn, endRow);
+      return out;
+    }
+
     /**
      * Creates a {@link com.google.api.services.sheets.v4.model.GridRange GridRange} from the
      * current context.
@@ -468,12 +475,17 @@ public class Ranges {
      * @return the created GridRange.
      */
     public GridRange toGridRange() {
+      long start = RangeMetrics.ENABLED ? System.nanoTime() : 0;
       GridRange gridRange = new GridRange();
-      gridRange.setSheetId(sheetId);
-      gridRange.setStartRowIndex(startRow);
-      gridRange.setEndRowIndex(endRow != null ? endRow + 1 : null);
-      gridRange.setStartColumnIndex(startColumn);
-      gridRange.setEndColumnIndex(endColumn != null ? endColumn + 1 : null);
+      gridRange.setSheetId(boxIfSet(sheetId));
+      gridRange.setStartRowIndex(boxIfSet(startRow));
+      gridRange.setEndRowIndex(endRow != UNBOUNDED ? endRow + 1 : null);
+      gridRange.setStartColumnIndex(boxIfSet(startColumn));
+      gridRange.setEndColumnIndex(endColumn != UNBOUNDED ? endColumn + 1 : null);
+      if (RangeMetrics.ENABLED) {
+        RangeMetrics.LISTENER.onConversion(Operation.TO_GRID_RANGE, false, isBounded(),
+            System.nanoTime() - start);
+      }
       return gridRange;
     }
 
@@ -485,9 +497,9 @@ public class Ranges {
      */
     public GridCoordinate toStartGridCoordinate() {
       GridCoordinate gridCoordinate = new GridCoordinate();
-      gridCoordinate.setSheetId(sheetId);
-      gridCoordinate.setColumnIndex(startColumn);
-      gridCoordinate.setRowIndex(startRow);
+      gridCoordinate.setSheetId(boxIfSet(sheetId));
+      gridCoordinate.setColumnIndex(boxIfSet(startColumn));
+      gridCoordinate.setRowIndex(boxIfSet(startRow));
       return gridCoordinate;
     }
 
@@ -499,12 +511,22 @@ public class Ranges {
      */
     public GridCoordinate toEndGridCoordinate() {
       GridCoordinate gridCoordinate = new GridCoordinate();
-      gridCoordinate.setSheetId(sheetId);
-      gridCoordinate.setColumnIndex(endColumn);
-      gridCoordinate.setRowIndex(endRow);
+      gridCoordinate.setSheetId(boxIfSet(sheetId));
+      gridCoordinate.setColumnIndex(boxIfSet(endColumn));
+      gridCoordinate.setRowIndex(boxIfSet(endRow));
       return gridCoordinate;
     }
 
+    /**
+     * Creates an immutable {@link Range} from the current context.
+     *
+     * @return the created Range.
+     * @throws IllegalArgumentException if the current context does not form a valid range.
+     */
+    public Range toValue() {
+      return Range.of(sheetName, sheetId, startColumn, startRow, endColumn, endRow);
+    }
+
     /**
      * Retrieve the name of the {@code Sheet} in the current context.
      *
@@ -514,47 +536,49 @@ public class Ranges {
       return sheetName;
     }
 
+    /** Determines whether all four coordinates are set, as reported to a listener. */
+    private boolean isBounded() {
+      return startColumn != UNBOUNDED && startRow != UNBOUNDED && endColumn != UNBOUNDED
+          && endRow != UNBOUNDED;
+    }
+
     /**
      * Ensures that {@code startRow <= endRow} and {@code startColumn <= endColumn} for the current
      * context, by swapping values where necessary when both start and end are defined.
      */
     private void orderBounds() {
-      if (startColumn != null && endColumn != null) {
-        int a = startColumn;
-        int b = endColumn;
-        startColumn = Math.min(a, b);
-        endColumn = Math.max(a, b);
+      if (startColumn != UNBOUNDED && endColumn != UNBOUNDED && startColumn > endColumn) {
+        int temp = startColumn;
+        startColumn = endColumn;
+        endColumn = temp;
       }
-      if (startRow != null && endRow != null) {
-        int a = startRow;
-        int b = endRow;
-        startRow = Math.min(a, b);
-        endRow = Math.max(a, b);
+      if (startRow != UNBOUNDED && endRow != UNBOUNDED && startRow > endRow) {
+        int temp = startRow;
+        startRow = endRow;
+        endRow = temp;
       }
     }
 
     /**
-     * Encloses a {@code Sheet} name with single-quotes and escapes any single-quotes where
-     * necessary.
-     *
-     * <p>{@code Sheet} names consisting only of alphanumeric characters require no escaping,
-     * however, any punctuation will result in the entire name being enclosed in quotes. Some
-     * examples:</p>
+     * Scans a cell in A1 notation, such as {@code B3}, {@code B} or {@code 3}.
      *
-     * <ul>
-     *   <ul><strong>Sheet1</strong> - is escaped as {@code Sheet1}</ul>
-     *   <ul><strong>My Sheet</strong> - is escaped as {@code 'My Sheet'}</ul>
-     *   <ul><strong>Today's data</strong> - is escaped as {@code 'Today''s data'}</ul>
-     * </ul>
-     *
-     * @param sheetName The string to escape.
-     * @return the escaped sheet name.
+     * @return the scanner holding the 1-indexed coordinates of the cell.
+     * @throws IllegalArgumentException if the cell format is invalid.
      */
-    private String escapeSheetName(String sheetName) {
-      if (sheetName.matches("[A-Za-z0-9]+")) {
-        return sheetName;
+    private static RangeScanner scanCell(String a1Cell) {
+      RangeScanner scanner = new RangeScanner();
+      if (!scanner.scanSingleCell(a1Cell, 0, a1Cell.length())) {
+        throw new IllegalArgumentException(ParseResult.describe(scanner.error));
       }
-      return "'" + sheetName.replaceAll(Pattern.quote("'"), "''") + "'";
+      return scanner;
+    }
+
+    /**
+     * Boxes a sheet ID or coordinate for use in the Sheets API model classes, where unset values are
+     * represented by {@code null}.
+     */
+    private static Integer boxIfSet(int value) {
+      return value == UNBOUNDED ? null : value;
     }
 
     /**
@@ -567,28 +591,6 @@ public class Ranges {
       return sheetName != null
           && sheetName.length() > 0 && sheetName.length() < SHEET_NAME_MAX_LENGTH;
     }
-
-    /**
-     * Converts a numeric column index into a String representation as per A1 cell notation. For
-     * example: {@code 0 -> A}.
-     *
-     * @param columnIndex The 0-indexed column number.
-     * @return The A1-format column specifier.
-     */
-    private String columnIndexToAlphaColumn(int columnIndex) {
-      checkArgument(columnIndex >= 0, "Column index should be greater or equal to zero.");
-      StringBuilder sb = new StringBuilder();
-
-      int remainder = columnIndex % ALPHABET_LENGTH;
-      sb.append((char) (remainder + ASCII_A_OFFSET));
-
-      while (columnIndex - remainder > 0) {
-        columnIndex = (columnIndex - remainder) / ALPHABET_LENGTH - 1;
-        remainder = columnIndex % ALPHABET_LENGTH;
-        sb.insert(0, (char) (remainder + ASCII_A_OFFSET));
-      }
-      return sb.toString();
-    }
   }
 
 
@@ -651,6 +653,24 @@ public class Ranges {
     return rangeContext;
   }
 
+  /**
+   * Creates a new {@code RangeContext} for manipulating ranges based on an immutable {@link Range}.
+   *
+   * @param range The {@code Range} object.
+   * @return the {@code RangeContext} object for chaining.
+   */
+  public static RangeContext forValue(Range range) {
+    checkNotNull(range, "range cannot be null.");
+    RangeContext rangeContext = new RangeContext();
+    rangeContext.sheetName = range.getSheetName();
+    rangeContext.sheetId = range.getSheetId();
+    rangeContext.startColumn = range.getStartColumn();
+    rangeContext.startRow = range.getStartRow();
+    rangeContext.endColumn = range.getEndColumn();
+    rangeContext.endRow = range.getEndRow();
+    return rangeContext;
+  }
+
   /**
    * Creates a new {@code RangeContext} for manipulating ranges based on a range String.
    *
@@ -661,196 +681,188 @@ public class Ranges {
    * @throws IllegalArgumentException if the range is invalid.
    */
   public static RangeContext forRange(String range) {
-    // Sheet names appear to be able to consist of pretty much any character. When including a
-    // special character such as a space, comma, dash etc, the name must be quoted.
-    String simpleSheetNameRx = String.format("[A-Za-z0-9]{1,%d}", SHEET_NAME_MAX_LENGTH);
-    String spacedSheetNameRx = String.format("'(?:''|[\\x20-\\x26\\x28-\\x7E]){1,%d}'",
-        SHEET_NAME_MAX_LENGTH);
-
-    // This is a basic regex for capturing the optional 1 or 2 A1-notation coordinates in the range
-    // specification. This regex is over-generous, allowing for invalid cases in the name of
-    // simplicity, which are then tested for further below and filtered out.
-    String gridRx = "(?:|!([A-Z]*)([0-9]*)(?:|(:)([A-Z]*)([0-9]*)))";
-
-    String pattern = String.format("(%s|%s)%s", simpleSheetNameRx, spacedSheetNameRx, gridRx);
-    Pattern rangePattern = Pattern.compile(pattern);
-
-    Matcher matcher = rangePattern.matcher(range);
-    if (matcher.matches()) {
-      List<Integer> coords = ImmutableList.of(getColIntFromExtractedString(matcher.group(2)),
-          getRowIntFromExtractedString(matcher.group(3)),
-          getColIntFromExtractedString(matcher.group(5)),
-          getRowIntFromExtractedString(matcher.group(6)));
-
-      boolean isColon = matcher.group(4) != null && matcher.group(4).equals(":");
-      coords = checkCoordEdgeCases(coords, isColon);
-      coords = checkCoordOrdering(coords);
-
-      String sheetName = unescapeSheetName(matcher.group(1));
-      return sheetNameAndCoordsToRangeContext(sheetName, coords);
-    } else {
-      throw new IllegalArgumentException("Not a valid range.");
+    checkNotNull(range, "range cannot be null.");
+    long start = RangeMetrics.ENABLED ? System.nanoTime() : 0;
+    RangeScanner scanner = new RangeScanner();
+    if (scanner.tryScan(range, 0, range.length(), false) < 0) {
+      if (RangeMetrics.ENABLED) {
+        RangeMetrics.LISTENER.onError(Operation.FOR_RANGE, scanner.error);
+      }
+      throw new IllegalArgumentException(ParseResult.describe(scanner.error));
+    }
+    if (RangeMetrics.ENABLED && scanner.nameLength >= SHEET_NAME_MAX_LENGTH) {
+      // The scanner accepts one more character than withSheetName, which throws below.
+      RangeMetrics.LISTENER.onError(Operation.FOR_RANGE, ParseResult.INVALID_SHEET_NAME);
+    }
+    RangeContext rangeContext = sheetNameAndCoordsToRangeContext(scanner.sheetName(range), scanner);
+    if (RangeMetrics.ENABLED) {
+      boolean bounded = scanner.startColumn > 0 && scanner.startRow > 0 && scanner.endColumn > 0
+          && scanner.endRow > 0;
+      RangeMetrics.LISTENER.onConversion(Operation.FOR_RANGE, scanner.quoted, bounded,
+          System.nanoTime() - start);
     }
+    return rangeContext;
   }
 
   /**
-   * Convenience method to create a {@code RangeContext} for a given sheet name and set of four
-   * coordinates.
+   * Parses a range from the characters {@code [start, end)} of a larger sequence, without copying
+   * them.
    *
-   * @param sheetName The desired {@code Sheet} name.
-   * @param coords A list of coordinates, in the form [startColumn, startRow, endColumn, endRow].
-   *     Note that these coordinates are 1-indexed, as 0 is the case where the parameter is not
-   *     specified, and should be left as null in the {@code RangeContext}.
-   * @return the {@code RangeContext} object for chaining.
+   * <p>Unlike {@link #forRange(String)}, the range need not occupy the whole slice: parsing stops
+   * at the first character which cannot continue the range, such as a separator, and the number
+   * of characters consumed is returned along with the range. A {@code :} which is not followed by
+   * a cell is not consumed.</p>
+   *
+   * @param src The characters holding the range.
+   * @param start The index of the first character of the range.
+   * @param end The index beyond which no characters are read.
+   * @return the parsed range and the number of characters consumed.
+   * @throws IllegalArgumentException if no valid range starts at {@code start}.
+   * @throws IndexOutOfBoundsException if {@code start} and {@code end} are not a valid slice of
+   *     {@code src}.
    */
-  private static RangeContext sheetNameAndCoordsToRangeContext(String sheetName,
-      List<Integer> coords) {
-    RangeContext rangeContext = new RangeContext();
-    rangeContext.withSheetName(sheetName);
-    if (coords.get(0) > 0) {
-      rangeContext.withStartColumn(coords.get(0) - 1);
-    }
-    if (coords.get(1) > 0) {
-      rangeContext.withStartRow(coords.get(1) - 1);
-    }
-    if (coords.get(2) > 0) {
-      rangeContext.withEndColumn(coords.get(2) - 1);
-    }
-    if (coords.get(3) > 0) {
-      rangeContext.withEndRow(coords.get(3) - 1);
-    }
-    return rangeContext;
+  public static ParseResult parse(CharSequence src, int start, int end) {
+    checkNotNull(src, "src cannot be null.");
+    checkPositionIndexes(start, end, src.length());
+    RangeScanner scanner = new RangeScanner();
+    int next = scanner.scanPrefix(src, start, end);
+    Range range = Range.of(scanner.sheetName(src), scanner.startColumn - 1,
+        scanner.startRow - 1, scanner.endColumn - 1, scanner.endRow - 1);
+    return new ParseResult(range, next - start);
   }
 
   /**
-   * Checks validity edge cases for coordinates supplied as part of a range.
+   * As {@link #parse(CharSequence, int, int)}, for a range held in a {@code char} array.
    *
-   * @param coords A list of coordinates, in the form [startColumn, startRow, endColumn, endRow].
-   *     Note that these coordinates are 1-indexed, as 0 is the case where the parameter is not
-   *     specified, and should be left as null in the {@code RangeContext}.
-   * @param isColon Whether a colon was present in the range, to separate start and end cell.
-   * @return a new list if it is valid.
-   * @throws IllegalArgumentException if the range is invalid.
+   * @param src The characters holding the range.
+   * @param start The index of the first character of the range.
+   * @param end The index beyond which no characters are read.
+   * @return the parsed range and the number of characters consumed.
+   * @throws IllegalArgumentException if no valid range starts at {@code start}.
+   * @throws IndexOutOfBoundsException if {@code start} and {@code end} are not a valid slice of
+   *     {@code src}.
    */
-  private static List<Integer> checkCoordEdgeCases(List<Integer> coords, boolean isColon) {
-    // Edge-case 1: If there is a dividing ":" but no second coordinate specified
-    // e.g. Sheet1!A1: throw an error:
-    if (isColon && coords.get(2) == 0 && coords.get(3) == 0) {
-      throw new IllegalArgumentException("Colon in range but no second coordinate specified.");
-    }
-
-    // Edge-case 2: Check for 3 occurrences of unspecified coordinate part.
-    if (Collections.frequency(coords, 0) == 3) {
-      throw new IllegalArgumentException("Single-dimension range coords not valid in isolation.");
-    }
+  public static ParseResult parse(char[] src, int start, int end) {
+    checkNotNull(src, "src cannot be null.");
+    // Wraps rather than copies the array; indexes remain relative to the start of the array.
+    return parse(CharBuffer.wrap(src), start, end);
+  }
 
-    // Edge-case 3: A pair of range coords, separated by ":" where one is just row, the other just
-    // column, is invalid.
-    if ((coords.get(0) > 0 && coords.get(1) == 0 && coords.get(2) == 0 && coords.get(3) > 0)
-        || (coords.get(0) == 0 && coords.get(1) > 0 && coords.get(2) > 0 && coords.get(3) == 0)) {
-      throw new IllegalArgumentException("Ranges cannot consist of <row>:<col> or <col>:<row>.");
-    }
+  /**
+   * Parses a range String without throwing if it is invalid.
+   *
+   * <p>Where {@link #forRange(String)} throws for invalid input, this method returns a result
+   * holding an error code and the offset at which the error was found, so that rejecting an
+   * input costs no more than accepting one. This suits streams of input in which many entries
+   * are expected to be malformed.</p>
+   *
+   * @param range The range string.
+   * @return the result holding the parsed range, or the reason the range is invalid.
+   */
+  public static ParseResult tryParse(CharSequence range) {
+    checkNotNull(range, "range cannot be null.");
+    return Range.tryParse(new RangeScanner(), range, 0, range.length(), false);
+  }
 
-    // Edge-case 4: If one coordinate is set with both row and column, it means it's a bounded 1x1
-    // range. Set the end of the range accordingly.
-    if (coords.get(0) > 0 && coords.get(1) > 0 && coords.get(2) == 0 && coords.get(3) == 0) {
-      return ImmutableList.of(coords.get(0), coords.get(1), coords.get(0), coords.get(1));
-    }
-    return coords;
+  /**
+   * As {@link #parse(CharSequence, int, int)}, but returning a result holding an error code and
+   * offset, rather than throwing, if no valid range starts at {@code start}. The offset is
+   * relative to {@code start}, as is the number of characters consumed.
+   *
+   * @param src The characters holding the range.
+   * @param start The index of the first character of the range.
+   * @param end The index beyond which no characters are read.
+   * @return the result holding the parsed range and the number of characters consumed, or the
+   *     reason the range is invalid.
+   * @throws IndexOutOfBoundsException if {@code start} and {@code end} are not a valid slice of
+   *     {@code src}.
+   */
+  public static ParseResult tryParse(CharSequence src, int start, int end) {
+    checkNotNull(src, "src cannot be null.");
+    checkPositionIndexes(start, end, src.length());
+    return Range.tryParse(new RangeScanner(), src, start, end, true);
   }
 
   /**
-   * Re-orders coordinates to ensure that for both columns and rows, start is less than or equal to
-   * end.
+   * Parses a batch of range Strings into immutable {@link Range} objects.
    *
-   * <p>For example coordinates [2, 2, 1, 1] should be re-ordered to [1, 1, 2, 2] (representing
-   * that B2:A1 in A1 notation should be reordered to A1:B2).
+   * <p>Unlike {@link #forRange(String)}, an invalid entry does not throw: its result is
+   * {@code null} and the reason is recorded in the returned {@link BatchResult}, so that the
+   * remaining entries are still parsed.</p>
    *
-   * @param coords A list of coordinates, in the form [startColumn, startRow, endColumn, endRow].
-   *     Note that these coordinates are 1-indexed, as 0 is the case where the parameter is not
-   *     specified, and should be left as null in the {@code RangeContext}.
-   * @return The re-ordered list.
+   * @param ranges The range strings.
+   * @return the parsed ranges, in the same order as the input.
    */
-  private static List<Integer> checkCoordOrdering(List<Integer> coords) {
-    // Test for ordering: startColumn should be <= endColumn, startRow should be <= endRow
-    int startColumn = coords.get(0);
-    int endColumn = coords.get(2);
-    if (endColumn != 0 && (startColumn == 0 || endColumn < startColumn)) {
-      int temp = startColumn;
-      startColumn = endColumn;
-      endColumn = temp;
-    }
-    int startRow = coords.get(1);
-    int endRow = coords.get(3);
-    if (endRow != 0 && (startRow == 0 || endRow < startRow)) {
-      int temp = startRow;
-      startRow = endRow;
-      endRow = temp;
-    }
-    return ImmutableList.of(startColumn, startRow, endColumn, endRow);
+  public static BatchResult<Range> parseAll(Collection<? extends CharSequence> ranges) {
+    checkNotNull(ranges, "ranges cannot be null.");
+    return BulkConverter.parseAll(ranges.toArray(new CharSequence[0]), false);
   }
 
   /**
-   * Converts the column representation from a String to a number.
+   * As {@link #parseAll(Collection)}, but splitting large batches across the threads of the
+   * common {@code ForkJoinPool}.
    *
-   * @param matchedString The numeric string.
-   * @return the extracted integer.
+   * @param ranges The range strings.
+   * @return the parsed ranges, in the same order as the input.
    */
-  private static int getColIntFromExtractedString(String matchedString) {
-    if (matchedString == null || matchedString.length() == 0) {
-      return 0;
-    }
-    return alphaColumnToColumnIndex(matchedString);
+  public static BatchResult<Range> parseAllParallel(Collection<? extends CharSequence> ranges) {
+    checkNotNull(ranges, "ranges cannot be null.");
+    return BulkConverter.parseAll(ranges.toArray(new CharSequence[0]), true);
   }
 
   /**
-   * Converts the row representation from an A1 notation to a 1-index integer. For example, A1 -> 1.
+   * Formats a batch of {@link Range} objects as range Strings in A1 notation.
+   *
+   * <p>An entry which cannot be formatted, for example because it has no sheet name, does not
+   * throw: its result is {@code null} and the reason is recorded in the returned
+   * {@link BatchResult}.</p>
    *
-   * @param matchedString The numeric string.
-   * @return the extracted integer.
-   * @throws IllegalArgumentException if the number is not > 0.
+   * @param ranges The ranges.
+   * @return the range strings, in the same order as the input.
    */
-  private static int getRowIntFromExtractedString(String matchedString) {
-    if (matchedString == null || matchedString.length() == 0) {
-      return 0;
-    }
-    int row = Integer.parseInt(matchedString);
-    if (row <= 0) {
-      throw new IllegalArgumentException("Row must be a positive integer >= 1");
-    }
-    return row;
+  public static BatchResult<String> formatAll(Collection<Range> ranges) {
+    checkNotNull(ranges, "ranges cannot be null.");
+    return BulkConverter.formatAll(ranges.toArray(new Range[0]), false);
   }
 
   /**
-   * Converts the alpha representation to numeric for a column index. For example A -> 1.
+   * As {@link #formatAll(Collection)}, but splitting large batches across the threads of the
+   * common {@code ForkJoinPool}.
    *
-   * @param a1Column The string representation, e.g. "A" or "AA".
-   * @return the resulting integer, 1-indexed.
+   * @param ranges The ranges.
+   * @return the range strings, in the same order as the input.
    */
-  private static int alphaColumnToColumnIndex(String a1Column) {
-    checkNotNull(a1Column, "a1Column cannot be null.");
-    checkArgument(a1Column.length() > 0, "a1Column must be one character or longer.");
-    int columnIndex = 0;
-    for (int i = 0; i < a1Column.length(); i++) {
-      int c = a1Column.charAt(i) - ASCII_A_OFFSET + 1;
-      columnIndex += c * Math.pow(ALPHABET_LENGTH, (double)(a1Column.length() - 1 - i));
-    }
-    return columnIndex;
+  public static BatchResult<String> formatAllParallel(Collection<Range> ranges) {
+    checkNotNull(ranges, "ranges cannot be null.");
+    return BulkConverter.formatAll(ranges.toArray(new Range[0]), true);
   }
 
   /**
-   * Removes the escaping from the sheet part of a range string.
-   *
-   * <p>For escaping rules see {@link RangeContext#escapeSheetName(String)}.</p>
+   * Convenience method to create a {@code RangeContext} for a given sheet name and the four
+   * coordinates of a completed scan.
    *
-   * @param escapedSheetName The escaped sheet name.
-   * @return the unescaped sheet name.
+   * @param sheetName The desired {@code Sheet} name.
+   * @param scanner A scanner holding the coordinates. Note that these coordinates are 1-indexed,
+   *     as 0 is the case where the parameter is not specified, and should be left unbounded in the
+   *     {@code RangeContext}.
+   * @return the {@code RangeContext} object for chaining.
    */
-  private static String unescapeSheetName(String escapedSheetName) {
-    if (escapedSheetName.startsWith("'") && escapedSheetName.endsWith("'")) {
-      return escapedSheetName.substring(1, escapedSheetName.length() - 1)
-          .replaceAll(Pattern.quote("''"), "'");
+  private static RangeContext sheetNameAndCoordsToRangeContext(String sheetName,
+      RangeScanner scanner) {
+    RangeContext rangeContext = new RangeContext();
+    rangeContext.withSheetName(sheetName);
+    if (scanner.startColumn > 0) {
+      rangeContext.withStartColumn(scanner.startColumn - 1);
+    }
+    if (scanner.startRow > 0) {
+      rangeContext.withStartRow(scanner.startRow - 1);
     }
-    return escapedSheetName;
+    if (scanner.endColumn > 0) {
+      rangeContext.withEndColumn(scanner.endColumn - 1);
+    }
+    if (scanner.endRow > 0) {
+      rangeContext.withEndRow(scanner.endRow - 1);
+    }
+    return rangeContext;
   }
 }
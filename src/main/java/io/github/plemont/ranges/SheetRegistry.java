@@ -0,0 +1,353 @@
+package io.github.plemont.ranges;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.api.services.sheets.v4.model.GridProperties;
+import com.google.api.services.sheets.v4.model.GridRange;
+import com.google.api.services.sheets.v4.model.Sheet;
+import com.google.api.services.sheets.v4.model.SheetProperties;
+import com.google.api.services.sheets.v4.model.Spreadsheet;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable index of the {@code Sheet}s in a {@code Spreadsheet}, mapping between sheet IDs,
+ * sheet names and grid dimensions.
+ *
+ * <p>A {@code GridRange} identifies its {@code Sheet} by ID only, so converting it to A1 notation
+ * requires the sheet name. A registry is built once from the {@code Spreadsheet} metadata, after
+ * which conversions need no further lookups of {@code SheetProperties}:
+ *
+ * <pre>
+ * {@code
+ *    SheetRegistry registry = SheetRegistry.of(spreadsheet);
+ *    String range = registry.toA1(gridRange);
+ *    // e.g. "'Q3 Sales'!A1:D10"
+ *
+ *    GridRange gridRange = registry.toGridRange("'Q3 Sales'!A1:D10");
+ * }
+ * </pre>
+ *
+ * <p>Sheet IDs are held in an open-addressed table of primitive {@code int}s, and the escaped
+ * form of each sheet name is computed when the registry is built.
+ */
+public final class SheetRegistry {
+  private static final int EMPTY = 0;
+
+  private final int[] sheetIds;
+  private final String[] sheetNames;
+  private final String[] escapedSheetNames;
+  private final int[] rowCounts;
+  private final int[] columnCounts;
+  private final Map<String, Integer> indexesByName;
+
+  // Open-addressed table of sheet IDs. A slot holds the index of the sheet plus one, or EMPTY.
+  private final int[] idSlots;
+  private final int idMask;
+
+  private SheetRegistry(List<Sheet> sheets) {
+    int size = sheets.size();
+    sheetIds = new int[size];
+    sheetNames = new String[size];
+    escapedSheetNames = new String[size];
+    rowCounts = new int[size];
+    columnCounts = new int[size];
+    indexesByName = new HashMap<>(size * 2);
+    idSlots = new int[Integer.highestOneBit(Math.max(1, size) * 4 - 1)];
+    idMask = idSlots.length - 1;
+    for (int i = 0; i < size; i++) {
+      Sheet sheet = checkNotNull(sheets.get(i), "sheets cannot contain null.");
+      SheetProperties props = checkNotNull(sheet.getProperties(), "Sheet properties not set.");
+      Integer sheetId = props.getSheetId();
+      String title = props.getTitle();
+      checkArgument(sheetId != null && sheetId >= 0, "Sheet ID must be set and non-negative.");
+      checkArgument(title != null && title.length() > 0
+          && title.length() < RangeScanner.SHEET_NAME_MAX_LENGTH, "Invalid sheet name.");
+      checkArgument(indexOf(sheetId) < 0, "Duplicate sheet ID: %s", sheetId);
+      checkArgument(!indexesByName.containsKey(title), "Duplicate sheet name: %s", title);
+      sheetIds[i] = sheetId;
+      sheetNames[i] = Range.internSheetName(title);
+      escapedSheetNames[i] = RangeFormatter.escapeSheetName(sheetNames[i]);
+      GridProperties grid = props.getGridProperties();
+      rowCounts[i] = grid != null && grid.getRowCount() != null ? grid.getRowCount() : 0;
+      columnCounts[i] = grid != null && grid.getColumnCount() != null ? grid.getColumnCount() : 0;
+      indexesByName.put(sheetNames[i], i);
+      int slot = hash(sheetId) & idMask;
+      while (idSlots[slot] != EMPTY) {
+        slot = (slot + 1) & idMask;
+      }
+      idSlots[slot] = i + 1;
+    }
+  }
+
+  /**
+   * Creates a registry of the {@code Sheet}s in a {@code Spreadsheet}.
+   *
+   * @param spreadsheet The {@code Spreadsheet}, including its sheet properties.
+   * @return the created registry.
+   * @throws IllegalArgumentException if any sheet has no ID or an invalid name, or if sheet IDs
+   *     or names are repeated.
+   */
+  public static SheetRegistry of(Spreadsheet spreadsheet) {
+    checkNotNull(spreadsheet, "spreadsheet cannot be null.");
+    checkNotNull(spreadsheet.getSheets(), "spreadsheet has no sheets.");
+    return of(spreadsheet.getSheets());
+  }
+
+  /**
+   * Creates a registry of {@code Sheet}s.
+   *
+   * @param sheets The {@code Sheet}s, including their properties.
+   * @return the created registry.
+   * @throws IllegalArgumentException if any sheet has no ID or an invalid name, or if sheet IDs
+   *     or names are repeated.
+   */
+  public static SheetRegistry of(List<Sheet> sheets) {
+    checkNotNull(sheets, "sheets cannot be null.");
+    return new SheetRegistry(sheets);
+  }
+
+  /**
+   * @return the number of {@code Sheet}s in the registry.
+   */
+  public int size() {
+    return sheetIds.length;
+  }
+
+  /**
+   * @param sheetId The sheet ID.
+   * @return whether the registry holds a {@code Sheet} with the ID.
+   */
+  public boolean containsSheetId(int sheetId) {
+    return indexOf(sheetId) >= 0;
+  }
+
+  /**
+   * @param sheetName The sheet name.
+   * @return whether the registry holds a {@code Sheet} with the name.
+   */
+  public boolean containsSheetName(String sheetName) {
+    return indexesByName.containsKey(sheetName);
+  }
+
+  /**
+   * @param sheetId The sheet ID.
+   * @return the name of the {@code Sheet}.
+   * @throws IllegalArgumentException if the sheet ID is not in the registry.
+   */
+  public String getSheetName(int sheetId) {
+    return sheetNames[checkedIndexOf(sheetId)];
+  }
+
+  /**
+   * @param sheetId The sheet ID.
+   * @return the name of the {@code Sheet}, escaped for use in A1 notation.
+   * @throws IllegalArgumentException if the sheet ID is not in the registry.
+   */
+  public String getEscapedSheetName(int sheetId) {
+    return escapedSheetNames[checkedIndexOf(sheetId)];
+  }
+
+  /**
+   * @param sheetName The sheet name, unescaped.
+   * @return the ID of the {@code Sheet}.
+   * @throws IllegalArgumentException if the sheet name is not in the registry.
+   */
+  public int getSheetId(String sheetName) {
+    return sheetIds[checkedIndexOf(sheetName)];
+  }
+
+  /**
+   * @param sheetId The sheet ID.
+   * @return the number of rows in the {@code Sheet}, or {@code 0} if not known.
+   * @throws IllegalArgumentException if the sheet ID is not in the registry.
+   */
+  public int getRowCount(int sheetId) {
+    return rowCounts[checkedIndexOf(sheetId)];
+  }
+
+  /**
+   * @param sheetId The sheet ID.
+   * @return the number of columns in the {@code Sheet}, or {@code 0} if not known.
+   * @throws IllegalArgumentException if the sheet ID is not in the registry.
+   */
+  public int getColumnCount(int sheetId) {
+    return columnCounts[checkedIndexOf(sheetId)];
+  }
+
+  /**
+   * Converts a {@code GridRange} directly to a range String in A1 notation, including the name
+   * of its {@code Sheet}.
+   *
+   * <p>As the Sheets API omits default values, a {@code GridRange} with no sheet ID refers to the
+   * {@code Sheet} with ID {@code 0}. Where an end index is set without a start index, the start is
+   * taken to be the first row or column of the {@code Sheet}.
+   *
+   * @param gridRange The {@code GridRange} object.
+   * @return the range String.
+   * @throws IllegalArgumentException if the sheet ID is not in the registry, or the indexes do
+   *     not form a valid range.
+   * @throws IllegalStateException if the indexes cannot be expressed in A1 notation.
+   */
+  public String toA1(GridRange gridRange) {
+    return appendA1(new StringBuilder(32), gridRange).toString();
+  }
+
+  /**
+   * Appends a {@code GridRange} to a {@code StringBuilder} in A1 notation, as per
+   * {@link #toA1(GridRange)}.
+   *
+   * @param sb The {@code StringBuilder} to append to.
+   * @param gridRange The {@code GridRange} object.
+   * @return the {@code StringBuilder}, for chaining.
+   * @throws IllegalArgumentException if the sheet ID is not in the registry, or the indexes do
+   *     not form a valid range.
+   * @throws IllegalStateException if the indexes cannot be expressed in A1 notation.
+   */
+  public StringBuilder appendA1(StringBuilder sb, GridRange gridRange) {
+    checkNotNull(gridRange, "gridRange cannot be null.");
+    int index = checkedIndexOf(sheetIdOf(gridRange));
+    Integer endColumnIndex = gridRange.getEndColumnIndex();
+    Integer endRowIndex = gridRange.getEndRowIndex();
+    int startColumn = start(gridRange.getStartColumnIndex(), endColumnIndex);
+    int startRow = start(gridRange.getStartRowIndex(), endRowIndex);
+    int endColumn = end(startColumn, endColumnIndex);
+    int endRow = end(startRow, endRowIndex);
+    RangeFormatter.checkCoordinates(startColumn, startRow, endColumn, endRow);
+    sb.append(escapedSheetNames[index]);
+    try {
+      RangeFormatter.appendCoordinates(sb, startColumn, startRow, endColumn, endRow);
+    } catch (IOException e) {
+      throw new AssertionError("StringBuilder does not throw IOException", e);
+    }
+    return sb;
+  }
+
+  /**
+   * Converts a {@code GridRange} to a {@link Range} with both its sheet ID and sheet name set,
+   * interpreting the {@code GridRange} as per {@link #toA1(GridRange)}.
+   *
+   * @param gridRange The {@code GridRange} object.
+   * @return the created Range.
+   * @throws IllegalArgumentException if the sheet ID is not in the registry, or the indexes do
+   *     not form a valid range.
+   */
+  public Range fromGridRange(GridRange gridRange) {
+    checkNotNull(gridRange, "gridRange cannot be null.");
+    int index = checkedIndexOf(sheetIdOf(gridRange));
+    Integer endColumnIndex = gridRange.getEndColumnIndex();
+    Integer endRowIndex = gridRange.getEndRowIndex();
+    int startColumn = start(gridRange.getStartColumnIndex(), endColumnIndex);
+    int startRow = start(gridRange.getStartRowIndex(), endRowIndex);
+    return Range.of(sheetNames[index], sheetIds[index], startColumn, startRow,
+        end(startColumn, endColumnIndex), end(startRow, endRowIndex));
+  }
+
+  /**
+   * Creates a new {@code RangeContext} for a {@code GridRange}, with the sheet name already set.
+   *
+   * @param gridRange The {@code GridRange} object.
+   * @return the {@code RangeContext} object for chaining.
+   * @throws IllegalArgumentException if the sheet ID is not in the registry, or the indexes do
+   *     not form a valid range.
+   */
+  public Ranges.RangeContext forGridRange(GridRange gridRange) {
+    return Ranges.forValue(fromGridRange(gridRange));
+  }
+
+  /**
+   * Completes a {@link Range} which has only one of its sheet ID and sheet name set.
+   *
+   * @param range The range, with at least one of the sheet ID and sheet name set.
+   * @return a Range with both the sheet ID and sheet name set.
+   * @throws IllegalArgumentException if neither is set, the sheet is not in the registry, or the
+   *     sheet ID and name refer to different {@code Sheet}s.
+   */
+  public Range resolve(Range range) {
+    checkNotNull(range, "range cannot be null.");
+    int index;
+    if (range.getSheetId() != Range.NO_SHEET_ID) {
+      index = checkedIndexOf(range.getSheetId());
+      checkArgument(range.getSheetName() == null
+          || range.getSheetName().equals(sheetNames[index]),
+          "Sheet name %s does not match sheet ID %s.", range.getSheetName(), range.getSheetId());
+    } else {
+      checkArgument(range.getSheetName() != null, "Neither sheet ID nor sheet name is set.");
+      index = checkedIndexOf(range.getSheetName());
+    }
+    if (range.getSheetName() == null) {
+      return range.withSheetName(sheetNames[index]);
+    }
+    return range.getSheetId() == Range.NO_SHEET_ID ? range.withSheetId(sheetIds[index]) : range;
+  }
+
+  /**
+   * Converts a range String to a {@code GridRange}, setting the sheet ID from the registry.
+   *
+   * @param range The range string.
+   * @return the created GridRange.
+   * @throws IllegalArgumentException if the range is invalid or the sheet name is not in the
+   *     registry.
+   */
+  public GridRange toGridRange(String range) {
+    checkNotNull(range, "range cannot be null.");
+    return resolve(Range.parse(range)).toGridRange();
+  }
+
+  private int indexOf(int sheetId) {
+    for (int slot = hash(sheetId) & idMask; idSlots[slot] != EMPTY; slot = (slot + 1) & idMask) {
+      int index = idSlots[slot] - 1;
+      if (sheetIds[index] == sheetId) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  // The lookups below build their messages only on failure, as a message template would box its
+  // argument and allocate a varargs array on every successful lookup.
+  private int checkedIndexOf(int sheetId) {
+    int index = indexOf(sheetId);
+    if (index < 0) {
+      throw new IllegalArgumentException("Unknown sheet ID: " + sheetId);
+    }
+    return index;
+  }
+
+  private int checkedIndexOf(String sheetName) {
+    Integer index = indexesByName.get(sheetName);
+    if (index == null) {
+      throw new IllegalArgumentException("Unknown sheet name: " + sheetName);
+    }
+    return index;
+  }
+
+  private static int sheetIdOf(GridRange gridRange) {
+    Integer sheetId = gridRange.getSheetId();
+    return sheetId == null ? 0 : sheetId;
+  }
+
+  private static int start(Integer startIndex, Integer endIndex) {
+    if (startIndex == null) {
+      return endIndex != null ? 0 : Range.UNBOUNDED;
+    }
+    checkArgument(startIndex >= 0, "Start index must be non-negative.");
+    return startIndex;
+  }
+
+  private static int end(int start, Integer endIndex) {
+    if (endIndex == null) {
+      return Range.UNBOUNDED;
+    }
+    checkArgument(endIndex > start, "End index must be greater than start index.");
+    return endIndex - 1;
+  }
+
+  private static int hash(int sheetId) {
+    int h = sheetId * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
@@ -0,0 +1,77 @@
+package io.github.plemont.ranges;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+/**
+ * The outcome of applying a {@link StructuralEdit}, {@link RangeTransform} or other bulk operation
+ * to a {@link RangeArray}: how many ranges were shifted, and which were invalidated.
+ */
+public final class ShiftReport {
+  private final int size;
+  private final int shiftedCount;
+  private final long[] invalidated;
+  private final int invalidatedCount;
+
+  ShiftReport(int size, int shiftedCount, long[] invalidated) {
+    int count = 0;
+    for (long word : invalidated) {
+      count += Long.bitCount(word);
+    }
+    this.size = size;
+    this.shiftedCount = shiftedCount;
+    this.invalidated = invalidated;
+    this.invalidatedCount = count;
+  }
+
+  /**
+   * @return the number of ranges in the batch.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return the number of ranges whose coordinates were changed.
+   */
+  public int getShiftedCount() {
+    return shiftedCount;
+  }
+
+  /**
+   * @return the number of ranges invalidated, which were left unchanged.
+   */
+  public int getInvalidatedCount() {
+    return invalidatedCount;
+  }
+
+  /**
+   * Determines whether a range was invalidated.
+   *
+   * @param index The index of the range in the batch.
+   * @return whether the range was invalidated.
+   */
+  public boolean isInvalidated(int index) {
+    checkElementIndex(index, size);
+    return (invalidated[index >>> 6] & (1L << index)) != 0;
+  }
+
+  /**
+   * @return the indexes of the invalidated ranges, in ascending order.
+   */
+  public int[] getInvalidatedIndexes() {
+    int[] indexes = new int[invalidatedCount];
+    int count = 0;
+    for (int w = 0; w < invalidated.length; w++) {
+      for (long word = invalidated[w]; word != 0; word &= word - 1) {
+        indexes[count++] = (w << 6) + Long.numberOfTrailingZeros(word);
+      }
+    }
+    return indexes;
+  }
+
+  @Override
+  public String toString() {
+    return "ShiftReport{size=" + size + ", shifted=" + shiftedCount + ", invalidated="
+        + invalidatedCount + "}";
+  }
+}
@@ -0,0 +1,179 @@
+package io.github.plemont.ranges;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link MetricsListener} which counts every event in memory, for reading by a metrics
+ * exporter or inspecting in tests.
+ *
+ * <p>Counts are held in {@code LongAdder} instances, which stripe updates across cells so that
+ * threads recording concurrently do not contend on a single counter, and no locks are taken.
+ * Latencies are recorded in a histogram of power of two buckets per operation: bucket {@code i}
+ * counts the conversions taking {@code [2^i, 2^(i+1))} nanoseconds, with bucket {@code 0} also
+ * counting those measured as taking no time.
+ *
+ * <p>Counts read while events are being recorded are not an atomic snapshot, but each count is
+ * exact once recording stops.
+ */
+public final class StripedMetricsListener implements MetricsListener {
+  /** The number of buckets in each latency histogram. */
+  public static final int LATENCY_BUCKETS = Long.SIZE;
+
+  private static final int OPERATIONS = Operation.values().length;
+
+  private final LongAdder[] conversions = adders(OPERATIONS);
+  private final LongAdder[] quoted = adders(OPERATIONS);
+  private final LongAdder[] bounded = adders(OPERATIONS);
+  private final LongAdder[] totalNanos = adders(OPERATIONS);
+  private final LongAdder[] latencies = adders(OPERATIONS * LATENCY_BUCKETS);
+  private final LongAdder[] errors = adders(OPERATIONS * ParseResult.ERROR_CODE_COUNT);
+  private final LongAdder cacheHits = new LongAdder();
+  private final LongAdder cacheMisses = new LongAdder();
+
+  /** Creates a listener with every count at zero. */
+  public StripedMetricsListener() {}
+
+  @Override
+  public void onConversion(Operation operation, boolean quoted, boolean bounded, long nanos) {
+    int index = operation.ordinal();
+    conversions[index].increment();
+    if (quoted) {
+      this.quoted[index].increment();
+    }
+    if (bounded) {
+      this.bounded[index].increment();
+    }
+    totalNanos[index].add(nanos);
+    latencies[index * LATENCY_BUCKETS + bucket(nanos)].increment();
+  }
+
+  @Override
+  public void onError(Operation operation, int errorCode) {
+    if (errorCode > ParseResult.OK && errorCode < ParseResult.ERROR_CODE_COUNT) {
+      errors[operation.ordinal() * ParseResult.ERROR_CODE_COUNT + errorCode].increment();
+    }
+  }
+
+  @Override
+  public void onCacheHit() {
+    cacheHits.increment();
+  }
+
+  @Override
+  public void onCacheMiss() {
+    cacheMisses.increment();
+  }
+
+  /**
+   * @param operation The conversion.
+   * @return the number of successful conversions.
+   */
+  public long getConversionCount(Operation operation) {
+    return conversions[checkNotNull(operation).ordinal()].sum();
+  }
+
+  /**
+   * @param operation The conversion.
+   * @return the number of successful conversions of ranges with quoted sheet names.
+   */
+  public long getQuotedCount(Operation operation) {
+    return quoted[checkNotNull(operation).ordinal()].sum();
+  }
+
+  /**
+   * @param operation The conversion.
+   * @return the number of successful conversions of ranges with all four coordinates set.
+   */
+  public long getBoundedCount(Operation operation) {
+    return bounded[checkNotNull(operation).ordinal()].sum();
+  }
+
+  /**
+   * @param operation The conversion.
+   * @return the total time taken by successful conversions, in nanoseconds.
+   */
+  public long getTotalNanos(Operation operation) {
+    return totalNanos[checkNotNull(operation).ordinal()].sum();
+  }
+
+  /**
+   * Returns the latency histogram of an operation.
+   *
+   * @param operation The conversion.
+   * @return a new array of {@link #LATENCY_BUCKETS} counts, where element {@code i} counts the
+   *     conversions taking {@code [2^i, 2^(i+1))} nanoseconds.
+   */
+  public long[] getLatencyHistogram(Operation operation) {
+    int offset = checkNotNull(operation).ordinal() * LATENCY_BUCKETS;
+    long[] histogram = new long[LATENCY_BUCKETS];
+    for (int i = 0; i < LATENCY_BUCKETS; i++) {
+      histogram[i] = latencies[offset + i].sum();
+    }
+    return histogram;
+  }
+
+  /**
+   * @param operation The conversion.
+   * @param errorCode The error code, as defined by {@link ParseResult}.
+   * @return the number of conversions which failed with the error.
+   * @throws IndexOutOfBoundsException if the error code is not defined.
+   */
+  public long getErrorCount(Operation operation, int errorCode) {
+    checkElementIndex(errorCode, ParseResult.ERROR_CODE_COUNT, "errorCode");
+    return errors[checkNotNull(operation).ordinal() * ParseResult.ERROR_CODE_COUNT + errorCode]
+        .sum();
+  }
+
+  /**
+   * @return the number of range Strings found already parsed by a {@link RangeCache}.
+   */
+  public long getCacheHitCount() {
+    return cacheHits.sum();
+  }
+
+  /**
+   * @return the number of range Strings parsed by a {@link RangeCache}.
+   */
+  public long getCacheMissCount() {
+    return cacheMisses.sum();
+  }
+
+  /** Resets every count to zero. */
+  public void reset() {
+    for (LongAdder[] adders : new LongAdder[][] {
+        conversions, quoted, bounded, totalNanos, latencies, errors}) {
+      for (LongAdder adder : adders) {
+        adder.reset();
+      }
+    }
+    cacheHits.reset();
+    cacheMisses.reset();
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("StripedMetricsListener{");
+    for (Operation operation : Operation.values()) {
+      sb.append(operation).append('=').append(getConversionCount(operation)).append(", ");
+    }
+    return sb.append("cacheHits=").append(getCacheHitCount())
+        .append(", cacheMisses=").append(getCacheMissCount())
+        .append('}').toString();
+  }
+
+  /** Returns the histogram bucket for a latency: the position of its highest set bit. */
+  static int bucket(long nanos) {
+    return nanos <= 0 ? 0 : Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+  }
+
+  private static LongAdder[] adders(int count) {
+    LongAdder[] adders = new LongAdder[count];
+    for (int i = 0; i < count; i++) {
+      adders[i] = new LongAdder();
+    }
+    return adders;
+  }
+}
@@ -0,0 +1,243 @@
+package io.github.plemont.ranges;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.github.plemont.ranges.Range.NO_SHEET_ID;
+import static io.github.plemont.ranges.Range.UNBOUNDED;
+
+/**
+ * An insertion or deletion of rows or columns on a {@code Sheet}, which shifts the ranges that
+ * refer to it in the same manner as the Sheets API {@code insertDimension} and
+ * {@code deleteDimension} requests shift the references in formulas.
+ *
+ * <p>Inserting {@code n} rows before row {@code r} moves every range starting at or below
+ * {@code r} down by {@code n}, and stretches ranges spanning {@code r}. Deleting rows moves the
+ * ranges below them up, and shrinks the ranges partially covering them. A range lying entirely
+ * within the deleted rows is invalidated, as is a range which would be moved beyond the largest
+ * row index. Whole-column ranges such as {@code A:C} are unaffected by row edits, and likewise
+ * whole-row ranges by column edits. Columns are treated in the same way.
+ *
+ * <p>An edit applies only to ranges whose sheet ID matches its own; ranges on other sheets are
+ * left unchanged. A batch of ranges without sheet IDs can be edited with {@link Range#NO_SHEET_ID}.
+ *
+ * <pre>
+ * {@code
+ *    StructuralEdit edit = StructuralEdit.deleteRows(sheetId, 10, 20);
+ *    ShiftReport report = edit.applyAllParallel(storedRanges);
+ *    for (int index : report.getInvalidatedIndexes()) {
+ *      ...
+ *    }
+ * }
+ * </pre>
+ */
+public final class StructuralEdit {
+  // A shifted pair of coordinates which can never occur, as an end cannot be set without a start.
+  private static final long INVALIDATED = pack(UNBOUNDED, 0);
+
+  private final int sheetId;
+  private final boolean rows;
+  private final boolean insert;
+  private final int startIndex;
+  private final int endIndex;
+
+  private StructuralEdit(int sheetId, boolean rows, boolean insert, int startIndex,
+      int endIndex) {
+    checkArgument(sheetId >= NO_SHEET_ID, "Sheet ID must be non-negative.");
+    checkArgument(startIndex >= 0, "startIndex must be non-negative.");
+    checkArgument(endIndex > startIndex, "endIndex must be greater than startIndex.");
+    this.sheetId = sheetId;
+    this.rows = rows;
+    this.insert = insert;
+    this.startIndex = startIndex;
+    this.endIndex = endIndex;
+  }
+
+  /**
+   * Creates an edit inserting rows, so that the new rows occupy {@code [startIndex, endIndex)}.
+   *
+   * @param sheetId The sheet ID, or {@link Range#NO_SHEET_ID}.
+   * @param startIndex The zero-indexed first row inserted.
+   * @param endIndex The zero-indexed row after the last row inserted.
+   * @return the edit.
+   * @throws IllegalArgumentException if the indexes do not span at least one row.
+   */
+  public static StructuralEdit insertRows(int sheetId, int startIndex, int endIndex) {
+    return new StructuralEdit(sheetId, true, true, startIndex, endIndex);
+  }
+
+  /**
+   * Creates an edit inserting columns, so that the new columns occupy
+   * {@code [startIndex, endIndex)}.
+   *
+   * @param sheetId The sheet ID, or {@link Range#NO_SHEET_ID}.
+   * @param startIndex The zero-indexed first column inserted.
+   * @param endIndex The zero-indexed column after the last column inserted.
+   * @return the edit.
+   * @throws IllegalArgumentException if the indexes do not span at least one column.
+   */
+  public static StructuralEdit insertColumns(int sheetId, int startIndex, int endIndex) {
+    return new StructuralEdit(sheetId, false, true, startIndex, endIndex);
+  }
+
+  /**
+   * Creates an edit deleting the rows {@code [startIndex, endIndex)}.
+   *
+   * @param sheetId The sheet ID, or {@link Range#NO_SHEET_ID}.
+   * @param startIndex The zero-indexed first row deleted.
+   * @param endIndex The zero-indexed row after the last row deleted.
+   * @return the edit.
+   * @throws IllegalArgumentException if the indexes do not span at least one row.
+   */
+  public static StructuralEdit deleteRows(int sheetId, int startIndex, int endIndex) {
+    return new StructuralEdit(sheetId, true, false, startIndex, endIndex);
+  }
+
+  /**
+   * Creates an edit deleting the columns {@code [startIndex, endIndex)}.
+   *
+   * @param sheetId The sheet ID, or {@link Range#NO_SHEET_ID}.
+   * @param startIndex The zero-indexed first column deleted.
+   * @param endIndex The zero-indexed column after the last column deleted.
+   * @return the edit.
+   * @throws IllegalArgumentException if the indexes do not span at least one column.
+   */
+  public static StructuralEdit deleteColumns(int sheetId, int startIndex, int endIndex) {
+    return new StructuralEdit(sheetId, false, false, startIndex, endIndex);
+  }
+
+  /**
+   * Applies the edit to a single range.
+   *
+   * @param range The range.
+   * @return the shifted range, which is {@code range} itself if it is unaffected, or {@code null}
+   *     if the range is invalidated.
+   */
+  public Range apply(Range range) {
+    checkNotNull(range, "range cannot be null.");
+    if (range.getSheetId() != sheetId) {
+      return range;
+    }
+    int start = rows ? range.getStartRow() : range.getStartColumn();
+    int end = rows ? range.getEndRow() : range.getEndColumn();
+    long shifted = shift(start, end);
+    if (shifted == INVALIDATED) {
+      return null;
+    }
+    int newStart = (int) (shifted >> 32);
+    int newEnd = (int) shifted;
+    if (newStart == start && newEnd == end) {
+      return range;
+    }
+    return rows
+        ? Range.of(range.getSheetName(), sheetId, range.getStartColumn(), newStart,
+            range.getEndColumn(), newEnd)
+        : Range.of(range.getSheetName(), sheetId, newStart, range.getStartRow(), newEnd,
+            range.getEndRow());
+  }
+
+  /**
+   * Applies the edit to every range in a batch, in place. Invalidated ranges are left unchanged,
+   * and listed in the report.
+   *
+   * @param ranges The ranges.
+   * @return the report of the ranges shifted and invalidated.
+   */
+  public ShiftReport applyAll(RangeArray ranges) {
+    checkNotNull(ranges, "ranges cannot be null.");
+    return applyAll(ranges, false);
+  }
+
+  /**
+   * As {@link #applyAll(RangeArray)}, but splitting large batches across the threads of the
+   * common {@code ForkJoinPool}.
+   *
+   * @param ranges The ranges.
+   * @return the report of the ranges shifted and invalidated.
+   */
+  public ShiftReport applyAllParallel(RangeArray ranges) {
+    checkNotNull(ranges, "ranges cannot be null.");
+    return applyAll(ranges, true);
+  }
+
+  @Override
+  public String toString() {
+    return "StructuralEdit{" + (insert ? "insert" : "delete") + (rows ? "Rows" : "Columns")
+        + ", sheetId=" + sheetId + ", startIndex=" + startIndex + ", endIndex=" + endIndex + "}";
+  }
+
+  private ShiftReport applyAll(RangeArray ranges, boolean parallel) {
+    int[] sheetIds = ranges.sheetIds;
+    int[] starts = rows ? ranges.startRows : ranges.startColumns;
+    int[] ends = rows ? ranges.endRows : ranges.endColumns;
+    return RangeArrayTask.run(ranges.size,
+        (from, to, invalidated) -> shiftSlice(sheetIds, starts, ends, invalidated, from, to),
+        parallel);
+  }
+
+  /**
+   * Shifts the ranges {@code [from, to)} of a batch, marking invalidated ranges in a bit set.
+   *
+   * @return the number of ranges whose coordinates changed.
+   */
+  private int shiftSlice(int[] sheetIds, int[] starts, int[] ends, long[] invalidated, int from,
+      int to) {
+    int shifted = 0;
+    for (int i = from; i < to; i++) {
+      if (sheetIds[i] != sheetId) {
+        continue;
+      }
+      long result = shift(starts[i], ends[i]);
+      if (result == INVALIDATED) {
+        invalidated[i >>> 6] |= 1L << i;
+        continue;
+      }
+      int start = (int) (result >> 32);
+      int end = (int) result;
+      if (start != starts[i] || end != ends[i]) {
+        starts[i] = start;
+        ends[i] = end;
+        shifted++;
+      }
+    }
+    return shifted;
+  }
+
+  /**
+   * Shifts the start and end of a range in the dimension of the edit.
+   *
+   * @return the shifted start and end, packed into a {@code long}, or {@link #INVALIDATED}.
+   */
+  private long shift(int start, int end) {
+    if (start == UNBOUNDED || (end != UNBOUNDED && end < startIndex)) {
+      // Spans the whole dimension, or lies before the edit.
+      return pack(start, end);
+    }
+    long count = (long) endIndex - startIndex;
+    if (insert) {
+      long newStart = start >= startIndex ? start + count : start;
+      long newEnd = end == UNBOUNDED ? UNBOUNDED : end + count;
+      if (newEnd > Integer.MAX_VALUE || newStart > Integer.MAX_VALUE) {
+        return INVALIDATED;
+      }
+      return pack((int) newStart, (int) newEnd);
+    }
+    if (start >= endIndex) {
+      return pack((int) (start - count), end == UNBOUNDED ? UNBOUNDED : (int) (end - count));
+    }
+    if (start >= startIndex) {
+      if (end != UNBOUNDED && end < endIndex) {
+        return INVALIDATED;
+      }
+      return pack(startIndex, end == UNBOUNDED ? UNBOUNDED : (int) (end - count));
+    }
+    // Starts before the deleted span, and ends within or after it.
+    if (end == UNBOUNDED) {
+      return pack(start, UNBOUNDED);
+    }
+    return pack(start, end < endIndex ? startIndex - 1 : (int) (end - count));
+  }
+
+  private static long pack(int start, int end) {
+    return ((long) start << 32) | (end & 0xFFFFFFFFL);
+  }
+}
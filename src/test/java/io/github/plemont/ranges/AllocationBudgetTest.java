@@ -0,0 +1,124 @@
+package io.github.plemont.ranges;
+
+import com.google.api.services.sheets.v4.model.GridRange;
+import com.google.api.services.sheets.v4.model.Sheet;
+import com.google.api.services.sheets.v4.model.SheetProperties;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Checks that the core conversions allocate no more than a declared budget of bytes per call, as
+ * measured by the JVM's per-thread allocation counter. A conversion exceeding its budget usually
+ * means that work such as compiling a pattern or formatting a message has crept onto its path.
+ *
+ * <p>Budgets are set with headroom above the allocation of the current implementation on a
+ * 64-bit HotSpot JVM with compressed pointers, and are skipped on JVMs which cannot measure
+ * allocation. They hold for the Guava resolved through {@code google-api-services-sheets}, whose
+ * {@code Preconditions} take message arguments only as varargs, so a message template passed on
+ * a hot path costs an {@code Object[]} per call even when the check passes.
+ */
+public class AllocationBudgetTest {
+  private static final int WARMUP_ITERATIONS = 20_000;
+  private static final int ITERATIONS = 10_000;
+
+  private static com.sun.management.ThreadMXBean threads;
+
+  // Results are written here so that the conversions cannot be optimized away.
+  private Object sink;
+  private long intSink;
+
+  @BeforeClass
+  public static void setUpClass() {
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+    threads = (com.sun.management.ThreadMXBean) bean;
+    assumeTrue(threads.isThreadAllocatedMemorySupported());
+    threads.setThreadAllocatedMemoryEnabled(true);
+  }
+
+  @Test
+  public void forRange() {
+    assertBudget("forRange", 192, () -> sink = Ranges.forRange("'My Sheet'!A1:C5"));
+  }
+
+  @Test
+  public void toRange() {
+    Ranges.RangeContext context = Ranges.forRange("'My Sheet'!A1:C5");
+    assertBudget("toRange", 160, () -> sink = context.toRange());
+  }
+
+  @Test
+  public void toGridRange() {
+    Ranges.RangeContext context = Ranges.forRange("'My Sheet'!A1:C5").withSheetId(3);
+    // A GridRange carries the state of its GenericJson superclass; its small indexes are boxed
+    // from the Integer cache.
+    assertBudget("toGridRange", 320, () -> sink = context.toGridRange());
+  }
+
+  @Test
+  public void forGridRange() {
+    GridRange gridRange = new GridRange().setSheetId(3).setStartColumnIndex(0)
+        .setStartRowIndex(0).setEndColumnIndex(3).setEndRowIndex(5);
+    assertBudget("forGridRange", 64, () -> sink = Ranges.forGridRange(gridRange));
+  }
+
+  @Test
+  public void withSheetName() {
+    Ranges.RangeContext context = Ranges.forSheetName("Test");
+    // The check's message is a constant, so a valid name allocates nothing.
+    assertBudget("withSheetName", 0, () -> sink = context.withSheetName("My Sheet"));
+  }
+
+  @Test
+  public void cellSetters() {
+    Ranges.RangeContext context = Ranges.forSheetName("Test");
+    assertBudget("withStartCell", 96, () -> sink = context.withStartCell("B3"));
+    assertBudget("withEndCell", 96, () -> sink = context.withEndCell("D10"));
+  }
+
+  @Test
+  public void tryParse_rejectionCostsNoMoreThanAcceptance() {
+    assertBudget("tryParse", 224, () -> sink = Ranges.tryParse("'My Sheet'!A1:C5"));
+    assertBudget("tryParse rejection", 96, () -> sink = Ranges.tryParse("'My Sheet'!A1:C5x"));
+  }
+
+  @Test
+  public void coordinateSetters() {
+    Ranges.RangeContext context = Ranges.forSheetName("Test");
+    assertBudget("coordinate setters", 0, () -> sink = context.withStartColumn(1).withStartRow(2)
+        .withEndColumn(3).withEndRow(4));
+  }
+
+  @Test
+  public void sheetRegistryLookups() {
+    Sheet sheet = new Sheet().setProperties(
+        new SheetProperties().setSheetId(123456).setTitle("My Sheet"));
+    SheetRegistry registry = SheetRegistry.of(Collections.singletonList(sheet));
+    // The sheet ID lies outside the Integer cache, so boxing it would allocate.
+    assertBudget("getEscapedSheetName", 0, () -> sink = registry.getEscapedSheetName(123456));
+    assertBudget("getSheetId", 0, () -> intSink += registry.getSheetId("My Sheet"));
+  }
+
+  /**
+   * Runs an operation until it is compiled, then fails if its mean allocation per call exceeds the
+   * budget.
+   */
+  private static void assertBudget(String operation, long budgetBytes, Runnable runnable) {
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      runnable.run();
+    }
+    long threadId = Thread.currentThread().getId();
+    long before = threads.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < ITERATIONS; i++) {
+      runnable.run();
+    }
+    long bytesPerCall = (threads.getThreadAllocatedBytes(threadId) - before) / ITERATIONS;
+    assertTrue(operation + " allocated " + bytesPerCall + " bytes per call, over its budget of "
+        + budgetBytes, bytesPerCall <= budgetBytes);
+  }
+}
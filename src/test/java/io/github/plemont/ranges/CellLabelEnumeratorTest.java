@@ -0,0 +1,98 @@
+package io.github.plemont.ranges;
+
+import java.io.StringWriter;
+import java.util.PrimitiveIterator;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CellLabelEnumeratorTest {
+
+  private static void assertMatchesFormatter(Range range, Cells.Order order) {
+    CellLabelEnumerator labels = CellLabelEnumerator.ofQualified(range, order);
+    PrimitiveIterator.OfLong cells = Cells.iterator(range, order);
+    while (cells.hasNext()) {
+      long cell = cells.nextLong();
+      assertTrue(labels.next());
+      assertEquals(Cells.column(cell), labels.getColumn());
+      assertEquals(Cells.row(cell), labels.getRow());
+      assertEquals(Range.of(range.getSheetName(), Cells.column(cell), Cells.row(cell),
+          Cells.column(cell), Cells.row(cell)).toA1(), labels.toString());
+    }
+    assertFalse(labels.next());
+    assertFalse(labels.next());
+  }
+
+  @Test
+  public void next_rowMajorCarries() {
+    assertMatchesFormatter(Range.parse("Test!X8:AC12"), Cells.Order.ROW_MAJOR);
+    assertMatchesFormatter(Range.parse("'My Sheet'!ZX97:AAC101"), Cells.Order.ROW_MAJOR);
+  }
+
+  @Test
+  public void next_columnMajorCarries() {
+    assertMatchesFormatter(Range.parse("Test!Y95:AB1002"), Cells.Order.COLUMN_MAJOR);
+  }
+
+  @Test
+  public void next_beyondTableColumns() {
+    int column = ColumnCodec.TABLE_SIZE - 2;
+    assertMatchesFormatter(Range.of("Test", column, 0, column + 3, 1), Cells.Order.ROW_MAJOR);
+  }
+
+  @Test
+  public void of_unqualifiedLabels() {
+    CellLabelEnumerator labels =
+        CellLabelEnumerator.of(Range.parse("Test!Z9:AA10"), Cells.Order.ROW_MAJOR);
+    StringBuilder sb = new StringBuilder();
+    while (labels.next()) {
+      sb.append(labels).append(',');
+    }
+    assertEquals("Z9,AA9,Z10,AA10,", sb.toString());
+  }
+
+  @Test
+  public void appendTo_writer() throws Exception {
+    CellLabelEnumerator labels =
+        CellLabelEnumerator.ofQualified(Range.parse("'Q3 Sales'!C3"), Cells.Order.ROW_MAJOR);
+    assertTrue(labels.next());
+    StringWriter writer = new StringWriter();
+    labels.appendTo(writer);
+    assertEquals("'Q3 Sales'!C3", writer.toString());
+    assertEquals('C', labels.charAt(11));
+    assertEquals("C3", labels.subSequence(11, 13));
+  }
+
+  @Test
+  public void toString_notPositioned() {
+    CellLabelEnumerator labels =
+        CellLabelEnumerator.of(Range.parse("Test!A1"), Cells.Order.ROW_MAJOR);
+    assertEquals("", labels.toString());
+    assertTrue(labels.next());
+    assertEquals("A1", labels.toString());
+    assertFalse(labels.next());
+    assertEquals("", labels.toString());
+  }
+
+  @Test
+  public void length_beforeFirstCell() {
+    CellLabelEnumerator labels =
+        CellLabelEnumerator.of(Range.parse("Test!A1"), Cells.Order.ROW_MAJOR);
+    try {
+      labels.length();
+      fail();
+    } catch (IllegalStateException e) {
+      // Expected exception as the enumerator has not moved to the first cell.
+    }
+  }
+
+  @Test
+  public void ofQualified_noSheetName() {
+    try {
+      CellLabelEnumerator.ofQualified(Range.of(null, 0, 0, 1, 1), Cells.Order.ROW_MAJOR);
+      fail();
+    } catch (IllegalStateException e) {
+      // Expected exception as a qualified label needs a sheet name.
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package io.github.plemont.ranges;
+
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CellsTest {
+
+  @Test
+  public void pack_roundTrip() {
+    long cell = Cells.pack(Integer.MAX_VALUE - 1, 12);
+    assertEquals(Integer.MAX_VALUE - 1, Cells.column(cell));
+    assertEquals(12, Cells.row(cell));
+    assertTrue(Cells.pack(5, 1) > Cells.pack(100, 0));
+  }
+
+  @Test
+  public void iterator_rowMajor() {
+    PrimitiveIterator.OfLong cells =
+        Cells.iterator(Range.parse("Test!B2:C3"), Cells.Order.ROW_MAJOR);
+    assertEquals(Cells.pack(1, 1), cells.nextLong());
+    assertEquals(Cells.pack(2, 1), cells.nextLong());
+    assertEquals(Cells.pack(1, 2), cells.nextLong());
+    assertEquals(Cells.pack(2, 2), cells.nextLong());
+    assertFalse(cells.hasNext());
+  }
+
+  @Test
+  public void iterator_columnMajor() {
+    PrimitiveIterator.OfLong cells =
+        Cells.iterator(Range.parse("Test!B2:C3"), Cells.Order.COLUMN_MAJOR);
+    assertEquals(Cells.pack(1, 1), cells.nextLong());
+    assertEquals(Cells.pack(1, 2), cells.nextLong());
+    assertEquals(Cells.pack(2, 1), cells.nextLong());
+    assertEquals(Cells.pack(2, 2), cells.nextLong());
+    assertFalse(cells.hasNext());
+  }
+
+  @Test
+  public void iterator_unboundedRange() {
+    try {
+      Cells.iterator(Range.parse("Test!A:B"), Cells.Order.ROW_MAJOR);
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Expected exception as the cells of an unbounded range cannot be iterated.
+    }
+  }
+
+  @Test
+  public void stream_matchesIterator() {
+    Range range = Range.parse("Test!C5:AZ300");
+    for (Cells.Order order : Cells.Order.values()) {
+      long[] expected = new long[(int) Cells.count(range)];
+      PrimitiveIterator.OfLong cells = Cells.iterator(range, order);
+      for (int i = 0; i < expected.length; i++) {
+        expected[i] = cells.nextLong();
+      }
+      assertArrayEquals(expected, Cells.stream(range, order, false).toArray());
+      assertArrayEquals(expected, Cells.stream(range, order, true).toArray());
+    }
+  }
+
+  @Test
+  public void spliterator_splitsEvenly() {
+    Spliterator.OfLong spliterator =
+        Cells.spliterator(Range.parse("Test!A1:J1000"), Cells.Order.ROW_MAJOR);
+    assertEquals(10000, spliterator.getExactSizeIfKnown());
+    Spliterator.OfLong prefix = spliterator.trySplit();
+    assertEquals(5000, prefix.estimateSize());
+    assertEquals(5000, spliterator.estimateSize());
+    long[] first = new long[1];
+    assertTrue(spliterator.tryAdvance((long cell) -> first[0] = cell));
+    assertEquals(Cells.pack(0, 500), first[0]);
+    assertTrue(spliterator.hasCharacteristics(Spliterator.SORTED));
+  }
+
+  @Test
+  public void stream_parallelSum() {
+    Range range = Range.parse("Test!A1:CV10000");
+    long expected = 0;
+    for (int row = 0; row < 10000; row++) {
+      for (int column = 0; column < 100; column++) {
+        expected += row + column;
+      }
+    }
+    assertEquals(expected, Cells.stream(range, Cells.Order.COLUMN_MAJOR, true)
+        .map(cell -> Cells.row(cell) + Cells.column(cell)).sum());
+  }
+}
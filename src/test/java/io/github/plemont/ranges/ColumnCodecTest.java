@@ -0,0 +1,95 @@
+package io.github.plemont.ranges;
+
+import java.io.StringWriter;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ColumnCodecTest {
+
+  @Test
+  public void toColumn_boundaries() {
+    assertEquals("A", ColumnCodec.toColumn(0));
+    assertEquals("Z", ColumnCodec.toColumn(25));
+    assertEquals("AA", ColumnCodec.toColumn(26));
+    assertEquals("ZZ", ColumnCodec.toColumn(701));
+    assertEquals("AAA", ColumnCodec.toColumn(702));
+    assertEquals("ZZZ", ColumnCodec.toColumn(ColumnCodec.TABLE_SIZE - 1));
+    assertEquals("AAAA", ColumnCodec.toColumn(ColumnCodec.TABLE_SIZE));
+  }
+
+  @Test
+  public void toColumn_negative() {
+    try {
+      ColumnCodec.toColumn(-1);
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Column index must be >= 0.
+    }
+  }
+
+  @Test
+  public void decode_roundTripAllTableColumns() {
+    for (int column = 0; column < ColumnCodec.TABLE_SIZE + 1000; column++) {
+      String letters = ColumnCodec.toColumn(column);
+      assertEquals(letters.length(), ColumnCodec.length(column));
+      assertEquals(column, ColumnCodec.decode(letters));
+    }
+  }
+
+  @Test
+  public void decode_largeColumn() {
+    assertEquals(Integer.MAX_VALUE - 1,
+        ColumnCodec.decode(ColumnCodec.toColumn(Integer.MAX_VALUE - 1)));
+  }
+
+  @Test
+  public void decode_slice() {
+    assertEquals(27, ColumnCodec.decode("Test!AB12", 5, 7));
+  }
+
+  @Test
+  public void decode_lowerCase() {
+    try {
+      ColumnCodec.decode("aB");
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Columns must be upper case.
+    }
+  }
+
+  @Test
+  public void decode_empty() {
+    try {
+      ColumnCodec.decode("");
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Columns must have at least one letter.
+    }
+  }
+
+  @Test
+  public void decode_overflow() {
+    try {
+      ColumnCodec.decode("ZZZZZZZZ");
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Column beyond Integer.MAX_VALUE.
+    }
+  }
+
+  @Test
+  public void appendColumn_stringBuilder() {
+    StringBuilder sb = new StringBuilder("Test!");
+    ColumnCodec.appendColumn(sb, 27).append(1);
+    assertEquals("Test!AB1", sb.toString());
+  }
+
+  @Test
+  public void appendColumn_appendable() throws Exception {
+    StringWriter writer = new StringWriter();
+    ColumnCodec.appendColumn(writer, 18277);
+    ColumnCodec.appendColumn(writer, 18278);
+    assertEquals("ZZZAAAA", writer.toString());
+  }
+}
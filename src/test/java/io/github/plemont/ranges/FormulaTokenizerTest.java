@@ -0,0 +1,148 @@
+package io.github.plemont.ranges;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FormulaTokenizerTest {
+
+  /** Returns the text of each reference found in the formula. */
+  private static List<String> references(String formula) {
+    List<String> references = new ArrayList<>();
+    FormulaTokenizer tokenizer = FormulaTokenizer.of(formula);
+    while (tokenizer.next()) {
+      references.add(formula.substring(tokenizer.getStart(), tokenizer.getEnd()));
+    }
+    return references;
+  }
+
+  private static List<String> list(String... values) {
+    List<String> list = new ArrayList<>();
+    for (String value : values) {
+      list.add(value);
+    }
+    return list;
+  }
+
+  @Test
+  public void next_qualifiedReferences() {
+    String formula = "=SUM('Q1 Data'!B2:B900)*Rates!C3";
+    FormulaTokenizer tokenizer = FormulaTokenizer.of(formula);
+
+    assertTrue(tokenizer.next());
+    assertEquals(5, tokenizer.getStart());
+    assertEquals(22, tokenizer.getEnd());
+    assertEquals("Q1 Data", tokenizer.getSheetName());
+    assertEquals(Range.parse("'Q1 Data'!B2:B900"), tokenizer.toRange());
+
+    assertTrue(tokenizer.next());
+    assertEquals("Rates!C3", formula.substring(tokenizer.getStart(), tokenizer.getEnd()));
+    assertEquals(Range.parse("Rates!C3"), tokenizer.toRange());
+
+    assertFalse(tokenizer.next());
+    assertFalse(tokenizer.next());
+  }
+
+  @Test
+  public void next_unqualifiedReferences() {
+    assertEquals(list("A1", "b2:c3", "A:B", "1:5", "A2:B", "AA10"),
+        references("=A1+SUM(b2:c3)+COUNT(A:B)+SUM(1:5)+MAX(A2:B)-AA10"));
+    FormulaTokenizer tokenizer = FormulaTokenizer.of("=b2:c3");
+    assertTrue(tokenizer.next());
+    assertNull(tokenizer.getSheetName());
+    assertEquals(Range.of(null, 1, 1, 2, 2), tokenizer.toRange());
+  }
+
+  @Test
+  public void next_skipsStringsFunctionsAndErrors() {
+    assertEquals(list("B1", "C1"),
+        references("=IF(\"A1\"&\"say \"\"B2\"\"\"=B1, LOG10(5), #REF!+#N/A+C1)"));
+    assertEquals(list(), references("=TRUE+FALSE+Named_Range+1.5E3+A+3+T.TEST(1)+A1B"));
+    assertEquals(list(), references("=\"unclosed A1"));
+    assertEquals(list(), references("='unclosed!A1"));
+  }
+
+  @Test
+  public void next_absoluteMarkers() {
+    FormulaTokenizer tokenizer = FormulaTokenizer.of("=$B$2:C$3+Sheet1!$A1+$4:$5");
+    assertTrue(tokenizer.next());
+    assertTrue(tokenizer.isStartColumnAbsolute());
+    assertTrue(tokenizer.isStartRowAbsolute());
+    assertFalse(tokenizer.isEndColumnAbsolute());
+    assertTrue(tokenizer.isEndRowAbsolute());
+    assertEquals(Range.of(null, 1, 1, 2, 2), tokenizer.toRange());
+
+    assertTrue(tokenizer.next());
+    assertEquals("Sheet1", tokenizer.getSheetName());
+    assertTrue(tokenizer.isStartColumnAbsolute());
+    assertFalse(tokenizer.isStartRowAbsolute());
+    assertTrue(tokenizer.isEndColumnAbsolute());
+    assertFalse(tokenizer.isEndRowAbsolute());
+
+    assertTrue(tokenizer.next());
+    assertFalse(tokenizer.isStartColumnAbsolute());
+    assertTrue(tokenizer.isStartRowAbsolute());
+    assertEquals(Range.UNBOUNDED, tokenizer.getStartColumn());
+    assertEquals(3, tokenizer.getStartRow());
+    assertEquals(4, tokenizer.getEndRow());
+    assertFalse(tokenizer.next());
+  }
+
+  @Test
+  public void next_ordersCoordinatesWithMarkers() {
+    FormulaTokenizer tokenizer = FormulaTokenizer.of("=$C3:A$1");
+    assertTrue(tokenizer.next());
+    assertEquals(Range.of(null, 0, 0, 2, 2), tokenizer.toRange());
+    assertFalse(tokenizer.isStartColumnAbsolute());
+    assertTrue(tokenizer.isStartRowAbsolute());
+    assertTrue(tokenizer.isEndColumnAbsolute());
+    assertFalse(tokenizer.isEndRowAbsolute());
+  }
+
+  @Test
+  public void next_escapedSheetName() {
+    FormulaTokenizer tokenizer = FormulaTokenizer.of("=COUNT('Bob''s Data'!A:A)");
+    assertTrue(tokenizer.next());
+    assertEquals("Bob's Data", tokenizer.getSheetName());
+    assertEquals(Range.parse("'Bob''s Data'!A:A"), tokenizer.toRange());
+  }
+
+  @Test
+  public void next_invalidReferences() {
+    // A column paired with a row, a trailing colon and a zero row are not references, beyond the
+    // valid cell at their start.
+    assertEquals(list("A1"), references("=A:1+A1:+A0+'Sheet'!+Sheet1!0"));
+    // Columns beyond Integer.MAX_VALUE do not form a reference.
+    assertEquals(list(), references("=FXSHRXX1"));
+  }
+
+  @Test
+  public void reset_reusesTokenizer() {
+    FormulaTokenizer tokenizer = FormulaTokenizer.of("=A1");
+    assertTrue(tokenizer.next());
+    tokenizer.reset("=Data!B2");
+    assertTrue(tokenizer.next());
+    assertEquals("Data", tokenizer.getSheetName());
+    assertFalse(tokenizer.next());
+  }
+
+  @Test
+  public void getStart_notPositioned() {
+    FormulaTokenizer tokenizer = FormulaTokenizer.of("=1+2");
+    try {
+      tokenizer.getStart();
+      fail();
+    } catch (IllegalStateException e) {
+      // Expected, as next() has not been called.
+    }
+    assertFalse(tokenizer.next());
+    try {
+      tokenizer.toRange();
+      fail();
+    } catch (IllegalStateException e) {
+      // Expected, as there are no references.
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package io.github.plemont.ranges;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class R1C1NotationTest {
+
+  @Test
+  public void parse_absolute() {
+    assertEquals(Range.parse("Sheet1!A1:C5"), R1C1Notation.parse("Sheet1!R1C1:R5C3"));
+    assertEquals(Range.parse("'My Sheet'!B2"), R1C1Notation.parse("'My Sheet'!R2C2"));
+    assertEquals(Range.parse("Test!A:C"), R1C1Notation.parse("Test!C1:C3"));
+    assertEquals(Range.parse("Test!2:4"), R1C1Notation.parse("Test!R2:R4"));
+    assertEquals(Range.parse("Test!3:3"), R1C1Notation.parse("Test!R3"));
+    assertEquals(Range.parse("Test!B:B"), R1C1Notation.parse("Test!C2"));
+    assertEquals(Range.parse("Test!A3:C"), R1C1Notation.parse("Test!R3C1:C3"));
+    assertEquals(Range.parse("Test!A1:C5"), R1C1Notation.parse("Test!r5c3:r1c1"));
+  }
+
+  @Test
+  public void parse_withoutSheetName() {
+    Range range = R1C1Notation.parse("R2C3");
+    assertNull(range.getSheetName());
+    assertEquals(Range.of(null, 2, 1, 2, 1), range);
+  }
+
+  @Test
+  public void parse_relative() {
+    // Anchored at D5.
+    assertEquals(Range.parse("Data!F4"), R1C1Notation.parse("Data!R[-1]C[2]", 3, 4));
+    assertEquals(Range.parse("Data!D5"), R1C1Notation.parse("Data!RC", 3, 4));
+    assertEquals(Range.parse("Data!A4:D6"), R1C1Notation.parse("Data!R[-1]C1:R[+1]C", 3, 4));
+  }
+
+  @Test
+  public void parse_invalid() {
+    String[] invalid = {"", "Test!", "Test!R0C1", "Test!R1C1:", "Test!R1:C1", "Test!R[1]C1",
+        "Test!R1C1x", "Test!R[]C1", "Test!R[1C1", "'Test!R1C1", "Test!R99999999999"};
+    for (String r1c1 : invalid) {
+      try {
+        R1C1Notation.parse(r1c1);
+        fail(r1c1);
+      } catch (IllegalArgumentException e) {
+        // Expected, as the range is invalid or relative.
+      }
+    }
+    try {
+      R1C1Notation.parse("R[-2]C", 0, 1);
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Expected, as the row lies above the first row.
+    }
+  }
+
+  @Test
+  public void format_absolute() {
+    assertEquals("Sheet1!R1C1:R5C3", R1C1Notation.format(Range.parse("Sheet1!A1:C5")));
+    assertEquals("'My Sheet'!R2C2", R1C1Notation.format(Range.parse("'My Sheet'!B2")));
+    assertEquals("Test!C1:C3", R1C1Notation.format(Range.parse("Test!A:C")));
+    assertEquals("Test!R3", R1C1Notation.format(Range.parse("Test!3:3")));
+    assertEquals("Test!R3C1:C3", R1C1Notation.format(Range.parse("Test!A3:C")));
+    assertEquals("R2C3", R1C1Notation.format(Range.of(null, 2, 1, 2, 1)));
+  }
+
+  @Test
+  public void format_relative() {
+    assertEquals("Data!R[-1]C[2]", R1C1Notation.format(Range.parse("Data!F4"), 3, 4));
+    assertEquals("Data!RC[-3]:R[1]C", R1C1Notation.format(Range.parse("Data!A5:D6"), 3, 4));
+    assertEquals("Data!C[-3]:C", R1C1Notation.format(Range.parse("Data!A:D"), 3, 4));
+  }
+
+  @Test
+  public void format_roundTrips() {
+    String[] ranges = {"Test!A1:Z100", "Test!B:D", "Test!4:9", "Test!C7:E", "'a''b'!AB12"};
+    for (String a1 : ranges) {
+      Range range = Range.parse(a1);
+      assertEquals(range, R1C1Notation.parse(R1C1Notation.format(range)));
+      assertEquals(range, R1C1Notation.parse(R1C1Notation.format(range, 5, 9), 5, 9));
+    }
+  }
+
+  @Test
+  public void format_wholeSheet() {
+    try {
+      R1C1Notation.format(Range.parse("Test"));
+      fail();
+    } catch (IllegalStateException e) {
+      // Expected, as a whole sheet has no coordinates to write.
+    }
+    StringBuilder sb = new StringBuilder("x");
+    try {
+      R1C1Notation.appendR1C1(sb, Range.parse("Test"));
+      fail();
+    } catch (IllegalStateException e) {
+      // Expected, leaving the StringBuilder unchanged.
+    }
+    assertEquals("x", sb.toString());
+  }
+
+  @Test
+  public void toA1_convertsInOnePass() {
+    assertEquals("Data!D4:F5", R1C1Notation.toA1("Data!R[-1]C:RC[2]", 3, 4));
+    assertEquals("'Q1 Data'!B2:B900", R1C1Notation.toA1("'Q1 Data'!R2C2:R900C2", 0, 0));
+    assertEquals("A:C", R1C1Notation.toA1("C1:C3", 0, 0));
+    assertEquals("D5", R1C1Notation.toA1("RC", 3, 4));
+  }
+
+  @Test
+  public void fromA1_convertsInOnePass() {
+    assertEquals("Data!R4C4:R5C6", R1C1Notation.fromA1("Data!D4:F5"));
+    assertEquals("Data!R[-1]C:RC[2]", R1C1Notation.fromA1("Data!D4:F5", 3, 4));
+    assertEquals("'Q1 Data'!C2", R1C1Notation.fromA1("'Q1 Data'!B:B"));
+    try {
+      R1C1Notation.fromA1("Data");
+      fail();
+    } catch (IllegalStateException e) {
+      // Expected, as a whole sheet cannot be expressed.
+    }
+  }
+}
@@ -0,0 +1,340 @@
+package io.github.plemont.ranges;
+
+import com.google.api.services.sheets.v4.model.GridProperties;
+import com.google.api.services.sheets.v4.model.GridRange;
+import com.google.api.services.sheets.v4.model.Sheet;
+import com.google.api.services.sheets.v4.model.SheetProperties;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+import static io.github.plemont.ranges.RangeFixtures.assertSameRanges;
+import static io.github.plemont.ranges.RangeFixtures.randomArray;
+import static org.junit.Assert.*;
+
+public class RangeArrayTest {
+
+  private static SheetRegistry registry() {
+    List<Sheet> sheets = new ArrayList<>();
+    String[] titles = {"Data", "My Sheet", "Bob's"};
+    for (int i = 0; i < titles.length; i++) {
+      SheetProperties props = new SheetProperties();
+      props.setSheetId(i * 10);
+      props.setTitle(titles[i]);
+      Sheet sheet = new Sheet();
+      sheet.setProperties(props);
+      sheets.add(sheet);
+    }
+    return SheetRegistry.of(sheets);
+  }
+
+  @Test
+  public void append_growsAndRetainsRanges() {
+    RangeArray ranges = RangeArray.create(1);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i, ranges.append(i % 3, i, i + 1, i + 2, Range.UNBOUNDED));
+    }
+    assertEquals(100, ranges.size());
+    assertEquals(Range.of(null, 2, 50, 51, 52, Range.UNBOUNDED), ranges.get(50));
+    assertEquals(51, ranges.getStartRow(50));
+    assertEquals(Range.UNBOUNDED, ranges.getEndRow(50));
+  }
+
+  @Test
+  public void append_rangeDropsSheetName() {
+    RangeArray ranges = RangeArray.create();
+    ranges.append(Range.parse("Test!B2:C3").withSheetId(7));
+    assertEquals(7, ranges.getSheetId(0));
+    assertEquals(Range.of(null, 7, 1, 1, 2, 2), ranges.get(0));
+  }
+
+  @Test
+  public void append_invalidCoordinates() {
+    RangeArray ranges = RangeArray.create();
+    try {
+      ranges.append(0, 5, 0, 4, 0);
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Expected, as the end column is before the start column.
+    }
+    assertEquals(0, ranges.size());
+  }
+
+  @Test
+  public void get_outOfBounds() {
+    RangeArray ranges = RangeArray.create();
+    ranges.append(0, 0, 0, 0, 0);
+    try {
+      ranges.getStartColumn(1);
+      fail();
+    } catch (IndexOutOfBoundsException e) {
+      // Expected, as there is one range.
+    }
+  }
+
+  @Test
+  public void parseAll_resolvesSheetIds() {
+    List<String> a1 = Arrays.asList("Data!A1:B2", "Data!C:C", "'My Sheet'!3:4",
+        "'Bob''s'!D5", "Data!E6:F");
+    RangeArray ranges = RangeArray.parseAll(a1, registry());
+    assertEquals(5, ranges.size());
+    assertEquals(Range.of(null, 0, 0, 0, 1, 1), ranges.get(0));
+    assertEquals(10, ranges.getSheetId(2));
+    assertEquals(20, ranges.getSheetId(3));
+    assertEquals(0, ranges.getSheetId(4));
+    assertArrayEquals(a1.toArray(new String[0]), ranges.toA1(registry()));
+  }
+
+  @Test
+  public void parseAll_invalidRange() {
+    try {
+      RangeArray.parseAll(Arrays.asList("Data!A1", "Data!A1:"), registry());
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Expected, as the second range is invalid.
+      assertTrue(e.getMessage().contains("index 1"));
+    }
+    try {
+      RangeArray.parseAll(Arrays.asList("Other!A1"), registry());
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Expected, as the sheet is not in the registry.
+    }
+  }
+
+  @Test
+  public void gridRanges_roundTrip() {
+    List<GridRange> gridRanges = new ArrayList<>();
+    for (String a1 : new String[] {"Data!A1:B2", "Data!C:C", "Data!3:4", "Data!E6:F"}) {
+      gridRanges.add(Range.parse(a1).withSheetId(7).toGridRange());
+    }
+    RangeArray ranges = RangeArray.fromGridRanges(gridRanges);
+    assertEquals(Range.parse("Data!C:C").withSheetId(7).withSheetName(null), ranges.get(1));
+    assertEquals(gridRanges, ranges.toGridRanges());
+  }
+
+  @Test
+  public void fromGridRanges_empty() {
+    List<GridRange> gridRanges = Arrays.asList(
+        Range.parse("Data!A1:B2").toGridRange(),
+        new GridRange().setSheetId(7).setStartRowIndex(3).setEndRowIndex(3));
+    try {
+      RangeArray.fromGridRanges(gridRanges);
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Expected, as the second GridRange holds no cells.
+    }
+  }
+
+  @Test
+  public void sort_matchesRangeOrdering() {
+    Random random = new Random(19);
+    List<Range> expected = new ArrayList<>();
+    RangeArray ranges = RangeArray.create();
+    for (int i = 0; i < 5000; i++) {
+      int startColumn = random.nextInt(20);
+      int startRow = random.nextInt(20);
+      int endRow = random.nextInt(5) == 0 ? Range.UNBOUNDED : startRow + random.nextInt(3);
+      Range range = Range.of(null, random.nextInt(3), startColumn, startRow,
+          startColumn + random.nextInt(3), endRow);
+      expected.add(range);
+      ranges.append(range);
+    }
+    Collections.sort(expected);
+    ranges.sort(Cells.Order.ROW_MAJOR);
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.get(i), ranges.get(i));
+      assertEquals(expected.get(i),
+          ranges.get(ranges.binarySearch(expected.get(i), Cells.Order.ROW_MAJOR)));
+    }
+    assertEquals(-1, ranges.binarySearch(Range.of(null, -1, 0, 0, 0, 0), Cells.Order.ROW_MAJOR));
+    assertEquals(-ranges.size() - 1,
+        ranges.binarySearch(Range.of(null, 3, 0, 0, 0, 0), Cells.Order.ROW_MAJOR));
+  }
+
+  @Test
+  public void sort_columnMajor() {
+    RangeArray ranges = RangeArray.create();
+    ranges.append(1, 0, 0, 0, 0);
+    ranges.append(0, 2, 0, 2, 0);
+    ranges.append(0, 1, 5, 1, 5);
+    ranges.append(0, 1, 3, 1, 3);
+    ranges.sort(Cells.Order.COLUMN_MAJOR);
+    assertEquals(Range.of(null, 0, 1, 3, 1, 3), ranges.get(0));
+    assertEquals(Range.of(null, 0, 1, 5, 1, 5), ranges.get(1));
+    assertEquals(Range.of(null, 0, 2, 0, 2, 0), ranges.get(2));
+    assertEquals(Range.of(null, 1, 0, 0, 0, 0), ranges.get(3));
+    assertEquals(2, ranges.binarySearch(Range.of(null, 0, 2, 0, 2, 0), Cells.Order.COLUMN_MAJOR));
+  }
+
+  @Test
+  public void translate_parallelMatchesRangeContext() {
+    RangeArray sequential = randomArray(20_000, 7);
+    RangeArray parallel = randomArray(20_000, 7);
+    RangeArray original = randomArray(20_000, 7);
+    ShiftReport report = sequential.translate(-10, 5, false);
+    ShiftReport parallelReport = parallel.translate(-10, 5, true);
+    assertSameRanges(sequential, parallel);
+    assertArrayEquals(report.getInvalidatedIndexes(), parallelReport.getInvalidatedIndexes());
+    assertEquals(report.getShiftedCount(), parallelReport.getShiftedCount());
+    assertTrue(report.getInvalidatedCount() > 0);
+    for (int i = 0; i < original.size(); i++) {
+      try {
+        Range expected = Ranges.forValue(original.get(i)).translate(-10, 5).toValue();
+        assertFalse(report.isInvalidated(i));
+        assertEquals(expected, sequential.get(i));
+      } catch (IllegalArgumentException | IllegalStateException e) {
+        // The range cannot be translated, so must be left unchanged.
+        assertTrue(report.isInvalidated(i));
+        assertEquals(original.get(i), sequential.get(i));
+      }
+    }
+  }
+
+  @Test
+  public void expand_parallelMatchesSequential() {
+    RangeArray sequential = randomArray(20_000, 11);
+    RangeArray parallel = randomArray(20_000, 11);
+    ShiftReport report = sequential.expand(3, 0, false);
+    ShiftReport parallelReport = parallel.expand(3, 0, true);
+    assertSameRanges(sequential, parallel);
+    assertEquals(report.getShiftedCount(), parallelReport.getShiftedCount());
+    assertEquals(report.getInvalidatedCount(), parallelReport.getInvalidatedCount());
+    RangeArray single = oneRange(0, 0, 0, 0, 0);
+    single.expand(3, 0, false);
+    assertEquals(Range.of(null, 0, 0, 0, 3, 0), single.get(0));
+  }
+
+  @Test
+  public void expand_negative() {
+    try {
+      RangeArray.create().expand(-1, 0, false);
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Expected as expansion cannot be negative.
+    }
+  }
+
+  @Test
+  public void clip_registryUsesEachSheetGrid() {
+    List<Sheet> sheets = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      SheetProperties props = new SheetProperties();
+      props.setSheetId(i);
+      props.setTitle("Sheet" + i);
+      if (i < 2) {
+        props.setGridProperties(new GridProperties().setColumnCount(10).setRowCount(100 * (i + 1)));
+      }
+      Sheet sheet = new Sheet();
+      sheet.setProperties(props);
+      sheets.add(sheet);
+    }
+    RangeArray ranges = RangeArray.create();
+    ranges.append(0, 0, 0, 20, 150);
+    ranges.append(1, 0, 0, 20, 150);
+    ranges.append(2, 0, 0, 20, 150);
+    ranges.append(0, 0, 120, 5, 130);
+    ranges.append(7, 0, 0, 20, 150);
+    ranges.append(1, 2, 3, 4, 5);
+    ShiftReport report = ranges.clip(SheetRegistry.of(sheets), false);
+    assertEquals(Range.of(null, 0, 0, 0, 9, 99), ranges.get(0));
+    assertEquals(Range.of(null, 1, 0, 0, 9, 150), ranges.get(1));
+    assertEquals(Range.of(null, 2, 0, 0, 20, 150), ranges.get(2));
+    assertEquals(Range.of(null, 0, 0, 120, 5, 130), ranges.get(3));
+    assertEquals(Range.of(null, 7, 0, 0, 20, 150), ranges.get(4));
+    assertEquals(2, report.getShiftedCount());
+    assertArrayEquals(new int[] {3}, report.getInvalidatedIndexes());
+  }
+
+  @Test
+  public void clip_parallelMatchesTransform() {
+    RangeArray array = randomArray(20_000, 13);
+    RangeArray transformed = randomArray(20_000, 13);
+    ShiftReport report = array.clip(30, 800, true);
+    ShiftReport expected = RangeTransform.builder().clip(30, 800).build().applyAll(transformed);
+    assertSameRanges(transformed, array);
+    assertArrayEquals(expected.getInvalidatedIndexes(), report.getInvalidatedIndexes());
+  }
+
+  @Test
+  public void orderBounds_wrappedColumns() {
+    int[] sheetIds = {0, 0, 0, 0, -2};
+    int[] startColumns = {5, 1, Range.UNBOUNDED, -3, 0};
+    int[] startRows = {1, 9, 2, 0, 0};
+    int[] endColumns = {2, 1, 4, 0, 0};
+    int[] endRows = {3, 4, Range.UNBOUNDED, 0, 0};
+    RangeArray ranges =
+        RangeArray.wrap(sheetIds, startColumns, startRows, endColumns, endRows);
+    ShiftReport report = ranges.orderBounds(false);
+    assertEquals(Range.of(null, 0, 2, 1, 5, 3), ranges.get(0));
+    assertEquals(Range.of(null, 0, 1, 4, 1, 9), ranges.get(1));
+    assertEquals(2, startColumns[0]);
+    assertEquals(2, report.getShiftedCount());
+    assertArrayEquals(new int[] {2, 3, 4}, report.getInvalidatedIndexes());
+  }
+
+  @Test
+  public void orderBounds_parallelMatchesSequential() {
+    Random random = new Random(17);
+    int size = 20_000;
+    int[][] columns = new int[5][size];
+    for (int i = 0; i < size; i++) {
+      for (int c = 1; c < 5; c++) {
+        columns[c][i] = random.nextInt(100);
+      }
+    }
+    int[][] copy = new int[5][];
+    for (int c = 0; c < 5; c++) {
+      copy[c] = columns[c].clone();
+    }
+    ShiftReport report =
+        RangeArray.wrap(columns[0], columns[1], columns[2], columns[3], columns[4])
+            .orderBounds(false);
+    ShiftReport parallelReport =
+        RangeArray.wrap(copy[0], copy[1], copy[2], copy[3], copy[4]).orderBounds(true);
+    assertTrue(Arrays.deepEquals(columns, copy));
+    assertEquals(report.getShiftedCount(), parallelReport.getShiftedCount());
+    assertEquals(0, parallelReport.getInvalidatedCount());
+  }
+
+  @Test
+  public void wrap_mismatchedLengths() {
+    try {
+      RangeArray.wrap(new int[2], new int[2], new int[2], new int[2], new int[1]);
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Expected as the columns must have the same length.
+    }
+  }
+
+  @Test
+  public void cellCount_skipsUnboundedRanges() {
+    RangeArray ranges = RangeArray.create();
+    ranges.append(0, 0, 0, 2, 3);
+    ranges.append(0, 4, 4, 4, 4);
+    ranges.append(0, 0, 0, Range.UNBOUNDED, 5);
+    ranges.append(0, Range.UNBOUNDED, 0, Range.UNBOUNDED, 5);
+    assertEquals(13, ranges.cellCount(false));
+
+    RangeArray many = randomArray(20_000, 19);
+    long expected = 0;
+    for (int i = 0; i < many.size(); i++) {
+      if (many.getEndColumn(i) != Range.UNBOUNDED && many.getEndRow(i) != Range.UNBOUNDED) {
+        expected += (long) (many.getEndColumn(i) - many.getStartColumn(i) + 1)
+            * (many.getEndRow(i) - many.getStartRow(i) + 1);
+      }
+    }
+    assertEquals(expected, many.cellCount(false));
+    assertEquals(expected, many.cellCount(true));
+  }
+
+  private static RangeArray oneRange(int sheetId, int startColumn, int startRow, int endColumn,
+      int endRow) {
+    RangeArray ranges = RangeArray.create();
+    ranges.append(sheetId, startColumn, startRow, endColumn, endRow);
+    return ranges;
+  }
+}
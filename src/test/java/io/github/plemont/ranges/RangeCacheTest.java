@@ -0,0 +1,138 @@
+package io.github.plemont.ranges;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RangeCacheTest {
+
+  @Test
+  public void parse_countsHitsAndMisses() {
+    RangeCache cache = RangeCache.create(100);
+    Range first = cache.parse("'Q3 Sales'!A1:Z");
+    Range second = cache.parse("'Q3 Sales'!A1:Z");
+    assertSame(first, second);
+    assertEquals(Range.parse("'Q3 Sales'!A1:Z"), first);
+    RangeCache.Stats stats = cache.stats();
+    assertEquals(1, stats.getHitCount());
+    assertEquals(1, stats.getMissCount());
+    assertEquals(0.5, stats.getHitRate(), 0.0);
+  }
+
+  @Test
+  public void parse_invalidRangeNotCached() {
+    RangeCache cache = RangeCache.create(100);
+    for (int i = 0; i < 2; i++) {
+      try {
+        cache.parse("Test!A:5");
+        fail();
+      } catch (IllegalArgumentException e) {
+        // Expected exception for an invalid range specification.
+      }
+    }
+    assertEquals(0, cache.size());
+    assertEquals(2, cache.stats().getMissCount());
+  }
+
+  @Test
+  public void forRange_returnsIndependentContexts() {
+    RangeCache cache = RangeCache.create(100);
+    Ranges.RangeContext context = cache.forRange("Test!A1:B2").translate(3, 3);
+    assertEquals("Test!D4:E5", context.toRange());
+    assertEquals("Test!A1:B2", cache.forRange("Test!A1:B2").toRange());
+    assertEquals(1, cache.stats().getHitCount());
+  }
+
+  @Test
+  public void create_invalidSize() {
+    try {
+      RangeCache.create(0);
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Maximum size must be positive.
+    }
+  }
+
+  @Test
+  public void parse_lruEvictsLeastRecentlyUsed() {
+    RangeCache cache = RangeCache.create(3);
+    cache.parse("Test!A1");
+    cache.parse("Test!A2");
+    cache.parse("Test!A3");
+    cache.parse("Test!A1");
+    cache.parse("Test!A4");
+    assertEquals(3, cache.size());
+    assertEquals(1, cache.stats().getEvictionCount());
+    cache.parse("Test!A1");
+    assertEquals(2, cache.stats().getHitCount());
+  }
+
+  @Test
+  public void parse_sizeBounded() {
+    for (RangeCache.Eviction eviction : RangeCache.Eviction.values()) {
+      RangeCache cache = RangeCache.create(500, eviction);
+      for (int i = 1; i <= 5000; i++) {
+        cache.parse("Test!A" + i);
+      }
+      assertTrue(cache.size() <= 500);
+      assertEquals(5000, cache.stats().getMissCount());
+    }
+  }
+
+  @Test
+  public void parse_tinyLfuRetainsFrequentRangesDuringScans() {
+    RangeCache lru = RangeCache.create(200, RangeCache.Eviction.LRU);
+    RangeCache tinyLfu = RangeCache.create(200, RangeCache.Eviction.TINY_LFU);
+    for (RangeCache cache : new RangeCache[] {lru, tinyLfu}) {
+      int cold = 0;
+      for (int round = 0; round < 20; round++) {
+        for (int i = 1; i <= 100; i++) {
+          cache.parse("Hot!A" + i);
+        }
+        for (int i = 0; i < 500; i++) {
+          cache.parse("Cold!A" + ++cold);
+        }
+      }
+    }
+    // Each scan of single-use ranges flushes the LRU cache.
+    assertEquals(0, lru.stats().getHitCount());
+    assertTrue(tinyLfu.stats().getHitCount() >= 1500);
+  }
+
+  @Test
+  public void clear_removesEntries() {
+    RangeCache cache = RangeCache.create(10);
+    cache.parse("Test!A1");
+    cache.clear();
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void parse_concurrentRequests() throws Exception {
+    RangeCache cache = RangeCache.create(64, RangeCache.Eviction.TINY_LFU);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      futures.add(executor.submit(() -> {
+        for (int i = 0; i < 20000; i++) {
+          int row = i % 100 + 1;
+          assertEquals(row - 1, cache.parse("Test!B" + row).getStartRow());
+        }
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    RangeCache.Stats stats = cache.stats();
+    assertEquals(80000, stats.getHitCount() + stats.getMissCount());
+    assertTrue(cache.size() <= 64);
+  }
+}
@@ -0,0 +1,123 @@
+package io.github.plemont.ranges;
+
+import com.google.api.services.sheets.v4.model.GridRange;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+import static io.github.plemont.ranges.RangeFixtures.a1;
+import static io.github.plemont.ranges.RangeFixtures.ranges;
+import static org.junit.Assert.*;
+
+public class RangeCoalescerTest {
+
+  @Test
+  public void coalesce_adjacentCells() {
+    CoalescedRanges coalesced = RangeCoalescer.coalesce(
+        ranges("Test!A1", "Test!B1", "Test!A2", "Test!B2", "Test!C1:C2"), 0);
+    assertEquals(Arrays.asList("Test!A1:C2"), a1(coalesced.getRanges()));
+    for (int i = 0; i < 5; i++) {
+      assertEquals(0, coalesced.getMergedIndex(i));
+    }
+  }
+
+  @Test
+  public void coalesce_containedAndDuplicateRanges() {
+    CoalescedRanges coalesced = RangeCoalescer.coalesce(
+        ranges("Test!A1:D4", "Test!B2", "Test!A1:D4", "Test!F1"), 0);
+    assertEquals(Arrays.asList("Test!A1:D4", "Test!F1"), a1(coalesced.getRanges()));
+    assertEquals(Range.parse("Test!A1:D4"), coalesced.getMerged(1));
+    assertEquals(Range.parse("Test!F1"), coalesced.getMerged(3));
+  }
+
+  @Test
+  public void coalesce_zeroBudgetKeepsGaps() {
+    CoalescedRanges coalesced = RangeCoalescer.coalesce(ranges("Test!A1:A5", "Test!C1:C5"), 0);
+    assertEquals(2, coalesced.size());
+    coalesced = RangeCoalescer.coalesce(ranges("Test!A1:B2", "Test!B2:C3"), 0);
+    assertEquals(2, coalesced.size());
+  }
+
+  @Test
+  public void coalesce_wasteBudgetBridgesGaps() {
+    List<Range> ranges = ranges("Test!A1:A5", "Test!C1:C5");
+    assertEquals(2, RangeCoalescer.coalesce(ranges, 4).size());
+    CoalescedRanges coalesced = RangeCoalescer.coalesce(ranges, 5);
+    assertEquals(Arrays.asList("Test!A1:C5"), a1(coalesced.getRanges()));
+    assertEquals(0, coalesced.getMergedIndex(1));
+  }
+
+  @Test
+  public void coalesce_unlimitedBudgetMergesAll() {
+    List<Range> ranges = ranges("Test!A1", "Test!Z100", "Test!C50:D60");
+    assertEquals(Arrays.asList("Test!A1:Z100"),
+        a1(RangeCoalescer.coalesce(ranges, Long.MAX_VALUE).getRanges()));
+  }
+
+  @Test
+  public void coalesce_overlapCountsOnce() {
+    // The bounding rectangle A1:C3 holds 9 cells, of which the ranges cover 7.
+    List<Range> ranges = ranges("Test!A1:B2", "Test!B2:C3");
+    assertEquals(2, RangeCoalescer.coalesce(ranges, 1).size());
+    assertEquals(Arrays.asList("Test!A1:C3"), a1(RangeCoalescer.coalesce(ranges, 2).getRanges()));
+  }
+
+  @Test
+  public void coalesce_unboundedColumns() {
+    CoalescedRanges coalesced = RangeCoalescer.coalesce(ranges("Test!A:B", "Test!C:C"), 0);
+    assertEquals(Arrays.asList("Test!A:C"), a1(coalesced.getRanges()));
+  }
+
+  private static GridRange gridRange(int startRow, int endRow) {
+    GridRange gridRange = new GridRange();
+    gridRange.setSheetId(4);
+    gridRange.setStartColumnIndex(0);
+    gridRange.setStartRowIndex(startRow);
+    gridRange.setEndColumnIndex(2);
+    gridRange.setEndRowIndex(endRow);
+    return gridRange;
+  }
+
+  @Test
+  public void coalesceGridRanges() {
+    CoalescedRanges coalesced = RangeCoalescer.coalesceGridRanges(
+        Arrays.asList(gridRange(0, 1), gridRange(1, 2)), 0);
+    assertEquals(Arrays.asList(gridRange(0, 2)), coalesced.getGridRanges());
+  }
+
+  @Test
+  public void coalesce_differentSheets() {
+    try {
+      RangeCoalescer.coalesce(ranges("Test!A1", "Other!A2"), 0);
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Expected exception as the ranges are on different sheets.
+    }
+  }
+
+  @Test
+  public void coalesce_mergedRangesCoverOriginalsWithinBudget() {
+    Random random = new Random(3);
+    for (int trial = 0; trial < 100; trial++) {
+      List<Range> ranges = new ArrayList<>();
+      for (int i = 0; i < 50; i++) {
+        int column = random.nextInt(20);
+        int row = random.nextInt(20);
+        ranges.add(Range.of("Test", column, row, column + random.nextInt(3),
+            row + random.nextInt(3)));
+      }
+      long budget = random.nextInt(4);
+      CoalescedRanges coalesced = RangeCoalescer.coalesce(ranges, budget);
+      RangeSet original = RangeSet.of(ranges);
+      for (int i = 0; i < ranges.size(); i++) {
+        assertTrue(RangeSet.of(coalesced.getMerged(i)).contains(ranges.get(i)));
+      }
+      for (Range merged : coalesced.getRanges()) {
+        long waste = RangeSet.of(merged).difference(original).cellCount();
+        assertTrue(waste <= budget);
+      }
+    }
+  }
+}
@@ -0,0 +1,170 @@
+package io.github.plemont.ranges;
+
+import com.google.common.base.Strings;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+import static io.github.plemont.ranges.RangeFixtures.assertSameRanges;
+import static io.github.plemont.ranges.RangeFixtures.randomArray;
+import static org.junit.Assert.*;
+
+public class RangeCodecTest {
+
+  private static Range roundTrip(Range range) {
+    ByteBuffer buffer = ByteBuffer.allocate(512);
+    RangeCodec.write(range, buffer);
+    buffer.flip();
+    Range decoded = RangeCodec.readRange(buffer);
+    assertFalse(buffer.hasRemaining());
+    return decoded;
+  }
+
+  @Test
+  public void readRange_roundTrip() {
+    Range[] ranges = {
+        Range.parse("Sheet1!A1"),
+        Range.parse("'My Sheet'!B2:Z100"),
+        Range.parse("Sheet1!A:C").withSheetId(12345),
+        Range.parse("Sheet1!3:7"),
+        Range.parse("Sheet1!B2:C"),
+        Range.of("Donn\u00e9es \u2713", Range.NO_SHEET_ID, 16383, 1048575, 16383, 1048575),
+        Range.of(Strings.repeat("\u2713", 99), 4, 0, 0, 0, 0),
+        Range.of(null, 0, Range.UNBOUNDED, Range.UNBOUNDED, Range.UNBOUNDED, Range.UNBOUNDED),
+        Range.of("Sheet1", Range.NO_SHEET_ID, 5, Range.UNBOUNDED, Range.UNBOUNDED,
+            Range.UNBOUNDED),
+        Range.of(null, Integer.MAX_VALUE, Integer.MAX_VALUE, 0, Integer.MAX_VALUE,
+            Integer.MAX_VALUE),
+    };
+    for (Range range : ranges) {
+      assertEquals(range, roundTrip(range));
+    }
+  }
+
+  @Test
+  public void write_unnamedRangeTakesFiveBytes() {
+    // A1:C5, without a sheet name or ID.
+    Range range = Range.of(null, Range.NO_SHEET_ID, 0, 0, 2, 4);
+    ByteBuffer buffer = ByteBuffer.allocate(16);
+    RangeCodec.write(range, buffer);
+    assertEquals(5, buffer.position());
+  }
+
+  @Test
+  public void write_dataOutputMatchesByteBuffer() throws IOException {
+    Range range = Range.parse("'My Sheet'!B2:Z100").withSheetId(99);
+    ByteBuffer buffer = ByteBuffer.allocate(256);
+    RangeCodec.write(range, buffer);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    RangeCodec.write(range, new DataOutputStream(bytes));
+    assertArrayEquals(Arrays.copyOf(buffer.array(), buffer.position()), bytes.toByteArray());
+
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    assertEquals(range, RangeCodec.readRange(in));
+    assertEquals(-1, in.read());
+  }
+
+  @Test
+  public void readRangeArray_roundTrip() {
+    RangeArray ranges = randomArray(5_000, 11);
+    ranges.sort(Cells.Order.ROW_MAJOR);
+    ByteBuffer buffer = ByteBuffer.allocate(5_000 * 16);
+    RangeCodec.write(ranges, buffer);
+    buffer.flip();
+    assertSameRanges(ranges, RangeCodec.readRangeArray(buffer));
+    assertFalse(buffer.hasRemaining());
+  }
+
+  @Test
+  public void readRangeArray_unsortedAndExtremeValues() throws IOException {
+    RangeArray ranges = RangeArray.create();
+    ranges.append(Integer.MAX_VALUE, Integer.MAX_VALUE, 0, Integer.MAX_VALUE, 0);
+    ranges.append(Range.NO_SHEET_ID, Range.UNBOUNDED, Range.UNBOUNDED, Range.UNBOUNDED,
+        Range.UNBOUNDED);
+    ranges.append(0, 0, Integer.MAX_VALUE, Range.UNBOUNDED, Integer.MAX_VALUE);
+    ranges.append(0, Range.UNBOUNDED, 3, Range.UNBOUNDED, 4);
+    ranges.append(7, 10, 2, 11, Range.UNBOUNDED);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    RangeCodec.write(ranges, new DataOutputStream(bytes));
+    assertSameRanges(ranges, RangeCodec.readRangeArray(
+        new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+  }
+
+  @Test
+  public void readRangeArray_empty() {
+    ByteBuffer buffer = ByteBuffer.allocate(8);
+    RangeCodec.write(RangeArray.create(), buffer);
+    assertEquals(1, buffer.position());
+    buffer.flip();
+    assertEquals(0, RangeCodec.readRangeArray(buffer).size());
+  }
+
+  @Test
+  public void write_sortedArrayCompresses() {
+    Random random = new Random(13);
+    RangeArray ranges = RangeArray.create();
+    for (int i = 0; i < 5_000; i++) {
+      int startColumn = random.nextInt(50);
+      int startRow = random.nextInt(1000);
+      ranges.append(0, startColumn, startRow, startColumn + random.nextInt(20),
+          startRow + random.nextInt(200));
+    }
+    ranges.sort(Cells.Order.ROW_MAJOR);
+    ByteBuffer buffer = ByteBuffer.allocate(5_000 * 16);
+    RangeCodec.write(ranges, buffer);
+    int a1Length = 0;
+    for (int i = 0; i < ranges.size(); i++) {
+      a1Length += ranges.get(i).withSheetName("Sheet1").toA1()
+          .getBytes(StandardCharsets.UTF_8).length;
+    }
+    assertTrue(buffer.position() * 3 < a1Length);
+  }
+
+  @Test
+  public void readRange_malformed() {
+    byte[][] inputs = {
+        // Unknown flag.
+        {(byte) 0x40},
+        // Varint longer than five bytes.
+        {0x01, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x00},
+        // End column without start column.
+        {0x04, 0x01},
+        // End beyond the largest coordinate.
+        {0x05, (byte) 0xFE, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 0x02},
+        // Sheet name longer than the largest valid name.
+        {0x20, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07},
+        {0x20, (byte) 0xAA, 0x02},
+        // Negative sheet name length.
+        {0x20, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F},
+        // Empty sheet name.
+        {0x20, 0x00},
+    };
+    for (byte[] input : inputs) {
+      try {
+        RangeCodec.readRange(ByteBuffer.wrap(input));
+        fail(Arrays.toString(input));
+      } catch (IllegalArgumentException e) {
+        // Expected, as the input is not a valid encoding.
+      }
+    }
+  }
+
+  @Test
+  public void readRangeArray_invalidRange() {
+    // A single range with a start row of -2.
+    ByteBuffer buffer = ByteBuffer.wrap(new byte[] {0x01, 0x02, 0x03});
+    try {
+      RangeCodec.readRangeArray(buffer);
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Expected, as the decoded range is validated.
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package io.github.plemont.ranges;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/** Builders and assertions shared by the tests of the batch and set types. */
+final class RangeFixtures {
+
+  // Private constructor to avoid instantiation.
+  private RangeFixtures() {}
+
+  /** Parses range Strings in A1 notation. */
+  static List<Range> ranges(String... ranges) {
+    List<Range> values = new ArrayList<>();
+    for (String range : ranges) {
+      values.add(Range.parse(range));
+    }
+    return values;
+  }
+
+  /** Formats ranges in A1 notation. */
+  static List<String> a1(List<Range> ranges) {
+    List<String> values = new ArrayList<>();
+    for (Range range : ranges) {
+      values.add(range.toA1());
+    }
+    return values;
+  }
+
+  /**
+   * Creates an array of random ranges on three sheets, with IDs 0, 10 and 20. About one in eight
+   * end columns, and one in eight end rows, is unbounded.
+   */
+  static RangeArray randomArray(int count, long seed) {
+    Random random = new Random(seed);
+    RangeArray ranges = RangeArray.create(count);
+    for (int i = 0; i < count; i++) {
+      int startColumn = random.nextInt(50);
+      int startRow = random.nextInt(1000);
+      ranges.append(random.nextInt(3) * 10, startColumn, startRow,
+          random.nextInt(8) == 0 ? Range.UNBOUNDED : startColumn + random.nextInt(20),
+          random.nextInt(8) == 0 ? Range.UNBOUNDED : startRow + random.nextInt(200));
+    }
+    return ranges;
+  }
+
+  static void assertSameRanges(RangeArray expected, RangeArray actual) {
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.get(i), actual.get(i));
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package io.github.plemont.ranges;
+
+import com.google.api.services.sheets.v4.model.GridRange;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RangeIndexTest {
+
+  @Test
+  public void containing_pointQueries() {
+    RangeIndex index = RangeIndex.of(Arrays.asList(Range.parse("Test!A1:C3"),
+        Range.parse("Test!B2:D4"), Range.parse("Test!F:F"), Range.parse("Test!10:10")));
+    assertEquals(Arrays.asList(Range.parse("Test!A1:C3")), index.containing(0, 0));
+    assertEquals(2, index.containing(2, 2).size());
+    assertEquals(Arrays.asList(Range.parse("Test!F:F")), index.containing(5, 1000000));
+    assertEquals(2, index.containing(5, 9).size());
+    assertTrue(index.containing(4, 0).isEmpty());
+    assertFalse(index.anyContaining(4, 0));
+    assertTrue(index.anyContaining(3, 3));
+  }
+
+  @Test
+  public void intersecting_windowQueries() {
+    RangeIndex index = RangeIndex.create();
+    index.insert(Range.parse("Test!A1:C3"));
+    index.insert(Range.parse("Test!E5:F6"));
+    List<Range> result = index.intersecting(Range.parse("Test!C3:E5"));
+    assertEquals(2, result.size());
+    assertTrue(index.intersecting(Range.parse("Test!D1:D4")).isEmpty());
+    assertEquals(2, index.intersecting(Range.parse("Test")).size());
+  }
+
+  @Test
+  public void gridRanges() {
+    GridRange gridRange = new GridRange();
+    gridRange.setSheetId(3);
+    gridRange.setStartColumnIndex(0);
+    gridRange.setStartRowIndex(0);
+    gridRange.setEndColumnIndex(2);
+    gridRange.setEndRowIndex(2);
+    RangeIndex index = RangeIndex.create();
+    index.insert(gridRange);
+    assertEquals(Arrays.asList(Range.fromGridRange(gridRange)), index.containing(1, 1));
+    assertEquals(1, index.intersecting(gridRange).size());
+    assertTrue(index.remove(gridRange));
+    assertEquals(0, index.size());
+  }
+
+  @Test
+  public void insert_differentSheets() {
+    RangeIndex index = RangeIndex.create();
+    index.insert(Range.parse("Test!A1"));
+    try {
+      index.insert(Range.parse("Other!A1"));
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Expected exception as the ranges are on different sheets.
+    }
+  }
+
+  @Test
+  public void remove_duplicatesOneAtATime() {
+    RangeIndex index = RangeIndex.create();
+    index.insert(Range.parse("Test!A1:B2"));
+    index.insert(Range.parse("Test!A1:B2"));
+    assertTrue(index.remove(Range.parse("Test!A1:B2")));
+    assertEquals(1, index.containing(0, 0).size());
+    assertTrue(index.remove(Range.parse("Test!A1:B2")));
+    assertFalse(index.remove(Range.parse("Test!A1:B2")));
+    assertTrue(index.containing(0, 0).isEmpty());
+  }
+
+  @Test
+  public void operations_matchLinearScan() {
+    Random random = new Random(7);
+    List<Range> initial = randomRanges(random, 3000);
+    RangeIndex bulk = RangeIndex.of(initial);
+    RangeIndex incremental = RangeIndex.create();
+    for (Range range : initial) {
+      incremental.insert(range);
+    }
+    List<Range> expected = new ArrayList<>(initial);
+    for (int round = 0; round < 2000; round++) {
+      if (random.nextBoolean()) {
+        Range range = randomRanges(random, 1).get(0);
+        expected.add(range);
+        bulk.insert(range);
+        incremental.insert(range);
+      } else if (!expected.isEmpty()) {
+        Range range = expected.remove(random.nextInt(expected.size()));
+        assertTrue(bulk.remove(range));
+        assertTrue(incremental.remove(range));
+      }
+    }
+    assertEquals(expected.size(), bulk.size());
+    assertEquals(expected.size(), incremental.size());
+    for (int query = 0; query < 500; query++) {
+      int column = random.nextInt(1100);
+      int row = random.nextInt(1100);
+      List<Range> scan = new ArrayList<>();
+      for (Range range : expected) {
+        if (column >= range.getStartColumn() && column <= range.getEndColumn()
+            && row >= range.getStartRow() && row <= range.getEndRow()) {
+          scan.add(range);
+        }
+      }
+      assertEquals(sorted(scan), sorted(bulk.containing(column, row)));
+      assertEquals(sorted(scan), sorted(incremental.containing(column, row)));
+      Range window = Range.of("Test", column, row, column + 50, row + 50);
+      List<Range> overlapping = new ArrayList<>();
+      for (Range range : expected) {
+        if (range.getStartColumn() <= column + 50 && range.getEndColumn() >= column
+            && range.getStartRow() <= row + 50 && range.getEndRow() >= row) {
+          overlapping.add(range);
+        }
+      }
+      assertEquals(sorted(overlapping), sorted(bulk.intersecting(window)));
+      assertEquals(sorted(overlapping), sorted(incremental.intersecting(window)));
+    }
+    for (Range range : expected) {
+      assertTrue(incremental.remove(range));
+    }
+    assertEquals(0, incremental.size());
+    assertTrue(incremental.containing(10, 10).isEmpty());
+  }
+
+  private static List<Range> randomRanges(Random random, int count) {
+    List<Range> ranges = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      int column = random.nextInt(1000);
+      int row = random.nextInt(1000);
+      ranges.add(Range.of("Test", column, row, column + random.nextInt(100),
+          row + random.nextInt(100)));
+    }
+    return ranges;
+  }
+
+  private static List<Range> sorted(List<Range> ranges) {
+    List<Range> copy = new ArrayList<>(ranges);
+    Collections.sort(copy, Comparator.naturalOrder());
+    return copy;
+  }
+}
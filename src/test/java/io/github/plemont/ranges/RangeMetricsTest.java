@@ -0,0 +1,194 @@
+package io.github.plemont.ranges;
+
+import com.google.api.services.sheets.v4.model.GridRange;
+import com.google.common.base.Strings;
+import com.google.common.io.ByteStreams;
+import io.github.plemont.ranges.MetricsListener.Operation;
+import java.io.IOException;
+import java.io.InputStream;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RangeMetricsTest {
+
+  @Test
+  public void disabledByDefault() {
+    assertFalse(RangeMetrics.isEnabled());
+    assertNotNull(RangeMetrics.getListener());
+    // The listener installed when disabled ignores every event.
+    RangeMetrics.getListener().onCacheHit();
+    assertEquals("Test!A1", Ranges.forRange("Test!A1").toRange());
+  }
+
+  @Test
+  public void load_namedClass() {
+    MetricsListener listener = RangeMetrics.load(StripedMetricsListener.class.getName(),
+        getClass().getClassLoader());
+    assertTrue(listener instanceof StripedMetricsListener);
+  }
+
+  @Test
+  public void load_noneOrNoProvider() {
+    assertNull(RangeMetrics.load("none", getClass().getClassLoader()));
+    assertNull(RangeMetrics.load(null, getClass().getClassLoader()));
+  }
+
+  @Test
+  public void load_notAListener() {
+    try {
+      RangeMetrics.load(String.class.getName(), getClass().getClassLoader());
+      fail();
+    } catch (IllegalStateException e) {
+      // Expected as the class does not implement MetricsListener.
+    }
+  }
+
+  @Test
+  public void install_missingClassDisablesMetrics() {
+    assertNull(RangeMetrics.install("com.example.Missing", getClass().getClassLoader()));
+    assertNull(RangeMetrics.install(String.class.getName(), getClass().getClassLoader()));
+  }
+
+  @Test
+  public void install_failingInitializerDisablesMetrics() {
+    assertNull(RangeMetrics.install(FailingListener.class.getName(), getClass().getClassLoader()));
+  }
+
+  @Test
+  public void install_namedClass() {
+    assertTrue(RangeMetrics.install(StripedMetricsListener.class.getName(),
+        getClass().getClassLoader()) instanceof StripedMetricsListener);
+  }
+
+  /** A listener whose class cannot be initialized. */
+  public static final class FailingListener implements MetricsListener {
+    static {
+      if (true) {
+        throw new IllegalStateException("Failing listener.");
+      }
+    }
+  }
+
+  @Test
+  public void enabled_reportsConversionsErrorsAndCache() throws Exception {
+    // ENABLED is fixed when RangeMetrics is initialized, so the library is loaded afresh with
+    // the listener configured.
+    String previous = System.setProperty(RangeMetrics.LISTENER_PROPERTY,
+        StripedMetricsListener.class.getName());
+    try {
+      ClassLoader loader = new IsolatedLoader(getClass().getClassLoader());
+      ((Runnable) loader.loadClass(EnabledScenario.class.getName()).newInstance()).run();
+    } finally {
+      if (previous == null) {
+        System.clearProperty(RangeMetrics.LISTENER_PROPERTY);
+      } else {
+        System.setProperty(RangeMetrics.LISTENER_PROPERTY, previous);
+      }
+    }
+  }
+
+  /** Runs conversions with metrics enabled; loaded only by an {@link IsolatedLoader}. */
+  public static final class EnabledScenario implements Runnable {
+    @Override
+    public void run() {
+      assertTrue(RangeMetrics.isEnabled());
+      StripedMetricsListener metrics = (StripedMetricsListener) RangeMetrics.getListener();
+
+      Ranges.forRange("'My Sheet'!A1:B2");
+      Ranges.forRange("Test!A:B");
+      assertEquals(2, metrics.getConversionCount(Operation.FOR_RANGE));
+      assertEquals(1, metrics.getQuotedCount(Operation.FOR_RANGE));
+      assertEquals(1, metrics.getBoundedCount(Operation.FOR_RANGE));
+      long[] histogram = metrics.getLatencyHistogram(Operation.FOR_RANGE);
+      long total = 0;
+      for (long count : histogram) {
+        total += count;
+      }
+      assertEquals(2, total);
+
+      for (String range : new String[] {"Test!A1B", "'" + Strings.repeat("x", 100) + "'!A1"}) {
+        try {
+          Ranges.forRange(range);
+          fail(range);
+        } catch (IllegalArgumentException e) {
+          // Expected, as the range is invalid.
+        }
+      }
+      assertEquals(1, metrics.getErrorCount(Operation.FOR_RANGE, ParseResult.SYNTAX_ERROR));
+      assertEquals(1,
+          metrics.getErrorCount(Operation.FOR_RANGE, ParseResult.INVALID_SHEET_NAME));
+      assertEquals(2, metrics.getConversionCount(Operation.FOR_RANGE));
+
+      assertEquals("'My Sheet'!A1:B2",
+          Ranges.forValue(Range.parse("'My Sheet'!A1:B2")).toRange());
+      assertEquals(1, metrics.getConversionCount(Operation.TO_RANGE));
+      assertEquals(1, metrics.getQuotedCount(Operation.TO_RANGE));
+      assertEquals(1, metrics.getBoundedCount(Operation.TO_RANGE));
+      GridRange gridRange = new GridRange();
+      gridRange.setSheetId(3);
+      gridRange.setStartColumnIndex(0);
+      gridRange.setEndColumnIndex(1);
+      gridRange.setStartRowIndex(0);
+      gridRange.setEndRowIndex(1);
+      for (Ranges.RangeContext context : new Ranges.RangeContext[] {
+          Ranges.forGridRange(gridRange), Ranges.forSheetName("Test").withStartColumn(5)}) {
+        try {
+          context.toRange();
+          fail();
+        } catch (IllegalStateException e) {
+          // Expected, as the context has no sheet name or cannot be expressed in A1 notation.
+        }
+      }
+      assertEquals(1, metrics.getErrorCount(Operation.TO_RANGE, ParseResult.INVALID_SHEET_NAME));
+      assertEquals(1, metrics.getErrorCount(Operation.TO_RANGE, ParseResult.INEXPRESSIBLE));
+      assertEquals(1, metrics.getConversionCount(Operation.TO_RANGE));
+
+      Ranges.forRange("Test!A1:B2").toGridRange();
+      Ranges.forRange("Test!A:B").toGridRange();
+      assertEquals(2, metrics.getConversionCount(Operation.TO_GRID_RANGE));
+      assertEquals(1, metrics.getBoundedCount(Operation.TO_GRID_RANGE));
+      assertEquals(0, metrics.getQuotedCount(Operation.TO_GRID_RANGE));
+
+      RangeCache cache = RangeCache.create(16);
+      cache.parse("Test!A1");
+      cache.parse("Test!A1");
+      cache.parse("Test!B1");
+      assertEquals(1, metrics.getCacheHitCount());
+      assertEquals(2, metrics.getCacheMissCount());
+    }
+  }
+
+  /** Loads the library's classes afresh, so that their static state is initialized again. */
+  private static final class IsolatedLoader extends ClassLoader {
+    IsolatedLoader(ClassLoader parent) {
+      super(parent);
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+      if (!name.startsWith("io.github.plemont.ranges.")) {
+        return super.loadClass(name, resolve);
+      }
+      synchronized (getClassLoadingLock(name)) {
+        Class<?> loaded = findLoadedClass(name);
+        if (loaded == null) {
+          String resource = name.replace('.', '/') + ".class";
+          try (InputStream in = getParent().getResourceAsStream(resource)) {
+            if (in == null) {
+              throw new ClassNotFoundException(name);
+            }
+            byte[] bytes = ByteStreams.toByteArray(in);
+            loaded = defineClass(name, bytes, 0, bytes.length);
+          } catch (IOException e) {
+            throw new ClassNotFoundException(name, e);
+          }
+        }
+        if (resolve) {
+          resolveClass(loaded);
+        }
+        return loaded;
+      }
+    }
+  }
+}
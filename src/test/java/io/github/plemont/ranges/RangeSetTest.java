@@ -0,0 +1,172 @@
+package io.github.plemont.ranges;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+import static io.github.plemont.ranges.RangeFixtures.a1;
+import static io.github.plemont.ranges.RangeFixtures.ranges;
+import static org.junit.Assert.*;
+
+public class RangeSetTest {
+
+  private static RangeSet set(String... ranges) {
+    return RangeSet.of(ranges(ranges));
+  }
+
+  @Test
+  public void of_mergesOverlappingAndAdjacentRanges() {
+    RangeSet set = set("Test!A1:B2", "Test!C1:D2", "Test!A3:D4", "Test!B2:C3");
+    assertEquals(Arrays.asList("Test!A1:D4"), a1(set.toRanges()));
+    assertEquals(16, set.cellCount());
+  }
+
+  @Test
+  public void of_canonicalDecomposition() {
+    RangeSet set = set("Test!A1:B4", "Test!D1:E2", "Test!D3:D4");
+    assertEquals(Arrays.asList("Test!A1:B2", "Test!D1:E2", "Test!A3:B4", "Test!D3:D4"),
+        a1(set.toRanges()));
+    assertEquals(set, set("Test!D3:D4", "Test!A3:B4", "Test!D1:E2", "Test!A1:B2"));
+  }
+
+  @Test
+  public void union() {
+    assertEquals(Arrays.asList("Test!A1:C3"),
+        a1(set("Test!A1:B3").union(set("Test!C1:C3")).toRanges()));
+  }
+
+  @Test
+  public void intersection() {
+    RangeSet result = set("Test!A1:D4").intersection(set("Test!C3:F6", "Test!A1"));
+    assertEquals(Arrays.asList("Test!A1", "Test!C3:D4"), a1(result.toRanges()));
+  }
+
+  @Test
+  public void difference_punchesHole() {
+    RangeSet result = set("Test!A1:C3").difference(set("Test!B2"));
+    assertEquals(Arrays.asList("Test!A1:C1", "Test!A2", "Test!C2", "Test!A3:C3"),
+        a1(result.toRanges()));
+    assertEquals(8, result.cellCount());
+  }
+
+  @Test
+  public void difference_unboundedRanges() {
+    RangeSet result = set("Test").difference(set("Test!A:B"));
+    assertEquals(1, result.getRectangleCount());
+    Range range = result.toRanges().get(0);
+    assertEquals(2, range.getStartColumn());
+    assertTrue(result.contains(1000, 1000000));
+    assertFalse(result.contains(1, 0));
+    assertEquals(RangeSet.of(range), result);
+    assertEquals(Arrays.asList("Test!A5:B"),
+        a1(set("Test!A:B").difference(set("Test!1:4")).toRanges()));
+    assertEquals(Arrays.asList("Test!1:4"),
+        a1(set("Test").intersection(set("Test!1:4")).toRanges()));
+  }
+
+  @Test
+  public void contains() {
+    RangeSet set = set("Test!A1:B4", "Test!D1:E2");
+    assertTrue(set.contains(0, 0));
+    assertTrue(set.contains(4, 1));
+    assertFalse(set.contains(2, 0));
+    assertFalse(set.contains(4, 2));
+    assertTrue(set.contains(Range.parse("Test!A2:B4")));
+    assertFalse(set.contains(Range.parse("Test!A1:D1")));
+    assertTrue(set.containsAll(set("Test!E2", "Test!A4")));
+    assertFalse(set.containsAll(set("Test!C2")));
+  }
+
+  @Test
+  public void intersects() {
+    RangeSet set = set("Test!A1:B4", "Test!D1:E2");
+    assertTrue(set.intersects(Range.parse("Test!C2:D9")));
+    assertFalse(set.intersects(Range.parse("Test!C1:C9")));
+    assertFalse(set.intersects(Range.parse("Test!D3:Z9")));
+    assertFalse(set.intersects(Range.parse("Test!5:5")));
+    assertTrue(set.intersects(set("Test!B4:B9")));
+    assertFalse(set.intersects(set("Test!F1:F9")));
+  }
+
+  @Test
+  public void union_differentSheets() {
+    try {
+      set("Test!A1").union(set("Other!A1"));
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Expected exception as the ranges are on different sheets.
+    }
+  }
+
+  @Test
+  public void of_mixedNameAndId() {
+    RangeSet set = RangeSet.of(Range.parse("Test!A1"), Range.of(null, 5, 1, 0, 1, 0));
+    assertEquals("Test", set.getSheetName());
+    assertEquals(5, set.getSheetId());
+    assertEquals(Range.of("Test", 5, 0, 0, 1, 0), set.toRanges().get(0));
+  }
+
+  @Test
+  public void empty() {
+    assertTrue(RangeSet.empty().isEmpty());
+    assertTrue(RangeSet.of().isEmpty());
+    assertTrue(set("Test!A1:B2").difference(set("Test!A1:C3")).isEmpty());
+    assertEquals(0, RangeSet.empty().cellCount());
+  }
+
+  @Test
+  public void operations_matchCellByCell() {
+    Random random = new Random(42);
+    for (int trial = 0; trial < 200; trial++) {
+      List<Range> a = randomRanges(random);
+      List<Range> b = randomRanges(random);
+      RangeSet setA = RangeSet.of(a);
+      RangeSet setB = RangeSet.of(b);
+      RangeSet union = setA.union(setB);
+      RangeSet intersection = setA.intersection(setB);
+      RangeSet difference = setA.difference(setB);
+      long unionCount = 0;
+      for (int column = 0; column < 12; column++) {
+        for (int row = 0; row < 12; row++) {
+          boolean inA = covers(a, column, row);
+          boolean inB = covers(b, column, row);
+          assertEquals(inA, setA.contains(column, row));
+          assertEquals(inA || inB, union.contains(column, row));
+          assertEquals(inA && inB, intersection.contains(column, row));
+          assertEquals(inA && !inB, difference.contains(column, row));
+          unionCount += inA || inB ? 1 : 0;
+        }
+      }
+      assertEquals(unionCount, union.cellCount());
+      assertEquals(union, RangeSet.of(union.toRanges()));
+      for (Range range : b) {
+        assertEquals(!RangeSet.of(range).intersection(setA).isEmpty(), setA.intersects(range));
+        assertEquals(RangeSet.of(range).difference(setA).isEmpty(), setA.contains(range));
+      }
+    }
+  }
+
+  private static List<Range> randomRanges(Random random) {
+    List<Range> ranges = new ArrayList<>();
+    int count = random.nextInt(6);
+    for (int i = 0; i < count; i++) {
+      int column = random.nextInt(10);
+      int row = random.nextInt(10);
+      ranges.add(Range.of("Test", column, row, column + random.nextInt(3),
+          row + random.nextInt(3)));
+    }
+    return ranges;
+  }
+
+  private static boolean covers(List<Range> ranges, int column, int row) {
+    for (Range range : ranges) {
+      if (column >= range.getStartColumn() && column <= range.getEndColumn()
+          && row >= range.getStartRow() && row <= range.getEndRow()) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,180 @@
+package io.github.plemont.ranges;
+
+import com.google.api.services.sheets.v4.model.GridRange;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RangeTest {
+
+  @Test
+  public void parse_boundedRange() {
+    Range range = Range.parse("'Brian''s Sheet'!B4:D10");
+    assertEquals("Brian's Sheet", range.getSheetName());
+    assertEquals(1, range.getStartColumn());
+    assertEquals(3, range.getStartRow());
+    assertEquals(3, range.getEndColumn());
+    assertEquals(9, range.getEndRow());
+    assertEquals(Range.NO_SHEET_ID, range.getSheetId());
+    assertTrue(range.isBounded());
+  }
+
+  @Test
+  public void parse_unboundedRows() {
+    Range range = Range.parse("Test!C:D");
+    assertEquals(Range.UNBOUNDED, range.getStartRow());
+    assertEquals(Range.UNBOUNDED, range.getEndRow());
+    assertFalse(range.isBounded());
+    assertEquals("Test!C:D", range.toA1());
+  }
+
+  @Test
+  public void parse_invalidRange() {
+    try {
+      Range.parse("Test!A:5");
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Expected exception for an invalid range specification.
+    }
+  }
+
+  @Test
+  public void of_endWithoutStart() {
+    try {
+      Range.of("Test", Range.UNBOUNDED, 0, 4, 0);
+      fail();
+    } catch (IllegalArgumentException e) {
+      // An end column cannot be set without a start column.
+    }
+  }
+
+  @Test
+  public void of_endBeforeStart() {
+    try {
+      Range.of("Test", 4, 0, 2, 0);
+      fail();
+    } catch (IllegalArgumentException e) {
+      // The end column cannot be before the start column.
+    }
+  }
+
+  @Test
+  public void equals_sameCoordinates() {
+    Range a = Range.parse("Test!A1:B2");
+    Range b = Range.of(new String("Test"), 0, 0, 1, 1);
+    assertEquals(a, b);
+    assertEquals(a.hashCode(), b.hashCode());
+    assertSame(a.getSheetName(), b.getSheetName());
+    assertEquals(0, a.compareTo(b));
+  }
+
+  @Test
+  public void equals_differentSheetId() {
+    Range a = Range.parse("Test!A1:B2");
+    assertNotEquals(a, a.withSheetId(3));
+  }
+
+  @Test
+  public void compareTo_unboundedEndSortsLast() {
+    Range bounded = Range.parse("Test!A1:B2000");
+    Range unbounded = Range.parse("Test!A1:B");
+    Range later = Range.parse("Test!A2:B3");
+    List<Range> ranges = Arrays.asList(later, unbounded, bounded);
+    ranges.sort(null);
+    assertEquals(Arrays.asList(bounded, unbounded, later), ranges);
+  }
+
+  @Test
+  public void fromGridRange_roundTrip() {
+    GridRange gridRange = new GridRange();
+    gridRange.setSheetId(7);
+    gridRange.setStartColumnIndex(0);
+    gridRange.setStartRowIndex(0);
+    gridRange.setEndColumnIndex(10);
+    gridRange.setEndRowIndex(10);
+    Range range = Range.fromGridRange(gridRange);
+    assertEquals(7, range.getSheetId());
+    assertEquals(9, range.getEndColumn());
+    assertEquals("Test!A1:J10", range.withSheetName("Test").toA1());
+    assertEquals(gridRange, range.toGridRange());
+  }
+
+  @Test
+  public void fromGridRange_unboundedStart() {
+    GridRange gridRange = new GridRange();
+    gridRange.setSheetId(0);
+    gridRange.setEndRowIndex(5);
+    Range range = Range.fromGridRange(gridRange).withSheetName("Test");
+    assertEquals("Test!1:5", range.toA1());
+  }
+
+  @Test
+  public void fromGridRange_empty() {
+    GridRange[] gridRanges = {
+        new GridRange().setSheetId(0).setStartRowIndex(0).setEndRowIndex(0),
+        new GridRange().setSheetId(0).setEndColumnIndex(0),
+        new GridRange().setSheetId(0).setStartColumnIndex(4).setEndColumnIndex(3),
+    };
+    for (GridRange gridRange : gridRanges) {
+      try {
+        Range.fromGridRange(gridRange);
+        fail(gridRange.toString());
+      } catch (IllegalArgumentException e) {
+        // Expected, as the GridRange holds no cells.
+      }
+    }
+  }
+
+  @Test
+  public void rangeContext_roundTrip() {
+    Range range = Ranges.forSheetName("Test").withSheetId(2).withStartCell("B3").withEndCell("D")
+        .toValue();
+    assertEquals(Range.of("Test", 2, 1, 2, 3, Range.UNBOUNDED), range);
+    assertEquals("Test!C3:E", Ranges.forValue(range).translate(1, 0).toRange());
+    assertEquals(range, Ranges.forValue(range).toValue());
+  }
+
+  @Test
+  public void toA1_noSheetName() {
+    try {
+      Range.of(null, 0, 0, 1, 1).toA1();
+      fail();
+    } catch (IllegalStateException e) {
+      // Expected, cannot convert to a range where the sheet name is not set.
+    }
+  }
+
+  @Test
+  public void builder_ordersBounds() {
+    ParseResult result = Range.builder().withSheetName("Test").withSheetId(3).withEndCell("B2")
+        .withStartCell("D5").build();
+    assertTrue(result.isValid());
+    assertEquals(Range.of("Test", 3, 1, 1, 3, 4), result.getRange());
+    assertEquals(Range.of(null, 0, 2, Range.UNBOUNDED, Range.UNBOUNDED),
+        Range.builder().withStartColumn(0).withStartRow(2).build().getRange());
+  }
+
+  @Test
+  public void builder_reportsFirstError() {
+    ParseResult result = Range.builder().withStartCell("AB0").withSheetId(-5).build();
+    assertFalse(result.isValid());
+    assertEquals(ParseResult.ZERO_COORDINATE, result.getErrorCode());
+    assertEquals(2, result.getErrorOffset());
+
+    result = Range.builder().withSheetName("").withStartCell("A1").build();
+    assertEquals(ParseResult.INVALID_SHEET_NAME, result.getErrorCode());
+    assertEquals(-1, result.getErrorOffset());
+
+    result = Range.builder().withStartRow(-2).build();
+    assertEquals(ParseResult.COORDINATE_OUT_OF_RANGE, result.getErrorCode());
+  }
+
+  @Test
+  public void builder_endWithoutStart() {
+    ParseResult result = Range.builder().withStartCell("A").withEndCell("C5").build();
+    assertEquals(ParseResult.END_WITHOUT_START, result.getErrorCode());
+    assertNull(result.getRange());
+  }
+}
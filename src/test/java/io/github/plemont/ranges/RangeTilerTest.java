@@ -0,0 +1,123 @@
+package io.github.plemont.ranges;
+
+import com.google.api.services.sheets.v4.model.GridProperties;
+import com.google.api.services.sheets.v4.model.GridRange;
+import com.google.api.services.sheets.v4.model.Sheet;
+import com.google.api.services.sheets.v4.model.SheetProperties;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+import static io.github.plemont.ranges.RangeFixtures.a1;
+import static org.junit.Assert.*;
+
+public class RangeTilerTest {
+
+  private static SheetRegistry registry() {
+    SheetProperties props = new SheetProperties();
+    props.setSheetId(9);
+    props.setTitle("Data");
+    GridProperties grid = new GridProperties();
+    grid.setRowCount(10);
+    grid.setColumnCount(4);
+    props.setGridProperties(grid);
+    Sheet sheet = new Sheet();
+    sheet.setProperties(props);
+    return SheetRegistry.of(Collections.singletonList(sheet));
+  }
+
+  @Test
+  public void tile_rowBands() {
+    List<Range> tiles = RangeTiler.ofMaxCells(12).tile(Range.parse("Data!A1:C10"), 1000, 26);
+    assertEquals(Arrays.asList("Data!A1:C4", "Data!A5:C8", "Data!A9:C10"), a1(tiles));
+  }
+
+  @Test
+  public void tile_wideRangeSplitsColumns() {
+    List<Range> tiles = RangeTiler.ofMaxCells(4).tile(Range.parse("Data!A1:F2"), 1000, 26);
+    assertEquals(Arrays.asList("Data!A1:D1", "Data!E1:F1", "Data!A2:D2", "Data!E2:F2"),
+        a1(tiles));
+  }
+
+  @Test
+  public void tile_maxColumns() {
+    List<Range> tiles = RangeTiler.ofMaxCells(4).withMaxColumns(2)
+        .tile(Range.parse("Data!A1:D4"), 1000, 26);
+    assertEquals(Arrays.asList("Data!A1:B2", "Data!C1:D2", "Data!A3:B4", "Data!C3:D4"),
+        a1(tiles));
+  }
+
+  @Test
+  public void tile_clampsUnboundedRangeToRegistryDimensions() {
+    List<String> tiles = RangeTiler.ofMaxCells(20).tileToA1(Range.parse("Data!B:ZZ"), registry());
+    assertEquals(Arrays.asList("Data!B1:D6", "Data!B7:D10"), tiles);
+  }
+
+  @Test
+  public void tile_wholeSheet() {
+    List<Range> tiles = RangeTiler.ofMaxBytes(400, 10).tile(Range.parse("Data"), registry());
+    assertEquals(Arrays.asList("Data!A1:D10"), a1(tiles));
+    assertEquals(9, tiles.get(0).getSheetId());
+  }
+
+  @Test
+  public void tile_outsideGrid() {
+    assertTrue(RangeTiler.ofMaxCells(10).tile(Range.parse("Data!A20:B30"), registry()).isEmpty());
+  }
+
+  @Test
+  public void tileToGridRanges() {
+    GridRange gridRange = new GridRange();
+    gridRange.setSheetId(9);
+    gridRange.setStartColumnIndex(0);
+    gridRange.setEndColumnIndex(2);
+    List<GridRange> tiles = RangeTiler.ofMaxCells(10).tileToGridRanges(gridRange, registry());
+    assertEquals(2, tiles.size());
+    assertEquals(0, tiles.get(0).getStartRowIndex().intValue());
+    assertEquals(5, tiles.get(0).getEndRowIndex().intValue());
+    assertEquals(10, tiles.get(1).getEndRowIndex().intValue());
+    assertEquals(2, tiles.get(1).getEndColumnIndex().intValue());
+  }
+
+  @Test
+  public void tile_registryWithoutDimensions() {
+    SheetProperties props = new SheetProperties();
+    props.setSheetId(3);
+    props.setTitle("Unsized");
+    Sheet sheet = new Sheet();
+    sheet.setProperties(props);
+    SheetRegistry registry = SheetRegistry.of(Collections.singletonList(sheet));
+    try {
+      RangeTiler.ofMaxCells(10).tile(Range.parse("Unsized!A1:B2"), registry);
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Expected, as the tiles cannot be clamped to an unknown grid.
+    }
+  }
+
+  @Test
+  public void ofMaxBytes_cellTooLarge() {
+    try {
+      RangeTiler.ofMaxBytes(10, 20);
+      fail();
+    } catch (IllegalArgumentException e) {
+      // A single cell cannot exceed the maximum size.
+    }
+  }
+
+  @Test
+  public void tile_coversRangeExactly() {
+    Range range = Range.parse("Data!C3:Q77");
+    List<Range> tiles = RangeTiler.ofMaxCells(37).withMaxColumns(5).tile(range, 1000, 26);
+    assertEquals(RangeSet.of(range), RangeSet.of(tiles));
+    long cells = 0;
+    for (Range tile : tiles) {
+      long tileCells = (long) (tile.getEndColumn() - tile.getStartColumn() + 1)
+          * (tile.getEndRow() - tile.getStartRow() + 1);
+      assertTrue(tileCells <= 37);
+      cells += tileCells;
+    }
+    assertEquals(RangeSet.of(range).cellCount(), cells);
+  }
+}
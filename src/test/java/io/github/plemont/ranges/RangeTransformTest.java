@@ -0,0 +1,144 @@
+package io.github.plemont.ranges;
+
+import com.google.api.services.sheets.v4.model.GridRange;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RangeTransformTest {
+
+  @Test
+  public void apply_matchesRangeContext() {
+    Random random = new Random(20);
+    for (int trial = 0; trial < 2000; trial++) {
+      RangeTransform.Builder builder = RangeTransform.builder();
+      int[][] steps = new int[1 + random.nextInt(4)][];
+      for (int i = 0; i < steps.length; i++) {
+        steps[i] = new int[] {random.nextInt(4), random.nextInt(7) - 3, random.nextInt(7) - 3};
+        switch (steps[i][0]) {
+          case 0:
+            builder.translate(steps[i][1], steps[i][2]);
+            break;
+          case 1:
+            builder.expandColumns(Math.abs(steps[i][1]) + 1).expandRows(Math.abs(steps[i][2]) + 1);
+            break;
+          case 2:
+            builder.withWidth(Math.abs(steps[i][1]) + 1);
+            break;
+          default:
+            builder.withHeight(Math.abs(steps[i][2]) + 1);
+            break;
+        }
+      }
+      RangeTransform transform = builder.build();
+
+      int startColumn = random.nextInt(5);
+      int startRow = random.nextInt(5);
+      Range range = random.nextInt(4) == 0
+          ? Range.of("Test", 4, startColumn, startRow, startColumn + random.nextInt(3),
+              Range.UNBOUNDED)
+          : Range.of("Test", 4, startColumn, startRow, startColumn + random.nextInt(3),
+              startRow + random.nextInt(3));
+      Range expected;
+      try {
+        Ranges.RangeContext context = Ranges.forValue(range);
+        for (int[] step : steps) {
+          switch (step[0]) {
+            case 0:
+              context.translate(step[1], step[2]);
+              break;
+            case 1:
+              context.expandColumns(Math.abs(step[1]) + 1).expandRows(Math.abs(step[2]) + 1);
+              break;
+            case 2:
+              context.withWidth(Math.abs(step[1]) + 1);
+              break;
+            default:
+              context.withHeight(Math.abs(step[2]) + 1);
+              break;
+          }
+        }
+        expected = context.toValue();
+      } catch (IllegalArgumentException | IllegalStateException e) {
+        expected = null;
+      }
+      assertEquals(transform.toString() + " " + range, expected, transform.apply(range));
+    }
+  }
+
+  @Test
+  public void apply_clip() {
+    RangeTransform transform = RangeTransform.builder().translate(2, 2).clip(5, 10).build();
+    assertEquals(Range.parse("Test!C3:E10"), transform.apply(Range.parse("Test!A1:Z100")));
+    assertEquals(Range.parse("Test!C3:E"), transform.apply(Range.parse("Test!A1:Z")));
+    assertNull(transform.apply(Range.parse("Test!D1:E2")));
+    assertEquals(Range.parse("Test!1:2"), RangeTransform.builder().clip(5, 10).build()
+        .apply(Range.parse("Test!1:2")));
+  }
+
+  @Test
+  public void apply_clipThenExpand() {
+    RangeTransform transform = RangeTransform.builder().clip(5, 5).expandRows(2).build();
+    assertEquals(Range.parse("Test!A1:E7"), transform.apply(Range.parse("Test!A1:Z100")));
+    transform = RangeTransform.builder().clip(5, 5).withHeight(10).build();
+    assertEquals(Range.parse("Test!A2:E11"), transform.apply(Range.parse("Test!A2:Z100")));
+  }
+
+  @Test
+  public void apply_transpose() {
+    RangeTransform transform = RangeTransform.builder().transpose().build();
+    assertEquals(Range.parse("Test!A2:B4"), transform.apply(Range.parse("Test!B1:D2")));
+    assertEquals(Range.parse("Test!1:3"), transform.apply(Range.parse("Test!A:C")));
+    transform = RangeTransform.builder().translate(1, 0).transpose().expandColumns(1).build();
+    assertEquals(Range.parse("Test!A2:B2"), transform.apply(Range.parse("Test!A1")));
+  }
+
+  @Test
+  public void apply_gridRange() {
+    RangeTransform transform = RangeTransform.builder().translate(1, 1).build();
+    GridRange gridRange = transform.apply(Range.parse("Test!A1:B2").withSheetId(3).toGridRange());
+    assertEquals(Range.of(null, 3, 1, 1, 2, 2), Range.fromGridRange(gridRange));
+  }
+
+  @Test
+  public void applyAll_matchesApply() {
+    Random random = new Random(21);
+    RangeArray ranges = RangeArray.create();
+    RangeArray copy = RangeArray.create();
+    for (int i = 0; i < 10000; i++) {
+      int startColumn = random.nextInt(50);
+      int startRow = random.nextInt(50);
+      ranges.append(0, startColumn, startRow, startColumn + random.nextInt(5),
+          startRow + random.nextInt(5));
+      copy.append(ranges.get(i));
+    }
+    RangeTransform transform =
+        RangeTransform.builder().translate(-5, 3).expandRows(2).clip(40, 40).transpose().build();
+    ShiftReport report = transform.applyAll(ranges);
+    ShiftReport parallelReport = transform.applyAllParallel(copy);
+    assertArrayEquals(report.getInvalidatedIndexes(), parallelReport.getInvalidatedIndexes());
+    assertEquals(report.getShiftedCount(), parallelReport.getShiftedCount());
+    assertTrue(report.getInvalidatedCount() > 0);
+    assertEquals(ranges.size(), report.getInvalidatedCount() + report.getShiftedCount());
+    for (int i = 0; i < ranges.size(); i++) {
+      assertEquals(ranges.get(i), copy.get(i));
+    }
+  }
+
+  @Test
+  public void builder_validatesOnce() {
+    try {
+      RangeTransform.builder().withWidth(0);
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Expected, as the width must be positive.
+    }
+    try {
+      RangeTransform.builder().clip(0, 10);
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Expected, as the grid must have columns.
+    }
+  }
+}
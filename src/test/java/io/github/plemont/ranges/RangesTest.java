@@ -4,7 +4,12 @@ import com.google.api.services.sheets.v4.model.GridCoordinate;
 import com.google.api.services.sheets.v4.model.GridRange;
 import com.google.api.services.sheets.v4.model.Sheet;
 import com.google.api.services.sheets.v4.model.SheetProperties;
+import com.google.common.base.Strings;
+import java.io.StringWriter;
 import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -569,6 +574,46 @@ public class RangesTest {
         Ranges.forRange("Test!A1").translate(3, 5).toRange());
   }
 
+  @Test
+  public void forRange_quotedPlainName() {
+    assertEquals("Sheet1!A1:B2", Ranges.forRange("'Sheet1'!A1:B2").toRange());
+  }
+
+  @Test
+  public void forRange_onlyEscapedQuote() {
+    assertEquals("'", Ranges.forRange("''''").getSheetName());
+  }
+
+  @Test
+  public void forRange_unterminatedQuote() {
+    try {
+      Ranges.forRange("'Brian''s Sheet!A1");
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Expected exception for a quoted sheet name with no closing quote.
+    }
+  }
+
+  @Test
+  public void forRange_lowerCaseColumn() {
+    try {
+      Ranges.forRange("Test!a1:B2");
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Expected exception for a column that is not upper case.
+    }
+  }
+
+  @Test
+  public void forRange_rowOverflow() {
+    try {
+      Ranges.forRange("Test!A1:B99999999999");
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Expected exception for a row number that does not fit in an int.
+    }
+  }
+
   @Test
   public void forRange_rowAndColumnOnlyPair() {
     try {
@@ -579,6 +624,207 @@ public class RangesTest {
     }
   }
 
+  @Test
+  public void appendRange_stringBuilder() {
+    StringBuilder sb = new StringBuilder("ranges=");
+    Ranges.forRange("'Brian''s Sheet'!B4:D").appendRange(sb).append(',');
+    Ranges.forRange("Test!4:20").appendRange(sb);
+    assertEquals("ranges='Brian''s Sheet'!B4:D,Test!4:20", sb.toString());
+  }
+
+  @Test
+  public void appendRange_appendable() throws Exception {
+    StringWriter writer = new StringWriter();
+    Ranges.forRange("'Q3 Sales'!AB100:ZZZ1048576").appendRange(writer);
+    assertEquals("'Q3 Sales'!AB100:ZZZ1048576", writer.toString());
+  }
+
+  @Test
+  public void appendRange_invalidAppendsNothing() {
+    StringBuilder sb = new StringBuilder();
+    try {
+      Ranges.forRange("'Brian''s Sheet'!A:B").clearEndColumn().appendRange(sb);
+      fail();
+    } catch (IllegalStateException e) {
+      // Expect an exception when just the start column is set only.
+    }
+    assertEquals(0, sb.length());
+  }
+
+  @Test
+  public void parse_sliceOfBuffer() {
+    String buffer = "{\"range\":\"'Q3 Sales'!A1:Z\",\"other\":1}";
+    int start = buffer.indexOf('\'');
+    ParseResult result = Ranges.parse(buffer, start, buffer.length());
+    assertEquals(Range.parse("'Q3 Sales'!A1:Z"), result.getRange());
+    assertEquals("'Q3 Sales'!A1:Z".length(), result.getConsumed());
+  }
+
+  @Test
+  public void parse_walksSeparatedRanges() {
+    char[] buffer = "Sheet1!A1:B2,Sheet2!C:D,'My Sheet',Sheet3!4:5".toCharArray();
+    List<String> ranges = new ArrayList<>();
+    int i = 0;
+    while (i < buffer.length) {
+      ParseResult result = Ranges.parse(buffer, i, buffer.length);
+      ranges.add(result.getRange().toA1());
+      i += result.getConsumed() + 1;
+    }
+    assertEquals(Arrays.asList("Sheet1!A1:B2", "Sheet2!C:D", "'My Sheet'", "Sheet3!4:5"), ranges);
+  }
+
+  @Test
+  public void parse_stopsBeforeTrailingColon() {
+    ParseResult result = Ranges.parse("Test!B2: next", 0, 13);
+    assertEquals("Test!B2", result.getRange().toA1());
+    assertEquals(7, result.getConsumed());
+  }
+
+  @Test
+  public void parse_respectsEnd() {
+    ParseResult result = Ranges.parse("Test!A1:B20", 0, 10);
+    assertEquals("Test!A1:B2", result.getRange().toA1());
+    assertEquals(10, result.getConsumed());
+  }
+
+  @Test
+  public void parse_noRangeAtStart() {
+    try {
+      Ranges.parse("  Test!A1", 0, 9);
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Expected exception as no range starts at the first character.
+    }
+  }
+
+  @Test
+  public void parse_invalidSlice() {
+    try {
+      Ranges.parse("Test!A1", 2, 8);
+      fail();
+    } catch (IndexOutOfBoundsException e) {
+      // Expected exception as the slice extends beyond the sequence.
+    }
+  }
+
+  @Test
+  public void tryParse_validRange() {
+    ParseResult result = Ranges.tryParse("'Q3 Sales'!B2:D");
+    assertTrue(result.isValid());
+    assertEquals(Range.parse("'Q3 Sales'!B2:D"), result.getRange());
+    assertEquals(15, result.getConsumed());
+    assertEquals(ParseResult.OK, result.getErrorCode());
+    assertEquals(-1, result.getErrorOffset());
+    assertNull(result.getErrorMessage());
+  }
+
+  @Test
+  public void tryParse_reportsErrorCodeAndOffset() {
+    assertError(ParseResult.ZERO_COORDINATE, 6, Ranges.tryParse("Test!A0"));
+    assertError(ParseResult.SYNTAX_ERROR, 7, Ranges.tryParse("Test!A1b"));
+    assertError(ParseResult.MIXED_DIMENSIONS, 8, Ranges.tryParse("Test!A:5"));
+    assertError(ParseResult.SINGLE_DIMENSION, 6, Ranges.tryParse("Test!A"));
+    assertError(ParseResult.MISSING_END_CELL, 8, Ranges.tryParse("Test!A1:"));
+    assertError(ParseResult.INVALID_SHEET_NAME, 8, Ranges.tryParse("'Test!A1"));
+    assertError(ParseResult.COORDINATE_OUT_OF_RANGE, 6, Ranges.tryParse("Test!A99999999999"));
+    assertError(ParseResult.INVALID_SHEET_NAME, 0, Ranges.tryParse(Strings.repeat("a", 100)));
+  }
+
+  @Test
+  public void tryParse_sliceOffsetsRelativeToStart() {
+    String buffer = "Test!A1,Test!B0,Test!C3";
+    ParseResult first = Ranges.tryParse(buffer, 0, buffer.length());
+    assertEquals(7, first.getConsumed());
+    assertError(ParseResult.ZERO_COORDINATE, 6, Ranges.tryParse(buffer, 8, buffer.length()));
+    assertEquals("Test!C3", Ranges.tryParse(buffer, 16, buffer.length()).getRange().toA1());
+  }
+
+  @Test
+  public void tryParse_agreesWithForRange() {
+    String[] inputs = {"Test", "Test!A1:B2", "Test!B2:A1", "Test!A:C", "Test!2:5", "Test!A5:C",
+        "'It''s'!A1", "Test!", "Test!:A1", "Test!1:A", "Test!a1", "Test!A1:B2:C3", "''!A1",
+        "Test!A1:0", "Test!ZZZZZZZ1", "Te st!A1"};
+    for (String input : inputs) {
+      ParseResult result = Ranges.tryParse(input);
+      try {
+        Range expected = Range.parse(input);
+        assertEquals(input, expected, result.getRange());
+      } catch (IllegalArgumentException e) {
+        // The same input must be rejected, for the same reason.
+        assertFalse(input, result.isValid());
+        assertEquals(input, e.getMessage(), result.getErrorMessage());
+      }
+    }
+  }
+
+  @Test
+  public void withStartCell_invalidCell() {
+    try {
+      Ranges.forSheetName("Test").withStartCell("A0");
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Expected exception as rows are 1-indexed.
+    }
+  }
+
+  private static void assertError(int errorCode, int errorOffset, ParseResult result) {
+    assertFalse(result.isValid());
+    assertNull(result.getRange());
+    assertEquals(result.toString(), errorCode, result.getErrorCode());
+    assertEquals(result.toString(), errorOffset, result.getErrorOffset());
+    assertNotNull(result.getErrorMessage());
+  }
+
+  @Test
+  public void parseAll_reportsErrorsPerEntry() {
+    BatchResult<Range> result = Ranges.parseAll(
+        Arrays.asList("Test!A1:B2", "Test!A:5", null, new StringBuilder("'Q3 Sales'!C:D")));
+    assertEquals(4, result.size());
+    assertEquals(2, result.getErrorCount());
+    assertEquals(Range.of("Test", 0, 0, 1, 1), result.get(0));
+    assertFalse(result.isValid(1));
+    assertNull(result.get(1));
+    assertNotNull(result.getError(1));
+    assertFalse(result.isValid(2));
+    assertEquals("'Q3 Sales'!C:D", result.get(3).toA1());
+    assertNull(result.getError(3));
+  }
+
+  @Test
+  public void parseAllParallel_matchesSequential() {
+    List<String> ranges = IntStream.range(0, 20000)
+        .mapToObj(i -> i % 7 == 0 ? "Test!" + i + ":A" : "Test!A" + (i + 1) + ":C" + (i + 5))
+        .collect(Collectors.toList());
+    BatchResult<Range> sequential = Ranges.parseAll(ranges);
+    BatchResult<Range> parallel = Ranges.parseAllParallel(ranges);
+    assertEquals(sequential.getErrorCount(), parallel.getErrorCount());
+    for (int i = 0; i < ranges.size(); i++) {
+      assertEquals(sequential.get(i), parallel.get(i));
+      assertEquals(sequential.isValid(i), parallel.isValid(i));
+    }
+  }
+
+  @Test
+  public void formatAll_reportsErrorsPerEntry() {
+    BatchResult<String> result = Ranges.formatAll(
+        Arrays.asList(Range.parse("Test!B3"), Range.of(null, 0, 0, 1, 1)));
+    assertEquals("Test!B3", result.get(0));
+    assertEquals(1, result.getErrorCount());
+    assertNull(result.get(1));
+  }
+
+  @Test
+  public void formatAllParallel_matchesInput() {
+    List<Range> ranges = IntStream.range(0, 20000)
+        .mapToObj(i -> Range.of("Test", i, i, i + 1, i + 10))
+        .collect(Collectors.toList());
+    BatchResult<String> result = Ranges.formatAllParallel(ranges);
+    assertEquals(0, result.getErrorCount());
+    for (int i = 0; i < ranges.size(); i++) {
+      assertEquals(ranges.get(i), Range.parse(result.get(i)));
+    }
+  }
+
   @Test
   public void forSheetName_toValidUnboundedRamge() {
     assertEquals("'Today''s Metrics'", Ranges.forSheetName("Today's Metrics").toRange());
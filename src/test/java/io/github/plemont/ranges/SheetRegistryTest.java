@@ -0,0 +1,145 @@
+package io.github.plemont.ranges;
+
+import com.google.api.services.sheets.v4.model.GridProperties;
+import com.google.api.services.sheets.v4.model.GridRange;
+import com.google.api.services.sheets.v4.model.Sheet;
+import com.google.api.services.sheets.v4.model.SheetProperties;
+import com.google.api.services.sheets.v4.model.Spreadsheet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SheetRegistryTest {
+
+  private static Sheet sheet(int sheetId, String title, int rowCount, int columnCount) {
+    SheetProperties props = new SheetProperties();
+    props.setSheetId(sheetId);
+    props.setTitle(title);
+    GridProperties grid = new GridProperties();
+    grid.setRowCount(rowCount);
+    grid.setColumnCount(columnCount);
+    props.setGridProperties(grid);
+    Sheet sheet = new Sheet();
+    sheet.setProperties(props);
+    return sheet;
+  }
+
+  private static GridRange gridRange(Integer sheetId, Integer startColumn, Integer startRow,
+      Integer endColumn, Integer endRow) {
+    GridRange gridRange = new GridRange();
+    gridRange.setSheetId(sheetId);
+    gridRange.setStartColumnIndex(startColumn);
+    gridRange.setStartRowIndex(startRow);
+    gridRange.setEndColumnIndex(endColumn);
+    gridRange.setEndRowIndex(endRow);
+    return gridRange;
+  }
+
+  private final SheetRegistry registry = SheetRegistry.of(new Spreadsheet().setSheets(
+      Arrays.asList(sheet(0, "Sheet1", 1000, 26), sheet(123456, "Brian's Sheet", 50, 10))));
+
+  @Test
+  public void lookups() {
+    assertEquals(2, registry.size());
+    assertEquals("Brian's Sheet", registry.getSheetName(123456));
+    assertEquals("'Brian''s Sheet'", registry.getEscapedSheetName(123456));
+    assertEquals(123456, registry.getSheetId("Brian's Sheet"));
+    assertEquals(50, registry.getRowCount(123456));
+    assertEquals(26, registry.getColumnCount(0));
+    assertTrue(registry.containsSheetId(0));
+    assertFalse(registry.containsSheetId(1));
+    assertFalse(registry.containsSheetName("Sheet2"));
+  }
+
+  @Test
+  public void getSheetName_unknownId() {
+    try {
+      registry.getSheetName(7);
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Sheet ID is not in the registry.
+    }
+  }
+
+  @Test
+  public void of_duplicateSheetId() {
+    try {
+      SheetRegistry.of(Arrays.asList(sheet(3, "A", 1, 1), sheet(3, "B", 1, 1)));
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Sheet IDs must be unique.
+    }
+  }
+
+  @Test
+  public void of_manySheets() {
+    List<Sheet> sheets = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      sheets.add(sheet(i * 1024, "Sheet" + i, 10, 10));
+    }
+    SheetRegistry large = SheetRegistry.of(sheets);
+    for (int i = 0; i < 500; i++) {
+      assertEquals("Sheet" + i, large.getSheetName(i * 1024));
+      assertEquals(i * 1024, large.getSheetId("Sheet" + i));
+    }
+    assertFalse(large.containsSheetId(1));
+  }
+
+  @Test
+  public void toA1_gridRanges() {
+    assertEquals("'Brian''s Sheet'!A1:J10", registry.toA1(gridRange(123456, 0, 0, 10, 10)));
+    assertEquals("Sheet1!B3", registry.toA1(gridRange(null, 1, 2, 2, 3)));
+    assertEquals("Sheet1!C:D", registry.toA1(gridRange(0, 2, null, 4, null)));
+    assertEquals("Sheet1!1:5", registry.toA1(gridRange(0, null, null, null, 5)));
+    assertEquals("Sheet1", registry.toA1(gridRange(0, null, null, null, null)));
+    assertEquals("Sheet1!C5:D", registry.toA1(gridRange(0, 2, 4, 4, null)));
+  }
+
+  @Test
+  public void toA1_matchesRangeContext() {
+    GridRange gridRange = gridRange(123456, 3, 7, 12, 40);
+    assertEquals(Ranges.forGridRange(gridRange).withSheetName("Brian's Sheet").toRange(),
+        registry.toA1(gridRange));
+    assertEquals("'Brian''s Sheet'!E9:M41",
+        registry.forGridRange(gridRange).translate(1, 1).toRange());
+  }
+
+  @Test
+  public void toA1_emptyGridRange() {
+    try {
+      registry.toA1(gridRange(0, 2, 2, 2, 3));
+      fail();
+    } catch (IllegalArgumentException e) {
+      // End index must be greater than the start index.
+    }
+  }
+
+  @Test
+  public void fromGridRange_setsNameAndId() {
+    Range range = registry.fromGridRange(gridRange(123456, 0, 0, 2, 2));
+    assertEquals(Range.of("Brian's Sheet", 123456, 0, 0, 1, 1), range);
+  }
+
+  @Test
+  public void resolve() {
+    Range byName = Range.parse("Sheet1!A1:B2");
+    assertEquals(0, registry.resolve(byName).getSheetId());
+    Range byId = Range.of(null, 123456, 0, 0, 1, 1);
+    assertEquals("'Brian''s Sheet'!A1:B2", registry.resolve(byId).toA1());
+    try {
+      registry.resolve(byName.withSheetId(123456));
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Sheet name and sheet ID refer to different sheets.
+    }
+  }
+
+  @Test
+  public void toGridRange_setsSheetId() {
+    assertEquals(gridRange(123456, 0, 0, 10, 10),
+        registry.toGridRange("'Brian''s Sheet'!A1:J10"));
+  }
+}
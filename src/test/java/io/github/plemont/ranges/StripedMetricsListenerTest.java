@@ -0,0 +1,95 @@
+package io.github.plemont.ranges;
+
+import io.github.plemont.ranges.MetricsListener.Operation;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class StripedMetricsListenerTest {
+
+  @Test
+  public void onConversion_countsShapesAndLatency() {
+    StripedMetricsListener listener = new StripedMetricsListener();
+    listener.onConversion(Operation.FOR_RANGE, true, true, 100);
+    listener.onConversion(Operation.FOR_RANGE, false, true, 130);
+    listener.onConversion(Operation.FOR_RANGE, false, false, 0);
+    listener.onConversion(Operation.TO_GRID_RANGE, false, true, 5);
+    assertEquals(3, listener.getConversionCount(Operation.FOR_RANGE));
+    assertEquals(1, listener.getQuotedCount(Operation.FOR_RANGE));
+    assertEquals(2, listener.getBoundedCount(Operation.FOR_RANGE));
+    assertEquals(230, listener.getTotalNanos(Operation.FOR_RANGE));
+    assertEquals(0, listener.getConversionCount(Operation.TO_RANGE));
+    long[] histogram = listener.getLatencyHistogram(Operation.FOR_RANGE);
+    assertEquals(StripedMetricsListener.LATENCY_BUCKETS, histogram.length);
+    assertEquals(1, histogram[0]);
+    // 100 lies within [64, 128), and 130 within [128, 256).
+    assertEquals(1, histogram[6]);
+    assertEquals(1, histogram[7]);
+    assertEquals(1, listener.getLatencyHistogram(Operation.TO_GRID_RANGE)[2]);
+  }
+
+  @Test
+  public void bucket_powersOfTwo() {
+    assertEquals(0, StripedMetricsListener.bucket(-5));
+    assertEquals(0, StripedMetricsListener.bucket(1));
+    assertEquals(1, StripedMetricsListener.bucket(2));
+    assertEquals(1, StripedMetricsListener.bucket(3));
+    assertEquals(10, StripedMetricsListener.bucket(1024));
+    assertEquals(62, StripedMetricsListener.bucket(Long.MAX_VALUE));
+  }
+
+  @Test
+  public void onError_countsPerOperationAndCode() {
+    StripedMetricsListener listener = new StripedMetricsListener();
+    listener.onError(Operation.FOR_RANGE, ParseResult.ZERO_COORDINATE);
+    listener.onError(Operation.FOR_RANGE, ParseResult.ZERO_COORDINATE);
+    listener.onError(Operation.TO_RANGE, ParseResult.INEXPRESSIBLE);
+    listener.onError(Operation.TO_RANGE, 1000);
+    assertEquals(2, listener.getErrorCount(Operation.FOR_RANGE, ParseResult.ZERO_COORDINATE));
+    assertEquals(0, listener.getErrorCount(Operation.TO_RANGE, ParseResult.ZERO_COORDINATE));
+    assertEquals(1, listener.getErrorCount(Operation.TO_RANGE, ParseResult.INEXPRESSIBLE));
+  }
+
+  @Test
+  public void getErrorCount_undefinedCode() {
+    try {
+      new StripedMetricsListener().getErrorCount(Operation.FOR_RANGE, -1);
+      fail();
+    } catch (IndexOutOfBoundsException e) {
+      // Expected as there is no such error code.
+    }
+  }
+
+  @Test
+  public void concurrentUpdates_exactOnceStopped() throws InterruptedException {
+    StripedMetricsListener listener = new StripedMetricsListener();
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      threads.add(new Thread(() -> {
+        for (int i = 0; i < 10000; i++) {
+          listener.onConversion(Operation.TO_RANGE, false, true, 50);
+          listener.onCacheHit();
+          if (i % 10 == 0) {
+            listener.onCacheMiss();
+          }
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(40000, listener.getConversionCount(Operation.TO_RANGE));
+    assertEquals(40000, listener.getLatencyHistogram(Operation.TO_RANGE)[5]);
+    assertEquals(40000, listener.getCacheHitCount());
+    assertEquals(4000, listener.getCacheMissCount());
+
+    listener.reset();
+    assertEquals(0, listener.getConversionCount(Operation.TO_RANGE));
+    assertEquals(0, listener.getCacheHitCount());
+  }
+}
@@ -0,0 +1,138 @@
+package io.github.plemont.ranges;
+
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class StructuralEditTest {
+
+  private static Range shift(StructuralEdit edit, String range) {
+    return edit.apply(Range.parse(range).withSheetId(0));
+  }
+
+  private static void assertShifted(String expected, StructuralEdit edit, String range) {
+    assertEquals(Range.parse(expected).withSheetId(0), shift(edit, range));
+  }
+
+  @Test
+  public void apply_insertRows() {
+    StructuralEdit edit = StructuralEdit.insertRows(0, 4, 6);
+    assertShifted("Test!A1:B4", edit, "Test!A1:B4");
+    assertShifted("Test!A1:B12", edit, "Test!A1:B10");
+    assertShifted("Test!A7:B12", edit, "Test!A5:B10");
+    assertShifted("Test!A7:B", edit, "Test!A5:B");
+    assertShifted("Test!A:B", edit, "Test!A:B");
+  }
+
+  @Test
+  public void apply_deleteRows() {
+    StructuralEdit edit = StructuralEdit.deleteRows(0, 4, 6);
+    assertShifted("Test!A1:B4", edit, "Test!A1:B4");
+    assertShifted("Test!A1:B4", edit, "Test!A1:B5");
+    assertShifted("Test!A1:B8", edit, "Test!A1:B10");
+    assertShifted("Test!A5:B8", edit, "Test!A6:B10");
+    assertShifted("Test!A5:B8", edit, "Test!A7:B10");
+    assertShifted("Test!A5:B", edit, "Test!A6:B");
+    assertShifted("Test!A1:B", edit, "Test!A1:B");
+    assertShifted("Test!1:4", edit, "Test!1:6");
+    assertNull(shift(edit, "Test!A5:B6"));
+    assertNull(shift(edit, "Test!C6"));
+  }
+
+  @Test
+  public void apply_columns() {
+    assertShifted("Test!A1:F3", StructuralEdit.insertColumns(0, 1, 3), "Test!A1:D3");
+    assertShifted("Test!A1:B3", StructuralEdit.deleteColumns(0, 1, 3), "Test!A1:D3");
+    assertShifted("Test!2:3", StructuralEdit.deleteColumns(0, 1, 3), "Test!2:3");
+    assertNull(shift(StructuralEdit.deleteColumns(0, 1, 3), "Test!B:C"));
+  }
+
+  @Test
+  public void apply_otherSheetUnchanged() {
+    Range range = Range.parse("Test!A5:B10").withSheetId(1);
+    assertSame(range, StructuralEdit.deleteRows(0, 0, 8).apply(range));
+  }
+
+  @Test
+  public void apply_overflowInvalidates() {
+    StructuralEdit edit = StructuralEdit.insertRows(0, 0, 10);
+    assertNull(edit.apply(Range.of(null, 0, 0, Integer.MAX_VALUE - 5, 0, Integer.MAX_VALUE - 5)));
+  }
+
+  @Test
+  public void applyAll_matchesApply() {
+    Random random = new Random(17);
+    RangeArray ranges = RangeArray.create();
+    for (int i = 0; i < 20000; i++) {
+      int startColumn = random.nextInt(50);
+      int startRow = random.nextInt(50);
+      int endRow = random.nextInt(8) == 0 ? Range.UNBOUNDED : startRow + random.nextInt(20);
+      ranges.append(random.nextInt(3), startColumn, startRow, startColumn + random.nextInt(5),
+          endRow);
+    }
+    StructuralEdit[] edits = {StructuralEdit.insertRows(1, 10, 15),
+        StructuralEdit.deleteRows(1, 10, 25), StructuralEdit.deleteColumns(2, 3, 7)};
+    for (StructuralEdit edit : edits) {
+      Range[] before = new Range[ranges.size()];
+      for (int i = 0; i < ranges.size(); i++) {
+        before[i] = ranges.get(i);
+      }
+      RangeArray copy = RangeArray.create();
+      for (Range range : before) {
+        copy.append(range);
+      }
+      ShiftReport report = edit.applyAll(ranges);
+      ShiftReport parallelReport = edit.applyAllParallel(copy);
+
+      int shifted = 0;
+      int invalidated = 0;
+      for (int i = 0; i < before.length; i++) {
+        Range expected = edit.apply(before[i]);
+        assertEquals(expected == null, report.isInvalidated(i));
+        assertEquals(expected == null, parallelReport.isInvalidated(i));
+        if (expected == null) {
+          invalidated++;
+          assertEquals(before[i], ranges.get(i));
+        } else {
+          shifted += expected.equals(before[i]) ? 0 : 1;
+          assertEquals(expected, ranges.get(i));
+        }
+        assertEquals(ranges.get(i), copy.get(i));
+      }
+      assertEquals(shifted, report.getShiftedCount());
+      assertEquals(shifted, parallelReport.getShiftedCount());
+      assertEquals(invalidated, report.getInvalidatedCount());
+      assertArrayEquals(report.getInvalidatedIndexes(), parallelReport.getInvalidatedIndexes());
+    }
+  }
+
+  @Test
+  public void applyAll_reportsInvalidatedIndexes() {
+    RangeArray ranges = RangeArray.create();
+    ranges.append(Range.parse("Test!A1:A2").withSheetId(0));
+    ranges.append(Range.parse("Test!A3:A4").withSheetId(0));
+    ranges.append(Range.parse("Test!A3:A4").withSheetId(1));
+    ranges.append(Range.parse("Test!B4").withSheetId(0));
+    ShiftReport report = StructuralEdit.deleteRows(0, 2, 4).applyAll(ranges);
+    assertArrayEquals(new int[] {1, 3}, report.getInvalidatedIndexes());
+    assertEquals(0, report.getShiftedCount());
+    assertEquals(4, report.size());
+  }
+
+  @Test
+  public void insertRows_invalidIndexes() {
+    try {
+      StructuralEdit.insertRows(0, 5, 5);
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Expected, as no rows are inserted.
+    }
+    try {
+      StructuralEdit.deleteColumns(0, -1, 5);
+      fail();
+    } catch (IllegalArgumentException e) {
+      // Expected, as the start index is negative.
+    }
+  }
+}